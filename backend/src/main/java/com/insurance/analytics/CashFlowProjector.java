@@ -0,0 +1,182 @@
+package com.insurance.analytics;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Projects monthly premium inflows, maturity payouts and expected claim payouts for a snapshot of
+ * in-force policies. Dates are held as month indexes (year * 12 + month - 1) so a schedule is plain
+ * integer stepping. Each fork-join leaf accumulates into its own primitive array of
+ * months x {@link #WIDTH} slots and the arrays are summed on the way back up.
+ */
+public final class CashFlowProjector {
+
+    public static final int PREMIUM = 0;
+    public static final int MATURITY = 1;
+    public static final int CLAIMS = 2;
+    public static final int MATURING = 3;
+    public static final int WIDTH = 4;
+
+    private static final int LEAF_SIZE = 8_192;
+
+    private CashFlowProjector() {
+    }
+
+    public static int monthIndex(LocalDate date) {
+        return date.getYear() * 12 + date.getMonthValue() - 1;
+    }
+
+    /** In-force policies as parallel primitive arrays. */
+    public static final class Snapshot {
+
+        private int[] plan;
+        private int[] intervalMonths;
+        private int[] nextPaymentMonth;
+        private int[] endMonth;
+        private double[] installment;
+        private double[] investment;
+        private int size;
+
+        public Snapshot(int capacity) {
+            int initial = Math.max(capacity, 16);
+            plan = new int[initial];
+            intervalMonths = new int[initial];
+            nextPaymentMonth = new int[initial];
+            endMonth = new int[initial];
+            installment = new double[initial];
+            investment = new double[initial];
+        }
+
+        public void add(int planCode, int interval, LocalDate nextPayment, LocalDate end, double installmentAmount,
+                        double investmentAmount) {
+            if (size == plan.length) {
+                int grown = size * 2;
+                plan = Arrays.copyOf(plan, grown);
+                intervalMonths = Arrays.copyOf(intervalMonths, grown);
+                nextPaymentMonth = Arrays.copyOf(nextPaymentMonth, grown);
+                endMonth = Arrays.copyOf(endMonth, grown);
+                installment = Arrays.copyOf(installment, grown);
+                investment = Arrays.copyOf(investment, grown);
+            }
+            plan[size] = planCode;
+            intervalMonths[size] = interval;
+            nextPaymentMonth[size] = monthIndex(nextPayment);
+            endMonth[size] = monthIndex(end);
+            installment[size] = installmentAmount;
+            investment[size] = investmentAmount;
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    /**
+     * Returns months x WIDTH amounts starting at {@code firstMonth}. A policy stays in force with
+     * probability (1 - q)^m where q is the monthly equivalent of the annual claim rate; while in force
+     * it pays premiums and may claim {@code investment * claimPayoutFactor}.
+     */
+    public static double[] project(ForkJoinPool pool, Snapshot snapshot, double[] profitRatioByPlan,
+                                   double claimPayoutFactor, double annualClaimRate, int firstMonth, int months) {
+        double monthlyClaimRate = 1 - Math.pow(1 - annualClaimRate, 1.0 / 12);
+        double[] survival = new double[months + 1];
+        survival[0] = 1;
+        for (int m = 1; m <= months; m++) {
+            survival[m] = survival[m - 1] * (1 - monthlyClaimRate);
+        }
+        Parameters parameters = new Parameters(snapshot, profitRatioByPlan, survival, firstMonth, months);
+        double[] totals = pool.invoke(new ProjectTask(parameters, 0, snapshot.size));
+
+        // CLAIMS holds the change in insured investment per month; turn it into expected payouts
+        double inForce = 0;
+        for (int m = 0; m < months; m++) {
+            inForce += totals[m * WIDTH + CLAIMS];
+            totals[m * WIDTH + CLAIMS] = inForce * claimPayoutFactor * monthlyClaimRate * survival[m];
+        }
+        return totals;
+    }
+
+    private static final class Parameters {
+
+        private final Snapshot snapshot;
+        private final double[] profitRatioByPlan;
+        private final double[] survival;
+        private final int firstMonth;
+        private final int months;
+
+        private Parameters(Snapshot snapshot, double[] profitRatioByPlan, double[] survival, int firstMonth, int months) {
+            this.snapshot = snapshot;
+            this.profitRatioByPlan = profitRatioByPlan;
+            this.survival = survival;
+            this.firstMonth = firstMonth;
+            this.months = months;
+        }
+    }
+
+    private static final class ProjectTask extends RecursiveTask<double[]> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Parameters parameters;
+        private final int from;
+        private final int to;
+
+        private ProjectTask(Parameters parameters, int from, int to) {
+            this.parameters = parameters;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected double[] compute() {
+            if (to - from <= LEAF_SIZE) {
+                return accumulate();
+            }
+            int middle = (from + to) >>> 1;
+            ProjectTask left = new ProjectTask(parameters, from, middle);
+            left.fork();
+            double[] right = new ProjectTask(parameters, middle, to).compute();
+            double[] sum = left.join();
+            for (int i = 0; i < sum.length; i++) {
+                sum[i] += right[i];
+            }
+            return sum;
+        }
+
+        private double[] accumulate() {
+            Snapshot s = parameters.snapshot;
+            double[] survival = parameters.survival;
+            int months = parameters.months;
+            double[] totals = new double[months * WIDTH];
+            for (int i = from; i < to; i++) {
+                int end = s.endMonth[i] - parameters.firstMonth;
+                // overdue installments are not projected, the schedule resumes at the first future due date
+                int interval = s.intervalMonths[i];
+                int m = s.nextPaymentMonth[i] - parameters.firstMonth;
+                if (m < 0) {
+                    m += ((-m + interval - 1) / interval) * interval;
+                }
+                for (; m < end && m < months; m += interval) {
+                    totals[m * WIDTH + PREMIUM] += s.installment[i] * survival[m];
+                }
+                // past its end date but still active: the payout is owed now
+                int maturity = Math.max(end, 0);
+                if (maturity < months) {
+                    totals[maturity * WIDTH + MATURITY] += s.investment[i] * parameters.profitRatioByPlan[s.plan[i]]
+                            * survival[maturity];
+                    totals[maturity * WIDTH + MATURING] += survival[maturity];
+                }
+                if (end > 0) {
+                    totals[CLAIMS] += s.investment[i];
+                    if (end < months) {
+                        totals[end * WIDTH + CLAIMS] -= s.investment[i];
+                    }
+                }
+            }
+            return totals;
+        }
+    }
+}
@@ -0,0 +1,723 @@
+package com.insurance.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import com.insurance.exceptions.ApiException;
+import com.insurance.exceptions.ServiceUnavailableException;
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+
+/**
+ * Column-oriented, in-memory copy of policies and transactions for ad-hoc admin aggregates.
+ * Strings are dictionary encoded, dates are epoch days and amounts are primitive doubles, so a
+ * scan touches a few flat arrays instead of entity graphs. Scans are split into chunks that run on
+ * a dedicated fork-join pool; each chunk aggregates privately and the partials are merged.
+ *
+ * Loads take the write lock one batch at a time, an incremental delta takes it once for the whole
+ * delta, and queries hold the read lock for their whole scan.
+ */
+public class ColumnarEngine implements AutoCloseable {
+
+    public static final String POLICIES = "policies";
+
+    public static final String TRANSACTIONS = "transactions";
+
+    // group keys up to this many slots aggregate into flat arrays, beyond it into a hash map
+    private static final int DENSE_GROUP_LIMIT = 16_384;
+
+    private static final int MIN_CHUNK_ROWS = 4_096;
+
+    private static final int DEFAULT_LIMIT = 1_000;
+
+    private static final int MAX_LIMIT = 10_000;
+
+    private final PolicyColumns policies = new PolicyColumns();
+
+    private final TransactionColumns transactions = new TransactionColumns();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ForkJoinPool pool;
+
+    private final int parallelism;
+
+    public ColumnarEngine(int parallelism) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.parallelism);
+    }
+
+    /** Inserts or overwrites policies, rows in the order of {@code PolicyRepository.ANALYTICS_COLUMNS}. */
+    public void upsertPolicies(List<Object[]> rows) {
+        lock.writeLock().lock();
+        try {
+            upsert(rows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends transactions given as (transactionId, policyId, amount, date, status). Rows whose
+     * policy is not loaded yet are skipped and returned so the caller can load the policy first.
+     */
+    public List<Object[]> appendTransactions(List<Object[]> rows) {
+        lock.writeLock().lock();
+        try {
+            return append(rows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Upserts policies and then appends transactions under a single write lock, so no query sees
+     * the policy changes of a delta without its transactions or the other way round. Returns the
+     * transactions whose policy is not loaded, as {@link #appendTransactions} does.
+     */
+    public List<Object[]> applyDelta(List<Object[]> policyRows, List<Object[]> transactionRows) {
+        lock.writeLock().lock();
+        try {
+            upsert(policyRows);
+            return append(transactionRows);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int policyCount() {
+        lock.readLock().lock();
+        try {
+            return policies.rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int transactionCount() {
+        lock.readLock().lock();
+        try {
+            return transactions.rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public AnalyticsQueryResponse query(AnalyticsQueryRequest request) {
+        long started = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            boolean onTransactions = TRANSACTIONS.equalsIgnoreCase(request.getTable());
+            if (!onTransactions && !POLICIES.equalsIgnoreCase(request.getTable())) {
+                throw new ApiException("Unknown table: " + request.getTable() + " (expected policies or transactions)");
+            }
+            int rowCount = onTransactions ? transactions.rowCount : policies.rowCount;
+
+            List<RowFilter> filters = new ArrayList<>();
+            for (AnalyticsQueryRequest.Filter filter : request.getFilters()) {
+                filters.add(compileFilter(filter, onTransactions));
+            }
+            List<String> groupBy = request.getGroupBy() == null ? List.of() : request.getGroupBy();
+            Dimension[] dimensions = new Dimension[groupBy.size()];
+            long[] strides = new long[dimensions.length];
+            long groups = 1;
+            for (int i = dimensions.length - 1; i >= 0; i--) {
+                dimensions[i] = dimension(groupBy.get(i), onTransactions);
+                strides[i] = groups;
+                try {
+                    groups = Math.multiplyExact(groups, Math.max(1, dimensions[i].cardinality));
+                } catch (ArithmeticException e) {
+                    throw new ApiException("Too many distinct group-by combinations");
+                }
+            }
+            Aggregate[] aggregates = new Aggregate[request.getAggregates().size()];
+            for (int i = 0; i < aggregates.length; i++) {
+                aggregates[i] = aggregate(request.getAggregates().get(i), onTransactions);
+            }
+
+            Scan scan = new Scan(filters.toArray(new RowFilter[0]), dimensions, strides, aggregates,
+                    groups <= DENSE_GROUP_LIMIT ? (int) groups : -1);
+            Partial result = execute(scan, rowCount);
+
+            int limit = request.getLimit() == null ? DEFAULT_LIMIT : Math.min(Math.max(request.getLimit(), 1), MAX_LIMIT);
+            AnalyticsQueryResponse response = new AnalyticsQueryResponse();
+            response.setColumns(columnNames(groupBy, request.getAggregates()));
+            response.setRows(toRows(result, scan, response.getColumns(), limit));
+            response.setScannedRows(rowCount);
+            response.setMatchedRows(result.matched);
+            response.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    // callers hold the write lock
+    private void upsert(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            policies.upsert(row);
+        }
+    }
+
+    // callers hold the write lock
+    private List<Object[]> append(List<Object[]> rows) {
+        List<Object[]> orphans = new ArrayList<>();
+        for (Object[] row : rows) {
+            int policyRow = policies.rowOf((String) row[1]);
+            if (policyRow < 0) {
+                orphans.add(row);
+                continue;
+            }
+            transactions.append(policyRow, (Double) row[2], (LocalDateTime) row[3], (String) row[4]);
+        }
+        return orphans;
+    }
+
+    private Partial execute(Scan scan, int rowCount) {
+        int chunks = Math.max(1, Math.min(parallelism * 4, rowCount / MIN_CHUNK_ROWS));
+        if (chunks == 1) {
+            return scan.run(0, rowCount);
+        }
+        int chunkSize = (rowCount + chunks - 1) / chunks;
+        List<Callable<Partial>> tasks = new ArrayList<>(chunks);
+        for (int from = 0; from < rowCount; from += chunkSize) {
+            int start = from;
+            int end = Math.min(rowCount, from + chunkSize);
+            tasks.add(() -> scan.run(start, end));
+        }
+        Partial merged = null;
+        try {
+            for (Future<Partial> future : pool.invokeAll(tasks)) {
+                Partial partial = future.get();
+                merged = merged == null ? partial : merged.merge(partial, scan.aggregates);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Analytics query was interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return merged;
+    }
+
+    private List<String> columnNames(List<String> groupBy, List<AnalyticsQueryRequest.Aggregate> aggregates) {
+        List<String> columns = new ArrayList<>(groupBy);
+        for (AnalyticsQueryRequest.Aggregate aggregate : aggregates) {
+            String fn = aggregate.getFn().toLowerCase();
+            columns.add(aggregate.getColumn() == null ? fn : fn + "(" + aggregate.getColumn() + ")");
+        }
+        return columns;
+    }
+
+    private List<Map<String, Object>> toRows(Partial result, Scan scan, List<String> columns, int limit) {
+        List<Long> keys = new ArrayList<>();
+        List<double[]> states = new ArrayList<>();
+        result.forEachGroup((key, state) -> {
+            keys.add(key);
+            states.add(state);
+        });
+        if (keys.isEmpty() && scan.dimensions.length == 0) {
+            keys.add(0L);
+            states.add(new double[scan.aggregates.length + 1]);
+        }
+        List<Map<String, Object>> rows = new ArrayList<>(keys.size());
+        double[] sortValues = new double[keys.size()];
+        for (int g = 0; g < keys.size(); g++) {
+            double[] state = states.get(g);
+            Map<String, Object> row = new LinkedHashMap<>();
+            int column = 0;
+            long remainder = keys.get(g);
+            for (int i = 0; i < scan.dimensions.length; i++) {
+                row.put(columns.get(column++), scan.dimensions[i].decode((int) (remainder / scan.strides[i])));
+                remainder %= scan.strides[i];
+            }
+            for (int a = 0; a < scan.aggregates.length; a++) {
+                Double value = scan.aggregates[a].finish(state[0], state[a + 1]);
+                if (a == 0) {
+                    sortValues[g] = value == null ? Double.NEGATIVE_INFINITY : value;
+                }
+                row.put(columns.get(column++), value != null && scan.aggregates[a].function == Function.COUNT
+                        ? (Object) value.longValue() : value);
+            }
+            rows.add(row);
+        }
+        Integer[] order = new Integer[rows.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (left, right) -> Double.compare(sortValues[right], sortValues[left]));
+        List<Map<String, Object>> sorted = new ArrayList<>(Math.min(limit, order.length));
+        for (int i = 0; i < order.length && i < limit; i++) {
+            sorted.add(rows.get(order[i]));
+        }
+        return sorted;
+    }
+
+    // ---- query compilation ----
+
+    private RowFilter compileFilter(AnalyticsQueryRequest.Filter filter, boolean onTransactions) {
+        String op = filter.getOp().toLowerCase();
+        List<String> values = filter.getValues() == null ? List.of() : filter.getValues();
+        MeasureReader measure = measure(filter.getColumn(), onTransactions, false);
+        if (measure != null) {
+            double[] bounds = measureBounds(op, values, filter.getColumn());
+            boolean negate = op.equals("ne");
+            return row -> {
+                double value = measure.get(row);
+                return (value >= bounds[0] && value <= bounds[1]) != negate;
+            };
+        }
+        Dimension dimension = dimension(filter.getColumn(), onTransactions);
+        boolean[] allowed = new boolean[Math.max(1, dimension.cardinality)];
+        switch (op) {
+            case "eq":
+            case "in":
+                requireValues(filter, values, op.equals("eq") ? 1 : -1);
+                for (String value : values) {
+                    int code = dimension.encode(value);
+                    if (code >= 0 && code < allowed.length) {
+                        allowed[code] = true;
+                    }
+                }
+                break;
+            case "ne":
+                requireValues(filter, values, 1);
+                Arrays.fill(allowed, true);
+                int excluded = dimension.encode(values.get(0));
+                if (excluded >= 0 && excluded < allowed.length) {
+                    allowed[excluded] = false;
+                }
+                break;
+            case "gte":
+            case "lte":
+            case "between":
+                if (!dimension.ordered) {
+                    throw new ApiException("Operator " + op + " is only supported on date and numeric columns");
+                }
+                requireValues(filter, values, op.equals("between") ? 2 : 1);
+                int low = op.equals("lte") ? 0 : dimension.encode(values.get(0));
+                int high = op.equals("gte") ? allowed.length - 1 : dimension.encode(values.get(values.size() - 1));
+                for (int code = Math.max(0, low); code <= Math.min(high, allowed.length - 1); code++) {
+                    allowed[code] = true;
+                }
+                break;
+            default:
+                throw new ApiException("Unknown filter operator: " + filter.getOp());
+        }
+        CodeReader reader = dimension.reader;
+        return row -> allowed[reader.get(row)];
+    }
+
+    private double[] measureBounds(String op, List<String> values, String column) {
+        try {
+            switch (op) {
+                case "eq":
+                case "ne":
+                    double value = Double.parseDouble(values.get(0));
+                    return new double[] { value, value };
+                case "gte":
+                    return new double[] { Double.parseDouble(values.get(0)), Double.POSITIVE_INFINITY };
+                case "lte":
+                    return new double[] { Double.NEGATIVE_INFINITY, Double.parseDouble(values.get(0)) };
+                case "between":
+                    return new double[] { Double.parseDouble(values.get(0)), Double.parseDouble(values.get(1)) };
+                default:
+                    throw new ApiException("Operator " + op + " is not supported on numeric column " + column);
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new ApiException("Invalid values for filter on " + column);
+        }
+    }
+
+    private void requireValues(AnalyticsQueryRequest.Filter filter, List<String> values, int expected) {
+        if (values.isEmpty() || (expected > 0 && values.size() != expected)) {
+            throw new ApiException("Filter " + filter.getOp() + " on " + filter.getColumn() + " expects "
+                    + (expected > 0 ? expected : "at least one") + " value(s)");
+        }
+    }
+
+    private Dimension dimension(String name, boolean onTransactions) {
+        if (name == null) {
+            throw new ApiException("Column name is mandatory");
+        }
+        int dot = name.indexOf('.');
+        String base = dot < 0 ? name : name.substring(0, dot);
+        String unit = dot < 0 ? "day" : name.substring(dot + 1);
+        if (base.equals("startDate") || (onTransactions && base.equals("date"))) {
+            DateColumn column = base.equals("date") ? transactions.date : policies.startDate;
+            int[] days = column.array();
+            int[] policyRows = transactions.policyRow.array();
+            CodeReader rawDay = onTransactions && base.equals("startDate")
+                    ? row -> days[policyRows[row]] : row -> days[row];
+            return dateDimension(rawDay, column, DateUnit.of(unit, name));
+        }
+        if (dot >= 0) {
+            throw new ApiException("Unknown column: " + name);
+        }
+        if (onTransactions && name.equals("transactionStatus")) {
+            int[] codes = transactions.status.array();
+            return Dimension.dictionary(row -> codes[row], transactions.statusDictionary);
+        }
+        Dictionary dictionary = policies.dictionaries.get(name);
+        if (dictionary == null) {
+            throw new ApiException("Unknown column: " + name);
+        }
+        int[] codes = policies.codes.get(name).array();
+        if (onTransactions) {
+            int[] policyRows = transactions.policyRow.array();
+            return Dimension.dictionary(row -> codes[policyRows[row]], dictionary);
+        }
+        return Dimension.dictionary(row -> codes[row], dictionary);
+    }
+
+    private Dimension dateDimension(CodeReader rawDay, DateColumn column, DateUnit unit) {
+        int minDay = column.minDay();
+        int maxDay = Math.max(minDay, column.maxDay());
+        if (minDay == Integer.MAX_VALUE) {
+            minDay = 0;
+            maxDay = 0;
+        }
+        int minKey = unit.key(LocalDate.ofEpochDay(minDay));
+        int maxKey = unit.key(LocalDate.ofEpochDay(maxDay));
+        // one lookup per day in range instead of a calendar computation per row
+        int[] bucket = new int[maxDay - minDay + 1];
+        for (int day = minDay; day <= maxDay; day++) {
+            bucket[day - minDay] = unit.key(LocalDate.ofEpochDay(day)) - minKey;
+        }
+        int offset = minDay;
+        return new Dimension(row -> bucket[rawDay.get(row) - offset], maxKey - minKey + 1, true,
+                code -> unit.label(code + minKey), value -> unit.parse(value) - minKey);
+    }
+
+    private MeasureReader measure(String name, boolean onTransactions, boolean required) {
+        if (onTransactions) {
+            if ("amount".equals(name)) {
+                double[] amounts = transactions.amount.array();
+                return row -> amounts[row];
+            }
+        } else {
+            DoubleColumn column = name == null ? null : policies.measures.get(name);
+            if (column != null) {
+                double[] values = column.array();
+                return row -> values[row];
+            }
+        }
+        if (required) {
+            throw new ApiException("Unknown numeric column: " + name);
+        }
+        return null;
+    }
+
+    private Aggregate aggregate(AnalyticsQueryRequest.Aggregate aggregate, boolean onTransactions) {
+        Function function;
+        try {
+            function = Function.valueOf(aggregate.getFn().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Unknown aggregate function: " + aggregate.getFn());
+        }
+        if (function == Function.COUNT) {
+            return new Aggregate(function, null);
+        }
+        return new Aggregate(function, measure(aggregate.getColumn(), onTransactions, true));
+    }
+
+    // ---- execution ----
+
+    @FunctionalInterface
+    interface CodeReader {
+        int get(int row);
+    }
+
+    @FunctionalInterface
+    interface MeasureReader {
+        double get(int row);
+    }
+
+    @FunctionalInterface
+    interface RowFilter {
+        boolean test(int row);
+    }
+
+    enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    static final class Aggregate {
+
+        final Function function;
+
+        final MeasureReader reader;
+
+        Aggregate(Function function, MeasureReader reader) {
+            this.function = function;
+            this.reader = reader;
+        }
+
+        double initial() {
+            return function == Function.MIN ? Double.POSITIVE_INFINITY
+                    : function == Function.MAX ? Double.NEGATIVE_INFINITY : 0;
+        }
+
+        double accumulate(double current, int row) {
+            switch (function) {
+                case SUM:
+                case AVG:
+                    return current + reader.get(row);
+                case MIN:
+                    return Math.min(current, reader.get(row));
+                case MAX:
+                    return Math.max(current, reader.get(row));
+                default:
+                    return current;
+            }
+        }
+
+        double combine(double left, double right) {
+            return function == Function.MIN ? Math.min(left, right)
+                    : function == Function.MAX ? Math.max(left, right) : left + right;
+        }
+
+        Double finish(double count, double value) {
+            switch (function) {
+                case COUNT:
+                    return count;
+                case SUM:
+                    return value;
+                case AVG:
+                    return count == 0 ? null : value / count;
+                default:
+                    return count == 0 ? null : value;
+            }
+        }
+    }
+
+    static final class Dimension {
+
+        final CodeReader reader;
+
+        final int cardinality;
+
+        // codes follow value order, so range filters are code ranges
+        final boolean ordered;
+
+        private final IntFunction<String> decoder;
+
+        private final ToIntFunction<String> encoder;
+
+        Dimension(CodeReader reader, int cardinality, boolean ordered,
+                  IntFunction<String> decoder, ToIntFunction<String> encoder) {
+            this.reader = reader;
+            this.cardinality = cardinality;
+            this.ordered = ordered;
+            this.decoder = decoder;
+            this.encoder = encoder;
+        }
+
+        static Dimension dictionary(CodeReader reader, Dictionary dictionary) {
+            return new Dimension(reader, dictionary.size(), false, dictionary::decode, dictionary::lookup);
+        }
+
+        String decode(int code) {
+            return decoder.apply(code);
+        }
+
+        int encode(String value) {
+            return encoder.applyAsInt(value);
+        }
+    }
+
+    enum DateUnit {
+        DAY, MONTH, YEAR;
+
+        static DateUnit of(String unit, String column) {
+            try {
+                return valueOf(unit.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ApiException("Unknown date unit in column: " + column + " (expected day, month or year)");
+            }
+        }
+
+        int key(LocalDate date) {
+            switch (this) {
+                case MONTH:
+                    return date.getYear() * 12 + date.getMonthValue() - 1;
+                case YEAR:
+                    return date.getYear();
+                default:
+                    return (int) date.toEpochDay();
+            }
+        }
+
+        String label(int key) {
+            switch (this) {
+                case MONTH:
+                    return YearMonth.of(key / 12, key % 12 + 1).toString();
+                case YEAR:
+                    return Integer.toString(key);
+                default:
+                    return LocalDate.ofEpochDay(key).toString();
+            }
+        }
+
+        int parse(String value) {
+            try {
+                switch (this) {
+                    case MONTH:
+                        YearMonth month = YearMonth.parse(value);
+                        return month.getYear() * 12 + month.getMonthValue() - 1;
+                    case YEAR:
+                        return Integer.parseInt(value);
+                    default:
+                        return (int) LocalDate.parse(value).toEpochDay();
+                }
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new ApiException("Invalid " + name().toLowerCase() + " value: " + value);
+            }
+        }
+    }
+
+    static final class Scan {
+
+        final RowFilter[] filters;
+
+        final Dimension[] dimensions;
+
+        final long[] strides;
+
+        final Aggregate[] aggregates;
+
+        // number of dense slots, or -1 to aggregate into a map
+        final int denseGroups;
+
+        Scan(RowFilter[] filters, Dimension[] dimensions, long[] strides, Aggregate[] aggregates, int denseGroups) {
+            this.filters = filters;
+            this.dimensions = dimensions;
+            this.strides = strides;
+            this.aggregates = aggregates;
+            this.denseGroups = denseGroups;
+        }
+
+        Partial run(int from, int to) {
+            Partial partial = new Partial(denseGroups, aggregates);
+            rows:
+            for (int row = from; row < to; row++) {
+                for (RowFilter filter : filters) {
+                    if (!filter.test(row)) {
+                        continue rows;
+                    }
+                }
+                long key = 0;
+                for (int i = 0; i < dimensions.length; i++) {
+                    key += dimensions[i].reader.get(row) * strides[i];
+                }
+                partial.add(key, row, aggregates);
+            }
+            return partial;
+        }
+    }
+
+    /** Per-group state laid out as [count, aggregate 0, aggregate 1, ...]. */
+    static final class Partial {
+
+        private final int width;
+
+        private final double[] dense;
+
+        private final Map<Long, double[]> sparse;
+
+        private final double[] initial;
+
+        long matched;
+
+        Partial(int denseGroups, Aggregate[] aggregates) {
+            this.width = aggregates.length + 1;
+            this.initial = new double[width];
+            for (int a = 0; a < aggregates.length; a++) {
+                initial[a + 1] = aggregates[a].initial();
+            }
+            if (denseGroups >= 0) {
+                dense = new double[denseGroups * width];
+                for (int group = 0; group < denseGroups; group++) {
+                    System.arraycopy(initial, 0, dense, group * width, width);
+                }
+                sparse = null;
+            } else {
+                dense = null;
+                sparse = new HashMap<>();
+            }
+        }
+
+        void add(long key, int row, Aggregate[] aggregates) {
+            matched++;
+            double[] state;
+            int base;
+            if (dense != null) {
+                state = dense;
+                base = (int) key * width;
+            } else {
+                state = sparse.computeIfAbsent(key, k -> initial.clone());
+                base = 0;
+            }
+            state[base]++;
+            for (int a = 0; a < aggregates.length; a++) {
+                state[base + a + 1] = aggregates[a].accumulate(state[base + a + 1], row);
+            }
+        }
+
+        Partial merge(Partial other, Aggregate[] aggregates) {
+            matched += other.matched;
+            other.forEachGroup((key, state) -> {
+                double[] target;
+                int base;
+                if (dense != null) {
+                    target = dense;
+                    base = key.intValue() * width;
+                } else {
+                    target = sparse.computeIfAbsent(key, k -> initial.clone());
+                    base = 0;
+                }
+                target[base] += state[0];
+                for (int a = 0; a < aggregates.length; a++) {
+                    target[base + a + 1] = aggregates[a].combine(target[base + a + 1], state[a + 1]);
+                }
+            });
+            return this;
+        }
+
+        void forEachGroup(BiConsumer<Long, double[]> consumer) {
+            if (dense != null) {
+                for (int base = 0; base < dense.length; base += width) {
+                    if (dense[base] > 0) {
+                        consumer.accept((long) (base / width), Arrays.copyOfRange(dense, base, base + width));
+                    }
+                }
+            } else {
+                sparse.forEach(consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.insurance.analytics;
+
+import java.time.LocalDate;
+
+/** Dates stored as epoch days, with the range tracked so date dimensions have a known cardinality. */
+final class DateColumn {
+
+    private final IntColumn days = new IntColumn();
+
+    private int minDay = Integer.MAX_VALUE;
+
+    private int maxDay = Integer.MIN_VALUE;
+
+    void set(int row, LocalDate date) {
+        int day = (int) date.toEpochDay();
+        days.set(row, day);
+        minDay = Math.min(minDay, day);
+        maxDay = Math.max(maxDay, day);
+    }
+
+    int[] array() {
+        return days.array();
+    }
+
+    int minDay() {
+        return minDay;
+    }
+
+    int maxDay() {
+        return maxDay;
+    }
+}
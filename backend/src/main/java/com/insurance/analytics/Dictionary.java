@@ -0,0 +1,47 @@
+package com.insurance.analytics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the distinct values of a column to dense int codes so rows store 4 bytes instead of a
+ * string reference. Missing values are stored as the empty string. Not thread-safe; guarded by
+ * the engine's lock.
+ */
+final class Dictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+
+    private String[] values = new String[16];
+
+    private int size;
+
+    int encode(String value) {
+        String key = value == null ? "" : value;
+        Integer code = codes.get(key);
+        if (code != null) {
+            return code;
+        }
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = key;
+        codes.put(key, size);
+        return size++;
+    }
+
+    /** Code of the value, or -1 when no row has ever held it. */
+    int lookup(String value) {
+        Integer code = codes.get(value == null ? "" : value);
+        return code == null ? -1 : code;
+    }
+
+    String decode(int code) {
+        return values[code];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,19 @@
+package com.insurance.analytics;
+
+import java.util.Arrays;
+
+final class DoubleColumn {
+
+    private double[] data = new double[1024];
+
+    void set(int row, double value) {
+        if (row >= data.length) {
+            data = Arrays.copyOf(data, Math.max(row + 1, data.length * 2));
+        }
+        data[row] = value;
+    }
+
+    double[] array() {
+        return data;
+    }
+}
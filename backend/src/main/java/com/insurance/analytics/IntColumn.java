@@ -0,0 +1,19 @@
+package com.insurance.analytics;
+
+import java.util.Arrays;
+
+final class IntColumn {
+
+    private int[] data = new int[1024];
+
+    void set(int row, int value) {
+        if (row >= data.length) {
+            data = Arrays.copyOf(data, Math.max(row + 1, data.length * 2));
+        }
+        data[row] = value;
+    }
+
+    int[] array() {
+        return data;
+    }
+}
@@ -0,0 +1,179 @@
+package com.insurance.analytics;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts 13th and 25th month persistency for one page of policies held in primitive arrays.
+ * Payments are stored per policy in compressed-row form (offsets into one array of epoch days),
+ * and the page is split recursively on a fork-join pool; each leaf counts into its own small map
+ * keyed by (cohort month, agent, plan), so memory per worker depends on the number of cohorts,
+ * not on the number of policies.
+ */
+public final class PersistencyCounter {
+
+    public static final int POLICIES = 0;
+    public static final int ELIGIBLE_13 = 1;
+    public static final int PERSISTING_13 = 2;
+    public static final int ELIGIBLE_25 = 3;
+    public static final int PERSISTING_25 = 4;
+    public static final int WIDTH = 5;
+
+    private static final int LEAF_SIZE = 2_048;
+
+    private PersistencyCounter() {
+    }
+
+    /** Packs a cohort key; agent and plan codes must stay below 2^20. */
+    public static long key(int cohortMonth, int agent, int plan) {
+        return ((long) cohortMonth << 40) | ((long) agent << 20) | plan;
+    }
+
+    public static int cohortMonth(long key) {
+        return (int) (key >>> 40);
+    }
+
+    public static int agent(long key) {
+        return (int) ((key >>> 20) & 0xFFFFF);
+    }
+
+    public static int plan(long key) {
+        return (int) (key & 0xFFFFF);
+    }
+
+    public static void merge(Map<Long, long[]> into, Map<Long, long[]> from) {
+        from.forEach((key, counts) -> {
+            long[] target = into.get(key);
+            if (target == null) {
+                into.put(key, counts);
+            } else {
+                for (int i = 0; i < WIDTH; i++) {
+                    target[i] += counts[i];
+                }
+            }
+        });
+    }
+
+    public static final class Page {
+
+        private final int[] cohortMonth;
+        private final int[] agent;
+        private final int[] plan;
+        private final int[] startDay;
+        private final int[] intervalMonths;
+        private int size;
+
+        private int[] paymentOffsets;
+        private int[] paymentDays;
+
+        public Page(int capacity) {
+            cohortMonth = new int[capacity];
+            agent = new int[capacity];
+            plan = new int[capacity];
+            startDay = new int[capacity];
+            intervalMonths = new int[capacity];
+        }
+
+        public int addPolicy(int agentCode, int planCode, LocalDate start, int months) {
+            int index = size++;
+            cohortMonth[index] = start.getYear() * 12 + start.getMonthValue() - 1;
+            agent[index] = agentCode;
+            plan[index] = planCode;
+            startDay[index] = (int) start.toEpochDay();
+            intervalMonths[index] = months;
+            return index;
+        }
+
+        /** Groups the payments by policy index with a counting sort, whatever order they came in. */
+        public void setPayments(int[] policyIndex, int[] day, int count) {
+            paymentOffsets = new int[size + 1];
+            for (int i = 0; i < count; i++) {
+                paymentOffsets[policyIndex[i] + 1]++;
+            }
+            for (int i = 0; i < size; i++) {
+                paymentOffsets[i + 1] += paymentOffsets[i];
+            }
+            int[] next = new int[size];
+            System.arraycopy(paymentOffsets, 0, next, 0, size);
+            paymentDays = new int[count];
+            for (int i = 0; i < count; i++) {
+                paymentDays[next[policyIndex[i]]++] = day[i];
+            }
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    public static final class CountTask extends RecursiveTask<Map<Long, long[]>> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Page page;
+        private final int from;
+        private final int to;
+        private final int asOfDay;
+        private final int graceDays;
+
+        public CountTask(Page page, LocalDate asOf, int graceDays) {
+            this(page, 0, page.size, (int) asOf.toEpochDay(), graceDays);
+        }
+
+        private CountTask(Page page, int from, int to, int asOfDay, int graceDays) {
+            this.page = page;
+            this.from = from;
+            this.to = to;
+            this.asOfDay = asOfDay;
+            this.graceDays = graceDays;
+        }
+
+        @Override
+        protected Map<Long, long[]> compute() {
+            if (to - from <= LEAF_SIZE) {
+                return count();
+            }
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(page, from, middle, asOfDay, graceDays);
+            left.fork();
+            Map<Long, long[]> right = new CountTask(page, middle, to, asOfDay, graceDays).compute();
+            Map<Long, long[]> merged = left.join();
+            merge(merged, right);
+            return merged;
+        }
+
+        private Map<Long, long[]> count() {
+            Map<Long, long[]> counts = new HashMap<>();
+            for (int i = from; i < to; i++) {
+                long[] cohort = counts.computeIfAbsent(key(page.cohortMonth[i], page.agent[i], page.plan[i]),
+                        k -> new long[WIDTH]);
+                cohort[POLICIES]++;
+                tally(i, 13, cohort, ELIGIBLE_13, PERSISTING_13);
+                tally(i, 25, cohort, ELIGIBLE_25, PERSISTING_25);
+            }
+            return counts;
+        }
+
+        // month N's premium falls due N-1 months after issue; it counts once the grace period has passed
+        private void tally(int policy, int month, long[] cohort, int eligibleSlot, int persistingSlot) {
+            LocalDate start = LocalDate.ofEpochDay(page.startDay[policy]);
+            int deadline = (int) start.plusMonths(month - 1L).toEpochDay() + graceDays;
+            if (deadline >= asOfDay) {
+                return;
+            }
+            cohort[eligibleSlot]++;
+            int required = (month - 1) / page.intervalMonths[policy] + 1;
+            int paid = 0;
+            for (int p = page.paymentOffsets[policy]; p < page.paymentOffsets[policy + 1]; p++) {
+                if (page.paymentDays[p] <= deadline) {
+                    paid++;
+                }
+            }
+            if (paid >= required) {
+                cohort[persistingSlot]++;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.insurance.analytics;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Policy snapshot, one row per policy. The policy dictionary hands out codes in insertion order,
+ * so a policy's code is also its row index and re-reading a policy overwrites its row in place.
+ */
+final class PolicyColumns {
+
+    static final String[] DIMENSIONS = { "policy", "agent", "customer", "plan", "scheme", "insuranceType",
+            "city", "state", "status", "paymentInterval" };
+
+    final Map<String, Dictionary> dictionaries = new LinkedHashMap<>();
+
+    final Map<String, IntColumn> codes = new LinkedHashMap<>();
+
+    final Map<String, DoubleColumn> measures = new LinkedHashMap<>();
+
+    final DateColumn startDate = new DateColumn();
+
+    int rowCount;
+
+    PolicyColumns() {
+        for (String dimension : DIMENSIONS) {
+            dictionaries.put(dimension, new Dictionary());
+            codes.put(dimension, new IntColumn());
+        }
+        measures.put("investmentAmount", new DoubleColumn());
+        measures.put("installmentAmount", new DoubleColumn());
+        measures.put("amountPaid", new DoubleColumn());
+    }
+
+    /** Takes a row in the order of {@code PolicyRepository.ANALYTICS_COLUMNS}. */
+    void upsert(Object[] values) {
+        int row = dictionaries.get("policy").encode((String) values[0]);
+        for (int i = 0; i < DIMENSIONS.length; i++) {
+            Object value = values[i];
+            codes.get(DIMENSIONS[i]).set(row, dictionaries.get(DIMENSIONS[i]).encode(value == null ? null : value.toString()));
+        }
+        startDate.set(row, (LocalDate) values[10]);
+        measures.get("investmentAmount").set(row, number(values[11]));
+        measures.get("installmentAmount").set(row, number(values[12]));
+        measures.get("amountPaid").set(row, number(values[13]));
+        rowCount = Math.max(rowCount, row + 1);
+    }
+
+    int rowOf(String policyId) {
+        return dictionaries.get("policy").lookup(policyId);
+    }
+
+    private static double number(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+}
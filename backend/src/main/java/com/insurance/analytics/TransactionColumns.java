@@ -0,0 +1,28 @@
+package com.insurance.analytics;
+
+import java.time.LocalDateTime;
+
+/** Append-only transaction snapshot. Policy attributes are reached through the policy row. */
+final class TransactionColumns {
+
+    final IntColumn policyRow = new IntColumn();
+
+    final DoubleColumn amount = new DoubleColumn();
+
+    final DateColumn date = new DateColumn();
+
+    final Dictionary statusDictionary = new Dictionary();
+
+    final IntColumn status = new IntColumn();
+
+    int rowCount;
+
+    void append(int policyRowIndex, Double value, LocalDateTime when, String statusValue) {
+        int row = rowCount;
+        policyRow.set(row, policyRowIndex);
+        amount.set(row, value == null ? 0 : value);
+        date.set(row, when.toLocalDate());
+        status.set(row, statusDictionary.encode(statusValue));
+        rowCount = row + 1;
+    }
+}
@@ -2,6 +2,9 @@ package com.insurance.config;
 
 import java.util.List;
 
+import jakarta.servlet.DispatcherType;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
@@ -10,7 +13,6 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -19,6 +21,7 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 
+import com.insurance.security.BoundedPasswordEncoder;
 import com.insurance.security.JwtAuthenticationEntryPoint;
 import com.insurance.security.JwtAuthenticationFilter;
 
@@ -36,8 +39,11 @@ public class SecurityConfiguration {
 	
 
 	@Bean
-	public static PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public static PasswordEncoder passwordEncoder(@Value("${app.bcrypt.strength:10}") int strength,
+			@Value("${app.bcrypt.pool-size:0}") int poolSize,
+			@Value("${app.bcrypt.queue-capacity:64}") int queueCapacity,
+			@Value("${app.bcrypt.timeout-ms:5000}") long timeoutMillis) {
+		return new BoundedPasswordEncoder(strength, poolSize, queueCapacity, timeoutMillis);
 	}
 
 	
@@ -53,6 +59,7 @@ public class SecurityConfiguration {
 	    .cors(cors -> cors.configurationSource(corsConfigurationSource())) 
 	        .csrf(csrf -> csrf.disable()) 
 	        .authorizeHttpRequests(auth -> auth
+	            .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
 	            .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/v3/api-docs.yaml", 
 	                             "/swagger-resources/**", "/swagger-ui.html", "/webjars/**").permitAll()  
 	            .requestMatchers("/SecureLife.com/customer/register").permitAll()
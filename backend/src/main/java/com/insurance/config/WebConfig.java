@@ -1,13 +1,26 @@
 package com.insurance.config;
 
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.insurance.security.ActorArgumentResolver;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+	@Autowired
+	private ActorArgumentResolver actorArgumentResolver;
+
 	@Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -17,4 +30,35 @@ public class WebConfig implements WebMvcConfigurer {
             .exposedHeaders(HttpHeaders.AUTHORIZATION)
             .allowCredentials(true);
     }
+
+	@Value("${app.report.stream-timeout-ms:1800000}")
+	private long streamTimeoutMillis;
+
+	@Value("${app.report.stream-threads:4}")
+	private int streamThreads;
+
+	@Value("${app.report.stream-queue-capacity:50}")
+	private int streamQueueCapacity;
+
+	// streamed report bodies run here; a small pool caps how many PDFs render at once
+	@Bean
+	public ThreadPoolTaskExecutor reportStreamExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(streamThreads);
+		executor.setMaxPoolSize(streamThreads);
+		executor.setQueueCapacity(streamQueueCapacity);
+		executor.setThreadNamePrefix("report-stream-");
+		return executor;
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setDefaultTimeout(streamTimeoutMillis);
+		configurer.setTaskExecutor(reportStreamExecutor());
+	}
+
+	@Override
+	public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+		resolvers.add(actorArgumentResolver);
+	}
 }
@@ -1,19 +1,30 @@
 package com.insurance.controller;
 
+import java.time.LocalDateTime;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import com.insurance.interfaces.IAdminService;
+import com.insurance.interfaces.IAgentLedgerService;
+import com.insurance.interfaces.IProjectionService;
 import com.insurance.request.AdminRegisterRequest;
 import com.insurance.request.InsuranceSettingRequest;
 import com.insurance.request.TaxSettingRequest;
 import com.insurance.response.AdminResponse;
+import com.insurance.response.CacheStatsResponse;
+import com.insurance.response.CashFlowProjectionResponse;
 import com.insurance.response.InsuranceSettingResponse;
 import com.insurance.response.TaxSettingResponse;
+import com.insurance.util.CustomUserDetails;
 import com.insurance.util.PagedResponse;
+import com.insurance.util.ReportArtifactCache;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
@@ -24,6 +35,18 @@ public class AdminController {
 
 	@Autowired
     IAdminService service;  
+
+	@Autowired
+	CustomUserDetails customUserDetails;
+
+	@Autowired
+	ReportArtifactCache reportArtifactCache;
+
+	@Autowired
+	IAgentLedgerService agentLedgerService;
+
+	@Autowired
+	IProjectionService projectionService;
     
     @PostMapping("/admin/register")
     @Operation(summary = "Register Admin -- BY ADMIN")
@@ -117,6 +140,48 @@ public class AdminController {
     public ResponseEntity<InsuranceSettingResponse> getLastInsuranceSetting(){
     	return new ResponseEntity<>(service.getLastInsuranceSetting(), HttpStatus.OK);
     }
-    
-    
+
+    @GetMapping("/admin/cache/user-details")
+    @Operation(summary = "User details cache statistics -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsResponse> getUserDetailsCacheStats() {
+        return new ResponseEntity<>(customUserDetails.getCacheStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/cache/reports")
+    @Operation(summary = "Report file cache statistics -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CacheStatsResponse> getReportCacheStats() {
+        return new ResponseEntity<>(reportArtifactCache.getStats(), HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/projection")
+    @Operation(summary = "Monthly premium, maturity and claim cash-flow projection -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CashFlowProjectionResponse> getCashFlowProjection(
+            @RequestParam(name = "years", required = false) Integer years,
+            @RequestParam(name = "annualClaimRate", required = false) Double annualClaimRate) {
+        return new ResponseEntity<>(projectionService.getProjection(years, annualClaimRate), HttpStatus.OK);
+    }
+
+    @GetMapping("/admin/projection/download")
+    @Operation(summary = "Download cash-flow projection as CSV -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> downloadCashFlowProjection(
+            @RequestParam(name = "years", required = false) Integer years,
+            @RequestParam(name = "annualClaimRate", required = false) Double annualClaimRate) {
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"cash-flow-projection.csv\"")
+                .body(projectionService.getProjectionCsv(years, annualClaimRate));
+    }
+
+    @PostMapping("/admin/ledger/settle")
+    @Operation(summary = "Close agent ledger period up to a cutoff -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> settleAgentLedger(
+            @RequestParam("cutoff") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime cutoff) {
+        int settled = agentLedgerService.settle(cutoff);
+        return new ResponseEntity<>("Settled " + settled + " agents", HttpStatus.OK);
+    }
 }
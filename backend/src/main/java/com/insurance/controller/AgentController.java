@@ -19,9 +19,9 @@ import com.insurance.interfaces.IAgentService;
 import com.insurance.request.AgentRegisterRequest;
 import com.insurance.response.AgentResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 
@@ -35,14 +35,9 @@ public class AgentController {
     @PostMapping("/agents")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
     @Operation(summary = "Register agent -- BY ADMIN & EMPLOYEE")
-    public ResponseEntity<String> register(HttpServletRequest request,@Valid @RequestBody AgentRegisterRequest registerDto) throws AccessDeniedException{
-      String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-          String response = service.registerAgent(token,registerDto );
-          return new ResponseEntity<>(response, HttpStatus.CREATED);
-        }
-        throw new AccessDeniedException("User is unauthorized");
+    public ResponseEntity<String> register(Actor actor,@Valid @RequestBody AgentRegisterRequest registerDto) throws AccessDeniedException{
+        String response = service.registerAgent(actor,registerDto );
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @PutMapping("/agent/{agent_id}")
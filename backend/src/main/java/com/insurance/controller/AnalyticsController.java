@@ -0,0 +1,40 @@
+package com.insurance.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.insurance.interfaces.IAnalyticsService;
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+import com.insurance.response.AnalyticsStatusResponse;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/SecureLife.com/admin/analytics")
+public class AnalyticsController {
+
+    @Autowired
+    private IAnalyticsService analyticsService;
+
+    @PostMapping("/query")
+    @Operation(summary = "Aggregate Policies or Transactions by Any Dimension -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsQueryResponse> query(@Valid @RequestBody AnalyticsQueryRequest request) {
+        return ResponseEntity.ok(analyticsService.query(request));
+    }
+
+    @GetMapping("/status")
+    @Operation(summary = "Analytics Snapshot Status -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AnalyticsStatusResponse> status() {
+        return ResponseEntity.ok(analyticsService.getStatus());
+    }
+}
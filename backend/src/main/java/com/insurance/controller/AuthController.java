@@ -5,6 +5,7 @@ import org.slf4j.LoggerFactory;
 
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,21 +13,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.insurance.response.JWTAuthResponse;
 import com.insurance.response.ProfileResponse;
+import com.insurance.response.SessionResponse;
 import com.insurance.security.JwtTokenProvider;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 import com.insurance.request.LoginDto;
 import com.insurance.request.ProfileRequest;
 import com.insurance.request.ChangePasswordRequest;
 import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IAuthService;
+import com.insurance.security.Actor;
 
 
 @RestController
@@ -48,7 +51,7 @@ public class AuthController {
     public ResponseEntity<JWTAuthResponse> login(@RequestBody LoginDto loginDto){
     	logger.info("A user is trying to login: " + loginDto.getUsernameOrEmail());
         String token = service.login(loginDto);
-        String role = service.getRole(token);
+        String role = jwtTokenProvider.getRole(token);
         JWTAuthResponse jwtAuthResponse = new JWTAuthResponse();
         jwtAuthResponse.setUsername(loginDto.getUsernameOrEmail());
         jwtAuthResponse.setRole(role);
@@ -61,62 +64,63 @@ public class AuthController {
     
     @PutMapping("/profile/update")
     @Operation(summary = "Profile update  -- For All")
-    public ResponseEntity<String>updateProfile(HttpServletRequest request,@RequestBody ProfileRequest profileRequest){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             if(service.getRole(token) != null) {
-                 String response = service.profileUpdate(token,profileRequest );
-                 return new ResponseEntity<>(response, HttpStatus.OK);
-             }
-             throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<String>updateProfile(Actor actor,@RequestBody ProfileRequest profileRequest){
+         if(actor.getRole() != null) {
+             String response = service.profileUpdate(actor,profileRequest );
+             return new ResponseEntity<>(response, HttpStatus.OK);
          }
-         throw new UnauthorizedException("Token is invalid or empty");         
+         throw new UnauthorizedException("Token is invalid or empty");
     }
     
     @GetMapping("/profile/view")
     @Operation(summary = "Get Profile  -- For All")
-    public ResponseEntity<ProfileResponse> getProfile(HttpServletRequest request){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             if(service.getRole(token) != null) {
-                 ProfileResponse response = service.getProfile(token);
-                 return new ResponseEntity<>(response, HttpStatus.OK);
-             }
-             throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<ProfileResponse> getProfile(Actor actor){
+         if(actor.getRole() != null) {
+             ProfileResponse response = service.getProfile(actor);
+             return new ResponseEntity<>(response, HttpStatus.OK);
          }
          throw new UnauthorizedException("Token is invalid or empty");
     }
     
     @PutMapping("/password/change")
     @Operation(summary = "Password change  -- For All")
-    public ResponseEntity<String>changePassword(HttpServletRequest request,@RequestBody ChangePasswordRequest profileRequest){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-           String token = authorizationHeader.substring(7);
-           if(service.getRole(token) != null) {
-        	   String response = service.changePassword(token,profileRequest );
-        	   return new ResponseEntity<>(response, HttpStatus.OK);
-           }
-           throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<String>changePassword(Actor actor,@RequestBody ChangePasswordRequest profileRequest){
+         if(actor.getRole() != null) {
+             String response = service.changePassword(actor,profileRequest );
+             return new ResponseEntity<>(response, HttpStatus.OK);
          }
-         throw new UnauthorizedException("Token is invalid or empty");    
+         throw new UnauthorizedException("Token is invalid or empty");
      }
     
+    @PostMapping("/logout")
+    @Operation(summary = "Logout  -- For All")
+    public ResponseEntity<String> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization){
+         if(authorization.startsWith("Bearer ")) {
+             String response = service.logout(authorization.substring(7));
+             return new ResponseEntity<>(response, HttpStatus.OK);
+         }
+         throw new UnauthorizedException("Token is invalid or empty");
+     }
+    
+    @GetMapping("/session")
+    @Operation(summary = "Role, Profile and Permissions in One Call  -- For All")
+    public ResponseEntity<SessionResponse> getSession(Actor actor){
+        SessionResponse session = service.getSession(actor);
+        // a GET whose If-None-Match matches is answered with 304 by Spring
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .eTag(session.getEtag())
+                .body(session);
+    }
+
     @GetMapping("/getUsername")
     @Operation(summary = "Get Username")
-    public ResponseEntity<String> getUsername(HttpServletRequest request){
-        String authorizationHeader = request.getHeader("Authorization");
-          if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(service.getRole(token) != null) {
-            	String username = service.getUsername(token);
-         	   return new ResponseEntity<>(username, HttpStatus.OK);
-            }
-            throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<String> getUsername(Actor actor){
+          if(actor.getRole() != null) {
+              String username = service.getUsername(actor);
+              return new ResponseEntity<>(username, HttpStatus.OK);
           }
-          throw new UnauthorizedException("Token is invalid or empty");    
+          throw new UnauthorizedException("Token is invalid or empty");
       }
    
 }
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.insurance.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.insurance.interfaces.IBatchService;
+import com.insurance.request.BatchRequest;
+import com.insurance.response.BatchResponse;
+import com.insurance.security.Actor;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/SecureLife.com/batch")
+public class BatchController {
+
+    @Autowired
+    private IBatchService batchService;
+
+    @PostMapping
+    @Operation(summary = "Run Several API Calls in One Round Trip -- BY ADMIN, EMPLOYEE, AGENT, CUSTOMER")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE') or hasRole('AGENT') or hasRole('CUSTOMER')")
+    public ResponseEntity<BatchResponse> batch(Actor actor, @Valid @RequestBody BatchRequest batch,
+                                               HttpServletRequest request, HttpServletResponse response) {
+        return ResponseEntity.ok(batchService.execute(actor, request, response, batch));
+    }
+}
@@ -22,9 +22,9 @@ import com.insurance.interfaces.ICityService;
 import com.insurance.request.CityRequest;
 import com.insurance.response.CityResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -39,17 +39,12 @@ public class CityController {
     @PostMapping("/cities")
     @Operation(summary = "Register City -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> createCity(HttpServletRequest request,@RequestBody CityRequest cityRequest){
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	String response = service.createCity(cityRequest);
-                return new ResponseEntity<>(response,HttpStatus.CREATED);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String> createCity(Actor actor,@RequestBody CityRequest cityRequest){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            String response = service.createCity(cityRequest);
+            return new ResponseEntity<>(response,HttpStatus.CREATED);
         }
-        throw new UnauthorizedException("Token is invalid or empty");  
+        throw new UnauthorizedException("Unauthorized User");
       
       
     }
@@ -57,61 +52,41 @@ public class CityController {
     @PutMapping("/city/{id}")
     @Operation(summary = "Update City -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String>updateCity(HttpServletRequest request,@PathVariable(name="id") String id,@RequestBody CityRequest cityRequest){
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	return new ResponseEntity<String>(service.updateCity(id,cityRequest),HttpStatus.OK);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String>updateCity(Actor actor,@PathVariable(name="id") String id,@RequestBody CityRequest cityRequest){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            return new ResponseEntity<String>(service.updateCity(id,cityRequest),HttpStatus.OK);
         }
-        throw new UnauthorizedException("Token is invalid or empty");  
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     //deactivate city
     @DeleteMapping("/city/{id}")
     @Operation(summary = "Deactivate city -- BY ADMIN")
-    public ResponseEntity<String>deactivateCity(HttpServletRequest request,@PathVariable(name="id") String id){
-      String authorizationHeader = request.getHeader("Authorization");
-      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-          String token = authorizationHeader.substring(7);
-          if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-              return new ResponseEntity<String>(service.deactivateCity(id),HttpStatus.OK);
-          }
-          throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String>deactivateCity(Actor actor,@PathVariable(name="id") String id){
+      if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+          return new ResponseEntity<String>(service.deactivateCity(id),HttpStatus.OK);
       }
-      throw new UnauthorizedException("Token is invalid or empty"); 
+      throw new UnauthorizedException("Unauthorized User");
     }
     
     @GetMapping("/city/{id}")
     @Operation(summary = "Get city by Id -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<CityResponse>getCityById(HttpServletRequest request,@PathVariable(name="id") String id){
-      String authorizationHeader = request.getHeader("Authorization");
-      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-          String token = authorizationHeader.substring(7);
-          if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-              return new ResponseEntity<CityResponse>(service.getCityById(id),HttpStatus.OK);
-          }
-          throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<CityResponse>getCityById(Actor actor,@PathVariable(name="id") String id){
+      if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+          return new ResponseEntity<CityResponse>(service.getCityById(id),HttpStatus.OK);
       }
-      throw new UnauthorizedException("Token is invalid or empty"); 
+      throw new UnauthorizedException("Unauthorized User");
     }
     
     //activate city
     @PutMapping("/city/{id}/activate")
     @Operation(summary = "Activate City -- BY ADMIN")
-    public ResponseEntity<String>activateCity(HttpServletRequest request,@PathVariable(name="id") String id){
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	return new ResponseEntity<String>(service.activateCity(id),HttpStatus.OK);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String>activateCity(Actor actor,@PathVariable(name="id") String id){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            return new ResponseEntity<String>(service.activateCity(id),HttpStatus.OK);
         }
-        throw new UnauthorizedException("Token is invalid or empty");
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     @GetMapping("/cities")
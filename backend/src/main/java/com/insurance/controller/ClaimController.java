@@ -12,15 +12,14 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import com.insurance.exceptions.ApiException;
 import com.insurance.interfaces.IClaimService;
 import com.insurance.request.ClaimRequest;
 import com.insurance.response.ClaimResponse;
 import com.insurance.response.DocumentResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -36,28 +35,18 @@ public class ClaimController {
     @PostMapping("/policies/{policyid}/claim")
     @PreAuthorize("hasRole('CUSTOMER')")
     @Operation(summary = "Claim request done by customer")
-    public ResponseEntity<String> register(HttpServletRequest request, @PathVariable("policyid") String policyid, @RequestBody ClaimRequest claimRequest) throws AccessDeniedException {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String response = service.requestClaim(token, claimRequest, policyid);
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        }
-        throw new AccessDeniedException("User is unauthorized");
+    public ResponseEntity<String> register(Actor actor, @PathVariable("policyid") String policyid, @RequestBody ClaimRequest claimRequest) throws AccessDeniedException {
+        String response = service.requestClaim(actor, claimRequest, policyid);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @GetMapping("/claims/{claimId}/documents")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Get documents by Claim ID")
-    public ResponseEntity<List<DocumentResponse>> getDocumentsByClaimId(@PathVariable Long claimId, HttpServletRequest request) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String username = jwtTokenProvider.getUsername(token);
-            List<DocumentResponse> documents = service.getDocumentsByClaimId(claimId, username);
-            return new ResponseEntity<>(documents, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+    public ResponseEntity<List<DocumentResponse>> getDocumentsByClaimId(@PathVariable Long claimId, Actor actor) {
+        String username = actor.getUsername();
+        List<DocumentResponse> documents = service.getDocumentsByClaimId(claimId, username);
+        return new ResponseEntity<>(documents, HttpStatus.OK);
     }
 
     @GetMapping("/customers/{customerId}/claims")
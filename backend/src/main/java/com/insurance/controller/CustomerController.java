@@ -14,15 +14,15 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.ICustomerService;
 import com.insurance.request.CustomerRegisterRequest;
 import com.insurance.response.CustomerResponse;
 import com.insurance.response.CustomerResponseForUpdate;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
+import com.insurance.security.OptionalActor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 
@@ -41,15 +41,8 @@ public class CustomerController {
 
   @PostMapping("/customer/register")
   @Operation(summary = "Register Customer -- BY All")
-  public ResponseEntity<String> registerCustomer(HttpServletRequest request, @Valid @RequestBody CustomerRegisterRequest registerDto) {
-      String authorizationHeader = request.getHeader("Authorization");
-      String token = "";
-      
-      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-          token = authorizationHeader.substring(7);
-      }
-      
-      String response = service.registerCustomer(token, registerDto);
+  public ResponseEntity<String> registerCustomer(@OptionalActor Actor actor, @Valid @RequestBody CustomerRegisterRequest registerDto) {
+      String response = service.registerCustomer(actor, registerDto);
       return new ResponseEntity<>(response, HttpStatus.CREATED);
   }
 
@@ -95,53 +88,32 @@ public class CustomerController {
   @PutMapping("/customer/{id}/approve")
   @Operation(summary = "Approve customer -- BY EMPLOYEE")
   @PreAuthorize("hasRole('EMPLOYEE')")
-  public ResponseEntity<String>verifyCustomer(HttpServletRequest request,@PathVariable("id")String id) throws AccessDeniedException{
-  	  String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String response = service.verifyCustomerapprove(token,id);
-	       return new ResponseEntity<>(response,HttpStatus.OK);
-        }
-        else {
-      	  throw new UnauthorizedException("User is unauthorized");
-        }
+  public ResponseEntity<String>verifyCustomer(Actor actor,@PathVariable("id")String id) throws AccessDeniedException{
+      String response = service.verifyCustomerapprove(actor,id);
+      return new ResponseEntity<>(response,HttpStatus.OK);
   }
   
   @PutMapping("/customer/{id}/reject")
   @Operation(summary = "Reject customer -- BY EMPLOYEE")
   @PreAuthorize("hasRole('EMPLOYEE')")
-  public ResponseEntity<String>verifyCustomerReject(HttpServletRequest request,@PathVariable("id")String id) throws AccessDeniedException{
-  	  String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String response = service.verifyCustomerReject(token,id);
-	       return new ResponseEntity<>(response,HttpStatus.OK);
-        }
-        else {
-      	  throw new UnauthorizedException("User is unauthorized");
-        }
+  public ResponseEntity<String>verifyCustomerReject(Actor actor,@PathVariable("id")String id) throws AccessDeniedException{
+      String response = service.verifyCustomerReject(actor,id);
+      return new ResponseEntity<>(response,HttpStatus.OK);
   }
   
   @GetMapping("/mycustomers")
   @Operation(summary = "Get Customers for Agent-- BY AGENT")
   @PreAuthorize("hasRole('AGENT')")
   public ResponseEntity<PagedResponse<CustomerResponse>> getMyCustomersForAgent(
-		  HttpServletRequest request,
+		  Actor actor,
           @RequestParam (name="page", defaultValue="0") int page,
           @RequestParam (name="size", defaultValue="5") int size,
           @RequestParam (name = "sortBy", defaultValue="customerId") String sortBy,
           @RequestParam (name = "direction", defaultValue="asc") String direction,
           @RequestParam (name = "searchQuery", defaultValue = "") String searchQuery
           ){
-	  String authorizationHeader = request.getHeader("Authorization");
-      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-          String token = authorizationHeader.substring(7);
-          PagedResponse<CustomerResponse> customersResponse = service.getMyCustomersForAgent(token,page, size, sortBy, direction,searchQuery);
-          return new ResponseEntity<>(customersResponse, HttpStatus.OK);
-      }
-      else {
-    	  throw new UnauthorizedException("User is unauthorized");
-      }
+      PagedResponse<CustomerResponse> customersResponse = service.getMyCustomersForAgent(actor,page, size, sortBy, direction,searchQuery);
+      return new ResponseEntity<>(customersResponse, HttpStatus.OK);
     
   }
   
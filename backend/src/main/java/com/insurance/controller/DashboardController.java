@@ -1,17 +1,31 @@
 package com.insurance.controller;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IDashboardService;
+import com.insurance.enums.LeaderboardMetric;
+import com.insurance.enums.LeaderboardWindow;
+import com.insurance.interfaces.IKpiRollupService;
+import com.insurance.interfaces.ILeaderboardService;
+import com.insurance.interfaces.IPersistencyService;
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.response.KpiTrendResponse;
+import com.insurance.response.LeaderboardResponse;
+import com.insurance.response.PersistencyResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com/dashboard")
@@ -20,6 +34,15 @@ public class DashboardController {
     @Autowired
     private IDashboardService service;
 
+    @Autowired
+    private IKpiRollupService kpiRollupService;
+
+    @Autowired
+    private ILeaderboardService leaderboardService;
+
+    @Autowired
+    private IPersistencyService persistencyService;
+
     @GetMapping("/total-admins")
     @Operation(summary = "Count Admin -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
@@ -52,60 +75,108 @@ public class DashboardController {
         return ResponseEntity.ok(totalEmployees);
     }
     
+    @GetMapping("/agent-summary")
+    @Operation(summary = "Sold, Cancelled, Commission and Penalty Totals -- BY AGENT")
+    @PreAuthorize("hasRole('AGENT')")
+    public ResponseEntity<AgentSummaryResponse> getAgentSummary(Actor actor) {
+        AgentSummaryResponse summary = service.getAgentSummary(actor);
+        return ResponseEntity.ok(summary);
+    }
+    
+    @GetMapping("/kpi-trend")
+    @Operation(summary = "Daily KPI Trend by State, City, Type, Scheme or Plan -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<KpiTrendResponse>> getKpiTrend(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "stateId", required = false) String stateId,
+            @RequestParam(name = "cityId", required = false) String cityId,
+            @RequestParam(name = "insuranceTypeId", required = false) String insuranceTypeId,
+            @RequestParam(name = "schemeId", required = false) String schemeId,
+            @RequestParam(name = "planId", required = false) String planId) {
+        List<KpiTrendResponse> trend = kpiRollupService.getTrend(from, to, stateId, cityId, insuranceTypeId, schemeId, planId);
+        return ResponseEntity.ok(trend);
+    }
+
+    @PostMapping("/kpi-rebuild")
+    @Operation(summary = "Rebuild KPI Rollups for a Date Range -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> rebuildKpis(
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        int rows = kpiRollupService.rebuild(from, to);
+        return ResponseEntity.ok("Rebuilt " + rows + " rollup rows");
+    }
+    
+    @GetMapping("/persistency")
+    @Operation(summary = "13th and 25th Month Persistency by Cohort, Agent or Plan -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<PersistencyResponse>> getPersistency(
+            @RequestParam(name = "groupBy", defaultValue = "cohort") String groupBy,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(name = "agentId", required = false) String agentId,
+            @RequestParam(name = "planId", required = false) String planId) {
+        return ResponseEntity.ok(persistencyService.getPersistency(groupBy, from, to, agentId, planId));
+    }
+
+    @PostMapping("/persistency/rebuild")
+    @Operation(summary = "Recompute Persistency Cohorts -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> rebuildPersistency() {
+        int cohorts = persistencyService.rebuildCohorts();
+        return ResponseEntity.ok("Rebuilt " + cohorts + " cohort rows");
+    }
+
+    @GetMapping("/leaderboard")
+    @Operation(summary = "Agent Leaderboard by Week or Month, Overall or per City -- BY ADMIN OR AGENT")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('AGENT')")
+    public ResponseEntity<LeaderboardResponse> getLeaderboard(
+            @RequestParam(name = "window", defaultValue = "MONTH") LeaderboardWindow window,
+            @RequestParam(name = "metric", defaultValue = "NET_COMMISSION") LeaderboardMetric metric,
+            @RequestParam(name = "cityId", required = false) String cityId,
+            @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(window, metric, cityId, limit));
+    }
+
+    @PostMapping("/leaderboard/rebuild")
+    @Operation(summary = "Rebuild Agent Leaderboards from the Database -- BY ADMIN")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<String> rebuildLeaderboard() {
+        leaderboardService.rebuild();
+        return ResponseEntity.ok("Leaderboards rebuilt");
+    }
+    
     @GetMapping("/total-commissions")
     @Operation(summary = "Total Earnings -- BY AGENT")
     @PreAuthorize("hasRole('AGENT')")
-    public ResponseEntity<Double> getMyEarning(HttpServletRequest request) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            Double totalEarnings = service.getMyCommissions(token);
-            return ResponseEntity.ok(totalEarnings);
-        }
-        throw new UnauthorizedException("Token invalid or empty");
+    public ResponseEntity<Double> getMyEarning(Actor actor) {
+        Double totalEarnings = service.getMyCommissions(actor);
+        return ResponseEntity.ok(totalEarnings);
     }
     
     @GetMapping("/total-penalty")
     @Operation(summary = "Total Penalty -- BY AGENT")
     @PreAuthorize("hasRole('AGENT')")
-    public ResponseEntity<Double> getMyWithdrawals(HttpServletRequest request) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            Double totalEarnings = service.getMyWithdrawals(token);
-            return ResponseEntity.ok(totalEarnings);
-        }
-        throw new UnauthorizedException("Token invalid or empty");
+    public ResponseEntity<Double> getMyWithdrawals(Actor actor) {
+        Double totalEarnings = service.getMyWithdrawals(actor);
+        return ResponseEntity.ok(totalEarnings);
     }
     
     @GetMapping("/total-sold-policies")
     @Operation(summary = "Total Sold Policies -- BY AGENT")
     @PreAuthorize("hasRole('AGENT')")
-    public ResponseEntity<Long> getSoldPolicies(HttpServletRequest request) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            Long soldPolicies = service.getSoldPolicies(token);
-            return ResponseEntity.ok(soldPolicies);
-        }
-        throw new UnauthorizedException("Token invalid or empty");
+    public ResponseEntity<Long> getSoldPolicies(Actor actor) {
+        Long soldPolicies = service.getSoldPolicies(actor);
+        return ResponseEntity.ok(soldPolicies);
     }
     
     @GetMapping("/total-cancelled-policies")
     @Operation(summary = "Total Cancelled Policies -- BY AGENT")
     @PreAuthorize("hasRole('AGENT')")
-    public ResponseEntity<Long> getCancelledPolicies(HttpServletRequest request) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        String token = "";
-        
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            token = authorizationHeader.substring(7);
-            Long cancelledPolicies = service.getCancelledPolicies(token);
-            return ResponseEntity.ok(cancelledPolicies);
-        }
-        throw new UnauthorizedException("Token invalid or empty");
+    public ResponseEntity<Long> getCancelledPolicies(Actor actor) {
+        Long cancelledPolicies = service.getCancelledPolicies(actor);
+        return ResponseEntity.ok(cancelledPolicies);
     }
     
     
@@ -16,14 +16,13 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
-import com.insurance.exceptions.ApiException;
 import com.insurance.interfaces.IDocumentService;
 import com.insurance.request.ClaimRequest;
 import com.insurance.response.DocumentResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -38,76 +37,56 @@ public class DocumentController {
     @PostMapping("document/upload")
     @Operation(summary= "Upload document -- BY CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<String> uploadFile(HttpServletRequest request, @RequestParam("type") String documentType, @RequestParam("file") MultipartFile file) throws IOException {
+    public ResponseEntity<String> uploadFile(Actor actor, @RequestParam("type") String documentType, @RequestParam("file") MultipartFile file) throws IOException {
         if (file.isEmpty()) {
             return new ResponseEntity<>("Please select a file to upload", HttpStatus.BAD_REQUEST);
         }
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String username = jwtTokenProvider.getUsername(token);
-            try {
-                String newFileName = service.uploadFile(documentType, file, username);
-                return new ResponseEntity<>( newFileName, HttpStatus.OK);
-            } catch (IOException e) {
-                return new ResponseEntity<>("File upload failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IllegalArgumentException e) {
-                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-            }
+        String username = actor.getUsername();
+        try {
+            String newFileName = service.uploadFile(documentType, file, username);
+            return new ResponseEntity<>( newFileName, HttpStatus.OK);
+        } catch (IOException e) {
+            return new ResponseEntity<>("File upload failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
-        throw new ApiException("User is unauthorized");
     }
     @PostMapping("policies/{policy_id}/claim/upload")
     @Operation(summary= "Upload Claim document -- BY CUSTOMER")
-    public ResponseEntity<String> uploadClaimDocument(HttpServletRequest request,@PathVariable String policy_id, @RequestParam("file") MultipartFile file, ClaimRequest claimRequest) throws IOException {
+    public ResponseEntity<String> uploadClaimDocument(Actor actor,@PathVariable String policy_id, @RequestParam("file") MultipartFile file, ClaimRequest claimRequest) throws IOException {
         if (file.isEmpty()) {
             return new ResponseEntity<>("Please select a file to upload", HttpStatus.BAD_REQUEST);
         }
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String username = jwtTokenProvider.getUsername(token);
-            try {
-              String documentType = "CLAIM_DOCUMENT";
-                String newFileName = service.uploadClaimFile(documentType, file,claimRequest,policy_id, username);
-                return new ResponseEntity<>("File uploaded successfully: " + newFileName, HttpStatus.OK);
-            } catch (IOException e) {
-                return new ResponseEntity<>("File upload failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
-            } catch (IllegalArgumentException e) {
-                return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-            }
+        String username = actor.getUsername();
+        try {
+          String documentType = "CLAIM_DOCUMENT";
+            String newFileName = service.uploadClaimFile(documentType, file,claimRequest,policy_id, username);
+            return new ResponseEntity<>("File uploaded successfully: " + newFileName, HttpStatus.OK);
+        } catch (IOException e) {
+            return new ResponseEntity<>("File upload failed: " + e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         }
-        throw new ApiException("User is unauthorized");
     }
     
     @GetMapping("/customer/{customer_id}/documents")
     @Operation(summary= "Get Document of a customer -- BY EMPLOYEE & ADMIN")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public ResponseEntity<List<DocumentResponse>> getDocuments(HttpServletRequest request, @PathVariable String customer_id) {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String username = jwtTokenProvider.getUsername(token);
-            List<DocumentResponse> documents = service.getDocuments(customer_id, username);
-            return new ResponseEntity<>(documents, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+    public ResponseEntity<List<DocumentResponse>> getDocuments(Actor actor, @PathVariable String customer_id) {
+        String username = actor.getUsername();
+        List<DocumentResponse> documents = service.getDocuments(customer_id, username);
+        return new ResponseEntity<>(documents, HttpStatus.OK);
     }
     
 
     @GetMapping("/document/{document_id}/download")
     @Operation(summary = "Download document -- BY EMPLOYEE & ADMIN")
     @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
-    public ResponseEntity<Resource> downloadFile(HttpServletRequest request, @PathVariable String document_id) {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String username = jwtTokenProvider.getUsername(token);
-            return service.downloadFile(username, document_id);
-        }
-        throw new ApiException("User is unauthorized");
+    public ResponseEntity<Resource> downloadFile(Actor actor, @PathVariable String document_id) {
+        String username = actor.getUsername();
+        return service.downloadFile(username, document_id);
     }
 
 
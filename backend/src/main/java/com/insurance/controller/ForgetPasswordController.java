@@ -31,7 +31,7 @@ public class ForgetPasswordController {
     @PostMapping("/otp/verify")
     @Operation(summary= "Verify Otp -- For All")
     public ResponseEntity<String> verifyOtp(@RequestBody OtpForgetPasswordRequest otpForgetPasswordRequest) {
-        String response = emailService.verifyOtp(otpForgetPasswordRequest.getOtp());
+        String response = emailService.verifyOtp(otpForgetPasswordRequest.getUsernameOrEmail(), otpForgetPasswordRequest.getOtp());
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
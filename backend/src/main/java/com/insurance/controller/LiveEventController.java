@@ -0,0 +1,33 @@
+package com.insurance.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.insurance.interfaces.ILiveEventService;
+import com.insurance.security.Actor;
+
+import io.swagger.v3.oas.annotations.Operation;
+
+@RestController
+@RequestMapping("/SecureLife.com/events")
+public class LiveEventController {
+
+    @Autowired
+    private ILiveEventService liveEventService;
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live Dashboard and Work-List Events -- BY ADMIN, EMPLOYEE, AGENT, CUSTOMER")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE') or hasRole('AGENT') or hasRole('CUSTOMER')")
+    public SseEmitter stream(Actor actor,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                             @RequestParam(value = "lastEventId", required = false) Long lastEventId) {
+        return liveEventService.subscribe(actor, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
+    }
+}
@@ -2,6 +2,7 @@ package com.insurance.controller;
 
 import com.insurance.interfaces.IPaymentService;
 import com.insurance.request.PaymentRequestDto;
+import com.insurance.security.Actor;
 
 import com.stripe.exception.StripeException;
 
@@ -12,7 +13,6 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -24,15 +24,9 @@ public class PaymentController {
 
     @PutMapping("/process")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<String> processPayment(HttpServletRequest request, @RequestBody PaymentRequestDto paymentRequestDto) throws AccessDeniedException, StripeException {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7); 
-            String response = paymentService.processPayment(token, paymentRequestDto); 
-            return new ResponseEntity<>(response, HttpStatus.OK);
-        } else {
-            throw new AccessDeniedException("User is unauthorized");
-        }
+    public ResponseEntity<String> processPayment(Actor actor, @RequestBody PaymentRequestDto paymentRequestDto) throws AccessDeniedException, StripeException {
+        String response = paymentService.processPayment(actor, paymentRequestDto); 
+        return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
     
@@ -4,8 +4,8 @@ import com.insurance.request.PolicyRequest;
 import com.insurance.response.CommissionResponse;
 import com.insurance.response.PolicyResponse;
 import com.insurance.interfaces.IPolicyService;
-import com.insurance.exceptions.ApiException;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 import io.swagger.v3.oas.annotations.Operation;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -15,7 +15,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 @RestController
@@ -29,110 +28,80 @@ public class PolicyController {
     @PostMapping("/policies/register")
     @Operation(summary = "Register policy -- BY CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
-    public ResponseEntity<String> createPolicy(HttpServletRequest request, @Valid @RequestBody PolicyRequest policyRequest) {
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            String response = service.createPolicy(token, policyRequest);
-            return new ResponseEntity<>(response, HttpStatus.CREATED);
-        }
-        throw new ApiException("User is unauthorized");
+    public ResponseEntity<String> createPolicy(Actor actor, @Valid @RequestBody PolicyRequest policyRequest) {
+        String response = service.createPolicy(actor, policyRequest);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
     @GetMapping("/policies")
     @Operation(summary = "Get all Policies -- BY EMPLOYEE & ADMIN")
     @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE')")
     public ResponseEntity<PagedResponse<PolicyResponse>> getAllPolicies(
-    		HttpServletRequest request,
+    		Actor actor,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "policyId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-        PagedResponse<PolicyResponse> policies = service.getAllPolicies(token, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        PagedResponse<PolicyResponse> policies = service.getAllPolicies(actor, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
         return new ResponseEntity<>(policies, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
     }
 
     @GetMapping("/customer/{customerId}/policies")
     @Operation(summary = "Get Policies by Customer ID -- BY EMPLOYEE & ADMIN")
     @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE')")
     public ResponseEntity<PagedResponse<PolicyResponse>> getPoliciesByCustomerId(
-            HttpServletRequest request,
+            Actor actor,
             @PathVariable String customerId,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "policyId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction) {
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            PagedResponse<PolicyResponse> policies = service.getPoliciesByCustomerId(token, customerId, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
-            return new ResponseEntity<>(policies, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+        PagedResponse<PolicyResponse> policies = service.getPoliciesByCustomerId(actor, customerId, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        return new ResponseEntity<>(policies, HttpStatus.OK);
     }
     
     @GetMapping("/agent/{agentId}/commissions")
     @Operation(summary = "Get Policies by Agent ID -- BY EMPLOYEE & ADMIN")
     @PreAuthorize("hasRole('ADMIN') or hasRole('EMPLOYEE')")
     public ResponseEntity<PagedResponse<CommissionResponse>> getCommissionByAgentId(
-            HttpServletRequest request,
+            Actor actor,
             @PathVariable String agentId,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "policyId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction) {
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            PagedResponse<CommissionResponse> policies = service.getCommissionByAgentId(token, agentId, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
-            return new ResponseEntity<>(policies, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+        PagedResponse<CommissionResponse> policies = service.getCommissionByAgentId(actor, agentId, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        return new ResponseEntity<>(policies, HttpStatus.OK);
     }
     
     @GetMapping("/mycommissions")
     @Operation(summary = "Get My Commission report -- BY Agent")
     public ResponseEntity<PagedResponse<CommissionResponse>> getMyCommission(
-            HttpServletRequest request,
+            Actor actor,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "policyId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction,
     		@RequestParam(name = "searchQuery", defaultValue="") String searchQuery){
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            PagedResponse<CommissionResponse> policies = service.getMyCommission(token,searchQuery, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
-            return new ResponseEntity<>(policies, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+        PagedResponse<CommissionResponse> policies = service.getMyCommission(actor,searchQuery, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        return new ResponseEntity<>(policies, HttpStatus.OK);
     }
 
     @GetMapping("/mypolicies")
     @Operation(summary = "Get My Policies -- BY CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
     public ResponseEntity<PagedResponse<PolicyResponse>> getMyPolicies(
-            HttpServletRequest request,
+            Actor actor,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "policyId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction) {
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            PagedResponse<PolicyResponse> policies = service.getMyPolicies(token, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
-            return new ResponseEntity<>(policies, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+        PagedResponse<PolicyResponse> policies = service.getMyPolicies(actor, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        return new ResponseEntity<>(policies, HttpStatus.OK);
     }
     
     @GetMapping("/mypolicy/{policyid}")
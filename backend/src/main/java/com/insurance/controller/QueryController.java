@@ -19,9 +19,9 @@ import com.insurance.request.CustomerQueryRequest;
 import com.insurance.request.EmployeeQueryRequest;
 import com.insurance.response.CustomerQueryResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -34,16 +34,9 @@ public class QueryController {
 	@PostMapping("/queries/ask")
     @Operation(summary = "Ask Query -- BY CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
-	public ResponseEntity<String>addQuery(HttpServletRequest request,@RequestBody CustomerQueryRequest queryRequest) throws AccessDeniedException{
-		 String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             String response = service.addQuery(token,queryRequest);
- 	       return new ResponseEntity<>(response,HttpStatus.OK);
-         }
-         else {
-       	  throw new AccessDeniedException("User is unauthorized");
-         }
+	public ResponseEntity<String>addQuery(Actor actor,@RequestBody CustomerQueryRequest queryRequest) throws AccessDeniedException{
+		String response = service.addQuery(actor,queryRequest);
+		return new ResponseEntity<>(response,HttpStatus.OK);
 	}
          
          
@@ -51,16 +44,9 @@ public class QueryController {
          @PostMapping("/query/{id}/response")
          @Operation(summary = "Update Response for a query -- BY EMPLOYEE")
          @PreAuthorize("hasRole('EMPLOYEE')")
-         public ResponseEntity<String>addResponseQuery(HttpServletRequest request,@RequestBody EmployeeQueryRequest queryRequest,@PathVariable("id")Long id) throws AccessDeniedException{
-    		 String authorizationHeader = request.getHeader("Authorization");
-             if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-                 String token = authorizationHeader.substring(7);
-                 String response = service.addResponseQuery(token,queryRequest,id);
-     	       return new ResponseEntity<>(response,HttpStatus.OK);
-             }
-             else {
-           	  throw new AccessDeniedException("User is unauthorized");
-             }  
+         public ResponseEntity<String>addResponseQuery(Actor actor,@RequestBody EmployeeQueryRequest queryRequest,@PathVariable("id")Long id) throws AccessDeniedException{
+             String response = service.addResponseQuery(actor,queryRequest,id);
+             return new ResponseEntity<>(response,HttpStatus.OK);
          
 	}
 	
@@ -0,0 +1,44 @@
+package com.insurance.controller;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.insurance.interfaces.IReportJobService;
+import com.insurance.response.ReportJobResponse;
+import com.insurance.security.Actor;
+
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletRequest;
+
+@RestController
+@RequestMapping("/SecureLife.com/reports")
+public class ReportJobController {
+
+    @Autowired
+    private IReportJobService reportJobService;
+
+    @PostMapping("/{type}")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Operation(summary = "Start a Report Job (customers, agents, transactions, policies?customerId=, commissions?agentId=) -- BY EMPLOYEE & ADMIN")
+    public ResponseEntity<ReportJobResponse> submit(@PathVariable("type") String type,
+                                                    @RequestParam Map<String, String> parameters, Actor actor) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(actor, type, parameters));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('EMPLOYEE') or hasRole('ADMIN')")
+    @Operation(summary = "Report Job Progress, or the Report Once Finished -- BY EMPLOYEE & ADMIN")
+    public ResponseEntity<?> getJob(@PathVariable("jobId") String jobId, HttpServletRequest request) {
+        return reportJobService.getJob(jobId, request);
+    }
+}
@@ -23,9 +23,9 @@ import com.insurance.request.StateRequest;
 import com.insurance.response.CityResponse;
 import com.insurance.response.StateResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 
 @RestController
@@ -41,34 +41,24 @@ public class StateController {
     @PostMapping("/states")
     @Operation(summary = "Register State -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> createState(HttpServletRequest request,@RequestBody StateRequest stateRequest){
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	String response=service.createState(stateRequest);
-                return new ResponseEntity<>(response, HttpStatus.CREATED);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String> createState(Actor actor,@RequestBody StateRequest stateRequest){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            String response=service.createState(stateRequest);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
         }
-        throw new UnauthorizedException("Token is invalid or empty");         
+        throw new UnauthorizedException("Unauthorized User");
       
     }
     
     @PutMapping("/state/{id}/update")
     @Operation(summary = "Update state -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String>updateState(HttpServletRequest request,@PathVariable("id")String id,@RequestBody  StateRequest stateRequest){
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	String response = service.updateState(id,stateRequest);
-                return new ResponseEntity<>(response, HttpStatus.OK);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<String>updateState(Actor actor,@PathVariable("id")String id,@RequestBody  StateRequest stateRequest){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            String response = service.updateState(id,stateRequest);
+            return new ResponseEntity<>(response, HttpStatus.OK);
         }
-        throw new UnauthorizedException("Token is invalid or empty");
+        throw new UnauthorizedException("Unauthorized User");
       
     }
     
@@ -76,17 +66,12 @@ public class StateController {
     @GetMapping("/state/{id}")
     @Operation(summary = "Get state by id -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<StateResponse> getStateById(HttpServletRequest request,@PathVariable("id") String id) {
-    	String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-            	StateResponse stateResponse = service.getStateById(id);
-                return new ResponseEntity<>(stateResponse, HttpStatus.OK);
-            }
-            throw new UnauthorizedException("Unauthorized User");
+    public ResponseEntity<StateResponse> getStateById(Actor actor,@PathVariable("id") String id) {
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            StateResponse stateResponse = service.getStateById(id);
+            return new ResponseEntity<>(stateResponse, HttpStatus.OK);
         }
-        throw new UnauthorizedException("Token is invalid or empty");
+        throw new UnauthorizedException("Unauthorized User");
         
     }
   
@@ -94,61 +79,46 @@ public class StateController {
     @Operation(summary = "Get all states -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PagedResponse<StateResponse>> getPagedStates(
-    		HttpServletRequest request,
+    		Actor actor,
     		@RequestParam(name = "page", defaultValue = "0") int page,
     		@RequestParam(name = "size", defaultValue = "5") int size,
     		@RequestParam(name = "sortBy", defaultValue = "stateId") String sortBy,
     		@RequestParam(name = "direction", defaultValue = "asc") String direction,
     		@RequestParam(name = "searchQuery", defaultValue = "") String searchQuery)  {
     	
-    	String authorizationHeader = request.getHeader("Authorization");
-    	if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-    	    String token = authorizationHeader.substring(7);
-    	    if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-    	         return new ResponseEntity<PagedResponse<StateResponse>>(service.getPagedStates(page, size, sortBy, direction, searchQuery), HttpStatus.OK);
-    	    }
-    	    throw new UnauthorizedException("Unauthorized User");
-    	}
-    	throw new UnauthorizedException("Token is invalid or empty");
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+             return new ResponseEntity<PagedResponse<StateResponse>>(service.getPagedStates(page, size, sortBy, direction, searchQuery), HttpStatus.OK);
+        }
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     //deactivate state
     @DeleteMapping("/state/{id}/delete")
     @Operation(summary = "Deactivate state -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String>deactivateState(HttpServletRequest request,@PathVariable(name="id") String id){
-    	String authorizationHeader = request.getHeader("Authorization");
-    	if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-    	    String token = authorizationHeader.substring(7);
-    	    if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-    	    	return new ResponseEntity<String>(service.deactivateStateById(id),HttpStatus.OK);
-    	    }
-    	    throw new UnauthorizedException("Unauthorized User");
-    	}
-    	throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<String>deactivateState(Actor actor,@PathVariable(name="id") String id){
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            return new ResponseEntity<String>(service.deactivateStateById(id),HttpStatus.OK);
+        }
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     @PutMapping("/state/{id}/active")
     @Operation(summary = "Activate State -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String>activateState(HttpServletRequest request,@PathVariable(name="id") String id){
+    public ResponseEntity<String>activateState(Actor actor,@PathVariable(name="id") String id){
     	System.out.println("Coming to activate state");
-    	String authorizationHeader = request.getHeader("Authorization");
-    	if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-    	    String token = authorizationHeader.substring(7);
-    	    if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-    	    	return new ResponseEntity<String>(service.activateStateById(id),HttpStatus.OK);
-    	    }
-    	    throw new UnauthorizedException("Unauthorized User");
-    	}
-    	throw new UnauthorizedException("Token is invalid or empty");
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+            return new ResponseEntity<String>(service.activateStateById(id),HttpStatus.OK);
+        }
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     @GetMapping("/state/{id}/cities")
     @Operation(summary = "Cities by state -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<PagedResponse<CityResponse>> getCitiesByState(
-    		HttpServletRequest request,
+    		Actor actor,
     		@RequestParam(name = "page", defaultValue = "0") int page,
     		@RequestParam(name = "size", defaultValue = "5") int size,
     		@RequestParam(name = "sortBy", defaultValue = "stateId") String sortBy,
@@ -157,15 +127,10 @@ public class StateController {
     		@PathVariable(name="id") String stateId)  {
     	
     	
-    	String authorizationHeader = request.getHeader("Authorization");
-    	if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-    	    String token = authorizationHeader.substring(7);
-    	    if(authService.getRole(token).equalsIgnoreCase("ROLE_ADMIN")) {
-    	         return new ResponseEntity<PagedResponse<CityResponse>>(service.getCitiesByStateId(page, size, sortBy, direction, searchQuery, stateId), HttpStatus.OK);
-    	    }
-    	    throw new UnauthorizedException("Unauthorized User");
-    	}
-    	throw new UnauthorizedException("Token is invalid or empty");
+        if(actor.getRole().equalsIgnoreCase("ROLE_ADMIN")) {
+             return new ResponseEntity<PagedResponse<CityResponse>>(service.getCitiesByStateId(page, size, sortBy, direction, searchQuery, stateId), HttpStatus.OK);
+        }
+        throw new UnauthorizedException("Unauthorized User");
     }
     
     @GetMapping("/allstates")
@@ -9,11 +9,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IAuthService;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -25,54 +24,34 @@ public class VerificationController {
     
     @GetMapping("/verify/admin")
     @Operation(summary = "Verify Admin  -- For All")
-    public ResponseEntity<Boolean> verifyAdmin(HttpServletRequest request){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             String role = service.getRole(token);
-             logger.info("Verification successful for user. Role is " + role);
-             return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_ADMIN"), HttpStatus.OK);
-         }
-         throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<Boolean> verifyAdmin(Actor actor){
+        String role = actor.getRole();
+        logger.info("Verification successful for user. Role is " + role);
+        return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_ADMIN"), HttpStatus.OK);
     }
     
     @GetMapping("/verify/customer")
     @Operation(summary = "Verify Customer  -- For All")
-    public ResponseEntity<Boolean> verifyCustomer(HttpServletRequest request){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             String role = service.getRole(token);
-             logger.info("Verification successful for user. Role is " + role);
-           return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_CUSTOMER"), HttpStatus.OK);
-         }
-         throw new UnauthorizedException("Token is invalid or empty");  
+    public ResponseEntity<Boolean> verifyCustomer(Actor actor){
+        String role = actor.getRole();
+        logger.info("Verification successful for user. Role is " + role);
+        return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_CUSTOMER"), HttpStatus.OK);
     }
     
     @GetMapping("/verify/employee")
     @Operation(summary = "Verify Employee  -- For All")
-    public ResponseEntity<Boolean> verifyEmployee(HttpServletRequest request){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             String role = service.getRole(token);
-             logger.info("Verification successful for user. Role is " + role);
-           return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_EMPLOYEE"), HttpStatus.OK);
-         }
-         throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<Boolean> verifyEmployee(Actor actor){
+        String role = actor.getRole();
+        logger.info("Verification successful for user. Role is " + role);
+        return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_EMPLOYEE"), HttpStatus.OK);
     }
     
     
     @GetMapping("/verify/agent")
     @Operation(summary = "Verify Agent  -- For All")
-    public ResponseEntity<Boolean> verifyAgent(HttpServletRequest request){
-       String authorizationHeader = request.getHeader("Authorization");
-         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-             String token = authorizationHeader.substring(7);
-             String role = service.getRole(token);
-             logger.info("Verification successful for user. Role is " + role);
-           return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_AGENT"), HttpStatus.OK);
-         }
-         throw new UnauthorizedException("Token is invalid or empty");
+    public ResponseEntity<Boolean> verifyAgent(Actor actor){
+        String role = actor.getRole();
+        logger.info("Verification successful for user. Role is " + role);
+        return new ResponseEntity<>(role.equalsIgnoreCase("ROLE_AGENT"), HttpStatus.OK);
     }
 }
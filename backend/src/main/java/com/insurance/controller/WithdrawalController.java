@@ -14,13 +14,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import com.insurance.exceptions.ApiException;
 import com.insurance.interfaces.IWithdrawalService;
 import com.insurance.response.WithdrawalRequestDTO;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import io.swagger.v3.oas.annotations.Operation;
-import jakarta.servlet.http.HttpServletRequest;
 
 @RestController
 @RequestMapping("/SecureLife.com")
@@ -36,14 +35,9 @@ public class WithdrawalController {
 	@PostMapping("/policy/{policy_id}/withdrawal")
 	 @Operation(summary= "Request withdrawal -- BY CUSTOMER")
     @PreAuthorize("hasRole('CUSTOMER')")
-	public ResponseEntity<String> withdrawalRequest(HttpServletRequest request, @PathVariable("policy_id") String policy_id) {
-	    	String authorizationHeader = request.getHeader("Authorization");
-	      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-	          String token = authorizationHeader.substring(7);
-	          service.withdrawalRequest(token, policy_id);
-	          return new ResponseEntity<>("Withdrawal request sent", HttpStatus.CREATED);
-	      }
-	      throw new ApiException("User is unauthorized");
+	public ResponseEntity<String> withdrawalRequest(Actor actor, @PathVariable("policy_id") String policy_id) {
+        service.withdrawalRequest(actor, policy_id);
+        return new ResponseEntity<>("Withdrawal request sent", HttpStatus.CREATED);
 	  }
 	
 	
@@ -53,28 +47,18 @@ public class WithdrawalController {
     @PostMapping("/withdrawals/{withdrawal_id}/approve")
     @Operation(summary= "Approve withdrawal -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> approveWithdrawal(HttpServletRequest request,@PathVariable long withdrawal_id) {
-    	String authorizationHeader = request.getHeader("Authorization");
-	      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-	          String token = authorizationHeader.substring(7);
-	          String response = service.approveWithdrawal(token, withdrawal_id);
-	          return new ResponseEntity<>(response, HttpStatus.OK);
-	      }
-	      throw new ApiException("User is unauthorized");
+    public ResponseEntity<String> approveWithdrawal(Actor actor,@PathVariable long withdrawal_id) {
+          String response = service.approveWithdrawal(actor, withdrawal_id);
+          return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
     // Reject withdrawal
     @PostMapping("/withdrawals/{withdrawal_id}/reject")
     @Operation(summary= "Reject withdrawal -- BY ADMIN")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<String> rejectWithdrawal(HttpServletRequest request,@PathVariable long withdrawal_id) {
-    	String authorizationHeader = request.getHeader("Authorization");
-	      if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-	          String token = authorizationHeader.substring(7);
-	          String response = service.rejectWithdrawal(token, withdrawal_id);
-	          return new ResponseEntity<>(response, HttpStatus.OK);
-	      }
-	      throw new ApiException("User is unauthorized");
+    public ResponseEntity<String> rejectWithdrawal(Actor actor,@PathVariable long withdrawal_id) {
+          String response = service.rejectWithdrawal(actor, withdrawal_id);
+          return new ResponseEntity<>(response, HttpStatus.OK);
     }
     
     @GetMapping("/withdrawals")
@@ -96,20 +80,15 @@ public class WithdrawalController {
     @PreAuthorize("hasRole('AGENT')")
     @Operation(summary="Get agents withdrawals")
     public ResponseEntity<PagedResponse<WithdrawalRequestDTO>> getMyWithdrawals(
-            HttpServletRequest request,
+            Actor actor,
             @RequestParam(name = "page", defaultValue = "0") int page,
             @RequestParam(name = "size", defaultValue = "5") int size,
             @RequestParam(name = "sortBy", defaultValue = "withdrawalRequestId") String sortBy,
             @RequestParam(name = "direction", defaultValue = "asc") String direction,
     	@RequestParam(name="searchQuery", defaultValue="") String searchQuery){
 
-        String authorizationHeader = request.getHeader("Authorization");
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            String token = authorizationHeader.substring(7);
-            PagedResponse<WithdrawalRequestDTO> withdrawalResponses = service.getMyWithdrawals(token,searchQuery, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
-            return new ResponseEntity<>(withdrawalResponses, HttpStatus.OK);
-        }
-        throw new ApiException("User is unauthorized");
+        PagedResponse<WithdrawalRequestDTO> withdrawalResponses = service.getMyWithdrawals(actor,searchQuery, PageRequest.of(page, size, Sort.by(Sort.Direction.fromString(direction), sortBy)));
+        return new ResponseEntity<>(withdrawalResponses, HttpStatus.OK);
     }
 
     
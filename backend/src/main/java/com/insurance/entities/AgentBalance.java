@@ -0,0 +1,35 @@
+package com.insurance.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Running totals of an agent's ledger, kept in step with every entry written.
+ */
+@Entity
+@Data
+@Table(name = "agent_balances")
+public class AgentBalance {
+
+    @Id
+    private String agentId;
+
+    @Column(nullable = false)
+    private long soldPolicies;
+
+    @Column(nullable = false)
+    private long cancelledPolicies;
+
+    @Column(nullable = false)
+    private double totalCommission;
+
+    @Column(nullable = false)
+    private double totalPenalty;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,51 @@
+package com.insurance.entities;
+
+import java.time.LocalDateTime;
+
+import com.insurance.enums.LedgerEntryType;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Append-only record of one commission or penalty earned by an agent, with the amount
+ * fixed at the time of the event. settlementId is set once the entry's period is closed.
+ */
+@Entity
+@Data
+@Table(name = "agent_ledger", indexes = {
+        @Index(name = "uk_agent_ledger_policy_type", columnList = "policyId, entryType", unique = true),
+        @Index(name = "idx_agent_ledger_agent_settlement", columnList = "agentId, settlementId")
+})
+public class AgentLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String agentId;
+
+    @Column(nullable = false)
+    private String policyId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private LedgerEntryType entryType;
+
+    @Column(nullable = false)
+    private double amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private Long settlementId;
+}
@@ -0,0 +1,48 @@
+package com.insurance.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * A closed ledger period for one agent: what was earned in the period and the
+ * cumulative totals as of its end.
+ */
+@Entity
+@Data
+@Table(name = "agent_settlements", indexes =
+        @Index(name = "uk_agent_settlements_agent_period", columnList = "agentId, periodEnd", unique = true))
+public class AgentSettlement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String agentId;
+
+    @Column(nullable = false)
+    private LocalDateTime periodEnd;
+
+    @Column(nullable = false)
+    private double commission;
+
+    @Column(nullable = false)
+    private double penalty;
+
+    @Column(nullable = false)
+    private double closingCommission;
+
+    @Column(nullable = false)
+    private double closingPenalty;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.insurance.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "attempt_windows")
+public class AttemptWindow {
+
+    @Id
+    @Column(name = "attempt_key", length = 128)
+    private String key;
+
+    @Column(nullable = false)
+    private long windowStart;
+
+    @Column(nullable = false)
+    private long windowMillis;
+
+    @Column(nullable = false)
+    private int currentCount;
+
+    @Column(nullable = false)
+    private int previousCount;
+}
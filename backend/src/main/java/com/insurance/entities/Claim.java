@@ -1,6 +1,7 @@
 package com.insurance.entities;
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import com.insurance.enums.ClaimStatus;
@@ -39,6 +40,8 @@ public class Claim {
 	    @Enumerated(EnumType.STRING)
 	    private ClaimStatus status = ClaimStatus.PENDING;
 
+	    private LocalDateTime decidedAt;
+
 	    
 	
 }
@@ -0,0 +1,25 @@
+package com.insurance.entities;
+
+import com.insurance.enums.DataTable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "data_versions")
+public class DataVersion {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "table_name", length = 32)
+    private DataTable dataTable;
+
+    @Column(nullable = false)
+    private long version;
+}
@@ -0,0 +1,19 @@
+package com.insurance.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "id_sequences")
+public class IdSequence {
+
+    @Id
+    private String prefix;
+
+    @Column(nullable = false)
+    private long nextValue;
+}
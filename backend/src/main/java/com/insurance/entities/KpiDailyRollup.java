@@ -0,0 +1,58 @@
+package com.insurance.entities;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Business totals for one day and one (state, city, insurance type, scheme, plan) combination.
+ * Missing dimensions, such as a customer without a city, are stored as an empty string so the
+ * unique key still matches.
+ */
+@Entity
+@Data
+@Table(name = "kpi_daily_rollups", indexes = @Index(name = "uk_kpi_daily_rollups_key",
+        columnList = "rollupDate, stateId, cityId, insuranceTypeId, schemeId, planId", unique = true))
+public class KpiDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate rollupDate;
+
+    @Column(nullable = false, length = 64)
+    private String stateId;
+
+    @Column(nullable = false, length = 64)
+    private String cityId;
+
+    @Column(nullable = false, length = 64)
+    private String insuranceTypeId;
+
+    @Column(nullable = false, length = 64)
+    private String schemeId;
+
+    @Column(nullable = false, length = 64)
+    private String planId;
+
+    @Column(nullable = false)
+    private long newPolicies;
+
+    @Column(nullable = false)
+    private double premiumCollected;
+
+    @Column(nullable = false)
+    private long claimsApproved;
+
+    @Column(nullable = false)
+    private long withdrawalsApproved;
+}
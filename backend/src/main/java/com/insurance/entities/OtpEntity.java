@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "otp")
+@Table(name = "otp_codes", indexes = {
+        @Index(name = "uk_otp_codes_username_hash", columnList = "username, otpHash", unique = true),
+        @Index(name = "idx_otp_codes_expiration", columnList = "expirationTime")
+})
 public class OtpEntity {
 
     @Id
@@ -14,19 +17,25 @@ public class OtpEntity {
     @Column(nullable = false)
     private String username;  
 
-    @Column(nullable = false)
-    private String otp;
+    @Column(nullable = false, length = 64)
+    private String otpHash;
 
     @Column(nullable = false)
     private LocalDateTime expirationTime;
 
+    @Column(nullable = false)
+    private boolean verified;
+
+    @Column(nullable = false)
+    private int failedAttempts;
+
    
     public OtpEntity() {}
 
    
-    public OtpEntity(String username, String otp, LocalDateTime expirationTime) {
+    public OtpEntity(String username, String otpHash, LocalDateTime expirationTime) {
         this.username = username;
-        this.otp = otp;
+        this.otpHash = otpHash;
         this.expirationTime = expirationTime;
     }
 
@@ -47,12 +56,12 @@ public class OtpEntity {
         this.username = username;
     }
 
-    public String getOtp() {
-        return otp;
+    public String getOtpHash() {
+        return otpHash;
     }
 
-    public void setOtp(String otp) {
-        this.otp = otp;
+    public void setOtpHash(String otpHash) {
+        this.otpHash = otpHash;
     }
 
     public LocalDateTime getExpirationTime() {
@@ -62,4 +71,20 @@ public class OtpEntity {
     public void setExpirationTime(LocalDateTime expirationTime) {
         this.expirationTime = expirationTime;
     }
+
+    public boolean isVerified() {
+        return verified;
+    }
+
+    public void setVerified(boolean verified) {
+        this.verified = verified;
+    }
+
+    public int getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public void setFailedAttempts(int failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
 }
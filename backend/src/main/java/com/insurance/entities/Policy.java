@@ -14,7 +14,7 @@ import jakarta.validation.constraints.PastOrPresent;
 import lombok.Data;
 
 @Entity
-@Table(name = "policies")
+@Table(name = "policies", indexes = @Index(name = "idx_policies_agent_status_plan", columnList = "agent_id, status, plan_id"))
 @Data
 public class Policy {
 
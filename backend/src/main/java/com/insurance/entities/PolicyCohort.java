@@ -0,0 +1,54 @@
+package com.insurance.entities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Persistency counts for the policies issued in one month by one agent under one plan. A policy is
+ * eligible for the 13th/25th month once that month's premium plus the grace period has fallen due,
+ * and persisting if every installment due by then was paid. Direct sales use an empty agentId.
+ */
+@Entity
+@Data
+@Table(name = "policy_cohorts", indexes = @Index(name = "uk_policy_cohorts_key",
+        columnList = "cohortMonth, agentId, planId", unique = true))
+public class PolicyCohort {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate cohortMonth;
+
+    @Column(nullable = false, length = 64)
+    private String agentId;
+
+    @Column(nullable = false, length = 64)
+    private String planId;
+
+    private long policies;
+
+    private long eligible13;
+
+    private long persisting13;
+
+    private long eligible25;
+
+    private long persisting25;
+
+    @Column(nullable = false)
+    private LocalDate asOf;
+
+    @Column(nullable = false)
+    private LocalDateTime computedAt;
+}
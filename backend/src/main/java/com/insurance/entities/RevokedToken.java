@@ -0,0 +1,38 @@
+package com.insurance.entities;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * A single revoked token (tokenId set) or every token of a user issued below minVersion
+ * (tokenId null). Rows are kept until the tokens they cover have expired.
+ */
+@Entity
+@Data
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expiresAt"))
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 64)
+    private String tokenId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private int minVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
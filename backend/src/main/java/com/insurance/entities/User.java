@@ -52,4 +52,8 @@ public class User {
     @Column(nullable = false)
     private boolean isActive;
 
+    // bumped on activation changes so previously issued tokens stop being accepted
+    @Column(nullable = false)
+    private int tokenVersion;
+
 }
@@ -44,6 +44,8 @@ public class WithdrawalRequest {
     @ManyToOne
     @JoinColumn(name="admin_id")
     private Admin admin;
+
+    private LocalDateTime decidedAt;
     
     
 }
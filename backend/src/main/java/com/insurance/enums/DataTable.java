@@ -0,0 +1,5 @@
+package com.insurance.enums;
+
+public enum DataTable {
+	CUSTOMERS, AGENTS, TRANSACTIONS, POLICIES
+}
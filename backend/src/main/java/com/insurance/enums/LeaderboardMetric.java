@@ -0,0 +1,5 @@
+package com.insurance.enums;
+
+public enum LeaderboardMetric {
+	POLICIES_SOLD, PREMIUM_VOLUME, NET_COMMISSION
+}
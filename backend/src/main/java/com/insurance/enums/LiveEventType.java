@@ -0,0 +1,5 @@
+package com.insurance.enums;
+
+public enum LiveEventType {
+	CUSTOMER_PENDING, CLAIM_SUBMITTED, WITHDRAWAL_REQUESTED, PAYMENT_RECEIVED, QUERY_SUBMITTED
+}
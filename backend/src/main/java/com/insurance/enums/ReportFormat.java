@@ -0,0 +1,5 @@
+package com.insurance.enums;
+
+public enum ReportFormat {
+	PDF, CSV, NDJSON, XLSX
+}
@@ -0,0 +1,5 @@
+package com.insurance.enums;
+
+public enum ReportType {
+	CUSTOMERS, AGENTS, TRANSACTIONS, POLICIES, COMMISSIONS
+}
@@ -5,6 +5,7 @@ import java.time.LocalDateTime;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -52,6 +53,30 @@ public class GlobalExceptionHandler {
 		return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
 	}
 	
+	@ExceptionHandler
+	public ResponseEntity<ErrorResponse> handleException(ServiceUnavailableException exc) {
+		ErrorResponse error = new ErrorResponse();
+		error.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		error.setMessage(exc.getMessage());
+		error.setTimeStamp(LocalDateTime.now());
+		logger.warn(exc.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, "1")
+				.body(error);
+	}
+	
+	@ExceptionHandler
+	public ResponseEntity<ErrorResponse> handleException(TooManyRequestsException exc) {
+		ErrorResponse error = new ErrorResponse();
+		error.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+		error.setMessage(exc.getMessage());
+		error.setTimeStamp(LocalDateTime.now());
+		logger.warn(exc.getMessage());
+		return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(exc.getRetryAfterSeconds()))
+				.body(error);
+	}
+	
 	@ExceptionHandler
     public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException ex) {
         ErrorResponse error = new ErrorResponse();
@@ -0,0 +1,21 @@
+package com.insurance.interfaces;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.insurance.entities.Policy;
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.response.CommissionResponse;
+
+public interface IAgentLedgerService {
+
+	void recordCommission(Policy policy);
+
+	void recordPenalty(Policy policy);
+
+	AgentSummaryResponse getSummary(String agentId);
+
+	void applyRecordedCommissions(List<CommissionResponse> commissions);
+
+	int settle(LocalDateTime cutoff);
+}
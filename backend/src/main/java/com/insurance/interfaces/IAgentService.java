@@ -3,10 +3,11 @@ package com.insurance.interfaces;
 import com.insurance.request.AgentRegisterRequest;
 import com.insurance.response.AgentResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 public interface IAgentService {
 
-	String registerAgent(String token, AgentRegisterRequest registerDto);
+	String registerAgent(Actor actor, AgentRegisterRequest registerDto);
 	String updateAgent(String agent_id, AgentRegisterRequest agentRequest);
 	String deleteAgent(String agent_id);
 	String activateAgent(String agent_id);
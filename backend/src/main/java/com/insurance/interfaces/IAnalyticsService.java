@@ -0,0 +1,14 @@
+package com.insurance.interfaces;
+
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+import com.insurance.response.AnalyticsStatusResponse;
+
+public interface IAnalyticsService {
+
+	AnalyticsQueryResponse query(AnalyticsQueryRequest request);
+
+	AnalyticsStatusResponse getStatus();
+
+	void refresh();
+}
@@ -3,22 +3,28 @@ package com.insurance.interfaces;
 import com.insurance.request.LoginDto;
 import com.insurance.request.ProfileRequest;
 import com.insurance.response.ProfileResponse;
+import com.insurance.response.SessionResponse;
 import com.insurance.request.ChangePasswordRequest;
+import com.insurance.security.Actor;
 
 public interface IAuthService {
     String login(LoginDto loginDto);
 
 
-	String getRole(String token);
+	String getRole(Actor actor);
 
-	String profileUpdate(String token, ProfileRequest profileRequest);
+	String profileUpdate(Actor actor, ProfileRequest profileRequest);
 	
 
-	String changePassword(String token, ChangePasswordRequest profileRequest);
+	String changePassword(Actor actor, ChangePasswordRequest profileRequest);
 
-	ProfileResponse getProfile(String token);
+	ProfileResponse getProfile(Actor actor);
 
 
-	String getUsername(String token);
+	String getUsername(Actor actor);
+
+	SessionResponse getSession(Actor actor);
+
+	String logout(String token);
 
 }
@@ -0,0 +1,13 @@
+package com.insurance.interfaces;
+
+import com.insurance.request.BatchRequest;
+import com.insurance.response.BatchResponse;
+import com.insurance.security.Actor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+public interface IBatchService {
+
+	BatchResponse execute(Actor actor, HttpServletRequest request, HttpServletResponse response, BatchRequest batch);
+}
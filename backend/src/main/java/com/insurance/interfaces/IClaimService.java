@@ -6,12 +6,13 @@ import org.springframework.data.domain.Pageable;
 import com.insurance.request.ClaimRequest;
 import com.insurance.response.ClaimResponse;
 import com.insurance.response.DocumentResponse;
+import com.insurance.security.Actor;
 
 import java.util.List;
 
 public interface IClaimService {
 
-    String requestClaim(String token, ClaimRequest claimRequest, String policyId);
+    String requestClaim(Actor actor, ClaimRequest claimRequest, String policyId);
 
     List<DocumentResponse> getDocumentsByClaimId(Long claimId, String token);
 
@@ -4,13 +4,14 @@ import com.insurance.request.CustomerRegisterRequest;
 import com.insurance.response.CustomerResponse;
 import com.insurance.response.CustomerResponseForUpdate;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import jakarta.validation.Valid;
 
 public interface ICustomerService {
 
 	
-	String registerCustomer(String token, @Valid CustomerRegisterRequest registerDto) ;
+	String registerCustomer(Actor actor, @Valid CustomerRegisterRequest registerDto) ;
 
 	PagedResponse<CustomerResponse> getAllCustomers(int page, int size, String sortBy, String direction, String searchQuery);
 
@@ -20,11 +21,11 @@ public interface ICustomerService {
 
 	String activateCustomer(String id);
 	
-	String verifyCustomerapprove(String token, String id);
+	String verifyCustomerapprove(Actor actor, String id);
 
-	String verifyCustomerReject(String token, String id);
+	String verifyCustomerReject(Actor actor, String id);
 
-	PagedResponse<CustomerResponse> getMyCustomersForAgent(String token, int page, int size, String sortBy, String direction,
+	PagedResponse<CustomerResponse> getMyCustomersForAgent(Actor actor, int page, int size, String sortBy, String direction,
 			String searchQuery);
 
 	CustomerResponseForUpdate getCustomerbyId(String customer_id);
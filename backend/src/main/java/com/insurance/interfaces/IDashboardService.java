@@ -1,5 +1,8 @@
 package com.insurance.interfaces;
 
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.security.Actor;
+
 public interface IDashboardService {
 
 	long getTotalAdmins();
@@ -10,12 +13,14 @@ public interface IDashboardService {
 
 	long getTotalEmployees();
 	
-	Double getMyCommissions(String token);
+	Double getMyCommissions(Actor actor);
+
+	Double getMyWithdrawals(Actor actor);
 
-	Double getMyWithdrawals(String token);
+	Long getCancelledPolicies(Actor actor);
 
-	Long getCancelledPolicies(String token);
+	Long getSoldPolicies(Actor actor);
 
-	Long getSoldPolicies(String token);
+	AgentSummaryResponse getAgentSummary(Actor actor);
 
 }
@@ -0,0 +1,23 @@
+package com.insurance.interfaces;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.insurance.entities.Policy;
+import com.insurance.response.KpiTrendResponse;
+
+public interface IKpiRollupService {
+
+	void recordNewPolicy(Policy policy);
+
+	void recordPremium(Policy policy, double amount);
+
+	void recordClaimApproved(Policy policy);
+
+	void recordWithdrawalApproved(Policy policy);
+
+	List<KpiTrendResponse> getTrend(LocalDate from, LocalDate to, String stateId, String cityId,
+			String insuranceTypeId, String schemeId, String planId);
+
+	int rebuild(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,17 @@
+package com.insurance.interfaces;
+
+import com.insurance.entities.Policy;
+import com.insurance.enums.LeaderboardMetric;
+import com.insurance.enums.LeaderboardWindow;
+import com.insurance.response.LeaderboardResponse;
+
+public interface ILeaderboardService {
+
+	void recordPolicySold(Policy policy);
+
+	void recordWithdrawal(Policy policy);
+
+	LeaderboardResponse getLeaderboard(LeaderboardWindow window, LeaderboardMetric metric, String cityId, int limit);
+
+	void rebuild();
+}
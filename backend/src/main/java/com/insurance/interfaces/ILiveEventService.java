@@ -0,0 +1,12 @@
+package com.insurance.interfaces;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.insurance.security.Actor;
+
+public interface ILiveEventService {
+
+	SseEmitter subscribe(Actor actor, Long lastEventId);
+
+	int getSubscriberCount();
+}
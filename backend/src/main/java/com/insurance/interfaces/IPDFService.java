@@ -1,22 +1,33 @@
 package com.insurance.interfaces;
 
-import org.springframework.core.io.Resource;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
 import org.springframework.http.ResponseEntity;
 
-import com.itextpdf.text.DocumentException;
+import com.insurance.enums.ReportFormat;
+import com.insurance.enums.ReportType;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 public interface IPDFService {
 
-	ResponseEntity<Resource> customerReport(String username) throws DocumentException;
+	ResponseEntity<?> customerReport(String username, String format, HttpServletRequest request);
+
+	ResponseEntity<?> agentReport(String username, String format, HttpServletRequest request);
+
+	ResponseEntity<?> transactionReport(String username, String format, HttpServletRequest request);
+
+	long countReportRows(ReportType type, String subjectId);
 
-	ResponseEntity<Resource> agentReport(String username) throws DocumentException;
+	long writeReport(ReportType type, String subjectId, ReportFormat format, OutputStream out, LongConsumer progress);
 
-	ResponseEntity<Resource> transactionReport(String username) throws DocumentException;
+	String reportFileName(ReportType type);
 
-	ResponseEntity<Resource> policyReport(String customerId, String username) throws DocumentException;
+	String reportVersion(ReportType type);
 
-	ResponseEntity<Resource> commissionReport(String agentId, String username) throws DocumentException;
+	ResponseEntity<?> policyReport(String customerId, String username, String format, HttpServletRequest request);
 
-	ResponseEntity<Resource> downloadReceipt(String transactionId, String username) throws DocumentException;
+	ResponseEntity<?> commissionReport(String agentId, String username, String format, HttpServletRequest request);
 
 }
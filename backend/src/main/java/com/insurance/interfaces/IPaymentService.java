@@ -1,11 +1,12 @@
 package com.insurance.interfaces;
 
 import com.insurance.request.PaymentRequestDto;
+import com.insurance.security.Actor;
 import com.stripe.exception.StripeException;
 
 public interface IPaymentService {
 
-	String processPayment(String token, PaymentRequestDto paymentRequestDto) throws StripeException;
+	String processPayment(Actor actor, PaymentRequestDto paymentRequestDto) throws StripeException;
 
 	double calculateTotalAmount(double installmentAmount, String policy_id);
 
@@ -0,0 +1,13 @@
+package com.insurance.interfaces;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.insurance.response.PersistencyResponse;
+
+public interface IPersistencyService {
+
+	int rebuildCohorts();
+
+	List<PersistencyResponse> getPersistency(String groupBy, LocalDate from, LocalDate to, String agentId, String planId);
+}
@@ -4,22 +4,23 @@ import com.insurance.request.PolicyRequest;
 import com.insurance.response.CommissionResponse;
 import com.insurance.response.PolicyResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 import org.springframework.data.domain.Pageable;
 
 public interface IPolicyService {
 
-    String createPolicy(String token, PolicyRequest policyRequest);
+    String createPolicy(Actor actor, PolicyRequest policyRequest);
 
-    PagedResponse<PolicyResponse> getAllPolicies(String token,Pageable pageable);
+    PagedResponse<PolicyResponse> getAllPolicies(Actor actor,Pageable pageable);
 
-    PagedResponse<PolicyResponse> getPoliciesByCustomerId(String token, String customerId, Pageable pageable);
+    PagedResponse<PolicyResponse> getPoliciesByCustomerId(Actor actor, String customerId, Pageable pageable);
 
-    PagedResponse<PolicyResponse> getMyPolicies(String token, Pageable pageable);
+    PagedResponse<PolicyResponse> getMyPolicies(Actor actor, Pageable pageable);
 
-	PagedResponse<CommissionResponse> getMyCommission(String token, String searchQuery, Pageable pageable);
+	PagedResponse<CommissionResponse> getMyCommission(Actor actor, String searchQuery, Pageable pageable);
 
-	PagedResponse<CommissionResponse> getCommissionByAgentId(String token, String agentId, Pageable pageable);
+	PagedResponse<CommissionResponse> getCommissionByAgentId(Actor actor, String agentId, Pageable pageable);
 
 	PolicyResponse getPolicybyId(String policyid);
 }
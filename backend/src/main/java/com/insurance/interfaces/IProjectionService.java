@@ -0,0 +1,10 @@
+package com.insurance.interfaces;
+
+import com.insurance.response.CashFlowProjectionResponse;
+
+public interface IProjectionService {
+
+	CashFlowProjectionResponse getProjection(Integer years, Double annualClaimRate);
+
+	String getProjectionCsv(Integer years, Double annualClaimRate);
+}
@@ -4,12 +4,13 @@ import com.insurance.request.CustomerQueryRequest;
 import com.insurance.request.EmployeeQueryRequest;
 import com.insurance.response.CustomerQueryResponse;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 public interface IQueryService {
 
-	String addQuery(String token, CustomerQueryRequest queryRequest);
+	String addQuery(Actor actor, CustomerQueryRequest queryRequest);
 
-	String addResponseQuery(String token, EmployeeQueryRequest queryRequest,long id);
+	String addResponseQuery(Actor actor, EmployeeQueryRequest queryRequest,long id);
 
 	PagedResponse<CustomerQueryResponse> getAllQueries(int page, int size, String sortBy, String direction,
 			String searchquery);
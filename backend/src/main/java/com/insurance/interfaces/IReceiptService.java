@@ -0,0 +1,13 @@
+package com.insurance.interfaces;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+
+import com.insurance.security.Actor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface IReceiptService {
+
+	ResponseEntity<Resource> downloadReceipt(String transactionId, Actor actor, HttpServletRequest request);
+}
@@ -0,0 +1,17 @@
+package com.insurance.interfaces;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+
+import com.insurance.response.ReportJobResponse;
+import com.insurance.security.Actor;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public interface IReportJobService {
+
+	ReportJobResponse submit(Actor actor, String type, Map<String, String> parameters);
+
+	ResponseEntity<?> getJob(String jobId, HttpServletRequest request);
+}
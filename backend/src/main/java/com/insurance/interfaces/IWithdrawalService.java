@@ -4,19 +4,20 @@ import org.springframework.data.domain.PageRequest;
 
 import com.insurance.response.WithdrawalRequestDTO;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 public interface IWithdrawalService {
 
-	void withdrawalRequest(String token, String policy_id);
+	void withdrawalRequest(Actor actor, String policy_id);
 
-	String approveWithdrawal(String token, long withdrawal_id);
+	String approveWithdrawal(Actor actor, long withdrawal_id);
 
-	String rejectWithdrawal(String token, long withdrawal_id);
+	String rejectWithdrawal(Actor actor, long withdrawal_id);
 
 	PagedResponse<WithdrawalRequestDTO> getAllWithdrawalRequests(int page, int size, String sortBy, String direction,
 			String searchQuery);
 
-	PagedResponse<WithdrawalRequestDTO> getMyWithdrawals(String token, String searchQuery, PageRequest of);
+	PagedResponse<WithdrawalRequestDTO> getMyWithdrawals(Actor actor, String searchQuery, PageRequest of);
 
 
 }
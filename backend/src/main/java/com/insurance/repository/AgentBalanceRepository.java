@@ -0,0 +1,23 @@
+package com.insurance.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.AgentBalance;
+
+public interface AgentBalanceRepository extends JpaRepository<AgentBalance, String> {
+
+	@Modifying
+	@Query("UPDATE AgentBalance b SET b.soldPolicies = b.soldPolicies + 1, " +
+	           "b.totalCommission = b.totalCommission + :amount, b.updatedAt = :now WHERE b.agentId = :agentId")
+	int addCommission(@Param("agentId") String agentId, @Param("amount") double amount, @Param("now") LocalDateTime now);
+
+	@Modifying
+	@Query("UPDATE AgentBalance b SET b.cancelledPolicies = b.cancelledPolicies + 1, " +
+	           "b.totalPenalty = b.totalPenalty + :amount, b.updatedAt = :now WHERE b.agentId = :agentId")
+	int addPenalty(@Param("agentId") String agentId, @Param("amount") double amount, @Param("now") LocalDateTime now);
+}
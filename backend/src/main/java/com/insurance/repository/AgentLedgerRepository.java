@@ -0,0 +1,60 @@
+package com.insurance.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.AgentLedgerEntry;
+import com.insurance.enums.LedgerEntryType;
+
+public interface AgentLedgerRepository extends JpaRepository<AgentLedgerEntry, Long> {
+
+	List<AgentLedgerEntry> findByPolicyIdInAndEntryType(Collection<String> policyIds, LedgerEntryType entryType);
+
+	@Query("SELECT e.id FROM AgentLedgerEntry e WHERE e.policyId = :policyId AND e.entryType = :entryType")
+	Optional<Long> findIdByPolicyIdAndEntryType(@Param("policyId") String policyId,
+			@Param("entryType") LedgerEntryType entryType);
+
+	@Query("SELECT COALESCE(MAX(e.id), 0) FROM AgentLedgerEntry e")
+	long findMaxId();
+
+	// agentId, entryType, sum of amounts
+	@Query("SELECT e.agentId, e.entryType, SUM(e.amount) FROM AgentLedgerEntry e " +
+	           "WHERE e.settlementId IS NULL AND e.createdAt < :cutoff " +
+	           "GROUP BY e.agentId, e.entryType")
+	List<Object[]> sumUnsettledBefore(@Param("cutoff") LocalDateTime cutoff);
+
+	@Modifying
+	@Query("UPDATE AgentLedgerEntry e SET e.settlementId = :settlementId " +
+	           "WHERE e.agentId = :agentId AND e.settlementId IS NULL AND e.createdAt < :cutoff")
+	int markSettled(@Param("agentId") String agentId, @Param("settlementId") Long settlementId,
+			@Param("cutoff") LocalDateTime cutoff);
+
+	// policyId, agentId, startDate, commission of policies sold before the ledger existed
+	@Query("SELECT p.policyId, p.agent.agentId, p.startDate, s.newRegistrationCommission FROM Policy p " +
+	           "JOIN p.plan plan JOIN plan.insuranceScheme s " +
+	           "WHERE p.agent IS NOT NULL AND NOT EXISTS (SELECT e.id FROM AgentLedgerEntry e " +
+	           "WHERE e.policyId = p.policyId AND e.entryType = com.insurance.enums.LedgerEntryType.COMMISSION)")
+	List<Object[]> findUnrecordedCommissions();
+
+	@Query("SELECT p.policyId, p.agent.agentId, p.startDate, s.withdrawalPenalty FROM Policy p " +
+	           "JOIN p.plan plan JOIN plan.insuranceScheme s " +
+	           "WHERE p.agent IS NOT NULL AND p.status = com.insurance.enums.PolicyStatus.CANCELLED " +
+	           "AND NOT EXISTS (SELECT e.id FROM AgentLedgerEntry e " +
+	           "WHERE e.policyId = p.policyId AND e.entryType = com.insurance.enums.LedgerEntryType.PENALTY)")
+	List<Object[]> findUnrecordedPenalties();
+
+	// agentId, agent name, agent cityId, commissions minus penalties written since the given time,
+	// up to and including the given entry
+	@Query("SELECT a.agentId, a.name, a.city.cityId, " +
+	           "SUM(CASE WHEN e.entryType = com.insurance.enums.LedgerEntryType.COMMISSION THEN e.amount ELSE -e.amount END) " +
+	           "FROM AgentLedgerEntry e JOIN Agent a ON a.agentId = e.agentId " +
+	           "WHERE e.createdAt >= :from AND e.id <= :maxLedgerId GROUP BY a.agentId, a.name, a.city.cityId")
+	List<Object[]> sumNetByAgentSince(@Param("from") LocalDateTime from, @Param("maxLedgerId") long maxLedgerId);
+}
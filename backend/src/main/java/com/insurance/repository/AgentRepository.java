@@ -1,12 +1,18 @@
 package com.insurance.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 import com.insurance.entities.Agent;
 import com.insurance.entities.City;
 import com.insurance.entities.User;
@@ -15,6 +21,23 @@ public interface AgentRepository extends JpaRepository<Agent, String> {
 
     Agent findByUser(User user);
 
+    // agentId, name, username, email, active
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    @Query("SELECT a.agentId, a.name, u.username, u.email, u.isActive FROM Agent a " +
+               "JOIN a.user u ORDER BY a.agentId")
+    Stream<Object[]> streamReportRows();
+
+    // every report key in order, read in one pass to split the report into key ranges for a parallel render
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    @Query("SELECT a.agentId FROM Agent a ORDER BY a.agentId")
+    Stream<String> streamReportKeys();
+
+    // streamReportRows limited to keys in [from, to); a null bound is open
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+    @Query("SELECT a.agentId, a.name, u.username, u.email, u.isActive FROM Agent a " +
+               "JOIN a.user u WHERE (:from IS NULL OR a.agentId >= :from) AND (:to IS NULL OR a.agentId < :to) ORDER BY a.agentId")
+    Stream<Object[]> streamReportRowsBetween(@Param("from") String from, @Param("to") String to);
+
     @Query("SELECT a FROM Agent a " +
     	       "WHERE (:searchQuery IS NULL OR " +
     	       "LOWER(a.name) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
@@ -0,0 +1,15 @@
+package com.insurance.repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.insurance.entities.AgentSettlement;
+
+public interface AgentSettlementRepository extends JpaRepository<AgentSettlement, Long> {
+
+	Optional<AgentSettlement> findTopByAgentIdOrderByPeriodEndDesc(String agentId);
+
+	List<AgentSettlement> findByAgentIdOrderByPeriodEndDesc(String agentId);
+}
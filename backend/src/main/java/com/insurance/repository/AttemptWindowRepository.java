@@ -0,0 +1,24 @@
+package com.insurance.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.AttemptWindow;
+
+import jakarta.persistence.LockModeType;
+
+public interface AttemptWindowRepository extends JpaRepository<AttemptWindow, String> {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT w FROM AttemptWindow w WHERE w.key = :key")
+	Optional<AttemptWindow> findForUpdate(@Param("key") String key);
+
+	@Modifying
+	@Query("DELETE FROM AttemptWindow w WHERE w.windowStart + 2 * w.windowMillis < :now")
+	int deleteExpired(@Param("now") long now);
+}
@@ -1,5 +1,7 @@
 package com.insurance.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -20,4 +22,11 @@ public interface ClaimRepository extends JpaRepository<Claim, Long>{
 			 "WHERE CONCAT(p.customer.customerId, ' ', p.policyId, ' ', c.claimId) LIKE %:searchQuery% ")
 	Page<Claim> findAllWithSearchQuery(String searchQuery, Pageable pageable);
 
+	@Query("SELECT c.policy.policyId FROM Claim c WHERE c.decidedAt > :since")
+	List<String> findPolicyIdsDecidedSince(@Param("since") LocalDateTime since);
+
+	@Query("SELECT COALESCE(SUM(p.totalInvestmentAmount), 0) FROM Claim c JOIN c.policy p " +
+	           "WHERE c.status = com.insurance.enums.ClaimStatus.PENDING AND p.status = com.insurance.enums.PolicyStatus.ACTIVE")
+	Number sumPendingClaimInvestment();
+
 }
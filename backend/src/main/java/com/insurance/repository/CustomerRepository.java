@@ -1,12 +1,18 @@
 package com.insurance.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.QueryHint;
+
 import com.insurance.entities.Agent;
 import com.insurance.entities.City;
 import com.insurance.entities.Customer;
@@ -16,6 +22,23 @@ public interface CustomerRepository extends JpaRepository<Customer,String >{
 
 	Customer findByUser(User user);
 
+	// customerId, name, username, email, active, status
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT c.customerId, c.name, u.username, u.email, u.isActive, c.status FROM Customer c " +
+	           "JOIN c.user u ORDER BY c.customerId")
+	Stream<Object[]> streamReportRows();
+
+	// every report key in order, read in one pass to split the report into key ranges for a parallel render
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT c.customerId FROM Customer c ORDER BY c.customerId")
+	Stream<String> streamReportKeys();
+
+	// streamReportRows limited to keys in [from, to); a null bound is open
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT c.customerId, c.name, u.username, u.email, u.isActive, c.status FROM Customer c " +
+	           "JOIN c.user u WHERE (:from IS NULL OR c.customerId >= :from) AND (:to IS NULL OR c.customerId < :to) ORDER BY c.customerId")
+	Stream<Object[]> streamReportRowsBetween(@Param("from") String from, @Param("to") String to);
+
 	@Query("SELECT c FROM Customer c " +
 	           "JOIN c.user u " +
 	           "WHERE CONCAT(c.customerId, ' ', c.name, ' ', u.username, ' ', u.email, ' ', c.phoneNumber) LIKE %:searchQuery%")
@@ -0,0 +1,18 @@
+package com.insurance.repository;
+
+import java.util.Collection;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.DataVersion;
+import com.insurance.enums.DataTable;
+
+public interface DataVersionRepository extends JpaRepository<DataVersion, DataTable> {
+
+	@Modifying
+	@Query("UPDATE DataVersion v SET v.version = v.version + 1 WHERE v.dataTable IN :tables")
+	int increment(@Param("tables") Collection<DataTable> tables);
+}
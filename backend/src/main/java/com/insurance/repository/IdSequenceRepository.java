@@ -0,0 +1,19 @@
+package com.insurance.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.IdSequence;
+
+import jakarta.persistence.LockModeType;
+
+public interface IdSequenceRepository extends JpaRepository<IdSequence, String> {
+
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT s FROM IdSequence s WHERE s.prefix = :prefix")
+	Optional<IdSequence> findForUpdate(@Param("prefix") String prefix);
+}
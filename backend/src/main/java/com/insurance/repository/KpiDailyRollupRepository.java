@@ -0,0 +1,77 @@
+package com.insurance.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.insurance.entities.KpiDailyRollup;
+import com.insurance.response.KpiTrendResponse;
+
+public interface KpiDailyRollupRepository extends JpaRepository<KpiDailyRollup, Long> {
+
+	String DIMENSIONS = "state.stateId, city.cityId, type.insuranceTypeId, scheme.insuranceSchemeId, plan.insuranceId";
+
+	String POLICY_DIMENSION_JOINS = "JOIN p.plan plan JOIN plan.insuranceScheme scheme JOIN scheme.insuranceType type " +
+	           "JOIN p.customer c LEFT JOIN c.city city LEFT JOIN city.state state ";
+
+	@Modifying
+	@Transactional
+	@Query(nativeQuery = true, value = "INSERT INTO kpi_daily_rollups " +
+	           "(rollup_date, state_id, city_id, insurance_type_id, scheme_id, plan_id, " +
+	           "new_policies, premium_collected, claims_approved, withdrawals_approved) " +
+	           "VALUES (:day, :stateId, :cityId, :typeId, :schemeId, :planId, :newPolicies, :premium, :claims, :withdrawals) " +
+	           "ON DUPLICATE KEY UPDATE new_policies = new_policies + VALUES(new_policies), " +
+	           "premium_collected = premium_collected + VALUES(premium_collected), " +
+	           "claims_approved = claims_approved + VALUES(claims_approved), " +
+	           "withdrawals_approved = withdrawals_approved + VALUES(withdrawals_approved)")
+	int increment(@Param("day") LocalDate day, @Param("stateId") String stateId, @Param("cityId") String cityId,
+			@Param("typeId") String insuranceTypeId, @Param("schemeId") String schemeId, @Param("planId") String planId,
+			@Param("newPolicies") long newPolicies, @Param("premium") double premium,
+			@Param("claims") long claims, @Param("withdrawals") long withdrawals);
+
+	@Modifying
+	@Query("DELETE FROM KpiDailyRollup r WHERE r.rollupDate = :day")
+	int deleteByDay(@Param("day") LocalDate day);
+
+	@Query("SELECT new com.insurance.response.KpiTrendResponse(r.rollupDate, SUM(r.newPolicies), SUM(r.premiumCollected), " +
+	           "SUM(r.claimsApproved), SUM(r.withdrawalsApproved)) FROM KpiDailyRollup r " +
+	           "WHERE r.rollupDate BETWEEN :from AND :to " +
+	           "AND (:stateId IS NULL OR r.stateId = :stateId) " +
+	           "AND (:cityId IS NULL OR r.cityId = :cityId) " +
+	           "AND (:typeId IS NULL OR r.insuranceTypeId = :typeId) " +
+	           "AND (:schemeId IS NULL OR r.schemeId = :schemeId) " +
+	           "AND (:planId IS NULL OR r.planId = :planId) " +
+	           "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+	List<KpiTrendResponse> findTrend(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("stateId") String stateId, @Param("cityId") String cityId, @Param("typeId") String insuranceTypeId,
+			@Param("schemeId") String schemeId, @Param("planId") String planId);
+
+	// the dimensions of a single policy, in DIMENSIONS order
+	@Query("SELECT " + DIMENSIONS + " FROM Policy p " + POLICY_DIMENSION_JOINS + "WHERE p.policyId = :policyId")
+	List<Object[]> findPolicyDimensions(@Param("policyId") String policyId);
+
+	// the queries below rebuild one day from the source tables: DIMENSIONS followed by the measure
+
+	@Query("SELECT " + DIMENSIONS + ", COUNT(p) FROM Policy p " + POLICY_DIMENSION_JOINS +
+	           "WHERE p.startDate = :day GROUP BY " + DIMENSIONS)
+	List<Object[]> countNewPolicies(@Param("day") LocalDate day);
+
+	@Query("SELECT " + DIMENSIONS + ", SUM(t.amount) FROM Transaction t JOIN t.policy p " + POLICY_DIMENSION_JOINS +
+	           "WHERE t.status = 'SUCCESSFUL' AND t.date >= :start AND t.date < :end GROUP BY " + DIMENSIONS)
+	List<Object[]> sumPremiums(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	@Query("SELECT " + DIMENSIONS + ", COUNT(cl) FROM Claim cl JOIN cl.policy p " + POLICY_DIMENSION_JOINS +
+	           "WHERE cl.status = com.insurance.enums.ClaimStatus.APPROVED " +
+	           "AND cl.decidedAt >= :start AND cl.decidedAt < :end GROUP BY " + DIMENSIONS)
+	List<Object[]> countApprovedClaims(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+	@Query("SELECT " + DIMENSIONS + ", COUNT(w) FROM WithdrawalRequest w JOIN w.policy p " + POLICY_DIMENSION_JOINS +
+	           "WHERE w.status = 'APPROVED' AND w.decidedAt >= :start AND w.decidedAt < :end GROUP BY " + DIMENSIONS)
+	List<Object[]> countApprovedWithdrawals(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+}
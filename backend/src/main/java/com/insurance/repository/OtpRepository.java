@@ -2,11 +2,35 @@ package com.insurance.repository;
 
 import com.insurance.entities.OtpEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.Optional;
+import java.time.LocalDateTime;
 
 public interface OtpRepository extends JpaRepository<OtpEntity, Long> {
 
-    Optional<OtpEntity> findByOtp(String otp); 
-    void deleteByUsername(String username);  
+    @Modifying
+    @Query("UPDATE OtpEntity o SET o.verified = true WHERE o.username = :username AND o.otpHash = :otpHash AND o.expirationTime > :now")
+    int markVerified(@Param("username") String username, @Param("otpHash") String otpHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE OtpEntity o SET o.failedAttempts = o.failedAttempts + 1 WHERE o.username = :username AND o.expirationTime > :now")
+    int recordFailedAttempt(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OtpEntity o WHERE o.username = :username AND o.failedAttempts >= :maxFailedAttempts")
+    int deleteExhausted(@Param("username") String username, @Param("maxFailedAttempts") int maxFailedAttempts);
+
+    @Modifying
+    @Query("DELETE FROM OtpEntity o WHERE o.username = :username AND o.verified = true AND o.expirationTime > :now")
+    int deleteVerified(@Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OtpEntity o WHERE o.username = :username")
+    int deleteByUsername(@Param("username") String username);
+
+    @Modifying
+    @Query("DELETE FROM OtpEntity o WHERE o.expirationTime < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
 }
@@ -0,0 +1,36 @@
+package com.insurance.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.insurance.entities.PolicyCohort;
+import com.insurance.response.PersistencyResponse;
+
+public interface PolicyCohortRepository extends JpaRepository<PolicyCohort, Long> {
+
+	String FILTERS = "WHERE c.cohortMonth BETWEEN :from AND :to " +
+	           "AND (:agentId IS NULL OR c.agentId = :agentId) " +
+	           "AND (:planId IS NULL OR c.planId = :planId) ";
+
+	String TOTALS = "SUM(c.policies), SUM(c.eligible13), SUM(c.persisting13), SUM(c.eligible25), SUM(c.persisting25)) " +
+	           "FROM PolicyCohort c ";
+
+	@Query("SELECT new com.insurance.response.PersistencyResponse(c.cohortMonth, " + TOTALS + FILTERS +
+	           "GROUP BY c.cohortMonth ORDER BY c.cohortMonth")
+	List<PersistencyResponse> findByCohort(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("agentId") String agentId, @Param("planId") String planId);
+
+	@Query("SELECT new com.insurance.response.PersistencyResponse(c.agentId, " + TOTALS + FILTERS +
+	           "GROUP BY c.agentId ORDER BY c.agentId")
+	List<PersistencyResponse> findByAgent(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("agentId") String agentId, @Param("planId") String planId);
+
+	@Query("SELECT new com.insurance.response.PersistencyResponse(c.planId, " + TOTALS + FILTERS +
+	           "GROUP BY c.planId ORDER BY c.planId")
+	List<PersistencyResponse> findByPlan(@Param("from") LocalDate from, @Param("to") LocalDate to,
+			@Param("agentId") String agentId, @Param("planId") String planId);
+}
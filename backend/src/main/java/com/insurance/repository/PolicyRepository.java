@@ -1,20 +1,56 @@
 package com.insurance.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.insurance.entities.Agent;
 import com.insurance.entities.Customer;
 import com.insurance.entities.Policy;
 import com.insurance.enums.PolicyStatus;
+import com.insurance.response.AgentSummaryResponse;
+
+import jakarta.persistence.QueryHint;
 
 public interface PolicyRepository extends JpaRepository<Policy, String> {
 
+	// policyId, agentId, customerId, planId, schemeId, insuranceTypeId, cityId, stateId, status,
+	// paymentInterval, startDate, totalInvestmentAmount, installmentAmount, totalAmountPaid
+	String ANALYTICS_COLUMNS = "SELECT p.policyId, a.agentId, c.customerId, plan.insuranceId, scheme.insuranceSchemeId, " +
+	           "type.insuranceTypeId, city.cityId, state.stateId, p.status, p.paymentInterval, p.startDate, " +
+	           "p.totalInvestmentAmount, p.installmentAmount, p.totalAmountPaid FROM Policy p " +
+	           "JOIN p.plan plan JOIN plan.insuranceScheme scheme JOIN scheme.insuranceType type " +
+	           "JOIN p.customer c LEFT JOIN c.city city LEFT JOIN city.state state LEFT JOIN p.agent a ";
+
+	@Query(ANALYTICS_COLUMNS + "WHERE p.policyId > :after ORDER BY p.policyId")
+	List<Object[]> findAnalyticsRowsAfter(@Param("after") String after, Pageable pageable);
+
+	@Query(ANALYTICS_COLUMNS + "WHERE p.startDate >= :since")
+	List<Object[]> findAnalyticsRowsStartedSince(@Param("since") LocalDate since);
+
+	@Query(ANALYTICS_COLUMNS + "WHERE p.policyId IN :ids")
+	List<Object[]> findAnalyticsRowsByIds(@Param("ids") Collection<String> ids);
+
+	// policyId, agentId, planId, startDate, paymentInterval
+	@Query("SELECT p.policyId, a.agentId, p.plan.insuranceId, p.startDate, p.paymentInterval FROM Policy p " +
+	           "LEFT JOIN p.agent a WHERE p.policyId > :after ORDER BY p.policyId")
+	List<Object[]> findCohortRowsAfter(@Param("after") String after, Pageable pageable);
+
+	// policyId, planId, paymentInterval, nextPaymentDate, endDate, installmentAmount, totalInvestmentAmount
+	@Query("SELECT p.policyId, p.plan.insuranceId, p.paymentInterval, p.nextPaymentDate, p.endDate, " +
+	           "p.installmentAmount, p.totalInvestmentAmount FROM Policy p " +
+	           "WHERE p.status = com.insurance.enums.PolicyStatus.ACTIVE AND p.policyId > :after ORDER BY p.policyId")
+	List<Object[]> findProjectionRowsAfter(@Param("after") String after, Pageable pageable);
+
 	Page<Policy> findByCustomer(Customer customer, Pageable pageable);
 
 	Page<Policy> findByAgent(Agent agent, Pageable pageable);
@@ -23,6 +59,46 @@ public interface PolicyRepository extends JpaRepository<Policy, String> {
 
 	List<Policy> findByAgent(Agent agent);
 
+	long countByCustomer(Customer customer);
+
+	long countByAgent(Agent agent);
+
+	// policyId, planId, startDate, endDate, policyTerm, totalInvestmentAmount, paymentInterval,
+	// installmentAmount, totalAmountPaid, nextPaymentDate
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT p.policyId, p.plan.insuranceId, p.startDate, p.endDate, p.policyTerm, p.totalInvestmentAmount, " +
+	           "p.paymentInterval, p.installmentAmount, p.totalAmountPaid, p.nextPaymentDate FROM Policy p " +
+	           "WHERE p.customer.customerId = :customerId ORDER BY p.policyId")
+	Stream<Object[]> streamCustomerReportRows(@Param("customerId") String customerId);
+
+	// policyId, planId, startDate, endDate, policyTerm, totalInvestmentAmount, paymentInterval,
+	// scheme registration commission, recorded commission (null when none was recorded)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT p.policyId, plan.insuranceId, p.startDate, p.endDate, p.policyTerm, p.totalInvestmentAmount, " +
+	           "p.paymentInterval, scheme.newRegistrationCommission, entry.amount FROM Policy p " +
+	           "JOIN p.plan plan JOIN plan.insuranceScheme scheme " +
+	           "LEFT JOIN AgentLedgerEntry entry ON entry.policyId = p.policyId " +
+	           "AND entry.entryType = com.insurance.enums.LedgerEntryType.COMMISSION " +
+	           "WHERE p.agent.agentId = :agentId ORDER BY p.policyId")
+	Stream<Object[]> streamAgentCommissionRows(@Param("agentId") String agentId);
+
+	@Query("SELECT new com.insurance.response.AgentSummaryResponse(" +
+	           "COUNT(p), " +
+	           "SUM(CASE WHEN p.status = com.insurance.enums.PolicyStatus.CANCELLED THEN 1 ELSE 0 END), " +
+	           "SUM(s.newRegistrationCommission), " +
+	           "SUM(CASE WHEN p.status = com.insurance.enums.PolicyStatus.CANCELLED THEN s.withdrawalPenalty ELSE 0 END)) " +
+	           "FROM Policy p JOIN p.plan plan JOIN plan.insuranceScheme s " +
+	           "WHERE p.agent.agentId = :agentId")
+	AgentSummaryResponse summarizeByAgentId(@Param("agentId") String agentId);
+
+	// agentId, agent name, agent cityId, policies sold, investment amount sold; leaves out policies
+	// whose commission was written after the given ledger entry
+	@Query("SELECT a.agentId, a.name, a.city.cityId, COUNT(p), SUM(p.totalInvestmentAmount) FROM Policy p " +
+	           "JOIN p.agent a WHERE p.startDate >= :from AND NOT EXISTS (SELECT e.id FROM AgentLedgerEntry e " +
+	           "WHERE e.policyId = p.policyId AND e.entryType = com.insurance.enums.LedgerEntryType.COMMISSION " +
+	           "AND e.id > :maxLedgerId) GROUP BY a.agentId, a.name, a.city.cityId")
+	List<Object[]> summarizeSalesByAgentSince(@Param("from") LocalDate from, @Param("maxLedgerId") long maxLedgerId);
+
 	@Query("SELECT p FROM Policy p " +
 	           "WHERE p.agent = :agent " +
 	           "AND p.status = :status")
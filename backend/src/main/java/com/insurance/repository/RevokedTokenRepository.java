@@ -0,0 +1,22 @@
+package com.insurance.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.insurance.entities.RevokedToken;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+
+	List<RevokedToken> findTop1000ByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(Long id, LocalDateTime now);
+
+	@Modifying
+	@Transactional
+	@Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+	int deleteExpired(@Param("now") LocalDateTime now);
+}
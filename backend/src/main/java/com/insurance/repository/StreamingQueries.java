@@ -0,0 +1,15 @@
+package com.insurance.repository;
+
+/**
+ * Hint values for queries that read a whole table as a {@code Stream}. Such queries return scalar
+ * rows, so nothing piles up in the persistence context, and must be consumed inside a transaction.
+ */
+public final class StreamingQueries {
+
+    // Connector/J streams a result set row by row only for this fetch size; any other value makes
+    // it buffer the whole result on the client before the first row is returned
+    public static final String FETCH_SIZE = "-2147483648";
+
+    private StreamingQueries() {
+    }
+}
@@ -1,8 +1,18 @@
 package com.insurance.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.QueryHint;
 
 import com.insurance.entities.Policy;
 import com.insurance.entities.Transaction;
@@ -11,4 +21,43 @@ public interface TransactionRepository extends JpaRepository<Transaction, String
 
 	List<Transaction> findByPolicy(Policy policy);
 
+	// transactionId, customerId, customer name, amount, date, policyId, scheme name
+	@Query("SELECT t.transactionId, c.customerId, c.name, t.amount, t.date, p.policyId, s.name FROM Transaction t " +
+	           "JOIN t.policy p JOIN p.customer c JOIN p.plan pl JOIN pl.insuranceScheme s WHERE t.transactionId = :transactionId")
+	List<Object[]> findReceiptRow(@Param("transactionId") String transactionId);
+
+	@Query("SELECT p.customer.customerId FROM Transaction t JOIN t.policy p WHERE t.transactionId = :transactionId")
+	Optional<String> findCustomerIdByTransactionId(@Param("transactionId") String transactionId);
+
+	// transactionId, policyId, amount, date, status
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT t.transactionId, t.policy.policyId, t.amount, t.date, t.status FROM Transaction t " +
+	           "ORDER BY t.transactionId")
+	Stream<Object[]> streamReportRows();
+
+	// every report key in order, read in one pass to split the report into key ranges for a parallel render
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT t.transactionId FROM Transaction t ORDER BY t.transactionId")
+	Stream<String> streamReportKeys();
+
+	// streamReportRows limited to keys in [from, to); a null bound is open
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = StreamingQueries.FETCH_SIZE))
+	@Query("SELECT t.transactionId, t.policy.policyId, t.amount, t.date, t.status FROM Transaction t " +
+	           "WHERE (:from IS NULL OR t.transactionId >= :from) AND (:to IS NULL OR t.transactionId < :to) ORDER BY t.transactionId")
+	Stream<Object[]> streamReportRowsBetween(@Param("from") String from, @Param("to") String to);
+
+	// transactionId, policyId, amount, date, status
+	@Query("SELECT t.transactionId, t.policy.policyId, t.amount, t.date, t.status FROM Transaction t " +
+	           "WHERE t.transactionId > :after ORDER BY t.transactionId")
+	List<Object[]> findAnalyticsRowsAfter(@Param("after") String after, Pageable pageable);
+
+	@Query("SELECT t.transactionId, t.policy.policyId, t.amount, t.date, t.status FROM Transaction t " +
+	           "WHERE t.date > :since ORDER BY t.date")
+	List<Object[]> findAnalyticsRowsSince(@Param("since") LocalDateTime since);
+
+	// policyId, date of every payment on the policies in the key range
+	@Query("SELECT t.policy.policyId, t.date FROM Transaction t " +
+	           "WHERE t.policy.policyId BETWEEN :first AND :last ORDER BY t.policy.policyId")
+	List<Object[]> findPaymentDatesForPolicyRange(@Param("first") String first, @Param("last") String last);
+
 }
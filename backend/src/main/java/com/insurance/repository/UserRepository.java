@@ -2,8 +2,11 @@ package com.insurance.repository;
 
 import com.insurance.entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,6 +19,21 @@ public interface UserRepository extends JpaRepository<User,String> {
 
 	Boolean existsByEmail(String email);
 
+	// userId, username, email, role, active, actorId, name, phoneNumber, address, customer status;
+	// only the join matching the user's role finds a row
+	@Query("SELECT u.userId, u.username, u.email, r.name, u.isActive, "
+			+ "COALESCE(ad.adminId, em.employeeId, ag.agentId, cu.customerId), "
+			+ "COALESCE(ad.name, em.name, ag.name, cu.name), "
+			+ "COALESCE(ad.phoneNumber, em.phoneNumber, ag.phoneNumber, cu.phoneNumber), "
+			+ "COALESCE(em.address, ag.address, cu.address), cu.status "
+			+ "FROM User u JOIN u.role r "
+			+ "LEFT JOIN Admin ad ON ad.user = u "
+			+ "LEFT JOIN Employee em ON em.user = u "
+			+ "LEFT JOIN Agent ag ON ag.user = u "
+			+ "LEFT JOIN Customer cu ON cu.user = u "
+			+ "WHERE u.userId = :userId")
+	List<Object[]> findSessionRow(@Param("userId") String userId);
+
 
 	
 }
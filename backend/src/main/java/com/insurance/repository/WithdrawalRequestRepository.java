@@ -1,13 +1,18 @@
 package com.insurance.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.insurance.entities.Admin;
 import com.insurance.entities.Agent;
 import com.insurance.entities.WithdrawalRequest;
 
@@ -23,6 +28,17 @@ public interface WithdrawalRequestRepository extends JpaRepository<WithdrawalReq
 	Page<WithdrawalRequest> findByAgent(@Param("agent") Agent agent, Pageable pageable);
 	
 	
+	@Query("SELECT w.policy.policyId FROM WithdrawalRequest w WHERE w.decidedAt > :since")
+	List<String> findPolicyIdsDecidedSince(@Param("since") LocalDateTime since);
+
+	// only one decision wins when two admins act on the same request at once
+	@Modifying
+	@Transactional
+	@Query("UPDATE WithdrawalRequest w SET w.status = :status, w.admin = :admin, w.decidedAt = :decidedAt " +
+	           "WHERE w.withdrawalRequestId = :id AND w.status = 'PENDING'")
+	int decidePending(@Param("id") long id, @Param("status") String status, @Param("admin") Admin admin,
+	           @Param("decidedAt") LocalDateTime decidedAt);
+
 	@Query("SELECT COUNT(wr) FROM WithdrawalRequest wr WHERE wr.policy.agent = :agent AND wr.status = 'APPROVED'")
 	Long countApprovedByAgent(@Param("agent") Agent agent);
 
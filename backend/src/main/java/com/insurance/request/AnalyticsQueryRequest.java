@@ -0,0 +1,48 @@
+package com.insurance.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class AnalyticsQueryRequest {
+
+    @NotBlank(message = "Table is mandatory")
+    private String table;
+
+    @Valid
+    private List<Filter> filters = new ArrayList<>();
+
+    private List<String> groupBy = new ArrayList<>();
+
+    @Valid
+    @NotEmpty(message = "At least one aggregate is required")
+    private List<Aggregate> aggregates = new ArrayList<>();
+
+    private Integer limit;
+
+    @Data
+    public static class Filter {
+
+        @NotBlank(message = "Filter column is mandatory")
+        private String column;
+
+        @NotBlank(message = "Filter operator is mandatory")
+        private String op;
+
+        private List<String> values = new ArrayList<>();
+    }
+
+    @Data
+    public static class Aggregate {
+
+        @NotBlank(message = "Aggregate function is mandatory")
+        private String fn;
+
+        private String column;
+    }
+}
@@ -0,0 +1,37 @@
+package com.insurance.request;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+@Data
+public class BatchRequest {
+
+    @Valid
+    @NotEmpty(message = "At least one request is required")
+    private List<Item> requests = new ArrayList<>();
+
+    @Data
+    public static class Item {
+
+        // defaults to the position in the batch
+        private String id;
+
+        @NotBlank(message = "Method is mandatory")
+        private String method;
+
+        @NotBlank(message = "Path is mandatory")
+        private String path;
+
+        private JsonNode body;
+
+        // ids of earlier requests that must finish first
+        private List<String> dependsOn = new ArrayList<>();
+    }
+}
@@ -0,0 +1,25 @@
+package com.insurance.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class AgentSummaryResponse {
+
+	private long soldPolicies;
+
+	private long cancelledPolicies;
+
+	private double totalCommission;
+
+	private double totalPenalty;
+
+	// used by the JPQL constructor expression; sums over no rows arrive as null
+	public AgentSummaryResponse(Number soldPolicies, Number cancelledPolicies, Number totalCommission, Number totalPenalty) {
+		this.soldPolicies = soldPolicies == null ? 0 : soldPolicies.longValue();
+		this.cancelledPolicies = cancelledPolicies == null ? 0 : cancelledPolicies.longValue();
+		this.totalCommission = totalCommission == null ? 0 : totalCommission.doubleValue();
+		this.totalPenalty = totalPenalty == null ? 0 : totalPenalty.doubleValue();
+	}
+}
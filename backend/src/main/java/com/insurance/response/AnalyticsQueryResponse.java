@@ -0,0 +1,23 @@
+package com.insurance.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class AnalyticsQueryResponse {
+
+	private List<String> columns;
+
+	private List<Map<String, Object>> rows;
+
+	private long scannedRows;
+
+	private long matchedRows;
+
+	private long elapsedMillis;
+
+	private LocalDateTime dataAsOf;
+}
@@ -0,0 +1,19 @@
+package com.insurance.response;
+
+import java.time.LocalDateTime;
+
+import lombok.Data;
+
+@Data
+public class AnalyticsStatusResponse {
+
+	private boolean ready;
+
+	private long policyRows;
+
+	private long transactionRows;
+
+	private LocalDateTime dataAsOf;
+
+	private long lastRefreshMillis;
+}
@@ -0,0 +1,23 @@
+package com.insurance.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResponse {
+
+    private String id;
+
+    private int status;
+
+    private String contentType;
+
+    // parsed JSON, plain text, or base64 when bodyEncoding is "base64"
+    private Object body;
+
+    private String bodyEncoding;
+
+    private long elapsedMillis;
+}
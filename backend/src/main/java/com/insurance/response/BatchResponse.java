@@ -0,0 +1,17 @@
+package com.insurance.response;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchResponse {
+
+    private int succeeded;
+
+    private int failed;
+
+    private long elapsedMillis;
+
+    private List<BatchItemResponse> responses;
+}
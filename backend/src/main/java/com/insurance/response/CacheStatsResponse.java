@@ -0,0 +1,15 @@
+package com.insurance.response;
+
+import lombok.Data;
+
+@Data
+public class CacheStatsResponse {
+
+	private String name;
+	private long size;
+	private long hitCount;
+	private long missCount;
+	private double hitRate;
+	private long evictionCount;
+
+}
@@ -0,0 +1,19 @@
+package com.insurance.response;
+
+import lombok.Data;
+
+@Data
+public class CashFlowMonthResponse {
+
+	private String month;
+
+	private double premiumInflow;
+
+	private double maturityOutflow;
+
+	private double claimOutflow;
+
+	private double netCashFlow;
+
+	private double expectedMaturities;
+}
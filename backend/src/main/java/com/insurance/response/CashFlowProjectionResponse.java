@@ -0,0 +1,38 @@
+package com.insurance.response;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class CashFlowProjectionResponse {
+
+	private String fromMonth;
+
+	private int years;
+
+	private double annualClaimRate;
+
+	private double claimDeduction;
+
+	private long policies;
+
+	private double pendingClaimOutflow;
+
+	private double totalPremiumInflow;
+
+	private double totalMaturityOutflow;
+
+	private double totalClaimOutflow;
+
+	private double netCashFlow;
+
+	private LocalDateTime snapshotAt;
+
+	private LocalDateTime generatedAt;
+
+	private long elapsedMillis;
+
+	private List<CashFlowMonthResponse> months;
+}
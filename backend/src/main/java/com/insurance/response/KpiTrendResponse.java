@@ -0,0 +1,31 @@
+package com.insurance.response;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class KpiTrendResponse {
+
+	private LocalDate date;
+
+	private long newPolicies;
+
+	private double premiumCollected;
+
+	private long claimsApproved;
+
+	private long withdrawalsApproved;
+
+	// used by the JPQL constructor expression
+	public KpiTrendResponse(LocalDate date, Number newPolicies, Number premiumCollected, Number claimsApproved,
+			Number withdrawalsApproved) {
+		this.date = date;
+		this.newPolicies = newPolicies == null ? 0 : newPolicies.longValue();
+		this.premiumCollected = premiumCollected == null ? 0 : premiumCollected.doubleValue();
+		this.claimsApproved = claimsApproved == null ? 0 : claimsApproved.longValue();
+		this.withdrawalsApproved = withdrawalsApproved == null ? 0 : withdrawalsApproved.longValue();
+	}
+}
@@ -0,0 +1,19 @@
+package com.insurance.response;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardEntryResponse {
+
+	private int rank;
+
+	private String agentId;
+
+	private String agentName;
+
+	private long policiesSold;
+
+	private double premiumVolume;
+
+	private double netCommission;
+}
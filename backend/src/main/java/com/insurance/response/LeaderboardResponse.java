@@ -0,0 +1,25 @@
+package com.insurance.response;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.insurance.enums.LeaderboardMetric;
+import com.insurance.enums.LeaderboardWindow;
+
+import lombok.Data;
+
+@Data
+public class LeaderboardResponse {
+
+	private LeaderboardWindow window;
+
+	private LocalDate periodStart;
+
+	private LeaderboardMetric metric;
+
+	private String cityId;
+
+	private int rankedAgents;
+
+	private List<LeaderboardEntryResponse> entries;
+}
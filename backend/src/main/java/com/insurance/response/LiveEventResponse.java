@@ -0,0 +1,27 @@
+package com.insurance.response;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.insurance.enums.LiveEventType;
+
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LiveEventResponse {
+
+	private long id;
+
+	private LiveEventType type;
+
+	private String entityId;
+
+	private String agentId;
+
+	private String customerId;
+
+	private Double amount;
+
+	private LocalDateTime occurredAt;
+}
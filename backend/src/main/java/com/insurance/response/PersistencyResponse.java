@@ -0,0 +1,56 @@
+package com.insurance.response;
+
+import java.time.LocalDate;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class PersistencyResponse {
+
+	// cohort month, agentId or planId depending on the grouping
+	private String group;
+
+	private long policies;
+
+	private long eligible13;
+
+	private long persisting13;
+
+	private Double persistency13;
+
+	private Double lapseRate13;
+
+	private long eligible25;
+
+	private long persisting25;
+
+	private Double persistency25;
+
+	private Double lapseRate25;
+
+	// used by the JPQL constructor expressions
+	public PersistencyResponse(LocalDate cohortMonth, Number policies, Number eligible13, Number persisting13,
+			Number eligible25, Number persisting25) {
+		this(cohortMonth.toString(), policies, eligible13, persisting13, eligible25, persisting25);
+	}
+
+	public PersistencyResponse(String group, Number policies, Number eligible13, Number persisting13,
+			Number eligible25, Number persisting25) {
+		this.group = group;
+		this.policies = policies == null ? 0 : policies.longValue();
+		this.eligible13 = eligible13 == null ? 0 : eligible13.longValue();
+		this.persisting13 = persisting13 == null ? 0 : persisting13.longValue();
+		this.eligible25 = eligible25 == null ? 0 : eligible25.longValue();
+		this.persisting25 = persisting25 == null ? 0 : persisting25.longValue();
+		if (this.eligible13 > 0) {
+			this.persistency13 = (double) this.persisting13 / this.eligible13;
+			this.lapseRate13 = 1 - this.persistency13;
+		}
+		if (this.eligible25 > 0) {
+			this.persistency25 = (double) this.persisting25 / this.eligible25;
+			this.lapseRate25 = 1 - this.persistency25;
+		}
+	}
+}
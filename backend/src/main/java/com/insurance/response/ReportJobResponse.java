@@ -0,0 +1,35 @@
+package com.insurance.response;
+
+import java.time.LocalDateTime;
+
+import com.insurance.enums.ReportJobStatus;
+import com.insurance.enums.ReportType;
+
+import lombok.Data;
+
+@Data
+public class ReportJobResponse {
+
+	private String jobId;
+
+	private ReportType type;
+
+	private String subjectId;
+
+	private ReportJobStatus status;
+
+	// true when the request joined a job that was already queued, running or finished
+	private boolean attached;
+
+	private long rowsWritten;
+
+	private long totalRows;
+
+	private long sizeBytes;
+
+	private String error;
+
+	private LocalDateTime createdAt;
+
+	private LocalDateTime finishedAt;
+}
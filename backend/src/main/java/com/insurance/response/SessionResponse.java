@@ -0,0 +1,32 @@
+package com.insurance.response;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.insurance.enums.CreationStatus;
+
+import lombok.Data;
+
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SessionResponse {
+
+    private String userId;
+
+    private String actorId;
+
+    private String role;
+
+    private boolean active;
+
+    // customers only
+    private CreationStatus status;
+
+    private ProfileResponse profile;
+
+    private List<String> permissions;
+
+    @JsonIgnore
+    private String etag;
+}
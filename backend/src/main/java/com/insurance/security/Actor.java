@@ -0,0 +1,120 @@
+package com.insurance.security;
+
+import com.insurance.entities.Admin;
+import com.insurance.entities.Agent;
+import com.insurance.entities.Customer;
+import com.insurance.entities.Employee;
+import com.insurance.entities.User;
+
+/**
+ * The authenticated caller of the current request. Built from the token claims; the
+ * {@link User} and the role-specific entity are loaded on first access and then reused
+ * for the rest of the request.
+ */
+public class Actor {
+
+    private final String username;
+
+    private final String userId;
+
+    private final String actorId;
+
+    private String role;
+
+    private final ActorResolver resolver;
+
+    private User user;
+
+    private Object roleEntity;
+
+    private boolean roleEntityLoaded;
+
+    Actor(String username, String role, String userId, String actorId, ActorResolver resolver) {
+        this.username = username;
+        this.role = role;
+        this.userId = userId;
+        this.actorId = actorId;
+        this.resolver = resolver;
+    }
+
+    /** Username or email the token was issued for. */
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getActorId() {
+        return actorId;
+    }
+
+    public String getRole() {
+        if (role == null) {
+            role = getUser().getRole().getName();
+        }
+        return role;
+    }
+
+    public boolean hasRole(String roleName) {
+        return getRole().equalsIgnoreCase(roleName);
+    }
+
+    public User getUser() {
+        if (user == null) {
+            user = resolver.loadUser(this);
+        }
+        return user;
+    }
+
+    public Customer getCustomer() {
+        return getRoleEntity() instanceof Customer customer ? customer : null;
+    }
+
+    public Agent getAgent() {
+        return getRoleEntity() instanceof Agent agent ? agent : null;
+    }
+
+    public Employee getEmployee() {
+        return getRoleEntity() instanceof Employee employee ? employee : null;
+    }
+
+    public Admin getAdmin() {
+        return getRoleEntity() instanceof Admin admin ? admin : null;
+    }
+
+    /**
+     * Returns an actor for the same already verified token with nothing loaded yet. Loaded
+     * entities belong to the persistence context of one thread, so work handed to another
+     * thread takes a copy instead of sharing this actor.
+     */
+    public Actor copy() {
+        return new Actor(username, role, userId, actorId, resolver);
+    }
+
+    Object getRoleEntity() {
+        if (!roleEntityLoaded) {
+            roleEntity = resolver.loadRoleEntity(this);
+            roleEntityLoaded = true;
+        }
+        return roleEntity;
+    }
+
+    boolean isRoleKnown() {
+        return role != null;
+    }
+
+    User getLoadedRoleEntityUser() {
+        if (roleEntity instanceof Customer customer) {
+            return customer.getUser();
+        } else if (roleEntity instanceof Agent agent) {
+            return agent.getUser();
+        } else if (roleEntity instanceof Employee employee) {
+            return employee.getUser();
+        } else if (roleEntity instanceof Admin admin) {
+            return admin.getUser();
+        }
+        return null;
+    }
+}
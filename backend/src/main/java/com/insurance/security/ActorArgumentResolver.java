@@ -0,0 +1,39 @@
+package com.insurance.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import com.insurance.exceptions.UnauthorizedException;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Injects the {@link Actor} of the current request into controller methods. Parameters
+ * marked {@link OptionalActor} receive null for anonymous calls instead of a 401.
+ */
+@Component
+public class ActorArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Autowired
+    private ActorResolver actorResolver;
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return Actor.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        Actor actor = actorResolver.resolve(webRequest.getNativeRequest(HttpServletRequest.class));
+        if (actor == null && !parameter.hasParameterAnnotation(OptionalActor.class)) {
+            throw new UnauthorizedException("Token is invalid or empty");
+        }
+        return actor;
+    }
+}
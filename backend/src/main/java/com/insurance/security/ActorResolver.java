@@ -0,0 +1,121 @@
+package com.insurance.security;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.insurance.entities.User;
+import com.insurance.exceptions.UnauthorizedException;
+import com.insurance.repository.AdminRepository;
+import com.insurance.repository.AgentRepository;
+import com.insurance.repository.CustomerRepository;
+import com.insurance.repository.EmployeeRepository;
+import com.insurance.repository.UserRepository;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.http.HttpServletRequest;
+
+@Component
+public class ActorResolver {
+
+    public static final String ACTOR_ATTRIBUTE = ActorResolver.class.getName() + ".actor";
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AgentRepository agentRepository;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    /**
+     * Returns the actor for the bearer token of the request, or null when there is none.
+     * The actor is created once and kept on the request for later callers.
+     */
+    public Actor resolve(HttpServletRequest request) {
+        if (request.getAttribute(ACTOR_ATTRIBUTE) instanceof Actor actor) {
+            return actor;
+        }
+        String token = getTokenFromRequest(request);
+        if (token == null) {
+            return null;
+        }
+        Actor actor = fromToken(token);
+        request.setAttribute(ACTOR_ATTRIBUTE, actor);
+        return actor;
+    }
+
+    public Actor fromToken(String token) {
+        Claims claims = jwtTokenProvider.getClaims(token);
+        return new Actor(claims.getSubject(),
+                claims.get(JwtTokenProvider.ROLE_CLAIM, String.class),
+                claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class),
+                claims.get(JwtTokenProvider.ACTOR_ID_CLAIM, String.class),
+                this);
+    }
+
+    User loadUser(Actor actor) {
+        if (actor.getActorId() != null && actor.isRoleKnown()) {
+            // the role entity joins its user, so one lookup serves both
+            actor.getRoleEntity();
+        }
+        User user = actor.getLoadedRoleEntityUser();
+        if (user != null) {
+            return user;
+        }
+        if (actor.getUserId() != null) {
+            return userRepository.findById(actor.getUserId())
+                    .orElseThrow(() -> new UnauthorizedException("User is not available for token"));
+        }
+        // tokens issued before the uid claim existed
+        String username = actor.getUsername();
+        return userRepository.findByUsernameOrEmail(username, username)
+                .orElseThrow(() -> new UnauthorizedException("User is not available for token"));
+    }
+
+    Object loadRoleEntity(Actor actor) {
+        String role = actor.getRole();
+        String actorId = actor.getActorId();
+        if (actorId != null) {
+            if (role.equalsIgnoreCase("role_customer")) {
+                return customerRepository.findById(actorId).orElse(null);
+            } else if (role.equalsIgnoreCase("role_agent")) {
+                return agentRepository.findById(actorId).orElse(null);
+            } else if (role.equalsIgnoreCase("role_employee")) {
+                return employeeRepository.findById(actorId).orElse(null);
+            } else if (role.equalsIgnoreCase("role_admin")) {
+                return adminRepository.findById(actorId).orElse(null);
+            }
+            return null;
+        }
+        User user = actor.getUser();
+        if (role.equalsIgnoreCase("role_customer")) {
+            return customerRepository.findByUser(user);
+        } else if (role.equalsIgnoreCase("role_agent")) {
+            return agentRepository.findByUser(user);
+        } else if (role.equalsIgnoreCase("role_employee")) {
+            return employeeRepository.findByUser(user).orElse(null);
+        } else if (role.equalsIgnoreCase("role_admin")) {
+            return adminRepository.findByUser(user);
+        }
+        return null;
+    }
+
+    private String getTokenFromRequest(HttpServletRequest request) {
+        String bearerToken = request.getHeader("Authorization");
+        if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
+            return bearerToken.substring(7);
+        }
+        return null;
+    }
+}
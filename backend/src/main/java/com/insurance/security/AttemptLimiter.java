@@ -0,0 +1,117 @@
+package com.insurance.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.insurance.exceptions.TooManyRequestsException;
+
+/**
+ * Per-username and per-client-IP attempt limits for login and the OTP endpoints.
+ * Checks run before any password hashing, OTP row or mail is touched.
+ */
+@Component
+public class AttemptLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AttemptLimiter.class);
+
+    private static final int MAX_KEY_LENGTH = 128;
+
+    @Autowired
+    private AttemptStore attemptStore;
+
+    @Value("${app.rate-limit.login.max-per-user:5}")
+    private int loginMaxPerUser;
+
+    @Value("${app.rate-limit.login.max-per-ip:20}")
+    private int loginMaxPerIp;
+
+    @Value("${app.rate-limit.login.window-seconds:900}")
+    private long loginWindowSeconds;
+
+    @Value("${app.rate-limit.otp-send.max-per-user:3}")
+    private int otpSendMaxPerUser;
+
+    @Value("${app.rate-limit.otp-send.max-per-ip:10}")
+    private int otpSendMaxPerIp;
+
+    @Value("${app.rate-limit.otp-verify.max-per-user:5}")
+    private int otpVerifyMaxPerUser;
+
+    @Value("${app.rate-limit.otp-verify.max-per-ip:10}")
+    private int otpVerifyMaxPerIp;
+
+    @Value("${app.rate-limit.otp.window-seconds:900}")
+    private long otpWindowSeconds;
+
+    /**
+     * Reserves a login attempt for the user and the client before the password is checked, so a
+     * burst of concurrent guesses cannot all pass before the first failure is counted. A login
+     * that succeeds hands its reservation back with {@link #releaseLogin}.
+     */
+    public void acquireLogin(String usernameOrEmail) {
+        long window = loginWindowSeconds * 1000;
+        reject(attemptStore.tryAcquire(key("login:ip", clientIp()), loginMaxPerIp, window), "login", clientIp());
+        reject(attemptStore.tryAcquire(key("login:user", usernameOrEmail), loginMaxPerUser, window), "login", usernameOrEmail);
+    }
+
+    public void releaseLogin(String usernameOrEmail) {
+        long window = loginWindowSeconds * 1000;
+        attemptStore.release(key("login:ip", clientIp()), window);
+        attemptStore.release(key("login:user", usernameOrEmail), window);
+    }
+
+    public void acquireOtpSend(String usernameOrEmail) {
+        long window = otpWindowSeconds * 1000;
+        reject(attemptStore.tryAcquire(key("otp-send:ip", clientIp()), otpSendMaxPerIp, window), "otp send", clientIp());
+        reject(attemptStore.tryAcquire(key("otp-send:user", usernameOrEmail), otpSendMaxPerUser, window), "otp send", usernameOrEmail);
+    }
+
+    /** Counts an OTP guess against the client and against the user whose OTP it targets. */
+    public void acquireOtpVerify(String username) {
+        long window = otpWindowSeconds * 1000;
+        reject(attemptStore.tryAcquire(key("otp-verify:ip", clientIp()), otpVerifyMaxPerIp, window), "otp verify", clientIp());
+        reject(attemptStore.tryAcquire(key("otp-verify:user", username), otpVerifyMaxPerUser, window), "otp verify", username);
+    }
+
+    private void reject(long retryAfterSeconds, String action, String subject) {
+        if (retryAfterSeconds > 0) {
+            logger.warn("Too many {} attempts for {}", action, subject);
+            throw new TooManyRequestsException("Too many attempts, please try again later", retryAfterSeconds);
+        }
+    }
+
+    private String key(String scope, String value) {
+        String normalized = value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        String key = scope + ":" + normalized;
+        return key.length() <= MAX_KEY_LENGTH ? key : scope + ":" + sha256(normalized);
+    }
+
+    private String clientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return servletAttributes.getRequest().getRemoteAddr();
+        }
+        return "unknown";
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.insurance.security;
+
+/**
+ * Backing store for {@link AttemptLimiter} counters.
+ */
+public interface AttemptStore {
+
+	/** Counts one attempt if the key is under the limit; otherwise returns the seconds to wait. */
+	long tryAcquire(String key, int limit, long windowMillis);
+
+	/** Gives back an attempt counted by {@link #tryAcquire} that turned out to be legitimate. */
+	void release(String key, long windowMillis);
+}
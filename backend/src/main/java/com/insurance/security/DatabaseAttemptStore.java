@@ -0,0 +1,93 @@
+package com.insurance.security;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurance.entities.AttemptWindow;
+import com.insurance.repository.AttemptWindowRepository;
+
+/**
+ * Counters kept in the attempt_windows table so every node enforces the same limits.
+ * Each update locks the key's row in its own short transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "database")
+public class DatabaseAttemptStore implements AttemptStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseAttemptStore.class);
+
+    private static final int SWEEP_INTERVAL = 1000;
+
+    private final AttemptWindowRepository attemptWindowRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicInteger operations = new AtomicInteger();
+
+    public DatabaseAttemptStore(AttemptWindowRepository attemptWindowRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.attemptWindowRepository = attemptWindowRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public long tryAcquire(String key, int limit, long windowMillis) {
+        return update(key, windowMillis, (window) -> {
+            long now = System.currentTimeMillis();
+            return window.tryAcquire(now, limit) ? 0 : window.retryAfterSeconds(now);
+        });
+    }
+
+    @Override
+    public void release(String key, long windowMillis) {
+        update(key, windowMillis, (window) -> {
+            window.release(System.currentTimeMillis());
+            return 0;
+        });
+    }
+
+    private long update(String key, long windowMillis, ToLongFunction<SlidingWindow> action) {
+        if (operations.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            transactionTemplate.executeWithoutResult(status -> attemptWindowRepository.deleteExpired(System.currentTimeMillis()));
+        }
+        try {
+            return transactionTemplate.execute(status -> apply(key, windowMillis, action));
+        } catch (DataIntegrityViolationException e) {
+            // another node inserted the row first; lock that one instead
+            logger.info("Attempt window {} was created concurrently, retrying", key);
+            return transactionTemplate.execute(status -> apply(key, windowMillis, action));
+        }
+    }
+
+    private long apply(String key, long windowMillis, ToLongFunction<SlidingWindow> action) {
+        AttemptWindow entity = attemptWindowRepository.findForUpdate(key).orElseGet(() -> {
+            AttemptWindow created = new AttemptWindow();
+            created.setKey(key);
+            created.setWindowMillis(windowMillis);
+            return created;
+        });
+        SlidingWindow window = toWindow(entity);
+        long result = action.applyAsLong(window);
+        entity.setWindowStart(window.windowStart);
+        entity.setWindowMillis(window.windowMillis);
+        entity.setCurrentCount(window.currentCount);
+        entity.setPreviousCount(window.previousCount);
+        attemptWindowRepository.saveAndFlush(entity);
+        return result;
+    }
+
+    private SlidingWindow toWindow(AttemptWindow entity) {
+        return new SlidingWindow(entity.getWindowStart(), entity.getWindowMillis(),
+                entity.getCurrentCount(), entity.getPreviousCount());
+    }
+}
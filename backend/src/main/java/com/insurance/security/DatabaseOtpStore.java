@@ -0,0 +1,68 @@
+package com.insurance.security;
+
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.insurance.entities.OtpEntity;
+import com.insurance.repository.OtpRepository;
+
+/**
+ * OTPs kept in the otp_codes table so any node can verify them. Lookups go through the
+ * unique (username, otpHash) index and expired rows are purged in bulk.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "database")
+public class DatabaseOtpStore implements OtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseOtpStore.class);
+
+    @Autowired
+    private OtpRepository otpRepository;
+
+    @Value("${app.otp.max-failed-attempts:5}")
+    private int maxFailedAttempts;
+
+    @Override
+    @Transactional
+    public void save(String username, String otpHash, LocalDateTime expiresAt) {
+        otpRepository.deleteByUsername(username);
+        otpRepository.save(new OtpEntity(username, otpHash, expiresAt));
+    }
+
+    @Override
+    @Transactional
+    public boolean markVerified(String username, String otpHash) {
+        LocalDateTime now = LocalDateTime.now();
+        if (otpRepository.markVerified(username, otpHash, now) > 0) {
+            return true;
+        }
+        // too many misses burn the OTP and the user has to request a new one
+        otpRepository.recordFailedAttempt(username, now);
+        otpRepository.deleteExhausted(username, maxFailedAttempts);
+        return false;
+    }
+
+    // the delete locks the row, so of two concurrent resets only one sees it
+    @Override
+    @Transactional
+    public boolean consumeVerified(String username) {
+        return otpRepository.deleteVerified(username, LocalDateTime.now()) > 0;
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:300000}")
+    @Transactional
+    public void purgeExpired() {
+        int deleted = otpRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            logger.info("Purged {} expired OTPs", deleted);
+        }
+    }
+}
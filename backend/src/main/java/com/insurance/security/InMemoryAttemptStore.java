@@ -0,0 +1,89 @@
+package com.insurance.security;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local counters split over a fixed number of stripes, each a plain map behind
+ * its own lock, so concurrent logins for different users rarely contend.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryAttemptStore implements AttemptStore {
+
+    private static final int STRIPES = 64;
+
+    private static final int SWEEP_INTERVAL = 1024;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public InMemoryAttemptStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public long tryAcquire(String key, int limit, long windowMillis) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            SlidingWindow window = stripe.window(key, windowMillis, now);
+            return window.tryAcquire(now, limit) ? 0 : window.retryAfterSeconds(now);
+        }
+    }
+
+    @Override
+    public void release(String key, long windowMillis) {
+        long now = System.currentTimeMillis();
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            SlidingWindow window = stripe.windows.get(key);
+            if (window != null) {
+                window.release(now);
+            }
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.windows.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+
+        private final Map<String, SlidingWindow> windows = new HashMap<>();
+
+        private int operations;
+
+        SlidingWindow window(String key, long windowMillis, long now) {
+            if (++operations % SWEEP_INTERVAL == 0) {
+                sweep(now);
+            }
+            return windows.computeIfAbsent(key, k -> new SlidingWindow(windowMillis));
+        }
+
+        private void sweep(long now) {
+            Iterator<SlidingWindow> iterator = windows.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired(now)) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.insurance.security;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local OTPs. Expiry is driven by a timing wheel: each OTP is filed in the slot of the
+ * tick it expires in, and every tick only the slots that have come due are swept.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private final Map<String, Entry> otps = new ConcurrentHashMap<>();
+
+    private final List<Set<String>> wheel;
+
+    private final long tickMillis;
+
+    private final int maxFailedAttempts;
+
+    private long lastSweptTick;
+
+    public InMemoryOtpStore(@Value("${app.otp.ttl-minutes:10}") long ttlMinutes,
+                            @Value("${app.otp.wheel-tick-ms:1000}") long tickMillis,
+                            @Value("${app.otp.max-failed-attempts:5}") int maxFailedAttempts) {
+        this.tickMillis = tickMillis;
+        this.maxFailedAttempts = maxFailedAttempts;
+        int slots = (int) (ttlMinutes * 60_000 / tickMillis) + 2;
+        this.wheel = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            wheel.add(ConcurrentHashMap.newKeySet());
+        }
+        this.lastSweptTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    @Override
+    public void save(String username, String otpHash, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        otps.put(username, new Entry(otpHash, expiresAtMillis, false, 0));
+        // filed one tick late so the entry has surely expired when its slot is swept
+        wheel.get(slot(expiresAtMillis / tickMillis + 1)).add(username);
+    }
+
+    @Override
+    public boolean markVerified(String username, String otpHash) {
+        long now = System.currentTimeMillis();
+        boolean[] matched = new boolean[1];
+        otps.computeIfPresent(username, (key, current) -> {
+            if (current.expiresAt <= now) {
+                return current;
+            }
+            if (current.otpHash.equals(otpHash)) {
+                matched[0] = true;
+                return new Entry(current.otpHash, current.expiresAt, true, current.failedAttempts);
+            }
+            int failedAttempts = current.failedAttempts + 1;
+            // too many misses burn the OTP and the user has to request a new one
+            return failedAttempts >= maxFailedAttempts
+                    ? null
+                    : new Entry(current.otpHash, current.expiresAt, current.verified, failedAttempts);
+        });
+        return matched[0];
+    }
+
+    @Override
+    public boolean consumeVerified(String username) {
+        Entry entry = otps.get(username);
+        // remove(key, value) fails if a new OTP replaced this one in between
+        return entry != null && entry.verified && entry.expiresAt > System.currentTimeMillis()
+                && otps.remove(username, entry);
+    }
+
+    int size() {
+        return otps.size();
+    }
+
+    @Scheduled(fixedRateString = "${app.otp.wheel-tick-ms:1000}")
+    public synchronized void advance() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / tickMillis;
+        // after a long pause one lap covers every slot
+        long from = Math.max(lastSweptTick + 1, currentTick - wheel.size() + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Set<String> due = wheel.get(slot(tick));
+            for (String username : due) {
+                due.remove(username);
+                // a newer OTP for the same user sits in a later slot and stays
+                otps.computeIfPresent(username, (key, entry) -> entry.expiresAt <= now ? null : entry);
+            }
+        }
+        lastSweptTick = currentTick;
+    }
+
+    private int slot(long tick) {
+        return (int) (tick % wheel.size());
+    }
+
+    private record Entry(String otpHash, long expiresAt, boolean verified, int failedAttempts) {
+    }
+}
@@ -1,18 +1,20 @@
 package com.insurance.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.insurance.exceptions.ApiException;
+import com.insurance.util.CustomUserDetails;
+
 import java.io.IOException;
 
 @Component
@@ -20,20 +22,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private JwtTokenProvider jwtTokenProvider;
 
-    private UserDetailsService userDetailsService;
+    private CustomUserDetails userDetailsService;
+
+    private ActorResolver actorResolver;
+
+    private TokenRevocationService tokenRevocationService;
 
-    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider, CustomUserDetails userDetailsService,
+                                   ActorResolver actorResolver, TokenRevocationService tokenRevocationService) {
         this.jwtTokenProvider = jwtTokenProvider;
         this.userDetailsService = userDetailsService;
+        this.actorResolver = actorResolver;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
     throws ServletException, IOException {
         String token = getTokenFromRequest(request);
-        if(StringUtils.hasText(token) && jwtTokenProvider.validateToken(token)){
-            String username = jwtTokenProvider.getUsername(token);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        if(StringUtils.hasText(token)){
+            // verified once here; later lookups in this request reuse the claims stored on it
+            Claims claims = jwtTokenProvider.getClaims(token);
+            if (tokenRevocationService.isRevoked(claims)) {
+                throw new ApiException("JWT token has been revoked");
+            }
+            String username = claims.getSubject();
+            UserPrincipal userDetails = userDetailsService.loadTokenUser(username);
+            if (userDetails.getTokenVersion() != jwtTokenProvider.getTokenVersion(claims)) {
+                throw new ApiException("JWT token has been revoked");
+            }
             UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                 userDetails,
                 null,
@@ -41,6 +58,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             );
             authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+            // controllers receive this same actor, so its entities are loaded at most once per request
+            actorResolver.resolve(request);
         }
         filterChain.doFilter(request, response);
     }
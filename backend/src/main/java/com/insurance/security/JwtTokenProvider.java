@@ -3,61 +3,165 @@ package com.insurance.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
+
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.insurance.entities.User;
 import com.insurance.exceptions.ApiException;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String CLAIMS_ATTRIBUTE = JwtTokenProvider.class.getName() + ".claims";
+
+    public static final String ROLE_CLAIM = "role";
+
+    public static final String ACTOR_ID_CLAIM = "actorId";
+
+    public static final String USER_ID_CLAIM = "uid";
+
+    public static final String VERSION_CLAIM = "ver";
+
+    private static final String TOKEN_ATTRIBUTE = JwtTokenProvider.class.getName() + ".token";
+
     @Value("${app.jwt-secret}")
     private String jwtSecret;
 
     @Value("${app-jwt-expiration-milliseconds}")
     private long jwtExpirationDate;
 
-    public String generateToken(Authentication authentication){
+    @Value("${app.jwt-claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private Key signingKey;
+
+    private JwtParser jwtParser;
+
+    // verified claims keyed by SHA-256 of the token, each entry living until the token expires
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtSecret));
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String key, Claims claims, long currentTime) {
+                        return remainingLifetimeNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+                        return remainingLifetimeNanos(claims);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public String generateToken(Authentication authentication, User user, String actorId){
         String username = authentication.getName();
         Date currentDate = new Date();
         Date expireDate = new Date(currentDate.getTime() + jwtExpirationDate);
         String token = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
                 .setSubject(username)
+                .claim(ROLE_CLAIM, user.getRole().getName())
+                .claim(ACTOR_ID_CLAIM, actorId)
+                .claim(USER_ID_CLAIM, user.getUserId())
+                .claim(VERSION_CLAIM, user.getTokenVersion())
                 .setIssuedAt(new Date())
                 .setExpiration(expireDate)
-                .signWith(key())
+                .signWith(signingKey)
                 .compact();
         return token;
     }
 
-    private Key key(){
-        return Keys.hmacShaKeyFor(
-                Decoders.BASE64.decode(jwtSecret)
-        );
+    /** Role name carried by the token, or null for tokens issued before the claim existed. */
+    public String getRole(String token){
+        return getClaims(token).get(ROLE_CLAIM, String.class);
+    }
+
+    /** customerId/agentId/employeeId/adminId of the token owner, or null for older tokens. */
+    public String getActorId(String token){
+        return getClaims(token).get(ACTOR_ID_CLAIM, String.class);
+    }
+
+    public int getTokenVersion(Claims claims){
+        Integer version = claims.get(VERSION_CLAIM, Integer.class);
+        return version == null ? 0 : version;
     }
 
     public String getUsername(String token){
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        String username = claims.getSubject();
-        return username;
+        return getClaims(token).getSubject();
     }
 
     public boolean validateToken(String token){
+        getClaims(token);
+        return true;
+    }
+
+    /**
+     * Returns the verified claims of the token. The signature is checked only the first time a
+     * token is seen; after that the claims come from the current request or from the cache.
+     */
+    public Claims getClaims(String token){
+        if (token == null || token.isBlank()) {
+            throw new ApiException("JWT claims string is empty");
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && token.equals(attributes.getAttribute(TOKEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST))) {
+            return (Claims) attributes.getAttribute(CLAIMS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+
+        String cacheKey = hash(token);
+        Claims claims = claimsCache.getIfPresent(cacheKey);
+        if (claims == null || isExpired(claims)) {
+            claims = parse(token);
+            claimsCache.put(cacheKey, claims);
+        }
+
+        if (attributes != null) {
+            attributes.setAttribute(TOKEN_ATTRIBUTE, token, RequestAttributes.SCOPE_REQUEST);
+            attributes.setAttribute(CLAIMS_ATTRIBUTE, claims, RequestAttributes.SCOPE_REQUEST);
+        }
+        return claims;
+    }
+
+    private Claims parse(String token){
         try{
-            Jwts.parserBuilder().setSigningKey(key()).build().parse(token);
-            return true;
+            return jwtParser.parseClaimsJws(token).getBody();
         } 
         catch (MalformedJwtException ex) {
             throw new ApiException("Invalid JWT token");
         } 
+        catch (SignatureException ex) {
+            throw new ApiException("Invalid JWT signature");
+        } 
         catch (ExpiredJwtException ex) {
             throw new ApiException("Expired JWT token");
         } 
@@ -68,4 +172,26 @@ public class JwtTokenProvider {
             throw new ApiException("JWT claims string is empty");
         }
     }
+
+    private boolean isExpired(Claims claims){
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private long remainingLifetimeNanos(Claims claims){
+        Date expiration = claims.getExpiration();
+        long remainingMillis = expiration != null
+                ? expiration.getTime() - System.currentTimeMillis()
+                : jwtExpirationDate;
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+
+    private String hash(String token){
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
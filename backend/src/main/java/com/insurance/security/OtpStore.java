@@ -0,0 +1,22 @@
+package com.insurance.security;
+
+import java.time.LocalDateTime;
+
+/**
+ * Holds the outstanding password-reset OTP of each user, stored only as a hash. A reset is only
+ * allowed after the OTP was verified, and each verification allows one reset.
+ */
+public interface OtpStore {
+
+	/** Replaces any earlier OTP of the user. */
+	void save(String username, String otpHash, LocalDateTime expiresAt);
+
+	/**
+	 * Marks the OTP as verified if it matches and has not expired. A wrong guess is counted
+	 * against the OTP, which is discarded once too many guesses have missed.
+	 */
+	boolean markVerified(String username, String otpHash);
+
+	/** Removes the user's OTP if it was verified and has not expired; true when one was removed. */
+	boolean consumeVerified(String username);
+}
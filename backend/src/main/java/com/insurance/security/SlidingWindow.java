@@ -0,0 +1,68 @@
+package com.insurance.security;
+
+/**
+ * Sliding-window counter: the count of the current fixed window plus the previous
+ * window's count weighted by how much of it still overlaps the trailing window.
+ * Two integers per key instead of a timestamp per attempt.
+ */
+class SlidingWindow {
+
+    long windowStart;
+
+    long windowMillis;
+
+    int currentCount;
+
+    int previousCount;
+
+    SlidingWindow(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    SlidingWindow(long windowStart, long windowMillis, int currentCount, int previousCount) {
+        this.windowStart = windowStart;
+        this.windowMillis = windowMillis;
+        this.currentCount = currentCount;
+        this.previousCount = previousCount;
+    }
+
+    void roll(long now) {
+        long start = now - now % windowMillis;
+        if (start == windowStart) {
+            return;
+        }
+        previousCount = start - windowStart == windowMillis ? currentCount : 0;
+        currentCount = 0;
+        windowStart = start;
+    }
+
+    int estimate(long now) {
+        roll(now);
+        double overlap = (double) (windowMillis - (now - windowStart)) / windowMillis;
+        return (int) Math.floor(previousCount * overlap) + currentCount;
+    }
+
+    boolean tryAcquire(long now, int limit) {
+        if (estimate(now) >= limit) {
+            return false;
+        }
+        currentCount++;
+        return true;
+    }
+
+    // gives back an attempt of the current window; one from the previous window just ages out
+    void release(long now) {
+        roll(now);
+        if (currentCount > 0) {
+            currentCount--;
+        }
+    }
+
+    long retryAfterSeconds(long now) {
+        return Math.max(1, (windowStart + windowMillis - now + 999) / 1000);
+    }
+
+    boolean isExpired(long now) {
+        return now - windowStart >= 2 * windowMillis;
+    }
+}
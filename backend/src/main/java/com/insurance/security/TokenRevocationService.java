@@ -0,0 +1,165 @@
+package com.insurance.security;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.insurance.entities.RevokedToken;
+import com.insurance.repository.RevokedTokenRepository;
+import com.insurance.util.BloomFilter;
+
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Deny-list for JWTs. Revocations are written to the revoked_tokens table and mirrored in
+ * memory: a Bloom filter answers the common "not revoked" case without touching a map,
+ * and only filter hits are confirmed against the exact entries. Every node picks up
+ * revocations made elsewhere by polling the table for rows newer than the last one seen.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final int POLL_BATCH = 1000;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${app-jwt-expiration-milliseconds}")
+    private long jwtExpirationMillis;
+
+    @Value("${app.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${app.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    // rows commit out of id order under concurrent inserts, so each poll re-reads a few already seen
+    @Value("${app.revocation.poll-overlap:100}")
+    private long pollOverlap;
+
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+
+    private final Map<String, Revocation> revokedUsers = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    private volatile long lastSeenId;
+
+    @PostConstruct
+    void init() {
+        filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        poll();
+    }
+
+    /** True if the token was logged out or its user's tokens were revoked after it was issued. */
+    public boolean isRevoked(Claims claims) {
+        BloomFilter current = filter;
+        String tokenId = claims.getId();
+        if (tokenId != null && current.mightContain(tokenKey(tokenId)) && revokedTokenIds.containsKey(tokenId)) {
+            return true;
+        }
+        String userId = claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class);
+        if (userId != null && current.mightContain(userKey(userId))) {
+            Revocation revocation = revokedUsers.get(userId);
+            if (revocation != null) {
+                Integer version = claims.get(JwtTokenProvider.VERSION_CLAIM, Integer.class);
+                return (version == null ? 0 : version) < revocation.minVersion;
+            }
+        }
+        return false;
+    }
+
+    public void revokeToken(String tokenId, String userId, Date expiresAt) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setTokenId(tokenId);
+        revokedToken.setUserId(userId);
+        revokedToken.setExpiresAt(LocalDateTime.ofInstant(expiresAt.toInstant(), ZoneId.systemDefault()));
+        apply(revokedTokenRepository.save(revokedToken));
+        logger.info("Revoked token {} of user {}", tokenId, userId);
+    }
+
+    public void revokeUserTokens(String userId, int minVersion) {
+        RevokedToken revokedToken = new RevokedToken();
+        revokedToken.setUserId(userId);
+        revokedToken.setMinVersion(minVersion);
+        revokedToken.setExpiresAt(LocalDateTime.now().plusNanos(jwtExpirationMillis * 1_000_000));
+        apply(revokedTokenRepository.save(revokedToken));
+        logger.info("Revoked tokens below version {} for user {}", minVersion, userId);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.getTokenVersion() != null) {
+            revokeUserTokens(event.getUserId(), event.getTokenVersion());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.revocation.poll-interval-ms:5000}", initialDelayString = "${app.revocation.poll-interval-ms:5000}")
+    public void poll() {
+        List<RevokedToken> batch;
+        long before;
+        do {
+            before = lastSeenId;
+            batch = revokedTokenRepository.findTop1000ByIdGreaterThanAndExpiresAtAfterOrderByIdAsc(
+                    Math.max(0, before - pollOverlap), LocalDateTime.now());
+            batch.forEach(this::apply);
+        } while (batch.size() == POLL_BATCH && lastSeenId > before);
+    }
+
+    /** Drops expired entries and rebuilds the filter, which cannot forget values on its own. */
+    @Scheduled(fixedDelayString = "${app.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            revokedTokenIds.values().removeIf(expiresAt -> expiresAt < now);
+            revokedUsers.values().removeIf(revocation -> revocation.expiresAt < now);
+            BloomFilter rebuilt = new BloomFilter(
+                    Math.max(expectedEntries, revokedTokenIds.size() + revokedUsers.size()), falsePositiveRate);
+            revokedTokenIds.keySet().forEach(tokenId -> rebuilt.put(tokenKey(tokenId)));
+            revokedUsers.keySet().forEach(userId -> rebuilt.put(userKey(userId)));
+            filter = rebuilt;
+        }
+        int deleted = revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.info("Pruned revocations: {} tokens and {} users remain, {} expired rows deleted",
+                revokedTokenIds.size(), revokedUsers.size(), deleted);
+    }
+
+    private synchronized void apply(RevokedToken revokedToken) {
+        long expiresAt = revokedToken.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (revokedToken.getTokenId() != null) {
+            revokedTokenIds.put(revokedToken.getTokenId(), expiresAt);
+            filter.put(tokenKey(revokedToken.getTokenId()));
+        } else {
+            revokedUsers.merge(revokedToken.getUserId(), new Revocation(revokedToken.getMinVersion(), expiresAt),
+                    (existing, added) -> new Revocation(Math.max(existing.minVersion, added.minVersion),
+                            Math.max(existing.expiresAt, added.expiresAt)));
+            filter.put(userKey(revokedToken.getUserId()));
+        }
+        lastSeenId = Math.max(lastSeenId, revokedToken.getId());
+    }
+
+    private static String tokenKey(String tokenId) {
+        return "jti:" + tokenId;
+    }
+
+    private static String userKey(String userId) {
+        return "uid:" + userId;
+    }
+
+    private record Revocation(int minVersion, long expiresAt) {
+    }
+}
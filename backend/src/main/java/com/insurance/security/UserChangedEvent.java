@@ -0,0 +1,31 @@
+package com.insurance.security;
+
+/**
+ * Published whenever a user's credentials, login names or activation state change,
+ * so anything caching the user's security details can drop them. When the change
+ * bumped the token version, every token issued under an older version is revoked.
+ */
+public class UserChangedEvent {
+
+    private final String userId;
+
+    private final Integer tokenVersion;
+
+    public UserChangedEvent(String userId) {
+        this(userId, null);
+    }
+
+    public UserChangedEvent(String userId, Integer tokenVersion) {
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    /** The user's new token version, or null when existing tokens stay valid. */
+    public Integer getTokenVersion() {
+        return tokenVersion;
+    }
+}
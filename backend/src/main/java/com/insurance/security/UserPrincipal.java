@@ -0,0 +1,30 @@
+package com.insurance.security;
+
+import java.util.Collection;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+public class UserPrincipal extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String userId;
+
+    private final int tokenVersion;
+
+    public UserPrincipal(String userId, String email, String password, int tokenVersion,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(email, password, authorities);
+        this.userId = userId;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
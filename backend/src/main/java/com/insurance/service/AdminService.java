@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -47,7 +48,9 @@ import com.insurance.response.TaxSettingResponse;
 import com.insurance.security.JwtTokenProvider;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
+import com.insurance.util.SettingsChangedEvent;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.security.UserChangedEvent;
 
 
 @Service
@@ -81,6 +84,9 @@ public class AdminService implements IAdminService {
     
     @Autowired
     UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
     CustomerRepository customerRepository;
@@ -227,7 +233,9 @@ public class AdminService implements IAdminService {
             throw new ApiException("Admin with id " + admin_id  +" is already inactive");
         }
         user.setActive(false);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
         adminRepository.save(admin);
         logger.info("Admin with id {} deleted successfully", admin_id);
         return "Admin successfully deleted";
@@ -246,7 +254,9 @@ public class AdminService implements IAdminService {
             throw new ApiException("Admin with id " + admin_id + " is already active ");
         }
         user.setActive(true);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
         adminRepository.save(admin);
         logger.info("Admin with id {} activated successfully", admin_id);
         return "Admin successfully activated";
@@ -303,6 +313,7 @@ public class AdminService implements IAdminService {
         insuranceSetting.setWithdrawalPenalty(insuranceSettingRequestDto.getWithdrawalPenalty());
         insuranceSetting.setLatePenalty(insuranceSettingRequestDto.getLatePenalty());
         insuranceSettingRepository.save(insuranceSetting);
+        eventPublisher.publishEvent(new SettingsChangedEvent("insurance setting"));
         logger.info("Insurance setting updated successfully");
         return "Insurance Setting updated";
     }
@@ -0,0 +1,232 @@
+package com.insurance.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurance.entities.AgentBalance;
+import com.insurance.entities.AgentLedgerEntry;
+import com.insurance.entities.AgentSettlement;
+import com.insurance.entities.Policy;
+import com.insurance.enums.LedgerEntryType;
+import com.insurance.interfaces.IAgentLedgerService;
+import com.insurance.repository.AgentBalanceRepository;
+import com.insurance.repository.AgentLedgerRepository;
+import com.insurance.repository.AgentSettlementRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.response.CommissionResponse;
+
+/**
+ * Agent earnings as an append-only ledger. Each entry keeps the commission or penalty
+ * rate that applied when it was written, and the agent's running balance row is bumped
+ * in the same transaction, so reading earnings is a primary-key lookup.
+ */
+@Service
+public class AgentLedgerService implements IAgentLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AgentLedgerService.class);
+
+    private final AgentLedgerRepository agentLedgerRepository;
+
+    private final AgentBalanceRepository agentBalanceRepository;
+
+    private final AgentSettlementRepository agentSettlementRepository;
+
+    private final PolicyRepository policyRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate newTransactionTemplate;
+
+    public AgentLedgerService(AgentLedgerRepository agentLedgerRepository,
+                              AgentBalanceRepository agentBalanceRepository,
+                              AgentSettlementRepository agentSettlementRepository,
+                              PolicyRepository policyRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.agentLedgerRepository = agentLedgerRepository;
+        this.agentBalanceRepository = agentBalanceRepository;
+        this.agentSettlementRepository = agentSettlementRepository;
+        this.policyRepository = policyRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.newTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void recordCommission(Policy policy) {
+        if (policy.getAgent() == null) {
+            return;
+        }
+        double commission = policy.getPlan().getInsuranceScheme().getNewRegistrationCommission();
+        record(policy.getAgent().getAgentId(), policy.getPolicyId(), LedgerEntryType.COMMISSION, commission,
+                LocalDateTime.now());
+    }
+
+    @Override
+    public void recordPenalty(Policy policy) {
+        if (policy.getAgent() == null) {
+            return;
+        }
+        double penalty = policy.getPlan().getInsuranceScheme().getWithdrawalPenalty();
+        record(policy.getAgent().getAgentId(), policy.getPolicyId(), LedgerEntryType.PENALTY, penalty,
+                LocalDateTime.now());
+    }
+
+    @Override
+    public AgentSummaryResponse getSummary(String agentId) {
+        return agentBalanceRepository.findById(agentId)
+                .map(this::toSummary)
+                // nothing recorded for this agent yet, e.g. before the startup backfill reached it
+                .orElseGet(() -> policyRepository.summarizeByAgentId(agentId));
+    }
+
+    @Override
+    public void applyRecordedCommissions(List<CommissionResponse> commissions) {
+        if (commissions.isEmpty()) {
+            return;
+        }
+        List<String> policyIds = commissions.stream().map(CommissionResponse::getPolicyId).collect(Collectors.toList());
+        Map<String, Double> recorded = new HashMap<>();
+        for (AgentLedgerEntry entry : agentLedgerRepository.findByPolicyIdInAndEntryType(policyIds, LedgerEntryType.COMMISSION)) {
+            recorded.put(entry.getPolicyId(), entry.getAmount());
+        }
+        for (CommissionResponse commission : commissions) {
+            Double amount = recorded.get(commission.getPolicyId());
+            if (amount != null) {
+                commission.setCommission(amount.intValue());
+            }
+        }
+    }
+
+    /** Closes every agent's open entries written before the cutoff into one settlement each. */
+    @Override
+    public int settle(LocalDateTime cutoff) {
+        Map<String, double[]> totals = new HashMap<>();
+        for (Object[] row : agentLedgerRepository.sumUnsettledBefore(cutoff)) {
+            double[] agentTotals = totals.computeIfAbsent((String) row[0], key -> new double[2]);
+            agentTotals[row[1] == LedgerEntryType.COMMISSION ? 0 : 1] = ((Number) row[2]).doubleValue();
+        }
+        int settled = 0;
+        for (Map.Entry<String, double[]> agentTotals : totals.entrySet()) {
+            try {
+                newTransactionTemplate.executeWithoutResult(status ->
+                        settleAgent(agentTotals.getKey(), agentTotals.getValue(), cutoff));
+                settled++;
+            } catch (DataIntegrityViolationException e) {
+                logger.info("Period ending {} for agent {} was already settled", cutoff, agentTotals.getKey());
+            }
+        }
+        logger.info("Settled {} agents for the period ending {}", settled, cutoff);
+        return settled;
+    }
+
+    @Scheduled(cron = "${app.ledger.settlement-cron:0 0 2 1 * *}")
+    public void closeMonthlyPeriod() {
+        settle(LocalDate.now().withDayOfMonth(1).atStartOfDay());
+    }
+
+    /** Writes entries for policies sold or cancelled before the ledger existed, at today's scheme rates. */
+    // ahead of the leaderboard rebuild, which only counts entries that exist when it starts
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int written = backfill(agentLedgerRepository.findUnrecordedCommissions(), LedgerEntryType.COMMISSION)
+                + backfill(agentLedgerRepository.findUnrecordedPenalties(), LedgerEntryType.PENALTY);
+        if (written > 0) {
+            logger.info("Backfilled {} agent ledger entries", written);
+        }
+    }
+
+    private int backfill(List<Object[]> rows, LedgerEntryType type) {
+        int written = 0;
+        for (Object[] row : rows) {
+            LocalDateTime createdAt = ((LocalDate) row[2]).atStartOfDay();
+            if (record((String) row[1], (String) row[0], type, ((Number) row[3]).doubleValue(), createdAt)) {
+                written++;
+            }
+        }
+        return written;
+    }
+
+    private boolean record(String agentId, String policyId, LedgerEntryType type, double amount, LocalDateTime createdAt) {
+        ensureBalance(agentId);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                AgentLedgerEntry entry = new AgentLedgerEntry();
+                entry.setAgentId(agentId);
+                entry.setPolicyId(policyId);
+                entry.setEntryType(type);
+                entry.setAmount(amount);
+                entry.setCreatedAt(createdAt);
+                agentLedgerRepository.saveAndFlush(entry);
+                if (type == LedgerEntryType.COMMISSION) {
+                    agentBalanceRepository.addCommission(agentId, amount, LocalDateTime.now());
+                } else {
+                    agentBalanceRepository.addPenalty(agentId, amount, LocalDateTime.now());
+                }
+            });
+            logger.info("Recorded {} of {} for agent {} on policy {}", type, amount, agentId, policyId);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            logger.info("{} for policy {} is already in the ledger", type, policyId);
+            return false;
+        }
+    }
+
+    // the balance row is created on its own so a concurrent insert cannot spoil the caller's transaction
+    private void ensureBalance(String agentId) {
+        if (agentBalanceRepository.existsById(agentId)) {
+            return;
+        }
+        try {
+            newTransactionTemplate.executeWithoutResult(status -> {
+                AgentBalance balance = new AgentBalance();
+                balance.setAgentId(agentId);
+                balance.setUpdatedAt(LocalDateTime.now());
+                agentBalanceRepository.saveAndFlush(balance);
+            });
+        } catch (DataIntegrityViolationException e) {
+            logger.info("Balance for agent {} was created concurrently", agentId);
+        }
+    }
+
+    private void settleAgent(String agentId, double[] periodTotals, LocalDateTime cutoff) {
+        AgentSettlement previous = agentSettlementRepository.findTopByAgentIdOrderByPeriodEndDesc(agentId).orElse(null);
+        AgentSettlement settlement = new AgentSettlement();
+        settlement.setAgentId(agentId);
+        settlement.setPeriodEnd(cutoff);
+        settlement.setCommission(periodTotals[0]);
+        settlement.setPenalty(periodTotals[1]);
+        settlement.setClosingCommission((previous == null ? 0 : previous.getClosingCommission()) + periodTotals[0]);
+        settlement.setClosingPenalty((previous == null ? 0 : previous.getClosingPenalty()) + periodTotals[1]);
+        settlement.setCreatedAt(LocalDateTime.now());
+        agentSettlementRepository.saveAndFlush(settlement);
+        agentLedgerRepository.markSettled(agentId, settlement.getId(), cutoff);
+    }
+
+    private AgentSummaryResponse toSummary(AgentBalance balance) {
+        AgentSummaryResponse summary = new AgentSummaryResponse();
+        summary.setSoldPolicies(balance.getSoldPolicies());
+        summary.setCancelledPolicies(balance.getCancelledPolicies());
+        summary.setTotalCommission(balance.getTotalCommission());
+        summary.setTotalPenalty(balance.getTotalPenalty());
+        return summary;
+    }
+}
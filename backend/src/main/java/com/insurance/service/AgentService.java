@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -21,9 +22,9 @@ import com.insurance.entities.City;
 import com.insurance.entities.Employee;
 import com.insurance.entities.Role;
 import com.insurance.entities.User;
+import com.insurance.enums.DataTable;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IAgentService;
 import com.insurance.repository.AdminRepository;
 import com.insurance.repository.AgentRepository;
@@ -35,9 +36,12 @@ import com.insurance.repository.UserRepository;
 import com.insurance.request.AgentRegisterRequest;
 import com.insurance.response.AgentResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DataVersions;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.security.Actor;
+import com.insurance.security.UserChangedEvent;
 
 @Service
 public class AgentService implements IAgentService {
@@ -61,6 +65,9 @@ public class AgentService implements IAgentService {
 	@Autowired
 	UserRepository userRepository;
 
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
 	@Autowired
 	CustomerRepository customerRepository;
 	
@@ -77,15 +84,14 @@ public class AgentService implements IAgentService {
 	UniqueIdGenerator uniqueIdGenerator;
 	@Autowired
 	EmailService emailService;
+
+	@Autowired
+	DataVersions dataVersions;
 	
 		@Override
-		public String registerAgent(String token, AgentRegisterRequest registerDto) {
-			String username = jwtTokenProvider.getUsername(token);
-			Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-			if(oUser.isEmpty()) {
-				throw new UnauthorizedException("User is not available");
-			}
-			User user2 = oUser.get();
+		public String registerAgent(Actor actor, AgentRegisterRequest registerDto) {
+			String username = actor.getUsername();
+			User user2 = actor.getUser();
 			
 			if (userRepository.existsByUsername(registerDto.getUsername())) {
 	            throw new ApiException("Username already exists!");
@@ -133,6 +139,7 @@ public class AgentService implements IAgentService {
 	        userRepository.save(user);
 	        agent.setUser(user);
 	        agentRepository.save(agent);
+	        dataVersions.changed(DataTable.AGENTS);
 	        String subject = "Welcome to SecureLife Insurance - Your Agent Account Has Been Created!";
 	        String emailBody = "Dear " + registerDto.getName() + ",\n\n" +
 	                           "Congratulations! Your agent account has been successfully created at SecureLife Insurance. " +
@@ -195,6 +202,7 @@ public class AgentService implements IAgentService {
 	        userRepository.save(user);
 		    agent.setUser(user);
 		    agentRepository.save(agent);
+		    dataVersions.changed(DataTable.AGENTS);
 
 		    return "Agent updated";
 		}
@@ -212,8 +220,11 @@ public class AgentService implements IAgentService {
 		        throw new ApiException("User is already inactive");
 		    }
 		    user.setActive(false);
+		    user.setTokenVersion(user.getTokenVersion() + 1);
 		    userRepository.save(user);
+		    eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
 		    agentRepository.save(agent);
+		    dataVersions.changed(DataTable.AGENTS);
 		    return "Agent successfully deleted";
 		}
 
@@ -230,8 +241,11 @@ public class AgentService implements IAgentService {
 		        throw new ApiException("User is already active");
 		    }
 		    user.setActive(true);
+		    user.setTokenVersion(user.getTokenVersion() + 1);
 		    userRepository.save(user);
+		    eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
 		    agentRepository.save(agent);
+		    dataVersions.changed(DataTable.AGENTS);
 		    return "Agent successfully activated";
 		}
 		
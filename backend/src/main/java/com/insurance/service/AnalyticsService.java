@@ -0,0 +1,231 @@
+package com.insurance.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.insurance.analytics.ColumnarEngine;
+import com.insurance.exceptions.ServiceUnavailableException;
+import com.insurance.interfaces.IAnalyticsService;
+import com.insurance.repository.ClaimRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.repository.TransactionRepository;
+import com.insurance.repository.WithdrawalRequestRepository;
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+import com.insurance.response.AnalyticsStatusResponse;
+
+/**
+ * Keeps the columnar analytics snapshot in step with the database. The first run loads everything
+ * with keyset pages; later runs pick up new policies, transactions since the last run (minus an
+ * overlap for late commits) and re-read every policy those transactions or a claim/withdrawal
+ * decision touched.
+ */
+@Service
+public class AnalyticsService implements IAnalyticsService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsService.class);
+
+    private final PolicyRepository policyRepository;
+
+    private final TransactionRepository transactionRepository;
+
+    private final ClaimRepository claimRepository;
+
+    private final WithdrawalRequestRepository withdrawalRequestRepository;
+
+    private final int parallelism;
+
+    private final int batchSize;
+
+    private final long overlapMinutes;
+
+    private volatile ColumnarEngine engine;
+
+    private volatile LocalDateTime dataAsOf;
+
+    private volatile long lastRefreshMillis;
+
+    // transactions already loaded that a later overlap window can return again
+    private Map<String, LocalDateTime> recentTransactions = new HashMap<>();
+
+    public AnalyticsService(PolicyRepository policyRepository, TransactionRepository transactionRepository,
+                            ClaimRepository claimRepository, WithdrawalRequestRepository withdrawalRequestRepository,
+                            @Value("${app.analytics.parallelism:0}") int parallelism,
+                            @Value("${app.analytics.batch-size:5000}") int batchSize,
+                            @Value("${app.analytics.overlap-minutes:5}") long overlapMinutes) {
+        this.policyRepository = policyRepository;
+        this.transactionRepository = transactionRepository;
+        this.claimRepository = claimRepository;
+        this.withdrawalRequestRepository = withdrawalRequestRepository;
+        this.parallelism = parallelism;
+        this.batchSize = batchSize;
+        this.overlapMinutes = overlapMinutes;
+    }
+
+    @Override
+    public AnalyticsQueryResponse query(AnalyticsQueryRequest request) {
+        ColumnarEngine current = engine;
+        if (current == null) {
+            throw new ServiceUnavailableException("Analytics data is still loading, try again shortly");
+        }
+        AnalyticsQueryResponse response = current.query(request);
+        response.setDataAsOf(dataAsOf);
+        logger.info("Analytics query on {} scanned {} rows in {} ms", request.getTable(), response.getScannedRows(),
+                response.getElapsedMillis());
+        return response;
+    }
+
+    @Override
+    public AnalyticsStatusResponse getStatus() {
+        ColumnarEngine current = engine;
+        AnalyticsStatusResponse status = new AnalyticsStatusResponse();
+        status.setReady(current != null);
+        if (current != null) {
+            status.setPolicyRows(current.policyCount());
+            status.setTransactionRows(current.transactionCount());
+        }
+        status.setDataAsOf(dataAsOf);
+        status.setLastRefreshMillis(lastRefreshMillis);
+        return status;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.analytics.refresh-ms:60000}",
+               initialDelayString = "${app.analytics.initial-delay-ms:5000}")
+    public synchronized void refresh() {
+        LocalDateTime started = LocalDateTime.now();
+        long startedMillis = System.currentTimeMillis();
+        try {
+            if (engine == null) {
+                fullLoad(started);
+            } else {
+                incrementalLoad(dataAsOf.minusMinutes(overlapMinutes), started);
+            }
+            dataAsOf = started;
+            lastRefreshMillis = System.currentTimeMillis() - startedMillis;
+            logger.info("Analytics snapshot refreshed in {} ms ({} policies, {} transactions)", lastRefreshMillis,
+                    engine.policyCount(), engine.transactionCount());
+        } catch (RuntimeException e) {
+            logger.error("Analytics refresh failed, keeping the previous snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        ColumnarEngine current = engine;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void fullLoad(LocalDateTime started) {
+        ColumnarEngine fresh = new ColumnarEngine(parallelism);
+        Map<String, LocalDateTime> recent = new HashMap<>();
+        try {
+            String after = "";
+            List<Object[]> page;
+            do {
+                page = policyRepository.findAnalyticsRowsAfter(after, PageRequest.of(0, batchSize));
+                fresh.upsertPolicies(page);
+                if (!page.isEmpty()) {
+                    after = (String) page.get(page.size() - 1)[0];
+                }
+            } while (page.size() == batchSize);
+
+            after = "";
+            do {
+                page = transactionRepository.findAnalyticsRowsAfter(after, PageRequest.of(0, batchSize));
+                if (!page.isEmpty()) {
+                    after = (String) page.get(page.size() - 1)[0];
+                }
+                append(fresh, page, recent, started.minusMinutes(overlapMinutes));
+            } while (page.size() == batchSize);
+        } catch (RuntimeException e) {
+            fresh.close();
+            throw e;
+        }
+        recentTransactions = recent;
+        engine = fresh;
+    }
+
+    private void incrementalLoad(LocalDateTime since, LocalDateTime started) {
+        // read the whole delta first, then apply it in one step so queries never see half of it
+        List<Object[]> policyRows = new ArrayList<>(policyRepository.findAnalyticsRowsStartedSince(since.toLocalDate()));
+
+        List<Object[]> transactions = transactionRepository.findAnalyticsRowsSince(since);
+        Set<String> touched = new LinkedHashSet<>();
+        for (Object[] row : transactions) {
+            touched.add((String) row[1]);
+        }
+        touched.addAll(claimRepository.findPolicyIdsDecidedSince(since));
+        touched.addAll(withdrawalRequestRepository.findPolicyIdsDecidedSince(since));
+        List<String> ids = new ArrayList<>(touched);
+        for (int i = 0; i < ids.size(); i += batchSize) {
+            policyRows.addAll(policyRepository.findAnalyticsRowsByIds(ids.subList(i, Math.min(ids.size(), i + batchSize))));
+        }
+
+        List<Object[]> unseen = unseen(transactions, recentTransactions);
+        // the policy of every transaction was re-read above, so an orphan's policy no longer exists
+        List<Object[]> dropped = engine.applyDelta(policyRows, unseen);
+        if (!dropped.isEmpty()) {
+            logger.warn("Skipped {} analytics transactions whose policy could not be loaded", dropped.size());
+            unseen.removeAll(dropped);
+        }
+
+        LocalDateTime keepAfter = started.minusMinutes(overlapMinutes);
+        remember(unseen, recentTransactions, keepAfter);
+        recentTransactions.values().removeIf(date -> !date.isAfter(keepAfter));
+    }
+
+    private void append(ColumnarEngine target, List<Object[]> rows, Map<String, LocalDateTime> recent,
+                        LocalDateTime keepAfter) {
+        List<Object[]> unseen = unseen(rows, recent);
+        List<Object[]> orphans = target.appendTransactions(unseen);
+        if (!orphans.isEmpty()) {
+            // the policy was created after its page was read; load it and retry once
+            Set<String> policyIds = new LinkedHashSet<>();
+            for (Object[] row : orphans) {
+                policyIds.add((String) row[1]);
+            }
+            target.upsertPolicies(policyRepository.findAnalyticsRowsByIds(policyIds));
+            List<Object[]> dropped = target.appendTransactions(orphans);
+            if (!dropped.isEmpty()) {
+                logger.warn("Skipped {} analytics transactions whose policy could not be loaded", dropped.size());
+                unseen.removeAll(dropped);
+            }
+        }
+        remember(unseen, recent, keepAfter);
+    }
+
+    private static List<Object[]> unseen(List<Object[]> rows, Map<String, LocalDateTime> recent) {
+        List<Object[]> unseen = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            if (!recent.containsKey((String) row[0])) {
+                unseen.add(row);
+            }
+        }
+        return unseen;
+    }
+
+    private static void remember(List<Object[]> rows, Map<String, LocalDateTime> recent, LocalDateTime keepAfter) {
+        for (Object[] row : rows) {
+            LocalDateTime date = (LocalDateTime) row[3];
+            if (date.isAfter(keepAfter)) {
+                recent.put((String) row[0], date);
+            }
+        }
+    }
+}
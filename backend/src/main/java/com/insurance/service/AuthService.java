@@ -5,8 +5,9 @@ import com.insurance.entities.Agent;
 import com.insurance.entities.Customer;
 import com.insurance.entities.Employee;
 import com.insurance.entities.User;
+import com.insurance.enums.CreationStatus;
+import com.insurance.enums.DataTable;
 import com.insurance.exceptions.ApiException;
-import com.insurance.exceptions.ResourceNotFoundException;
 import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IAuthService;
 import com.insurance.repository.AdminRepository;
@@ -17,15 +18,27 @@ import com.insurance.repository.UserRepository;
 import com.insurance.request.LoginDto;
 import com.insurance.request.ProfileRequest;
 import com.insurance.response.ProfileResponse;
+import com.insurance.response.SessionResponse;
 import com.insurance.request.ChangePasswordRequest;
+import com.insurance.security.Actor;
+import com.insurance.security.AttemptLimiter;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.security.TokenRevocationService;
+import com.insurance.security.UserChangedEvent;
+import com.insurance.util.DataVersions;
 import com.insurance.util.UniqueIdGenerator;
 
-import java.util.Optional;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.MailAuthenticationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -33,6 +46,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
 
 @Service
 public class AuthService implements IAuthService {
@@ -53,6 +67,9 @@ public class AuthService implements IAuthService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private CustomerRepository customerRepository;
 
@@ -67,78 +84,90 @@ public class AuthService implements IAuthService {
 
     @Autowired
     private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private AttemptLimiter attemptLimiter;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private DataVersions dataVersions;
     
     @Override
     public String login(LoginDto loginDto) {
         logger.info("Attempting login for username/email: {}", loginDto.getUsernameOrEmail());
         String usernameOrEmail = loginDto.getUsernameOrEmail();
         String password = loginDto.getPassword();
+        attemptLimiter.acquireLogin(usernameOrEmail);
         UsernamePasswordAuthenticationToken temp = new UsernamePasswordAuthenticationToken(usernameOrEmail, password);
+        // a failed attempt keeps its reservation and so counts against the limits
         Authentication authentication = authenticationManager.authenticate(temp);
+        attemptLimiter.releaseLogin(usernameOrEmail);
         SecurityContextHolder.getContext().setAuthentication(authentication);
-        String token = jwtTokenProvider.generateToken(authentication);
-        logger.info("Generated JWT token for user: {}", usernameOrEmail);
         User user = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail).get();
         if (!user.isActive()) {
             throw new UnauthorizedException("Login attempt for inactive user: {}" +  usernameOrEmail);
         }
+        String token = jwtTokenProvider.generateToken(authentication, user, resolveActorId(user));
+        logger.info("Generated JWT token for user: {}", usernameOrEmail);
         logger.info("Login successful for user: {}", usernameOrEmail);
         return token;
     }
 
-    
+    private String resolveActorId(User user) {
+        String role = user.getRole().getName();
+        if (role.equalsIgnoreCase("role_admin")) {
+            Admin admin = adminRepository.findByUser(user);
+            return admin == null ? null : admin.getAdminId();
+        } else if (role.equalsIgnoreCase("role_employee")) {
+            return employeeRepository.findByUser(user).map(Employee::getEmployeeId).orElse(null);
+        } else if (role.equalsIgnoreCase("role_agent")) {
+            Agent agent = agentRepository.findByUser(user);
+            return agent == null ? null : agent.getAgentId();
+        } else if (role.equalsIgnoreCase("role_customer")) {
+            Customer customer = customerRepository.findByUser(user);
+            return customer == null ? null : customer.getCustomerId();
+        }
+        return null;
+    }
 
     @Override
-    public String getRole(String token) {
+    public String getRole(Actor actor) {
         logger.info("Fetching role for token");
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not found for token");
-            throw new ResourceNotFoundException("User not found");
-        }
-      
-        User user = oUser.get();
-        String roleName = user.getRole().getName();
-        logger.info("Role fetched for user {}: {}", username, roleName);
-        return roleName;
+        return actor.getRole();
     }
 
     @Override
-    public String profileUpdate(String token, ProfileRequest profileRequest) {
+    public String profileUpdate(Actor actor, ProfileRequest profileRequest) {
         logger.info("Updating profile for token");
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token ");
-        }
-      
-        User user = oUser.get();
-        String role = user.getRole().getName();
+        String username = actor.getUsername();
+        User user = actor.getUser();
+        String role = actor.getRole();
         logger.info("Profile update for role: {}", role);
       
         if (role.equalsIgnoreCase("role_admin")) {
-            Admin admin = adminRepository.findByUser(user);
+            Admin admin = actor.getAdmin();
             admin.setName(profileRequest.getName());
             admin.setPhoneNumber(profileRequest.getPhoneNumber());
             adminRepository.save(admin);
             logger.info("Admin profile updated successfully for username: {}", username);
         } else if (role.equalsIgnoreCase("role_employee")) {
-            Employee employee = employeeRepository.findByUser(user).get();
+            Employee employee = actor.getEmployee();
             employee.setName(profileRequest.getName());
             employee.setAddress(profileRequest.getAddress());
             employee.setPhoneNumber(profileRequest.getPhoneNumber());
             employeeRepository.save(employee);
             logger.info("Employee profile updated successfully for username: {}", username);
         } else if (role.equalsIgnoreCase("role_agent")) {
-            Agent agent = agentRepository.findByUser(user);
+            Agent agent = actor.getAgent();
             agent.setName(profileRequest.getName());
             agent.setAddress(profileRequest.getAddress());
             agent.setPhoneNumber(profileRequest.getPhoneNumber());
             agentRepository.save(agent);
             logger.info("Agent profile updated successfully for username: {}", username);
         } else if (role.equalsIgnoreCase("role_customer")) {
-            Customer customer = customerRepository.findByUser(user);
+            Customer customer = actor.getCustomer();
             customer.setName(profileRequest.getName());
             customer.setAddress(profileRequest.getAddress());
             customer.setPhoneNumber(profileRequest.getPhoneNumber());
@@ -155,6 +184,12 @@ public class AuthService implements IAuthService {
         user.setUsername(profileRequest.getUsername());
         user.setEmail(profileRequest.getEmail());
         userRepository.save(user);
+        if (role.equalsIgnoreCase("role_agent")) {
+            dataVersions.changed(DataTable.AGENTS);
+        } else if (role.equalsIgnoreCase("role_customer")) {
+            dataVersions.changed(DataTable.CUSTOMERS);
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId()));
         String subject = "SecureLife Insurance - Your Profile Has Been Updated!";
         String emailBody = "Dear " + profileRequest.getName() + ",\n\n" +
                            "Your profile has been successfully updated. If you did not make these changes, please contact our support team immediately.\n\n" +
@@ -172,13 +207,9 @@ public class AuthService implements IAuthService {
     }
 
     @Override
-    public String changePassword(String token, ChangePasswordRequest profileRequest) {
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User not available for token: {}" + token);
-        }
-        User user = oUser.get();
+    public String changePassword(Actor actor, ChangePasswordRequest profileRequest) {
+        String username = actor.getUsername();
+        User user = actor.getUser();
   
         if (!passwordEncoder.matches(profileRequest.getCurrentPassword(), user.getPassword())) {
             throw new ApiException("Current password is wrong");
@@ -188,6 +219,7 @@ public class AuthService implements IAuthService {
         } else {
             user.setPassword(passwordEncoder.encode(profileRequest.getNewPassword()));
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUserId()));
             String subject = "SecureLife Insurance - Password Changed Successfully";
             String emailBody = "Dear " + user.getUsername() + ",\n\n" +
                                "Your password has been successfully updated. If you did not make this change, please contact our support team immediately.\n\n" +
@@ -205,39 +237,35 @@ public class AuthService implements IAuthService {
     }
 
 	@Override
-	public ProfileResponse getProfile(String token) {
+	public ProfileResponse getProfile(Actor actor) {
 		logger.info("Updating profile for token");
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
-        User user = oUser.get();
-        
+        String username = actor.getUsername();
+        String role = actor.getRole();
+
         ProfileResponse profile = new ProfileResponse();
-        String role = user.getRole().getName();
         profile.setRole(role);
         if (role.equalsIgnoreCase("role_admin")) {
-            Admin admin = adminRepository.findByUser(user);
+            Admin admin = actor.getAdmin();
             profile.setName(admin.getName());
             profile.setAddress("N/A");
             profile.setPhoneNumber(admin.getPhoneNumber());
        } else if (role.equalsIgnoreCase("role_employee")) {
-            Employee employee = employeeRepository.findByUser(user).get();
+            Employee employee = actor.getEmployee();
             profile.setName(employee.getName());
             profile.setAddress(employee.getAddress());
             profile.setPhoneNumber(employee.getPhoneNumber());
         } else if (role.equalsIgnoreCase("role_agent")) {
-            Agent agent = agentRepository.findByUser(user);
+            Agent agent = actor.getAgent();
             profile.setName(agent.getName());
             profile.setAddress(agent.getAddress());
             profile.setPhoneNumber(agent.getPhoneNumber());
         } else if (role.equalsIgnoreCase("role_customer")) {
-            Customer customer = customerRepository.findByUser(user);
+            Customer customer = actor.getCustomer();
             profile.setName(customer.getName());
             profile.setAddress(customer.getAddress());
             profile.setPhoneNumber(customer.getPhoneNumber());
         }
+        User user = actor.getUser();
         profile.setEmail(user.getEmail());
         profile.setUsername(user.getUsername());
         logger.info("Profile returned successfully for user: {}", username);
@@ -247,16 +275,80 @@ public class AuthService implements IAuthService {
 
 
 	@Override
-	public String getUsername(String token) {
-		String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not found for token");
-            throw new ResourceNotFoundException("User not found");
-        }
-      
-        User user = oUser.get();		
-        return user.getUsername();
+	public SessionResponse getSession(Actor actor) {
+		String userId = actor.getUserId() != null ? actor.getUserId() : actor.getUser().getUserId();
+		List<Object[]> rows = userRepository.findSessionRow(userId);
+		if (rows.isEmpty()) {
+			throw new UnauthorizedException("User is not available for token");
+		}
+		Object[] row = rows.get(0);
+		String role = (String) row[3];
+		SessionResponse session = new SessionResponse();
+		session.setUserId((String) row[0]);
+		session.setRole(role);
+		session.setActive((Boolean) row[4]);
+		session.setActorId((String) row[5]);
+		session.setStatus((CreationStatus) row[9]);
+
+		ProfileResponse profile = new ProfileResponse();
+		profile.setRole(role);
+		profile.setUsername((String) row[1]);
+		profile.setEmail((String) row[2]);
+		profile.setName((String) row[6]);
+		profile.setPhoneNumber((String) row[7]);
+		profile.setAddress(role.equalsIgnoreCase("role_admin") ? "N/A" : (String) row[8]);
+		session.setProfile(profile);
+		session.setPermissions(permissionsFor(role, session.getStatus()));
+
+		String fingerprint = String.join("|", session.getUserId(), String.valueOf(session.getActorId()), role,
+				String.valueOf(session.isActive()), String.valueOf(session.getStatus()), profile.getUsername(),
+				profile.getEmail(), String.valueOf(profile.getName()), String.valueOf(profile.getPhoneNumber()),
+				String.valueOf(profile.getAddress()));
+		session.setEtag(DigestUtils.md5DigestAsHex(fingerprint.getBytes(StandardCharsets.UTF_8)));
+		return session;
+	}
+
+	// mirrors the @PreAuthorize rules of the controllers, for the frontend to decide what to show
+	private static List<String> permissionsFor(String role, CreationStatus status) {
+		List<String> permissions = new ArrayList<>();
+		if (role.equalsIgnoreCase("role_admin")) {
+			permissions.addAll(List.of("admins:manage", "employees:manage", "agents:manage", "customers:manage",
+					"plans:manage", "locations:manage", "settings:manage", "claims:approve", "withdrawals:approve",
+					"policies:view", "transactions:view", "reports:download", "dashboard:admin", "analytics:query"));
+		} else if (role.equalsIgnoreCase("role_employee")) {
+			permissions.addAll(List.of("agents:manage", "customers:manage", "customers:verify", "claims:view",
+					"policies:view", "queries:respond", "reports:download"));
+		} else if (role.equalsIgnoreCase("role_agent")) {
+			permissions.addAll(List.of("customers:register", "customers:view-own", "commissions:view-own",
+					"withdrawals:view-own", "dashboard:agent", "leaderboard:view"));
+		} else if (role.equalsIgnoreCase("role_customer")) {
+			permissions.addAll(List.of("documents:upload", "plans:browse", "policies:view-own", "claims:submit",
+					"withdrawals:request", "payments:make"));
+			if (status == CreationStatus.APPROVED) {
+				permissions.add("policies:buy");
+			}
+			if (status != CreationStatus.REJECTED) {
+				permissions.add("queries:submit");
+			}
+		}
+		return permissions;
+	}
+
+	@Override
+	public String getUsername(Actor actor) {
+        return actor.getUser().getUsername();
+	}
+
+	@Override
+	public String logout(String token) {
+		Claims claims = jwtTokenProvider.getClaims(token);
+		if (claims.getId() == null) {
+			throw new ApiException("This token cannot be revoked, it expires on its own");
+		}
+		tokenRevocationService.revokeToken(claims.getId(), claims.get(JwtTokenProvider.USER_ID_CLAIM, String.class),
+				claims.getExpiration());
+		logger.info("Logged out user: {}", claims.getSubject());
+		return "Logged out successfully";
 	}
 
 
@@ -0,0 +1,268 @@
+package com.insurance.service;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.exceptions.ApiException;
+import com.insurance.interfaces.IBatchService;
+import com.insurance.request.BatchRequest;
+import com.insurance.response.BatchItemResponse;
+import com.insurance.response.BatchResponse;
+import com.insurance.security.Actor;
+import com.insurance.security.ActorResolver;
+import com.insurance.util.BatchServletRequest;
+import com.insurance.util.BatchServletResponse;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs the sub-requests of a batch through the dispatcher servlet in-process. The batch request
+ * passed the JWT filter once; each sub-request gets the same authentication and a fresh copy of
+ * the caller's actor, so no token is parsed again. Sub-requests without dependencies start
+ * together on a bounded pool; one that lists others in dependsOn starts after they finish and is
+ * answered with 424 if any of them failed. When the batch times out, sub-requests that have not
+ * started are cancelled; the ones still running only use what was copied from the batch request.
+ */
+@Service
+public class BatchService implements IBatchService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchService.class);
+
+    private static final String BATCH_PATH = "/SecureLife.com/batch";
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE");
+
+    private final DispatcherServlet dispatcherServlet;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor executor;
+
+    private final int maxRequests;
+
+    private final long timeoutMillis;
+
+    public BatchService(DispatcherServlet dispatcherServlet, ObjectMapper objectMapper,
+                        @Value("${app.batch.max-requests:20}") int maxRequests,
+                        @Value("${app.batch.parallelism:8}") int parallelism,
+                        @Value("${app.batch.queue-capacity:200}") int queueCapacity,
+                        @Value("${app.batch.timeout-ms:30000}") long timeoutMillis) {
+        this.dispatcherServlet = dispatcherServlet;
+        this.objectMapper = objectMapper;
+        this.maxRequests = maxRequests;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger threads = new AtomicInteger();
+        // when the queue is full the caller runs the sub-request itself instead of failing it
+        this.executor = new ThreadPoolExecutor(parallelism, parallelism, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "batch-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public BatchResponse execute(Actor actor, HttpServletRequest request, HttpServletResponse response,
+                                 BatchRequest batch) {
+        List<BatchRequest.Item> items = batch.getRequests();
+        if (items.size() > maxRequests) {
+            throw new ApiException("A batch can hold at most " + maxRequests + " requests");
+        }
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            BatchRequest.Item item = items.get(i);
+            if (item.getId() == null || item.getId().isBlank()) {
+                item.setId(String.valueOf(i));
+            }
+            if (item.getDependsOn() == null) {
+                item.setDependsOn(new ArrayList<>());
+            }
+            for (String dependency : item.getDependsOn()) {
+                if (!ids.contains(dependency)) {
+                    throw new ApiException("Request " + item.getId() + " depends on " + dependency
+                            + ", which is not an earlier request of the batch");
+                }
+            }
+            if (!ids.add(item.getId())) {
+                throw new ApiException("Duplicate request id in batch: " + item.getId());
+            }
+        }
+
+        long started = System.currentTimeMillis();
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        BatchServletRequest.Origin origin = new BatchServletRequest.Origin(request);
+        AtomicBoolean abandoned = new AtomicBoolean();
+        List<BatchItemResponse> responses = new ArrayList<>(items.size());
+        if (items.size() == 1) {
+            responses.add(run(items.get(0), actor, authentication, origin, response, abandoned));
+        } else {
+            Map<String, CompletableFuture<BatchItemResponse>> futures = new LinkedHashMap<>();
+            for (BatchRequest.Item item : items) {
+                CompletableFuture<?>[] dependencies = item.getDependsOn().stream()
+                        .map(futures::get).toArray(CompletableFuture[]::new);
+                futures.put(item.getId(), CompletableFuture.allOf(dependencies).thenApplyAsync(ignored -> {
+                    for (CompletableFuture<?> dependency : dependencies) {
+                        if (((BatchItemResponse) dependency.join()).getStatus() >= 400) {
+                            return error(item.getId(), HttpStatus.FAILED_DEPENDENCY, "A request this one depends on failed");
+                        }
+                    }
+                    return run(item, actor, authentication, origin, response, abandoned);
+                }, executor));
+            }
+            if (!awaitAll(futures.values())) {
+                abandoned.set(true);
+                // a cancelled future never runs its sub-request, even if its task is already queued
+                futures.values().forEach(future -> future.cancel(false));
+            }
+            futures.forEach((id, future) -> responses.add(future.isDone() && !future.isCompletedExceptionally()
+                    ? future.join()
+                    : error(id, HttpStatus.GATEWAY_TIMEOUT, "Request did not finish within the batch timeout")));
+        }
+
+        BatchResponse result = new BatchResponse();
+        result.setResponses(responses);
+        for (BatchItemResponse item : responses) {
+            if (item.getStatus() < 400) {
+                result.setSucceeded(result.getSucceeded() + 1);
+            } else {
+                result.setFailed(result.getFailed() + 1);
+            }
+        }
+        result.setElapsedMillis(System.currentTimeMillis() - started);
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    // false when the batch timed out or was interrupted with sub-requests still pending
+    private boolean awaitAll(Collection<CompletableFuture<BatchItemResponse>> futures) {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            logger.warn("Batch did not complete cleanly: {}", e.getMessage());
+            return true;
+        } catch (TimeoutException e) {
+            logger.warn("Batch timed out after {} ms, cancelling sub-requests that have not started", timeoutMillis);
+            return false;
+        }
+    }
+
+    private BatchItemResponse run(BatchRequest.Item item, Actor actor, Authentication authentication,
+                                  BatchServletRequest.Origin origin, HttpServletResponse response,
+                                  AtomicBoolean abandoned) {
+        if (abandoned.get()) {
+            return error(item.getId(), HttpStatus.GATEWAY_TIMEOUT, "Request did not finish within the batch timeout");
+        }
+        String method = item.getMethod().toUpperCase();
+        String path = item.getPath();
+        if (!METHODS.contains(method)) {
+            return error(item.getId(), HttpStatus.BAD_REQUEST, "Unsupported method " + item.getMethod());
+        }
+        if (!path.startsWith("/") || path.startsWith(BATCH_PATH)) {
+            return error(item.getId(), HttpStatus.BAD_REQUEST, "Invalid path " + path);
+        }
+        long started = System.currentTimeMillis();
+        SecurityContext previous = SecurityContextHolder.getContext();
+        SecurityContext context = SecurityContextHolder.createEmptyContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+        try {
+            byte[] body = item.getBody() == null || item.getBody().isNull() ? null : objectMapper.writeValueAsBytes(item.getBody());
+            BatchServletRequest subRequest = new BatchServletRequest(origin, method, path, body);
+            subRequest.setAttribute(ActorResolver.ACTOR_ATTRIBUTE, actor.copy());
+            BatchServletResponse subResponse = new BatchServletResponse(response);
+            dispatcherServlet.service(subRequest, subResponse);
+            BatchItemResponse result = toItem(item.getId(), subResponse);
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            return result;
+        } catch (Exception e) {
+            logger.error("Batch request {} {} failed: {}", method, path, e.getMessage(), e);
+            return error(item.getId(), HttpStatus.INTERNAL_SERVER_ERROR, "Request failed: " + e.getMessage());
+        } finally {
+            SecurityContextHolder.setContext(previous);
+        }
+    }
+
+    private BatchItemResponse toItem(String id, BatchServletResponse subResponse) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.setId(id);
+        item.setStatus(subResponse.getStatus());
+        String contentType = subResponse.getContentType();
+        item.setContentType(contentType);
+        byte[] body = subResponse.getBody();
+        if (body.length == 0) {
+            return item;
+        }
+        String type = contentType == null ? "" : contentType.toLowerCase();
+        if (type.contains("json")) {
+            try {
+                item.setBody(objectMapper.readTree(body));
+                return item;
+            } catch (IOException e) {
+                // not valid JSON after all, fall through to text
+            }
+        }
+        if (type.isEmpty() || type.startsWith("text/") || type.contains("json")) {
+            item.setBody(new String(body, charset(subResponse.getCharacterEncoding())));
+        } else {
+            item.setBody(Base64.getEncoder().encodeToString(body));
+            item.setBodyEncoding("base64");
+        }
+        return item;
+    }
+
+    private static Charset charset(String name) {
+        try {
+            return Charset.forName(name);
+        } catch (RuntimeException e) {
+            return StandardCharsets.UTF_8;
+        }
+    }
+
+    private static BatchItemResponse error(String id, HttpStatus status, String message) {
+        BatchItemResponse item = new BatchItemResponse();
+        item.setId(id);
+        item.setStatus(status.value());
+        item.setContentType("text/plain");
+        item.setBody(message);
+        return item;
+    }
+}
@@ -1,12 +1,13 @@
 package com.insurance.service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.mail.MailAuthenticationException;
@@ -16,12 +17,14 @@ import com.insurance.entities.Claim;
 import com.insurance.entities.Customer;
 import com.insurance.entities.Document;
 import com.insurance.entities.Policy;
-import com.insurance.entities.User;
 import com.insurance.enums.ClaimStatus;
+import com.insurance.enums.DataTable;
+import com.insurance.enums.LiveEventType;
 import com.insurance.enums.PolicyStatus;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
 import com.insurance.interfaces.IClaimService;
+import com.insurance.interfaces.IKpiRollupService;
 import com.insurance.repository.ClaimRepository;
 import com.insurance.repository.CustomerRepository;
 import com.insurance.repository.DocumentRepository;
@@ -32,6 +35,9 @@ import com.insurance.response.ClaimResponse;
 import com.insurance.response.DocumentResponse;
 import com.insurance.response.InsuranceSettingResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.security.Actor;
+import com.insurance.util.DataVersions;
+import com.insurance.util.DomainChangeEvent;
 
 @Service
 public class ClaimService implements IClaimService {
@@ -42,6 +48,9 @@ public class ClaimService implements IClaimService {
     @Autowired
     JwtTokenProvider jwtTokenProvider;
 
+    @Autowired
+    IKpiRollupService kpiRollupService;
+
     @Autowired
     UserRepository userRepository;
 
@@ -64,16 +73,16 @@ public class ClaimService implements IClaimService {
     @Autowired
     AdminService adminService;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    DataVersions dataVersions;
+
     @Override
-    public String requestClaim(String token, ClaimRequest claimRequest, String policyId) {
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();
+    public String requestClaim(Actor actor, ClaimRequest claimRequest, String policyId) {
 
-        Customer customer = customerRepository.findByUser(user);
+        Customer customer = actor.getCustomer();
         if (customer == null) {
             throw new ApiException("Customer not found");
         }
@@ -97,6 +106,8 @@ public class ClaimService implements IClaimService {
         claim.setStatus(ClaimStatus.PENDING);
         
         claimRepository.save(claim);
+        eventPublisher.publishEvent(new DomainChangeEvent(LiveEventType.CLAIM_SUBMITTED, String.valueOf(claim.getClaimId()),
+                policy.getAgent() != null ? policy.getAgent().getAgentId() : null, customer.getCustomerId(), null));
 
         return "Claim request sent successfully";
     }
@@ -120,8 +131,11 @@ public class ClaimService implements IClaimService {
     public void approveClaim(Long claimId) {
         Claim claim = claimRepository.findById(claimId).orElseThrow(() -> new ResourceNotFoundException("Claim not found"));
         claim.setStatus(ClaimStatus.APPROVED);
+        claim.setDecidedAt(LocalDateTime.now());
         claim.getPolicy().setStatus(PolicyStatus.CLAIMED);
         claimRepository.save(claim);
+        dataVersions.changed(DataTable.POLICIES);
+        kpiRollupService.recordClaimApproved(claim.getPolicy());
 
         InsuranceSettingResponse insuranceSetting = adminService.getLastInsuranceSetting();
         String subject = "SecureLife Insurance - Your Claim Request has been Approved";
@@ -147,6 +161,7 @@ public class ClaimService implements IClaimService {
     public void rejectClaim(Long claimId) {
         Claim claim = claimRepository.findById(claimId).orElseThrow(() -> new ResourceNotFoundException("Claim not found"));
         claim.setStatus(ClaimStatus.REJECTED);
+        claim.setDecidedAt(LocalDateTime.now());
         claimRepository.save(claim);
 
         String subject = "SecureLife Insurance - Your Claim Request has been Rejected";
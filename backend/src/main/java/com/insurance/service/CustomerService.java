@@ -10,6 +10,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -24,6 +25,8 @@ import com.insurance.entities.Employee;
 import com.insurance.entities.Role;
 import com.insurance.entities.User;
 import com.insurance.enums.CreationStatus;
+import com.insurance.enums.DataTable;
+import com.insurance.enums.LiveEventType;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
 import com.insurance.exceptions.UnauthorizedException;
@@ -38,9 +41,13 @@ import com.insurance.request.CustomerRegisterRequest;
 import com.insurance.response.CustomerResponse;
 import com.insurance.response.CustomerResponseForUpdate;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DataVersions;
+import com.insurance.util.DomainChangeEvent;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.security.Actor;
+import com.insurance.security.UserChangedEvent;
 
 import jakarta.validation.Valid;
 
@@ -67,6 +74,9 @@ public class CustomerService implements ICustomerService {
     
     @Autowired
     UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
     @Autowired
     RoleRepository roleRepository;
@@ -80,18 +90,17 @@ public class CustomerService implements ICustomerService {
     @Autowired
     CityRepository cityRepository;
 
+    @Autowired
+    DataVersions dataVersions;
+
 
     @Override
-    public String registerCustomer(String token, @Valid CustomerRegisterRequest registerDto)  {
+    public String registerCustomer(Actor actor, @Valid CustomerRegisterRequest registerDto)  {
         logger.info("Starting customer registration for username: {}", registerDto.getUsername());
         User agentUser = null;
 
-        if (!token.isEmpty()) {
-            String username = jwtTokenProvider.getUsername(token);
-            Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-            if (oUser.isPresent()) {
-                agentUser = oUser.get();
-            }
+        if (actor != null) {
+            agentUser = actor.getUser();
         }
 
         if (userRepository.existsByUsername(registerDto.getUsername())) {
@@ -140,6 +149,9 @@ public class CustomerService implements ICustomerService {
         userRepository.save(user);
         customer.setUser(user);
         customerRepository.save(customer);
+        dataVersions.changed(DataTable.CUSTOMERS);
+        eventPublisher.publishEvent(new DomainChangeEvent(LiveEventType.CUSTOMER_PENDING, customer.getCustomerId(),
+                customer.getAgent() != null ? customer.getAgent().getAgentId() : null, customer.getCustomerId(), null));
 
         String subject = "SecureLife Insurance - Your Account Has Been Created!";
         String emailBody = "Dear " + customer.getUser().getUsername() + ",\n\n" +
@@ -248,6 +260,7 @@ public class CustomerService implements ICustomerService {
         }
 
         customerRepository.save(existingCustomer);
+        dataVersions.changed(DataTable.CUSTOMERS);
         logger.info("Customer updated successfully with ID: {}", id);
         return "Customer updated successfully!";
     }
@@ -263,7 +276,10 @@ public class CustomerService implements ICustomerService {
 
         if (user.isActive()) {
             user.setActive(false);
+            user.setTokenVersion(user.getTokenVersion() + 1);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
+            dataVersions.changed(DataTable.CUSTOMERS);
             logger.info("Customer deactivated successfully with ID: {}", id);
             return "Customer deactivated successfully!";
         } else {
@@ -283,7 +299,10 @@ public class CustomerService implements ICustomerService {
 
         if (!user.isActive()) {
             user.setActive(true);
+            user.setTokenVersion(user.getTokenVersion() + 1);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
+            dataVersions.changed(DataTable.CUSTOMERS);
             logger.info("Customer activated successfully with ID: {}", id);
             return "Customer activated successfully!";
         } else {
@@ -293,17 +312,12 @@ public class CustomerService implements ICustomerService {
     }
     
     @Override
-    public String verifyCustomerapprove(String token, String id) {
+    public String verifyCustomerapprove(Actor actor, String id) {
         logger.info("Verifying customer approval for customer ID: {}", id);
 
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
-        User user = oUser.get();
+        User user = actor.getUser();
 
-        Employee employee = employeeRepository.findByUser(user)
+        Employee employee = Optional.ofNullable(actor.getEmployee())
                 .orElseThrow(() -> new ApiException("Employee not found"));
 
         Customer customer = customerRepository.findById(id)
@@ -313,6 +327,7 @@ public class CustomerService implements ICustomerService {
         customer.setVerifiedBy(employee);
 
         customerRepository.save(customer);
+        dataVersions.changed(DataTable.CUSTOMERS);
         String subject = "SecureLife Insurance - Your Account Has Been Approved!";
         String emailBody = "Dear " + customer.getUser().getUsername() + ",\n\n" +
                            "Congratulations! Your account with SecureLife Insurance has been approved. " +
@@ -331,17 +346,12 @@ public class CustomerService implements ICustomerService {
     }
 
     @Override
-    public String verifyCustomerReject(String token, String id) {
+    public String verifyCustomerReject(Actor actor, String id) {
         logger.info("Verifying customer rejection for customer ID: {}", id);
 
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
-        User user = oUser.get();
+        User user = actor.getUser();
 
-        Employee employee = employeeRepository.findByUser(user)
+        Employee employee = Optional.ofNullable(actor.getEmployee())
                 .orElseThrow(() -> new ApiException("Employee not found"));
 
         Customer customer = customerRepository.findById(id)
@@ -351,6 +361,7 @@ public class CustomerService implements ICustomerService {
         customer.setVerifiedBy(employee);
        
         customerRepository.save(customer);
+        dataVersions.changed(DataTable.CUSTOMERS);
         
         String subject = "SecureLife Insurance - Account Verification Rejected";
         String emailBody = "Dear " + customer.getUser().getUsername() + ",\n\n" +
@@ -372,15 +383,10 @@ public class CustomerService implements ICustomerService {
     }
 
 	@Override
-	public PagedResponse<CustomerResponse> getMyCustomersForAgent(String token,int page, int size, String sortBy, String direction,
+	public PagedResponse<CustomerResponse> getMyCustomersForAgent(Actor actor,int page, int size, String sortBy, String direction,
 			String searchQuery) {
 		
-		String username = jwtTokenProvider.getUsername(token);
-		Optional<User> user = userRepository.findByUsernameOrEmail(username, username);
-		if(user.isEmpty()) {
-			throw new UnauthorizedException("Unauthorized access");
-		}
-		Agent agent = agentRepository.findByUser(user.get());
+		Agent agent = actor.getAgent();
 		if(agent == null) {
 			throw new UnauthorizedException("Unauthorized access");
 		}
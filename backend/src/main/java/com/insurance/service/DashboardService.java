@@ -1,25 +1,18 @@
 package com.insurance.service;
 
-import java.util.List;
-import java.util.Optional;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.insurance.entities.Agent;
-import com.insurance.entities.Policy;
-import com.insurance.entities.User;
-import com.insurance.enums.PolicyStatus;
 import com.insurance.exceptions.UnauthorizedException;
+import com.insurance.interfaces.IAgentLedgerService;
 import com.insurance.interfaces.IDashboardService;
 import com.insurance.repository.AdminRepository;
 import com.insurance.repository.AgentRepository;
 import com.insurance.repository.CustomerRepository;
 import com.insurance.repository.EmployeeRepository;
-import com.insurance.repository.PolicyRepository;
-import com.insurance.repository.UserRepository;
-import com.insurance.repository.WithdrawalRequestRepository;
-import com.insurance.security.JwtTokenProvider;
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.security.Actor;
 
 @Service
 public class DashboardService implements IDashboardService{
@@ -36,18 +29,9 @@ public class DashboardService implements IDashboardService{
  @Autowired
  private EmployeeRepository employeeRepository;
  
- @Autowired
- JwtTokenProvider jwtTokenProvider;
- 
- @Autowired
- UserRepository userRepository;
- 
- @Autowired
- WithdrawalRequestRepository withdrawalRequestRepository;
-
  
  @Autowired
- private PolicyRepository policyRepository;
+ private IAgentLedgerService agentLedgerService;
 
  public long getTotalAdmins() {
      return adminRepository.count();
@@ -66,87 +50,40 @@ public class DashboardService implements IDashboardService{
  }
 
 @Override
-public Double getMyCommissions(String token) {
-	String username = jwtTokenProvider.getUsername(token);
-    Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-    if (oUser.isEmpty()) {
-        throw new UnauthorizedException("User is not available for token");
-    }
-    User user = oUser.get();
-    
-    Agent agent =agentRepository.findByUser(user);
-    if(agent == null) {
-    	throw new UnauthorizedException("User is not unauthorized");
-    }
-    
-    Double totalCommissions = 0.0;
-    List<Policy> policies = policyRepository.findByAgent(agent);
-    
-    for(Policy policy:policies) {
-    	totalCommissions = totalCommissions + policy.getPlan().getInsuranceScheme().getNewRegistrationCommission();
-    }
-
-    return totalCommissions;
+public AgentSummaryResponse getAgentSummary(Actor actor) {
+    return agentLedgerService.getSummary(getAgentId(actor));
 }
 
 @Override
-public Double getMyWithdrawals(String token) {
-	String username = jwtTokenProvider.getUsername(token);
-    Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-    if (oUser.isEmpty()) {
-        throw new UnauthorizedException("User is not available for token");
-    }
-    User user = oUser.get();
-    
-    Agent agent =agentRepository.findByUser(user);
-    if(agent == null) {
-    	throw new UnauthorizedException("User is not unauthorized");
-    }
-    
-    Double totalWithdrawals = 0.0;
-    List<Policy> policies = policyRepository.findByAgentAndStatusIsCancelled(agent, PolicyStatus.CANCELLED);
-
-    
-    for(Policy policy:policies) {
-    	totalWithdrawals = totalWithdrawals + policy.getPlan().getInsuranceScheme().getWithdrawalPenalty();
-    }
+public Double getMyCommissions(Actor actor) {
+    return getAgentSummary(actor).getTotalCommission();
+}
 
-    return totalWithdrawals;
+@Override
+public Double getMyWithdrawals(Actor actor) {
+    return getAgentSummary(actor).getTotalPenalty();
 }
 
 @Override
-public Long getCancelledPolicies(String token) {
-	String username = jwtTokenProvider.getUsername(token);
-    Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-    if (oUser.isEmpty()) {
-        throw new UnauthorizedException("User is not available for token");
-    }
-    User user = oUser.get();
-    
-    Agent agent =agentRepository.findByUser(user);
-    if(agent == null) {
-    	throw new UnauthorizedException("User is not unauthorized");
-    }
-    Long count = withdrawalRequestRepository.countApprovedByAgent(agent);
-	return count;
+public Long getCancelledPolicies(Actor actor) {
+    return getAgentSummary(actor).getCancelledPolicies();
 }
 
 @Override
-public Long getSoldPolicies(String token) {
-	String username = jwtTokenProvider.getUsername(token);
-    Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-    if (oUser.isEmpty()) {
-        throw new UnauthorizedException("User is not available for token");
+public Long getSoldPolicies(Actor actor) {
+    return getAgentSummary(actor).getSoldPolicies();
+}
+
+// the token already names the agent, so the balance is read without loading the agent row
+private String getAgentId(Actor actor) {
+    if (actor.hasRole("role_agent") && actor.getActorId() != null) {
+        return actor.getActorId();
     }
-    User user = oUser.get();
-    
-    Agent agent =agentRepository.findByUser(user);
+    Agent agent = actor.getAgent();
     if(agent == null) {
     	throw new UnauthorizedException("User is not unauthorized");
     }
-    List<Policy> policies = policyRepository.findByAgent(agent);
-    Long size = (long) policies.size();
-	return size;
+    return agent.getAgentId();
 }
 
 }
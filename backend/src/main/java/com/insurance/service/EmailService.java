@@ -1,24 +1,30 @@
 package com.insurance.service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.Optional;
-import java.util.Random;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import com.insurance.entities.OtpEntity;
 import com.insurance.entities.User;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.UnauthorizedException;
-import com.insurance.repository.OtpRepository;
 import com.insurance.repository.UserRepository;
 import com.insurance.request.OtpForgetPasswordRequest;
+import com.insurance.security.AttemptLimiter;
+import com.insurance.security.OtpStore;
+import com.insurance.security.UserChangedEvent;
 
 import org.springframework.transaction.annotation.Transactional;
 
@@ -34,14 +40,25 @@ public class EmailService {
     private JavaMailSender javaMailSender;
 
     @Autowired
-    private OtpRepository otpRepository;
+    private OtpStore otpStore;
+
+    @Value("${app.otp.ttl-minutes:10}")
+    private long otpTtlMinutes;
+
+    private final SecureRandom random = new SecureRandom();
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AttemptLimiter attemptLimiter;
+
     public void sendEmail(String toMail, String subject, String emailBody) {
         logger.info("Sending email to: {}, subject: {}", toMail, subject);
         SimpleMailMessage mailMessage = new SimpleMailMessage();
@@ -54,9 +71,8 @@ public class EmailService {
     }
 
     public String generateOTP() {
-        Random random = new Random();
         int otp = 1000 + random.nextInt(9000);
-        logger.info("Generated OTP: {}", otp);
+        logger.info("Generated OTP");
         return String.valueOf(otp);
     }
 
@@ -69,6 +85,7 @@ public class EmailService {
 
     public String sendOtpForForgetPassword(String username) {
         logger.info("Initiating OTP generation for username: {}", username);
+        attemptLimiter.acquireOtpSend(username);
         Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
         if (oUser.isEmpty()) {
             throw new UnauthorizedException("User not available for username: " + username);
@@ -77,10 +94,9 @@ public class EmailService {
         logger.info("User found with email: {}", user.getEmail());
 
         String otp = generateOTP();
-        LocalDateTime expirationTime = LocalDateTime.now().plusMinutes(10);
-        OtpEntity otpEntity = new OtpEntity(user.getUsername(), otp, expirationTime);
-        otpRepository.save(otpEntity);
-        logger.info("OTP saved in database for username: {}, expiration time: {}", user.getUsername(), expirationTime);
+        LocalDateTime expirationTime = LocalDateTime.now().plusMinutes(otpTtlMinutes);
+        otpStore.save(user.getUsername(), hashOtp(user.getUsername(), otp), expirationTime);
+        logger.info("OTP stored for username: {}, expiration time: {}", user.getUsername(), expirationTime);
 
         sendOtpEmail(user.getEmail(), otp);
         logger.info("OTP sent successfully to registered email: {}", user.getEmail());
@@ -88,18 +104,23 @@ public class EmailService {
         return "OTP sent to your registered email.";
     }
 
-    public String verifyOtp(String otp) {
-        logger.info("Verifying OTP: {}", otp);
-        Optional<OtpEntity> otpEntityOptional = otpRepository.findByOtp(otp);
-        if (otpEntityOptional.isEmpty()) {
+    public String verifyOtp(String usernameOrEmail, String otp) {
+        logger.info("Verifying OTP for: {}", usernameOrEmail);
+        if (usernameOrEmail == null || otp == null) {
+            throw new ApiException("Username or email and OTP are required");
+        }
+        String username = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+                .map(User::getUsername)
+                .orElse(null);
+        // guesses against unknown names still spend the client's budget
+        attemptLimiter.acquireOtpVerify(username != null ? username : usernameOrEmail);
+        if (username == null) {
             throw new ApiException("Invalid or expired OTP");
         }
-
-        OtpEntity otpEntity = otpEntityOptional.get();
-        if (otpEntity.getExpirationTime().isBefore(LocalDateTime.now())) {
-            throw new ApiException("Invalid or expired OTP :" + otpEntity.getUsername());
+        if (!otpStore.markVerified(username, hashOtp(username, otp))) {
+            throw new ApiException("Invalid or expired OTP");
         }
-        logger.info("OTP verified successfully for username: {}", otpEntity.getUsername());
+        logger.info("OTP verified successfully for username: {}", username);
         return "OTP verified successfully";
     }
 
@@ -117,13 +138,27 @@ public class EmailService {
             throw new ApiException("Confirm password does not match new password");
         }
 
+        // each successful /otp/verify allows exactly one reset
+        if (!otpStore.consumeVerified(user.getUsername())) {
+            throw new UnauthorizedException("Verify the OTP sent to your email before setting a new password");
+        }
+        logger.info("Verified OTP consumed for username: {}", username);
+
         user.setPassword(passwordEncoder.encode(forgetPasswordRequest.getNewPassword()));
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId()));
         logger.info("Password updated successfully for username: {}", username);
 
-        otpRepository.deleteByUsername(user.getUsername());
-        logger.info("OTP record deleted for username: {}", username);
-
         return "Password updated successfully";
     }
+
+    private String hashOtp(String username, String otp) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((username + ":" + otp).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
 }
@@ -8,6 +8,7 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -31,6 +32,7 @@ import com.insurance.security.JwtTokenProvider;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.security.UserChangedEvent;
 
 @Service
 public class EmployeeService implements IEmployeeService {
@@ -55,6 +57,9 @@ public class EmployeeService implements IEmployeeService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Autowired
     CustomerRepository customerRepository;
 
@@ -177,7 +182,9 @@ public class EmployeeService implements IEmployeeService {
             throw new ApiException("User is already inactive ");
         }
         user.setActive(false);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
         employeeRepository.save(employee);
 
         logger.info("Employee deactivated successfully with ID: {}", employee_id);
@@ -198,7 +205,9 @@ public class EmployeeService implements IEmployeeService {
             throw new ApiException("User is already active");
         }
         user.setActive(true);
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), user.getTokenVersion()));
         employeeRepository.save(employee);
 
         logger.info("Employee activated successfully with ID: {}", employee_id);
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -23,6 +24,7 @@ import com.insurance.request.InsurancePlanRequest;
 import com.insurance.response.InsurancePlanResponse;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
+import com.insurance.util.SettingsChangedEvent;
 import com.insurance.util.UniqueIdGenerator;
 
 @Service
@@ -42,6 +44,9 @@ public class InsurancePlanService implements IInsurancePlanService {
     @Autowired
     Mappers mappers;
 
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
     @Override
     public String createInsurancePlan(String schemeId, InsurancePlanRequest planRequest) {
         logger.info("Creating new insurance plan for scheme ID: {}", schemeId);
@@ -82,6 +87,7 @@ public class InsurancePlanService implements IInsurancePlanService {
 
         // Save or update the InsurancePlan
         insurancePlanRepository.save(insurancePlan);
+        eventPublisher.publishEvent(new SettingsChangedEvent("insurance plan"));
 
         logger.info("Insurance Plan updated/created successfully with ID: {}", schemeId);
         return "Insurance Plan Updated/Created";
@@ -0,0 +1,149 @@
+package com.insurance.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurance.entities.KpiDailyRollup;
+import com.insurance.entities.Policy;
+import com.insurance.exceptions.ApiException;
+import com.insurance.interfaces.IKpiRollupService;
+import com.insurance.repository.KpiDailyRollupRepository;
+import com.insurance.response.KpiTrendResponse;
+
+/**
+ * Daily business totals per (state, city, insurance type, scheme, plan). Services bump the
+ * current day with a single upsert as events happen; a nightly job rebuilds the last few
+ * days from the source tables so any missed or failed increment is corrected.
+ */
+@Service
+public class KpiRollupService implements IKpiRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KpiRollupService.class);
+
+    private final KpiDailyRollupRepository kpiDailyRollupRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int reconcileDays;
+
+    public KpiRollupService(KpiDailyRollupRepository kpiDailyRollupRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.kpi.reconcile-days:3}") int reconcileDays) {
+        this.kpiDailyRollupRepository = kpiDailyRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reconcileDays = reconcileDays;
+    }
+
+    @Override
+    public void recordNewPolicy(Policy policy) {
+        increment(policy, 1, 0, 0, 0);
+    }
+
+    @Override
+    public void recordPremium(Policy policy, double amount) {
+        increment(policy, 0, amount, 0, 0);
+    }
+
+    @Override
+    public void recordClaimApproved(Policy policy) {
+        increment(policy, 0, 0, 1, 0);
+    }
+
+    @Override
+    public void recordWithdrawalApproved(Policy policy) {
+        increment(policy, 0, 0, 0, 1);
+    }
+
+    @Override
+    public List<KpiTrendResponse> getTrend(LocalDate from, LocalDate to, String stateId, String cityId,
+                                           String insuranceTypeId, String schemeId, String planId) {
+        if (from.isAfter(to)) {
+            throw new ApiException("From date must not be after to date");
+        }
+        return kpiDailyRollupRepository.findTrend(from, to, stateId, cityId, insuranceTypeId, schemeId, planId);
+    }
+
+    @Override
+    public int rebuild(LocalDate from, LocalDate to) {
+        int rows = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            LocalDate current = day;
+            rows += transactionTemplate.execute(status -> rebuildDay(current));
+        }
+        logger.info("Rebuilt KPI rollups from {} to {}: {} rows", from, to, rows);
+        return rows;
+    }
+
+    @Scheduled(cron = "${app.kpi.reconcile-cron:0 30 1 * * *}")
+    public void reconcile() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        rebuild(yesterday.minusDays(reconcileDays - 1L), yesterday);
+    }
+
+    // a failed increment must not fail the payment or approval; the nightly rebuild repairs the day
+    private void increment(Policy policy, long newPolicies, double premium, long claims, long withdrawals) {
+        try {
+            List<Object[]> dimensions = kpiDailyRollupRepository.findPolicyDimensions(policy.getPolicyId());
+            if (dimensions.isEmpty()) {
+                return;
+            }
+            Object[] key = dimensions.get(0);
+            kpiDailyRollupRepository.increment(LocalDate.now(), dimension(key[0]), dimension(key[1]),
+                    dimension(key[2]), dimension(key[3]), dimension(key[4]), newPolicies, premium, claims, withdrawals);
+        } catch (RuntimeException e) {
+            logger.warn("Could not update KPI rollup for policy {}: {}", policy.getPolicyId(), e.getMessage());
+        }
+    }
+
+    private int rebuildDay(LocalDate day) {
+        LocalDateTime start = day.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        Map<List<String>, KpiDailyRollup> rollups = new LinkedHashMap<>();
+        for (Object[] row : kpiDailyRollupRepository.countNewPolicies(day)) {
+            rollup(rollups, day, row).setNewPolicies(((Number) row[5]).longValue());
+        }
+        for (Object[] row : kpiDailyRollupRepository.sumPremiums(start, end)) {
+            rollup(rollups, day, row).setPremiumCollected(((Number) row[5]).doubleValue());
+        }
+        for (Object[] row : kpiDailyRollupRepository.countApprovedClaims(start, end)) {
+            rollup(rollups, day, row).setClaimsApproved(((Number) row[5]).longValue());
+        }
+        for (Object[] row : kpiDailyRollupRepository.countApprovedWithdrawals(start, end)) {
+            rollup(rollups, day, row).setWithdrawalsApproved(((Number) row[5]).longValue());
+        }
+        kpiDailyRollupRepository.deleteByDay(day);
+        kpiDailyRollupRepository.flush();
+        kpiDailyRollupRepository.saveAll(rollups.values());
+        return rollups.size();
+    }
+
+    private KpiDailyRollup rollup(Map<List<String>, KpiDailyRollup> rollups, LocalDate day, Object[] row) {
+        List<String> key = List.of(dimension(row[0]), dimension(row[1]), dimension(row[2]), dimension(row[3]),
+                dimension(row[4]));
+        return rollups.computeIfAbsent(key, k -> {
+            KpiDailyRollup rollup = new KpiDailyRollup();
+            rollup.setRollupDate(day);
+            rollup.setStateId(k.get(0));
+            rollup.setCityId(k.get(1));
+            rollup.setInsuranceTypeId(k.get(2));
+            rollup.setSchemeId(k.get(3));
+            rollup.setPlanId(k.get(4));
+            return rollup;
+        });
+    }
+
+    private static String dimension(Object value) {
+        return value == null ? "" : value.toString();
+    }
+}
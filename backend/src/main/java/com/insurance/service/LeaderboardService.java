@@ -0,0 +1,249 @@
+package com.insurance.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.insurance.entities.Agent;
+import com.insurance.entities.Policy;
+import com.insurance.enums.LeaderboardMetric;
+import com.insurance.enums.LeaderboardWindow;
+import com.insurance.enums.LedgerEntryType;
+import com.insurance.interfaces.ILeaderboardService;
+import com.insurance.repository.AgentLedgerRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.response.LeaderboardEntryResponse;
+import com.insurance.response.LeaderboardResponse;
+import com.insurance.util.RankedBoard;
+
+/**
+ * Agent rankings for the current week and month, overall and per agent city. Boards are kept in
+ * memory and bumped as policies are sold and withdrawals approved; at startup they are rebuilt
+ * with one grouped query per source and window instead of a recount per agent.
+ *
+ * Every update has an agent ledger entry behind it. A rebuild counts the entries up to the highest
+ * ledger id at its start, and an update is only added on top when its entry is newer than that.
+ */
+@Service
+public class LeaderboardService implements ILeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final String ALL_CITIES = "ALL";
+
+    private static final int MAX_LIMIT = 100;
+
+    private final PolicyRepository policyRepository;
+
+    private final AgentLedgerRepository agentLedgerRepository;
+
+    // guarded by this
+    private final Map<LeaderboardWindow, Period> periods = new EnumMap<>(LeaderboardWindow.class);
+
+    // guarded by this; non-null while a rebuild runs, collecting updates its queries may have missed
+    private List<Update> pending;
+
+    // guarded by this; ledger entries up to this id are already counted by the last rebuild
+    private long countedThrough;
+
+    private final Object rebuildLock = new Object();
+
+    public LeaderboardService(PolicyRepository policyRepository, AgentLedgerRepository agentLedgerRepository) {
+        this.policyRepository = policyRepository;
+        this.agentLedgerRepository = agentLedgerRepository;
+    }
+
+    @Override
+    public void recordPolicySold(Policy policy) {
+        Agent agent = policy.getAgent();
+        if (agent == null) {
+            return;
+        }
+        double commission = policy.getPlan().getInsuranceScheme().getNewRegistrationCommission();
+        apply(agent, new double[] { 1, policy.getTotalInvestmentAmount(), commission },
+                ledgerId(policy, LedgerEntryType.COMMISSION));
+    }
+
+    @Override
+    public void recordWithdrawal(Policy policy) {
+        Agent agent = policy.getAgent();
+        if (agent == null) {
+            return;
+        }
+        double penalty = policy.getPlan().getInsuranceScheme().getWithdrawalPenalty();
+        apply(agent, new double[] { 0, 0, -penalty }, ledgerId(policy, LedgerEntryType.PENALTY));
+    }
+
+    @Override
+    public LeaderboardResponse getLeaderboard(LeaderboardWindow window, LeaderboardMetric metric, String cityId, int limit) {
+        Period period = current(window);
+        String scope = cityId == null || cityId.isBlank() ? ALL_CITIES : cityId;
+        RankedBoard board = period.boards.get(scope);
+
+        LeaderboardResponse response = new LeaderboardResponse();
+        response.setWindow(window);
+        response.setPeriodStart(period.start);
+        response.setMetric(metric);
+        response.setCityId(scope.equals(ALL_CITIES) ? null : scope);
+        List<LeaderboardEntryResponse> entries = new ArrayList<>();
+        if (board != null) {
+            response.setRankedAgents(board.size());
+            int rank = 1;
+            for (RankedBoard.Standing standing : board.top(metric.ordinal(), Math.min(Math.max(limit, 1), MAX_LIMIT))) {
+                LeaderboardEntryResponse entry = new LeaderboardEntryResponse();
+                entry.setRank(rank++);
+                entry.setAgentId(standing.getId());
+                entry.setAgentName(standing.getName());
+                entry.setPoliciesSold((long) standing.getValue(LeaderboardMetric.POLICIES_SOLD.ordinal()));
+                entry.setPremiumVolume(standing.getValue(LeaderboardMetric.PREMIUM_VOLUME.ordinal()));
+                entry.setNetCommission(standing.getValue(LeaderboardMetric.NET_COMMISSION.ordinal()));
+                entries.add(entry);
+            }
+        }
+        response.setEntries(entries);
+        return response;
+    }
+
+    @Override
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            long cutoff;
+            Map<LeaderboardWindow, Period> rebuilt;
+            try {
+                // taken after pending is set, so every entry past the cutoff reaches the new boards
+                // through pending or, once they are in place, through apply
+                cutoff = agentLedgerRepository.findMaxId();
+                rebuilt = load(LocalDate.now(), cutoff);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // the queries stop at the cutoff, so exactly the updates past it are missing
+                for (Update update : pending) {
+                    if (update.ledgerId > cutoff) {
+                        for (Period period : rebuilt.values()) {
+                            period.add(update.agentId, update.agentName, update.cityId, update.deltas);
+                        }
+                    }
+                }
+                pending = null;
+                countedThrough = cutoff;
+                periods.putAll(rebuilt);
+            }
+            logger.info("Rebuilt agent leaderboards: {} agents this week, {} this month",
+                    rebuilt.get(LeaderboardWindow.WEEK).rankedAgents(), rebuilt.get(LeaderboardWindow.MONTH).rankedAgents());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild agent leaderboards: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized void apply(Agent agent, double[] deltas, long ledgerId) {
+        if (ledgerId <= countedThrough) {
+            // recorded late, after a rebuild that had already read its entry
+            return;
+        }
+        String cityId = agent.getCity() == null ? null : agent.getCity().getCityId();
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            current(window).add(agent.getAgentId(), agent.getName(), cityId, deltas);
+        }
+        if (pending != null) {
+            pending.add(new Update(agent.getAgentId(), agent.getName(), cityId, deltas, ledgerId));
+        }
+    }
+
+    // an update without an entry is newer than any rebuild
+    private long ledgerId(Policy policy, LedgerEntryType type) {
+        return agentLedgerRepository.findIdByPolicyIdAndEntryType(policy.getPolicyId(), type).orElse(Long.MAX_VALUE);
+    }
+
+    private Map<LeaderboardWindow, Period> load(LocalDate today, long maxLedgerId) {
+        Map<LeaderboardWindow, Period> loaded = new EnumMap<>(LeaderboardWindow.class);
+        for (LeaderboardWindow window : LeaderboardWindow.values()) {
+            Period period = new Period(startOf(window, today));
+            for (Object[] row : policyRepository.summarizeSalesByAgentSince(period.start, maxLedgerId)) {
+                period.add((String) row[0], (String) row[1], (String) row[2],
+                        new double[] { ((Number) row[3]).doubleValue(), number(row[4]), 0 });
+            }
+            for (Object[] row : agentLedgerRepository.sumNetByAgentSince(period.start.atStartOfDay(), maxLedgerId)) {
+                period.add((String) row[0], (String) row[1], (String) row[2], new double[] { 0, 0, number(row[3]) });
+            }
+            loaded.put(window, period);
+        }
+        return loaded;
+    }
+
+    // rolls the window over to an empty board once its period has ended
+    private synchronized Period current(LeaderboardWindow window) {
+        LocalDate start = startOf(window, LocalDate.now());
+        Period period = periods.get(window);
+        if (period == null || !period.start.equals(start)) {
+            period = new Period(start);
+            periods.put(window, period);
+        }
+        return period;
+    }
+
+    private static LocalDate startOf(LeaderboardWindow window, LocalDate day) {
+        return window == LeaderboardWindow.WEEK
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day.withDayOfMonth(1);
+    }
+
+    private static double number(Object value) {
+        return value == null ? 0 : ((Number) value).doubleValue();
+    }
+
+    private record Update(String agentId, String agentName, String cityId, double[] deltas, long ledgerId) {
+    }
+
+    private static final class Period {
+
+        private final LocalDate start;
+
+        private final Map<String, RankedBoard> boards = new ConcurrentHashMap<>();
+
+        private Period(LocalDate start) {
+            this.start = start;
+        }
+
+        private void add(String agentId, String agentName, String cityId, double[] deltas) {
+            board(ALL_CITIES).add(agentId, agentName, deltas);
+            if (cityId != null) {
+                board(cityId).add(agentId, agentName, deltas);
+            }
+        }
+
+        private RankedBoard board(String scope) {
+            return boards.computeIfAbsent(scope, key -> new RankedBoard(LeaderboardMetric.values().length));
+        }
+
+        private int rankedAgents() {
+            RankedBoard all = boards.get(ALL_CITIES);
+            return all == null ? 0 : all.size();
+        }
+    }
+}
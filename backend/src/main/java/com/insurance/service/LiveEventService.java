@@ -0,0 +1,414 @@
+package com.insurance.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.insurance.enums.LiveEventType;
+import com.insurance.exceptions.ServiceUnavailableException;
+import com.insurance.interfaces.ILiveEventService;
+import com.insurance.response.LiveEventResponse;
+import com.insurance.security.Actor;
+import com.insurance.util.DomainChangeEvent;
+
+/**
+ * Server-sent event hub. Subscribers are indexed by role and by their own agent or customer id, so
+ * an event only visits the connections it is meant for. Connections are async servlet requests and
+ * hold no thread while idle. One dispatcher thread fans events out in order into a small bounded
+ * outbox per subscriber, and the writer pool drains each outbox on its own, so a slow client holds
+ * up neither the request that caused the event nor the other clients. A client whose outbox fills
+ * up, or whose write is stuck past the timeout, is dropped. Recent events are kept in a ring buffer for reconnects with Last-Event-ID; a client
+ * that fell further behind, or whose id predates a restart, gets a RESYNC event.
+ */
+@Service
+public class LiveEventService implements ILiveEventService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveEventService.class);
+
+    private static final Map<LiveEventType, List<String>> ROLE_AUDIENCE = new EnumMap<>(LiveEventType.class);
+
+    static {
+        ROLE_AUDIENCE.put(LiveEventType.CUSTOMER_PENDING, List.of("ADMIN", "EMPLOYEE"));
+        ROLE_AUDIENCE.put(LiveEventType.CLAIM_SUBMITTED, List.of("ADMIN", "EMPLOYEE"));
+        ROLE_AUDIENCE.put(LiveEventType.WITHDRAWAL_REQUESTED, List.of("ADMIN"));
+        ROLE_AUDIENCE.put(LiveEventType.PAYMENT_RECEIVED, List.of("ADMIN"));
+        ROLE_AUDIENCE.put(LiveEventType.QUERY_SUBMITTED, List.of("EMPLOYEE"));
+    }
+
+    private final Map<String, Set<Subscriber>> subscribersByKey = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    private final ThreadPoolExecutor dispatcher;
+
+    private final ThreadPoolExecutor writers;
+
+    // set when an event could not be queued; every subscriber is told to resync once the queue drains
+    private final AtomicBoolean eventsDropped = new AtomicBoolean();
+
+    private final LiveEventResponse[] recent;
+
+    // guarded by this
+    private long lastEventId;
+
+    private final long timeoutMillis;
+
+    private final long retryMillis;
+
+    private final int maxSubscribers;
+
+    private final long writeTimeoutMillis;
+
+    private final int outboxCapacity;
+
+    public LiveEventService(@Value("${app.sse.replay-size:1000}") int replaySize,
+                            @Value("${app.sse.timeout-ms:1800000}") long timeoutMillis,
+                            @Value("${app.sse.retry-ms:5000}") long retryMillis,
+                            @Value("${app.sse.max-subscribers:10000}") int maxSubscribers,
+                            @Value("${app.sse.dispatch-queue-capacity:10000}") int dispatchQueueCapacity,
+                            @Value("${app.sse.writer-threads:16}") int writerThreads,
+                            @Value("${app.sse.write-timeout-ms:5000}") long writeTimeoutMillis,
+                            @Value("${app.sse.outbox-capacity:256}") int outboxCapacity) {
+        this.recent = new LiveEventResponse[replaySize];
+        this.timeoutMillis = timeoutMillis;
+        this.retryMillis = retryMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        this.outboxCapacity = outboxCapacity;
+        this.dispatcher = pool("live-events", 1, dispatchQueueCapacity);
+        // a stuck write holds its thread until the socket gives up, so only that subscriber waits
+        this.writers = pool("live-events-writer", writerThreads, writerThreads * 16);
+    }
+
+    @Override
+    public SseEmitter subscribe(Actor actor, Long lastSeenId) {
+        if (subscriberCount.get() >= maxSubscribers) {
+            throw new ServiceUnavailableException("Too many live connections, try again shortly");
+        }
+        String role = actor.getRole().toUpperCase().replaceFirst("^ROLE_", "");
+        List<String> keys = new ArrayList<>();
+        keys.add("role:" + role);
+        if (role.equals("AGENT") || role.equals("CUSTOMER")) {
+            keys.add(role.toLowerCase() + ":" + actor.getActorId());
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, keys, outboxCapacity);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        // registered on the dispatcher thread right before the replay, so no event can be fanned
+        // out in between and be missed by both
+        if (!dispatch(() -> connect(subscriber, lastSeenId))) {
+            throw new ServiceUnavailableException("Too many live events pending, try again shortly");
+        }
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @EventListener
+    public void onDomainChange(DomainChangeEvent change) {
+        LiveEventResponse event = new LiveEventResponse();
+        event.setType(change.getType());
+        event.setEntityId(change.getEntityId());
+        event.setAgentId(change.getAgentId());
+        event.setCustomerId(change.getCustomerId());
+        event.setAmount(change.getAmount());
+        event.setOccurredAt(LocalDateTime.now());
+        synchronized (this) {
+            event.setId(++lastEventId);
+            recent[(int) (event.getId() % recent.length)] = event;
+        }
+        if (!dispatch(() -> fanOut(event))) {
+            logger.warn("Live event queue is full, dropping event {}", event.getId());
+            eventsDropped.set(true);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${app.sse.heartbeat-ms:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : allSubscribers()) {
+            long started = subscriber.writeStartedAt;
+            if (started != 0 && now - started > writeTimeoutMillis) {
+                logger.debug("Dropping live event subscriber whose write took over {} ms", writeTimeoutMillis);
+                remove(subscriber);
+            }
+        }
+        dispatch(() -> {
+            for (Subscriber subscriber : allSubscribers()) {
+                send(subscriber, SseEmitter.event().comment("ping"));
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdownNow();
+        writers.shutdownNow();
+        for (Subscriber subscriber : allSubscribers()) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    // runs on the dispatcher thread
+    private void fanOut(LiveEventResponse event) {
+        if (eventsDropped.compareAndSet(true, false)) {
+            for (Subscriber subscriber : allSubscribers()) {
+                resync(subscriber);
+            }
+        }
+        Set<Subscriber> targets = new LinkedHashSet<>();
+        for (String role : ROLE_AUDIENCE.getOrDefault(event.getType(), List.of())) {
+            targets.addAll(subscribersByKey.getOrDefault("role:" + role, Set.of()));
+        }
+        if (event.getAgentId() != null) {
+            targets.addAll(subscribersByKey.getOrDefault("agent:" + event.getAgentId(), Set.of()));
+        }
+        if (event.getCustomerId() != null) {
+            targets.addAll(subscribersByKey.getOrDefault("customer:" + event.getCustomerId(), Set.of()));
+        }
+        for (Subscriber subscriber : targets) {
+            deliver(subscriber, event);
+        }
+    }
+
+    // runs on the dispatcher thread
+    private void connect(Subscriber subscriber, Long lastSeenId) {
+        if (register(subscriber)) {
+            replay(subscriber, lastSeenId);
+        }
+    }
+
+    // runs on the dispatcher thread
+    private void replay(Subscriber subscriber, Long lastSeenId) {
+        send(subscriber, SseEmitter.event().reconnectTime(retryMillis).comment("connected"));
+        if (lastSeenId == null) {
+            synchronized (this) {
+                subscriber.lastSentId = lastEventId;
+            }
+            return;
+        }
+        List<LiveEventResponse> missed = new ArrayList<>();
+        boolean complete;
+        synchronized (this) {
+            long oldest = Math.max(1, lastEventId - recent.length + 1);
+            // an id beyond the newest one was issued before a restart and says nothing about this run
+            complete = lastSeenId + 1 >= oldest && lastSeenId <= lastEventId;
+            for (long id = lastSeenId + 1; complete && id <= lastEventId; id++) {
+                missed.add(recent[(int) (id % recent.length)]);
+            }
+        }
+        if (!complete) {
+            // the client has to reload its lists
+            resync(subscriber);
+            return;
+        }
+        for (LiveEventResponse event : missed) {
+            if (isAudience(subscriber, event)) {
+                deliver(subscriber, event);
+            }
+        }
+    }
+
+    // the client reloads its lists, which covers every event issued so far
+    private void resync(Subscriber subscriber) {
+        synchronized (this) {
+            subscriber.lastSentId = lastEventId;
+        }
+        send(subscriber, SseEmitter.event().name("RESYNC").data("{}", MediaType.APPLICATION_JSON));
+    }
+
+    private boolean isAudience(Subscriber subscriber, LiveEventResponse event) {
+        for (String key : subscriber.keys) {
+            if (key.equals("agent:" + event.getAgentId()) || key.equals("customer:" + event.getCustomerId())) {
+                return true;
+            }
+            if (key.startsWith("role:")
+                    && ROLE_AUDIENCE.getOrDefault(event.getType(), List.of()).contains(key.substring(5))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void deliver(Subscriber subscriber, LiveEventResponse event) {
+        // an event can be both replayed and fanned out right after a reconnect
+        if (event.getId() <= subscriber.lastSentId) {
+            return;
+        }
+        subscriber.lastSentId = event.getId();
+        send(subscriber, SseEmitter.event()
+                .id(String.valueOf(event.getId()))
+                .name(event.getType().name())
+                .data(event, MediaType.APPLICATION_JSON));
+    }
+
+    // runs on the dispatcher thread, so each outbox holds its events in order
+    private void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.outbox.offer(event)) {
+            logger.debug("Dropping live event subscriber with {} unsent events", outboxCapacity);
+            remove(subscriber);
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RejectedExecutionException e) {
+                // the events stay in the outbox for the next send to pick up
+                logger.warn("Live event writers are all busy, delaying delivery");
+                subscriber.draining.set(false);
+            }
+        }
+    }
+
+    // runs on a writer thread; at most one per subscriber
+    private void drain(Subscriber subscriber) {
+        while (true) {
+            SseEmitter.SseEventBuilder event = subscriber.outbox.poll();
+            if (event == null) {
+                subscriber.draining.set(false);
+                // an event offered after the poll but before the flag was cleared found it still set
+                if (subscriber.outbox.isEmpty() || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            if (subscriber.closed) {
+                subscriber.outbox.clear();
+                continue;
+            }
+            subscriber.writeStartedAt = System.currentTimeMillis();
+            try {
+                subscriber.emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                logger.debug("Dropping live event subscriber: {}", e.getMessage());
+                remove(subscriber);
+            } finally {
+                subscriber.writeStartedAt = 0;
+            }
+        }
+    }
+
+    private boolean register(Subscriber subscriber) {
+        synchronized (subscriber) {
+            if (subscriber.closed) {
+                // the connection ended before the dispatcher got to it
+                return false;
+            }
+            for (String key : subscriber.keys) {
+                subscribersByKey.compute(key, (k, subscribers) -> {
+                    Set<Subscriber> set = subscribers == null ? ConcurrentHashMap.newKeySet() : subscribers;
+                    set.add(subscriber);
+                    return set;
+                });
+            }
+            subscriber.registered = true;
+        }
+        subscriberCount.incrementAndGet();
+        return true;
+    }
+
+    private void remove(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.closed = true;
+            subscriber.outbox.clear();
+            if (!subscriber.registered) {
+                return;
+            }
+            subscriber.registered = false;
+            for (String key : subscriber.keys) {
+                subscribersByKey.computeIfPresent(key, (k, subscribers) -> {
+                    subscribers.remove(subscriber);
+                    return subscribers.isEmpty() ? null : subscribers;
+                });
+            }
+        }
+        subscriberCount.decrementAndGet();
+    }
+
+    private boolean dispatch(Runnable task) {
+        try {
+            dispatcher.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private Set<Subscriber> allSubscribers() {
+        Set<Subscriber> all = new LinkedHashSet<>();
+        subscribersByKey.values().forEach(all::addAll);
+        return all;
+    }
+
+    private static ThreadPoolExecutor pool(String name, int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final List<String> keys;
+
+        // only touched on the dispatcher thread
+        private long lastSentId;
+
+        // guarded by the subscriber
+        private boolean registered;
+
+        private volatile boolean closed;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> outbox;
+
+        // set while a writer thread owns the outbox
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        // when the write in progress began, 0 while none is
+        private volatile long writeStartedAt;
+
+        private Subscriber(SseEmitter emitter, List<String> keys, int outboxCapacity) {
+            this.emitter = emitter;
+            this.keys = keys;
+            this.outbox = new ArrayBlockingQueue<>(outboxCapacity);
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package com.insurance.service;
 
-import java.io.File;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.insurance.entities.Admin;
 import com.insurance.entities.Agent;
 import com.insurance.entities.Customer;
@@ -25,6 +38,10 @@ import com.insurance.entities.Employee;
 import com.insurance.entities.Policy;
 import com.insurance.entities.Transaction;
 import com.insurance.entities.User;
+import com.insurance.enums.DataTable;
+import com.insurance.enums.ReportFormat;
+import com.insurance.enums.ReportType;
+import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
 import com.insurance.interfaces.IPDFService;
 import com.insurance.repository.AdminRepository;
@@ -34,29 +51,41 @@ import com.insurance.repository.EmployeeRepository;
 import com.insurance.repository.PolicyRepository;
 import com.insurance.repository.TransactionRepository;
 import com.insurance.repository.UserRepository;
-import com.insurance.response.AgentResponse;
-import com.insurance.response.CommissionResponse;
-import com.insurance.response.CustomerResponse;
-import com.insurance.response.ReceiptData;
-import com.insurance.response.TransactionResponse;
+import com.insurance.util.DataVersions;
+import com.insurance.util.CsvTableWriter;
+import com.insurance.util.FileResponses;
 import com.insurance.util.Mappers;
+import com.insurance.util.NdjsonTableWriter;
 import com.insurance.util.PdfGenerator;
-import com.itextpdf.text.DocumentException;
+import com.insurance.util.ReportArtifactCache;
+import com.insurance.util.ReportArtifactCache.Artifact;
+import com.insurance.util.TableWriter;
+import com.insurance.util.XlsxTableWriter;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 
 @Service
 public class PDFService implements IPDFService{
 
 	
-	@Value("${file.report-dir}")
-    private String REPORT_DIR;
-	
-	@Value("${file.upload-dir}")
-	private String UPLOAD_DIR;
+	// PDF reports with at least this many rows are rendered in parallel key-range segments
+	@Value("${app.report.parallel.min-rows:200000}")
+	private long parallelMinRows;
+
+	@Value("${app.report.parallel.segment-rows:50000}")
+	private int segmentRows;
 	
 	
 	private static final Logger logger = LoggerFactory.getLogger(QueryService.class);
 
+	private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+	private static final MediaType APPLICATION_NDJSON = MediaType.APPLICATION_NDJSON;
+
+	private static final MediaType APPLICATION_XLSX =
+			MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
 	@Autowired
 	UserRepository userRepository;
 	
@@ -83,343 +112,393 @@ public class PDFService implements IPDFService{
 	
 	@Autowired
 	PdfGenerator pdfGenerator;
+
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Autowired
+	DataVersions dataVersions;
+
+	@Autowired
+	ReportArtifactCache reportCache;
+
+	@Autowired
+	ObjectMapper objectMapper;
 	
 	
 	@Override
-	public ResponseEntity<Resource> customerReport(String username) throws DocumentException {
-		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not available for username: ", username);
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();	    
-        String role = user.getRole().getName();
-	    if(role.equalsIgnoreCase("ROLE_ADMIN")) {
-		    Admin admin = adminRepository.findByUser(user);
-	        logger.info("Admin: "+ admin.getAdminId() + "is trying to get customer report");
-
-	    }
-	    else if(role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
-		    Optional<Employee> employee = employeeRepository.findByUser(user);
-	        logger.info("Employee: "+ employee.get().getEmployeeId() + "is trying to get customer report");
-
-	    }
-	    
-	    List<Customer> customers = customerRepository.findAll();
-	    List<CustomerResponse> customerResponses = new ArrayList<>();
-	    for (Customer customer : customers) {
-	        CustomerResponse customerResponse = mappers.customerToCustomerResponse(customer);
-	        customerResponses.add(customerResponse);
-	    }
-
-	    String projectRoot = System.getProperty("user.dir");
-	    String filePath = projectRoot + File.separator + REPORT_DIR;
-	    
-	    List<String> headers = Arrays.asList("Customer ID", "Name", "Username", "Email", "Active", "Status");
-
-	    List<List<String>> data = new ArrayList<>();
-	    for (CustomerResponse customer : customerResponses) {
-	        List<String> row = new ArrayList<>();
-	        row.add(customer.getCustomerId());
-	        row.add(customer.getName());
-	        row.add(customer.getUsername());
-	        row.add(customer.getEmail());
-	        row.add(String.valueOf(customer.isActive()));
-	        row.add(customer.getStatus());
-	        data.add(row);
-	    }
-
-	    String pdfFilePath;
-		
-		pdfFilePath = pdfGenerator.generatePdf("Customer Report", headers, data, filePath, "CustomerReport");
-
-	    File file = new File(pdfFilePath);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	                .body(null);
-	    }
+	public ResponseEntity<?> customerReport(String username, String format, HttpServletRequest request) {
+		logReportRequest(username, "customer report");
+		return report(ReportType.CUSTOMERS, null, format, request);
 	}
 
-	
-	
 	@Override
-	public ResponseEntity<Resource> agentReport(String username) throws DocumentException {
-		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not available for username: ", username);
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();	    
-        String role = user.getRole().getName();
-	    if(role.equalsIgnoreCase("ROLE_ADMIN")) {
-		    Admin admin = adminRepository.findByUser(user);
-	        logger.info("Admin: "+ admin.getAdminId() + "is trying to get agent report");
-
-	    }
-	    else if(role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
-		    Optional<Employee> employee = employeeRepository.findByUser(user);
-	        logger.info("Employee: "+ employee.get().getEmployeeId() + "is trying to get agent report");
-
-	    }
-	    List<Agent> agents = agentRepository.findAll();
-	    List<AgentResponse> agentResponses = new ArrayList<>();
-	    for (Agent agent : agents) {
-	        AgentResponse agentResponse = mappers.agentToAgentResponse(agent);
-	        agentResponses.add(agentResponse);
-	    }
-
-	    String projectRoot = System.getProperty("user.dir");
-	    String filePath = projectRoot + File.separator + REPORT_DIR;
-
-	    List<String> headers = Arrays.asList("Agent ID", "Name", "Username", "Email", "Active");
-
-	    List<List<String>> data = new ArrayList<>();
-	    for (AgentResponse agent : agentResponses) {
-	        List<String> row = new ArrayList<>();
-	        row.add(agent.getAgentId());
-	        row.add(agent.getName());
-	        row.add(agent.getUsername());
-	        row.add(agent.getEmail());
-	        row.add(String.valueOf(agent.isActive()));
-	        data.add(row);
-	    }
-
-	    String pdfFilePath = pdfGenerator.generatePdf("Agent Report", headers, data, filePath, "AgentReport");
-
-	    File file = new File(pdfFilePath);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
-	    }
+	public ResponseEntity<?> agentReport(String username, String format, HttpServletRequest request) {
+		logReportRequest(username, "agent report");
+		return report(ReportType.AGENTS, null, format, request);
 	}
-	
+
 	@Override
-	public ResponseEntity<Resource> transactionReport(String username) throws DocumentException {
-		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not available for username: ", username);
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();	    
-        String role = user.getRole().getName();
-	    if(role.equalsIgnoreCase("ROLE_ADMIN")) {
-		    Admin admin = adminRepository.findByUser(user);
-	        logger.info("Admin: "+ admin.getAdminId() + "is trying to get transaction report");
-
-	    }
-	    else if(role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
-		    Optional<Employee> employee = employeeRepository.findByUser(user);
-	        logger.info("Employee: "+ employee.get().getEmployeeId() + "is trying to get transaction report");
-
-	    }
-	    List<Transaction> transactions = transactionRepository.findAll();
-	    List<TransactionResponse> transactionResponses = new ArrayList<>();
-	    for (Transaction transaction : transactions) {
-	        TransactionResponse transactionResponse = mappers.transactionToTransactionResponse(transaction);
-	        transactionResponses.add(transactionResponse);
-	    }
-
-	    String projectRoot = System.getProperty("user.dir");
-	    String filePath = projectRoot + File.separator + REPORT_DIR;
-	    
-	    List<String> headers = Arrays.asList("Transaction ID", "Policy ID", "Transaction Type", "Amount", "Date", "Status");
-
-	    List<List<String>> data = new ArrayList<>();
-	    for (TransactionResponse transaction : transactionResponses) {
-	        List<String> row = new ArrayList<>();
-	        row.add(transaction.getTransactionId());
-	        row.add(transaction.getPolicyId());
-	        row.add(transaction.getTransactionType());
-	        row.add(String.valueOf(transaction.getAmount()));
-	        row.add(transaction.getDate().toString());
-	        row.add(transaction.getStatus());
-	        data.add(row);
-	    }
-
-	    String pdfFilePath = pdfGenerator.generatePdf("Transaction Report", headers, data, filePath, "TransactionReport");
-
-	    File file = new File(pdfFilePath);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	                .body(null);
-	    }
+	public ResponseEntity<?> transactionReport(String username, String format, HttpServletRequest request) {
+		logReportRequest(username, "transaction report");
+		return report(ReportType.TRANSACTIONS, null, format, request);
 	}
 
-	
 	@Override
-	public ResponseEntity<Resource> policyReport(String customerId, String username) throws DocumentException {
-		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not available for username: ", username);
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();	    
-        String role = user.getRole().getName();
-	    if(role.equalsIgnoreCase("ROLE_ADMIN")) {
-		    Admin admin = adminRepository.findByUser(user);
-	        logger.info("Admin: "+ admin.getAdminId() + "is trying to get customer's policy report");
-
-	    }
-	    else if(role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
-		    Optional<Employee> employee = employeeRepository.findByUser(user);
-	        logger.info("Employee: "+ employee.get().getEmployeeId() + "is trying to get customer's policy report");
-
-	    }
-	    Customer customer = customerRepository.findById(customerId).orElse(null);
-	    if(customer == null) {
-	    	throw new ResourceNotFoundException("Customer not found");
-	    }
-	    List<Policy> policies = policyRepository.findByCustomer(customer);
-	   
-
-	    String projectRoot = System.getProperty("user.dir");
-	    String filePath = projectRoot + File.separator + REPORT_DIR;
-	    
-	    List<String> headers = Arrays.asList("Policy ID", "Plan ID", "Start Date", "End Date", "Policy Term", "Total Investment Amount", "Payment Interval", "Installment Amount", "Total Amount Paid", "Next Payment Date");
-
-	    List<List<String>> data = new ArrayList<>();
-	    for (Policy policy : policies) {
-	        List<String> row = new ArrayList<>();
-	        row.add(policy.getPolicyId());
-	        row.add(policy.getStartDate().toString());
-	        row.add(policy.getEndDate().toString());
-	        row.add(String.valueOf(policy.getTotalInvestmentAmount()));
-	        row.add(policy.getPaymentInterval().toString()); 
-	        row.add(policy.getNextPaymentDate().toString());
-	        data.add(row);
-	    }
-
-
-	    String pdfFilePath = pdfGenerator.generatePdf("Policy Report", headers, data, filePath, "PolicyReport");
-
-	    File file = new File(pdfFilePath);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	                .body(null);
-	    }
+	public long countReportRows(ReportType type, String subjectId) {
+		switch (type) {
+		case CUSTOMERS:
+			return customerRepository.count();
+		case AGENTS:
+			return agentRepository.count();
+		case TRANSACTIONS:
+			return transactionRepository.count();
+		case POLICIES:
+			return policyRepository.countByCustomer(findCustomer(subjectId));
+		case COMMISSIONS:
+			return policyRepository.countByAgent(findAgent(subjectId));
+		default:
+			throw new ApiException("Unknown report " + type);
+		}
 	}
 
-	
+	/**
+	 * Writes a report into {@code out} straight from a database cursor inside a read-only
+	 * transaction, reporting the number of rows written so far to {@code progress} after each row.
+	 * Large PDF reports over a whole table are split into key ranges and rendered in parallel.
+	 * Returns the row count.
+	 */
 	@Override
-	public ResponseEntity<Resource> commissionReport(String agentId, String username) throws DocumentException {
-		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            logger.warn("User not available for username: ", username);
-            throw new ResourceNotFoundException("User is not available");
-        }
-        User user = oUser.get();	    
-        String role = user.getRole().getName();
-	    if(role.equalsIgnoreCase("ROLE_ADMIN")) {
-		    Admin admin = adminRepository.findByUser(user);
-	        logger.info("Admin: "+ admin.getAdminId() + "is trying to get agent's commission report");
-
-	    }
-	    else if(role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
-		    Optional<Employee> employee = employeeRepository.findByUser(user);
-	        logger.info("Employee: "+ employee.get().getEmployeeId() + "is trying to get agent's commission report");
-
-	    }
-	    Agent agent = agentRepository.findById(agentId).orElse(null);
-	    if (agent == null) {
-	        throw new ResourceNotFoundException("Agent not found");
-	    }
-	    List<Policy> policies = policyRepository.findByAgent(agent);
-	    List<CommissionResponse> commissionResponses = new ArrayList<>();
-	    for (Policy policy : policies) {
-	        CommissionResponse commissionResponse = mappers.convertToCommissionResponse(policy);
-	        commissionResponses.add(commissionResponse);
-	    }
-
-	    String projectRoot = System.getProperty("user.dir");
-	    String filePath = projectRoot + File.separator + REPORT_DIR;
-	    
-	    List<String> headers = Arrays.asList("Policy ID", "Plan ID", "Start Date", "End Date", "Policy Term", "Total Investment Amount", "Payment Interval", "Commission");
-
-	    List<List<String>> data = new ArrayList<>();
-	    for (CommissionResponse commission : commissionResponses) {
-	        List<String> row = new ArrayList<>();
-	        row.add(commission.getPolicyId());
-	        row.add(commission.getPlan_id());
-	        row.add(commission.getStartDate().toString());
-	        row.add(commission.getEndDate().toString());
-	        row.add(String.valueOf(commission.getPolicyTerm()));
-	        row.add(String.valueOf(commission.getTotalInvestmentAmount()));
-	        row.add(commission.getPaymentInterval().toString());
-	        row.add(String.valueOf(commission.getCommission()));
-	        data.add(row);
-	    }
-
-	    String pdfFilePath = pdfGenerator.generatePdf("Commission Report", headers, data, filePath, "CommissionReport");
-
-	    File file = new File(pdfFilePath);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	                .body(null);
-	    }
+	public long writeReport(ReportType type, String subjectId, ReportFormat format, OutputStream out,
+			LongConsumer progress) {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		ReportSpec spec = reportSpec(type, subjectId);
+		if (format == ReportFormat.PDF && spec.keys != null && pdfGenerator.isParallel()) {
+			long totalRows = countReportRows(type, subjectId);
+			if (totalRows >= parallelMinRows) {
+				return writeParallelPdf(spec, readOnly, out, progress);
+			}
+		}
+		return readOnly.execute(status -> {
+			try (Stream<Object[]> rows = spec.rows.get(); TableWriter table = openTable(format, out, spec)) {
+				rows.forEach(values -> {
+					table.addRow(values);
+					progress.accept(table.getRowCount());
+				});
+				return table.getRowCount();
+			}
+		});
 	}
-	
+
+	/**
+	 * Splits the report at the keys found every {@code segmentRows} rows and renders each range in
+	 * its own transaction; the column widths come from the first rows, as in a sequential render.
+	 */
+	private long writeParallelPdf(ReportSpec spec, TransactionTemplate readOnly, OutputStream out,
+			LongConsumer progress) {
+		long started = System.currentTimeMillis();
+		// one scan of the key index finds every boundary, where an offset query per boundary would
+		// skip over all the rows before it again
+		AtomicReference<String> sampleEnd = new AtomicReference<>();
+		List<String> bounds = readOnly.execute(status -> {
+			List<String> keys = new ArrayList<>();
+			keys.add(null);
+			try (Stream<String> all = spec.keys.get()) {
+				long position = 0;
+				for (Iterator<String> it = all.iterator(); it.hasNext(); position++) {
+					String key = it.next();
+					if (position == PdfGenerator.WIDTH_SAMPLE_ROWS) {
+						sampleEnd.set(key);
+					}
+					if (position > 0 && position % segmentRows == 0) {
+						keys.add(key);
+					}
+				}
+			}
+			keys.add(null);
+			return keys;
+		});
+		List<Object[]> sample = readOnly.execute(status -> {
+			try (Stream<Object[]> rows = spec.range.apply(null, sampleEnd.get())) {
+				return rows.collect(Collectors.toList());
+			}
+		});
+
+		AtomicLong written = new AtomicLong();
+		List<PdfGenerator.Segment> segments = new ArrayList<>(bounds.size() - 1);
+		for (int i = 0; i + 1 < bounds.size(); i++) {
+			String from = bounds.get(i);
+			String to = bounds.get(i + 1);
+			segments.add(table -> readOnly.executeWithoutResult(status -> {
+				try (Stream<Object[]> rows = spec.range.apply(from, to)) {
+					rows.forEach(values -> {
+						table.addRow(values);
+						progress.accept(written.incrementAndGet());
+					});
+				}
+			}));
+		}
+		long count = pdfGenerator.renderParallel(out, spec.title, spec.headers, sample, segments);
+		logger.info("Rendered {} in {} segments in {} ms", spec.title, segments.size(),
+				System.currentTimeMillis() - started);
+		return count;
+	}
+
+	@Override
+	public String reportVersion(ReportType type) {
+		switch (type) {
+		case CUSTOMERS:
+			return dataVersions.token(DataTable.CUSTOMERS);
+		case AGENTS:
+			return dataVersions.token(DataTable.AGENTS);
+		case TRANSACTIONS:
+			return dataVersions.token(DataTable.TRANSACTIONS);
+		case POLICIES:
+			return dataVersions.token(DataTable.POLICIES);
+		default:
+			// commissions come from the policies and the ledger entries written with payments
+			return dataVersions.token(DataTable.POLICIES, DataTable.TRANSACTIONS);
+		}
+	}
+
 	@Override
-	public ResponseEntity<Resource> downloadReceipt(String transactionId, String username) throws DocumentException {
-		PdfGenerator pdfGenerator = new PdfGenerator();
-		ReceiptData receiptData = new ReceiptData();
-		Optional<Transaction> transaction = transactionRepository.findById(transactionId);
-		if(transaction.isEmpty()) {
-			throw new ResourceNotFoundException("No transaction there");
+	public String reportFileName(ReportType type) {
+		switch (type) {
+		case CUSTOMERS:
+			return "CustomerReport";
+		case AGENTS:
+			return "AgentReport";
+		case TRANSACTIONS:
+			return "TransactionReport";
+		case POLICIES:
+			return "PolicyReport";
+		default:
+			return "CommissionReport";
+		}
+	}
+
+	/**
+	 * PDF comes from the artifact cache; the data formats are cheap to produce and are streamed
+	 * from the database on every request.
+	 */
+	private ResponseEntity<?> report(ReportType type, String subjectId, String format, HttpServletRequest request) {
+		ReportFormat reportFormat = resolveFormat(format, request);
+		if (type == ReportType.POLICIES && !customerRepository.existsById(subjectId)) {
+			throw new ResourceNotFoundException("Customer not found");
 		}
-		
-		receiptData.setCustomerId(transaction.get().getPolicy().getCustomer().getCustomerId());
-		receiptData.setAmount(transaction.get().getAmount());
-		receiptData.setCustomerName(transaction.get().getPolicy().getCustomer().getName());
-		receiptData.setDate(transaction.get().getDate().toString());
-		receiptData.setDescription(transaction.get().getPolicy().getPolicyId() + " " + transaction.get().getPolicy().getPlan().getInsuranceScheme().getName());
-		receiptData.setTransactionId(transactionId);
-		String pdfFile = new String();
+		if (type == ReportType.COMMISSIONS && !agentRepository.existsById(subjectId)) {
+			throw new ResourceNotFoundException("Agent not found");
+		}
+		if (reportFormat == ReportFormat.PDF) {
+			return cachedReport(type, subjectId, request);
+		}
+		StreamingResponseBody body = out -> {
+			long started = System.currentTimeMillis();
+			long count = writeReport(type, subjectId, reportFormat, out, rows -> { });
+			logger.info("Streamed {} {} with {} rows in {} ms", type, reportFormat, count,
+					System.currentTimeMillis() - started);
+		};
+		return ResponseEntity.ok()
+				.contentType(mediaType(reportFormat))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + reportFileName(type) + "."
+						+ reportFormat.name().toLowerCase() + "\"")
+				.body(body);
+	}
+
+	/**
+	 * Serves the report from the artifact cache, rendering it first when the tables it reads have
+	 * changed since the cached copy was made.
+	 */
+	private ResponseEntity<Resource> cachedReport(ReportType type, String subjectId, HttpServletRequest request) {
+		String name = subjectId == null ? type.name() : type.name() + ":" + subjectId;
+		Artifact artifact = reportCache.get(name, reportVersion(type), out -> {
+			long started = System.currentTimeMillis();
+			long count = writeReport(type, subjectId, ReportFormat.PDF, out, rows -> { });
+			logger.info("Rendered {} with {} rows in {} ms", name, count, System.currentTimeMillis() - started);
+		});
+		return FileResponses.serve(request, artifact.getFile(), artifact.getSize(), artifact.getEtag(),
+				MediaType.APPLICATION_PDF, reportFileName(type) + ".pdf");
+	}
+
+	// an explicit format parameter wins; otherwise the first supported type in Accept, PDF by default
+	private static ReportFormat resolveFormat(String format, HttpServletRequest request) {
+		if (format != null && !format.isBlank()) {
+			try {
+				return ReportFormat.valueOf(format.trim().toUpperCase());
+			} catch (IllegalArgumentException e) {
+				throw new ApiException("Unsupported report format: " + format);
+			}
+		}
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		if (accept == null || accept.isBlank()) {
+			return ReportFormat.PDF;
+		}
+		List<MediaType> accepted;
 		try {
-			pdfFile = pdfGenerator.generateReceiptPdf(UPLOAD_DIR, "Receipt" + transactionId, receiptData);
-		} catch (DocumentException e) {
-			e.printStackTrace();
+			accepted = MediaType.parseMediaTypes(accept);
+		} catch (InvalidMediaTypeException e) {
+			return ReportFormat.PDF;
+		}
+		MimeTypeUtils.sortBySpecificity(accepted);
+		for (MediaType mediaType : accepted) {
+			if (mediaType.isWildcardType() || mediaType.isWildcardSubtype()) {
+				continue;
+			}
+			for (ReportFormat candidate : ReportFormat.values()) {
+				if (mediaType.isCompatibleWith(mediaType(candidate))) {
+					return candidate;
+				}
+			}
+		}
+		return ReportFormat.PDF;
+	}
+
+	private static MediaType mediaType(ReportFormat format) {
+		switch (format) {
+		case CSV:
+			return TEXT_CSV;
+		case NDJSON:
+			return APPLICATION_NDJSON;
+		case XLSX:
+			return APPLICATION_XLSX;
+		default:
+			return MediaType.APPLICATION_PDF;
+		}
+	}
+
+	private TableWriter openTable(ReportFormat format, OutputStream out, ReportSpec spec) {
+		switch (format) {
+		case CSV:
+			return new CsvTableWriter(out, spec.headers);
+		case NDJSON:
+			return new NdjsonTableWriter(out, spec.fields, objectMapper);
+		case XLSX:
+			return new XlsxTableWriter(out, spec.title, spec.headers);
+		default:
+			return pdfGenerator.openTable(out, spec.title, spec.headers);
+		}
+	}
+
+	private ReportSpec reportSpec(ReportType type, String subjectId) {
+		switch (type) {
+		case CUSTOMERS:
+			return new ReportSpec("Customer Report",
+					Arrays.asList("Customer ID", "Name", "Username", "Email", "Active", "Status"),
+					Arrays.asList("customerId", "name", "username", "email", "active", "status"),
+					customerRepository::streamReportRows)
+					.partitioned(customerRepository::streamReportKeys, customerRepository::streamReportRowsBetween);
+		case AGENTS:
+			return new ReportSpec("Agent Report",
+					Arrays.asList("Agent ID", "Name", "Username", "Email", "Active"),
+					Arrays.asList("agentId", "name", "username", "email", "active"),
+					agentRepository::streamReportRows)
+					.partitioned(agentRepository::streamReportKeys, agentRepository::streamReportRowsBetween);
+		case TRANSACTIONS:
+			// transactions carry no type yet, so that column stays empty as it did before
+			return new ReportSpec("Transaction Report",
+					Arrays.asList("Transaction ID", "Policy ID", "Transaction Type", "Amount", "Date", "Status"),
+					Arrays.asList("transactionId", "policyId", "type", "amount", "date", "status"),
+					() -> transactionRepository.streamReportRows().map(PDFService::transactionRow))
+					.partitioned(transactionRepository::streamReportKeys,
+							(from, to) -> transactionRepository.streamReportRowsBetween(from, to)
+									.map(PDFService::transactionRow));
+		case POLICIES:
+			return new ReportSpec("Policy Report",
+					Arrays.asList("Policy ID", "Plan ID", "Start Date", "End Date", "Policy Term",
+							"Total Investment Amount", "Payment Interval", "Installment Amount", "Total Amount Paid",
+							"Next Payment Date"),
+					Arrays.asList("policyId", "planId", "startDate", "endDate", "policyTerm", "totalInvestmentAmount",
+							"paymentInterval", "installmentAmount", "totalAmountPaid", "nextPaymentDate"),
+					() -> policyRepository.streamCustomerReportRows(subjectId));
+		case COMMISSIONS:
+			// the commission recorded in the ledger wins over the scheme's current rate
+			return new ReportSpec("Commission Report",
+					Arrays.asList("Policy ID", "Plan ID", "Start Date", "End Date", "Policy Term",
+							"Total Investment Amount", "Payment Interval", "Commission"),
+					Arrays.asList("policyId", "planId", "startDate", "endDate", "policyTerm", "totalInvestmentAmount",
+							"paymentInterval", "commission"),
+					() -> policyRepository.streamAgentCommissionRows(subjectId).map(row -> new Object[] { row[0],
+							row[1], row[2], row[3], row[4], row[5], row[6],
+							row[8] != null ? ((Number) row[8]).intValue() : (int) ((Number) row[7]).doubleValue() }));
+		default:
+			throw new ApiException("Unknown report " + type);
 		}
-		
-		File file = new File(pdfFile);
-	    if (file.exists()) {
-	        Resource resource = new FileSystemResource(file);
-	        return ResponseEntity.ok()
-	                .contentType(MediaType.APPLICATION_PDF)
-	                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getName() + "\"")
-	                .body(resource);
-	    } else {
-	        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-	                .body(null);
-	    }
+	}
+
+	private static Object[] transactionRow(Object[] row) {
+		return new Object[] { row[0], row[1], null, row[2], row[3], row[4] };
+	}
+
+	private Customer findCustomer(String customerId) {
+		return customerRepository.findById(customerId).orElseThrow(() -> new ResourceNotFoundException("Customer not found"));
+	}
+
+	private Agent findAgent(String agentId) {
+		return agentRepository.findById(agentId).orElseThrow(() -> new ResourceNotFoundException("Agent not found"));
+	}
+
+	private static final class ReportSpec {
+
+		private final String title;
+
+		private final List<String> headers;
+
+		// keys for the formats that name their columns, in header order
+		private final List<String> fields;
+
+		private final Supplier<Stream<Object[]>> rows;
+
+		// set for reports over a whole table, which can be split by key range
+		private Supplier<Stream<String>> keys;
+
+		private BiFunction<String, String, Stream<Object[]>> range;
+
+		private ReportSpec(String title, List<String> headers, List<String> fields, Supplier<Stream<Object[]>> rows) {
+			this.title = title;
+			this.headers = headers;
+			this.fields = fields;
+			this.rows = rows;
+		}
+
+		private ReportSpec partitioned(Supplier<Stream<String>> keys,
+				BiFunction<String, String, Stream<Object[]>> range) {
+			this.keys = keys;
+			this.range = range;
+			return this;
+		}
+	}
+
+	private void logReportRequest(String username, String report) {
+		Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
+		if (oUser.isEmpty()) {
+			logger.warn("User not available for username: {}", username);
+			throw new ResourceNotFoundException("User is not available");
+		}
+		User user = oUser.get();
+		String role = user.getRole().getName();
+		if (role.equalsIgnoreCase("ROLE_ADMIN")) {
+			Admin admin = adminRepository.findByUser(user);
+			logger.info("Admin: " + admin.getAdminId() + " is trying to get " + report);
+		} else if (role.equalsIgnoreCase("ROLE_EMPLOYEE")) {
+			Optional<Employee> employee = employeeRepository.findByUser(user);
+			logger.info("Employee: " + employee.get().getEmployeeId() + " is trying to get " + report);
+		}
+	}
+
+	
+	@Override
+	public ResponseEntity<?> policyReport(String customerId, String username, String format,
+			HttpServletRequest request) {
+		logReportRequest(username, "customer's policy report");
+		return report(ReportType.POLICIES, customerId, format, request);
+	}
+
+	@Override
+	public ResponseEntity<?> commissionReport(String agentId, String username, String format,
+			HttpServletRequest request) {
+		logReportRequest(username, "agent's commission report");
+		return report(ReportType.COMMISSIONS, agentId, format, request);
 	}
 
 	
@@ -1,15 +1,21 @@
 package com.insurance.service;
 
 import com.insurance.entities.*;
+import com.insurance.enums.DataTable;
+import com.insurance.enums.LiveEventType;
 import com.insurance.enums.PolicyStatus;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
+import com.insurance.interfaces.IKpiRollupService;
 import com.insurance.interfaces.IPaymentService;
 import com.insurance.repository.*;
 import com.insurance.request.*;
 import com.insurance.response.InsuranceSettingResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DataVersions;
+import com.insurance.util.DomainChangeEvent;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.security.Actor;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.Charge;
@@ -17,6 +23,7 @@ import com.stripe.model.PaymentIntent;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.mail.MailAuthenticationException;
@@ -67,11 +74,19 @@ public class PaymentService implements IPaymentService {
     @Autowired
     AdminService adminService;
 
+    @Autowired
+    IKpiRollupService kpiRollupService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    DataVersions dataVersions;
+
     @Override
-    public String processPayment(String token, PaymentRequestDto paymentRequestDto) throws StripeException {
-        String username = jwtTokenProvider.getUsername(token);
-        User user = userRepository.findByUsernameOrEmail(username, username)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    public String processPayment(Actor actor, PaymentRequestDto paymentRequestDto) throws StripeException {
+        String username = actor.getUsername();
+        User user = actor.getUser();
         logger.info("User with id: "+ user.getUserId() + "trying to process a payment");
         Policy policy = policyRepository.findById(paymentRequestDto.getPolicyAccountId())
                 .orElseThrow(() -> new ApiException("Policy not found"));
@@ -120,11 +135,16 @@ public class PaymentService implements IPaymentService {
             }
 
             transactionRepository.save(transaction);
+            kpiRollupService.recordPremium(policy, transaction.getAmount());
 
             policy.setTotalAmountPaid(policy.getTotalAmountPaid() + policy.getInstallmentAmount());
             
             policy.setNextPaymentDate(calculateNextPaymentDate(policy));
             policyRepository.save(policy);
+            dataVersions.changed(DataTable.TRANSACTIONS, DataTable.POLICIES);
+            eventPublisher.publishEvent(new DomainChangeEvent(LiveEventType.PAYMENT_RECEIVED, transaction.getTransactionId(),
+                    policy.getAgent() != null ? policy.getAgent().getAgentId() : null,
+                    policy.getCustomer().getCustomerId(), transaction.getAmount()));
 
             return "Payment successful, Charge ID: " + charge.getId();
         } else {
@@ -0,0 +1,215 @@
+package com.insurance.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurance.analytics.PersistencyCounter;
+import com.insurance.entities.PolicyCohort;
+import com.insurance.enums.PaymentInterval;
+import com.insurance.exceptions.ApiException;
+import com.insurance.interfaces.IPersistencyService;
+import com.insurance.repository.PolicyCohortRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.repository.TransactionRepository;
+import com.insurance.response.PersistencyResponse;
+
+/**
+ * Rebuilds the policy_cohorts table. Policies are read in primary-key pages and the payments of
+ * each page with one range query on the same key, so memory holds at most two pages. While the
+ * fork-join pool counts one page the next one is being read.
+ */
+@Service
+public class PersistencyService implements IPersistencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistencyService.class);
+
+    private final PolicyRepository policyRepository;
+
+    private final TransactionRepository transactionRepository;
+
+    private final PolicyCohortRepository policyCohortRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int pageSize;
+
+    private final int graceDays;
+
+    private final int parallelism;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PersistencyService(PolicyRepository policyRepository, TransactionRepository transactionRepository,
+                              PolicyCohortRepository policyCohortRepository, PlatformTransactionManager transactionManager,
+                              @Value("${app.cohort.page-size:10000}") int pageSize,
+                              @Value("${app.cohort.grace-days:30}") int graceDays,
+                              @Value("${app.cohort.parallelism:0}") int parallelism) {
+        this.policyRepository = policyRepository;
+        this.transactionRepository = transactionRepository;
+        this.policyCohortRepository = policyCohortRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pageSize = pageSize;
+        this.graceDays = graceDays;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Override
+    public int rebuildCohorts() {
+        if (!running.compareAndSet(false, true)) {
+            throw new ApiException("The persistency job is already running");
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            long started = System.currentTimeMillis();
+            LocalDate asOf = LocalDate.now();
+            Map<String, Integer> agentCodes = new HashMap<>();
+            Map<String, Integer> planCodes = new HashMap<>();
+            Map<Long, long[]> totals = new HashMap<>();
+            ForkJoinTask<Map<Long, long[]>> inFlight = null;
+            long policies = 0;
+
+            String after = "";
+            List<Object[]> rows;
+            do {
+                rows = policyRepository.findCohortRowsAfter(after, PageRequest.of(0, pageSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                String first = (String) rows.get(0)[0];
+                after = (String) rows.get(rows.size() - 1)[0];
+                PersistencyCounter.Page page = readPage(rows, first, after, agentCodes, planCodes);
+                policies += page.size();
+
+                ForkJoinTask<Map<Long, long[]>> next = pool.submit(new PersistencyCounter.CountTask(page, asOf, graceDays));
+                if (inFlight != null) {
+                    PersistencyCounter.merge(totals, inFlight.join());
+                }
+                inFlight = next;
+            } while (rows.size() == pageSize);
+            if (inFlight != null) {
+                PersistencyCounter.merge(totals, inFlight.join());
+            }
+
+            List<PolicyCohort> cohorts = toCohorts(totals, decoder(agentCodes), decoder(planCodes), asOf);
+            transactionTemplate.executeWithoutResult(status -> {
+                policyCohortRepository.deleteAllInBatch();
+                policyCohortRepository.saveAll(cohorts);
+            });
+            logger.info("Rebuilt {} policy cohorts from {} policies in {} ms", cohorts.size(), policies,
+                    System.currentTimeMillis() - started);
+            return cohorts.size();
+        } finally {
+            pool.shutdown();
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.cohort.cron:0 30 3 2 * *}")
+    public void monthlyRebuild() {
+        try {
+            rebuildCohorts();
+        } catch (RuntimeException e) {
+            logger.error("Persistency cohort job failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<PersistencyResponse> getPersistency(String groupBy, LocalDate from, LocalDate to, String agentId,
+                                                    String planId) {
+        LocalDate fromMonth = from.withDayOfMonth(1);
+        LocalDate toMonth = to.withDayOfMonth(1);
+        switch (groupBy == null ? "cohort" : groupBy.toLowerCase()) {
+            case "cohort":
+                return policyCohortRepository.findByCohort(fromMonth, toMonth, agentId, planId);
+            case "agent":
+                return policyCohortRepository.findByAgent(fromMonth, toMonth, agentId, planId);
+            case "plan":
+                return policyCohortRepository.findByPlan(fromMonth, toMonth, agentId, planId);
+            default:
+                throw new ApiException("Group by must be one of cohort, agent or plan");
+        }
+    }
+
+    private PersistencyCounter.Page readPage(List<Object[]> rows, String first, String last,
+                                             Map<String, Integer> agentCodes, Map<String, Integer> planCodes) {
+        PersistencyCounter.Page page = new PersistencyCounter.Page(rows.size());
+        Map<String, Integer> indexes = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            int agent = code(agentCodes, (String) row[1]);
+            int plan = code(planCodes, (String) row[2]);
+            int index = page.addPolicy(agent, plan, (LocalDate) row[3], intervalMonths((PaymentInterval) row[4]));
+            indexes.put((String) row[0], index);
+        }
+        List<Object[]> payments = transactionRepository.findPaymentDatesForPolicyRange(first, last);
+        int[] policyIndex = new int[payments.size()];
+        int[] day = new int[payments.size()];
+        int count = 0;
+        for (Object[] payment : payments) {
+            Integer index = indexes.get((String) payment[0]);
+            if (index != null) {
+                policyIndex[count] = index;
+                day[count++] = (int) ((LocalDateTime) payment[1]).toLocalDate().toEpochDay();
+            }
+        }
+        page.setPayments(policyIndex, day, count);
+        return page;
+    }
+
+    private List<PolicyCohort> toCohorts(Map<Long, long[]> totals, String[] agents, String[] plans, LocalDate asOf) {
+        LocalDateTime computedAt = LocalDateTime.now();
+        List<PolicyCohort> cohorts = new ArrayList<>(totals.size());
+        totals.forEach((key, counts) -> {
+            int month = PersistencyCounter.cohortMonth(key);
+            PolicyCohort cohort = new PolicyCohort();
+            cohort.setCohortMonth(LocalDate.of(month / 12, month % 12 + 1, 1));
+            cohort.setAgentId(agents[PersistencyCounter.agent(key)]);
+            cohort.setPlanId(plans[PersistencyCounter.plan(key)]);
+            cohort.setPolicies(counts[PersistencyCounter.POLICIES]);
+            cohort.setEligible13(counts[PersistencyCounter.ELIGIBLE_13]);
+            cohort.setPersisting13(counts[PersistencyCounter.PERSISTING_13]);
+            cohort.setEligible25(counts[PersistencyCounter.ELIGIBLE_25]);
+            cohort.setPersisting25(counts[PersistencyCounter.PERSISTING_25]);
+            cohort.setAsOf(asOf);
+            cohort.setComputedAt(computedAt);
+            cohorts.add(cohort);
+        });
+        return cohorts;
+    }
+
+    private static int code(Map<String, Integer> codes, String value) {
+        return codes.computeIfAbsent(value == null ? "" : value, key -> codes.size());
+    }
+
+    private static String[] decoder(Map<String, Integer> codes) {
+        String[] values = new String[codes.size()];
+        codes.forEach((value, code) -> values[code] = value);
+        return values;
+    }
+
+    private static int intervalMonths(PaymentInterval interval) {
+        switch (interval) {
+            case QUARTERLY:
+                return 3;
+            case HALF_YEARLY:
+                return 6;
+            default:
+                return 12;
+        }
+    }
+}
@@ -4,13 +4,12 @@ import com.insurance.entities.Agent;
 import com.insurance.entities.Customer;
 import com.insurance.entities.InsurancePlan;
 import com.insurance.entities.Policy;
-import com.insurance.entities.User;
 import com.insurance.enums.CreationStatus;
+import com.insurance.enums.DataTable;
 import com.insurance.enums.PaymentInterval;
 import com.insurance.enums.PolicyStatus;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.repository.AgentRepository;
 import com.insurance.repository.CustomerRepository;
 import com.insurance.repository.InsurancePlanRepository;
@@ -20,10 +19,15 @@ import com.insurance.request.PolicyRequest;
 import com.insurance.response.CommissionResponse;
 import com.insurance.response.PolicyResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DataVersions;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
 import com.insurance.util.UniqueIdGenerator;
+import com.insurance.interfaces.IAgentLedgerService;
+import com.insurance.interfaces.IKpiRollupService;
+import com.insurance.interfaces.ILeaderboardService;
 import com.insurance.interfaces.IPolicyService;
+import com.insurance.security.Actor;
 
 import java.time.LocalDate;
 import java.time.Period;
@@ -49,6 +53,15 @@ public class PolicyService implements IPolicyService {
 	@Autowired
     private PolicyRepository policyRepository;
 
+	@Autowired
+    private IAgentLedgerService agentLedgerService;
+
+	@Autowired
+    private IKpiRollupService kpiRollupService;
+
+	@Autowired
+    private ILeaderboardService leaderboardService;
+
 	@Autowired
 	JwtTokenProvider jwtTokenProvider;
 	
@@ -67,18 +80,16 @@ public class PolicyService implements IPolicyService {
 	@Autowired
 	InsurancePlanRepository insurancePlanRepository;
 
+	@Autowired
+	DataVersions dataVersions;
+
     @Override
-    public String createPolicy(String token, PolicyRequest policyRequest) {
-        String username = jwtTokenProvider.getUsername(token);
+    public String createPolicy(Actor actor, PolicyRequest policyRequest) {
+        String username = actor.getUsername();
         logger.info("Creating policy for user: {}", username);
         
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
-        User user = oUser.get();
 
-        Customer customer = customerRepository.findByUser(user);
+        Customer customer = actor.getCustomer();
         if (customer == null) {
             throw new ApiException("Customer not found for "+ username);
         }
@@ -132,20 +143,20 @@ public class PolicyService implements IPolicyService {
         }
 
         policyRepository.save(policy);
+        dataVersions.changed(DataTable.POLICIES);
+        agentLedgerService.recordCommission(policy);
+        kpiRollupService.recordNewPolicy(policy);
+        leaderboardService.recordPolicySold(policy);
         logger.info("Policy created successfully for customer: {}", customer.getCustomerId());
 
         return "Customer successfully registered for policy";
     }
 
     @Override
-    public PagedResponse<PolicyResponse> getAllPolicies(String token, Pageable pageable) {
-        String username = jwtTokenProvider.getUsername(token);
+    public PagedResponse<PolicyResponse> getAllPolicies(Actor actor, Pageable pageable) {
+        String username = actor.getUsername();
         logger.info("Fetching all policies for user: {}", username);
         
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
 
         Page<Policy> policies = policyRepository.findAll(pageable);
         List<PolicyResponse> policyResponses = policies.getContent().stream()
@@ -158,14 +169,10 @@ public class PolicyService implements IPolicyService {
     }
 
     @Override
-    public PagedResponse<PolicyResponse> getPoliciesByCustomerId(String token, String customerId, Pageable pageable) {
-        String username = jwtTokenProvider.getUsername(token);
+    public PagedResponse<PolicyResponse> getPoliciesByCustomerId(Actor actor, String customerId, Pageable pageable) {
+        String username = actor.getUsername();
         logger.info("Fetching policies for customer: {} by user: {}", customerId, username);
 
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
 
         Optional<Customer> customer = customerRepository.findById(customerId);
         if (customer.isEmpty()) {
@@ -183,16 +190,12 @@ public class PolicyService implements IPolicyService {
     }
 
     @Override
-    public PagedResponse<PolicyResponse> getMyPolicies(String token, Pageable pageable) {
-        String username = jwtTokenProvider.getUsername(token);
+    public PagedResponse<PolicyResponse> getMyPolicies(Actor actor, Pageable pageable) {
+        String username = actor.getUsername();
         logger.info("Fetching policies for logged-in user: {}", username);
 
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
 
-        Customer customer = customerRepository.findByUser(oUser.get());
+        Customer customer = actor.getCustomer();
         if (customer == null) {
             throw new ApiException("Customer not found for " + username);
         }
@@ -239,16 +242,12 @@ public class PolicyService implements IPolicyService {
     }
 
     @Override
-    public PagedResponse<CommissionResponse> getMyCommission(String token, String searchQuery, Pageable pageable) {
-        String username = jwtTokenProvider.getUsername(token);
+    public PagedResponse<CommissionResponse> getMyCommission(Actor actor, String searchQuery, Pageable pageable) {
+        String username = actor.getUsername();
         logger.info("Fetching commissions for agent: {}", username);
 
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
 
-        Agent agent = agentRepository.findByUser(oUser.get());
+        Agent agent = actor.getAgent();
         if (agent == null) {
             throw new ApiException("Agent not found for "+ username);
         }
@@ -257,6 +256,7 @@ public class PolicyService implements IPolicyService {
         List<CommissionResponse> commissionResponses = policies.getContent().stream()
             .map(mappers::convertToCommissionResponse)
             .collect(Collectors.toList());
+        agentLedgerService.applyRecordedCommissions(commissionResponses);
 
         logger.info("Fetched {} commissions for agent: {}", policies.getTotalElements(), agent.getAgentId());
 
@@ -264,14 +264,10 @@ public class PolicyService implements IPolicyService {
     }
 
     @Override
-    public PagedResponse<CommissionResponse> getCommissionByAgentId(String token, String agentId, Pageable pageable) {
-        String username = jwtTokenProvider.getUsername(token);
+    public PagedResponse<CommissionResponse> getCommissionByAgentId(Actor actor, String agentId, Pageable pageable) {
+        String username = actor.getUsername();
         logger.info("Fetching commissions for agent: {} by user: {}", agentId, username);
 
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
 
         Optional<Agent> agent = agentRepository.findById(agentId);
         if (agent.isEmpty()) {
@@ -282,6 +278,7 @@ public class PolicyService implements IPolicyService {
         List<CommissionResponse> commissionResponses = policies.getContent().stream()
             .map(mappers::convertToCommissionResponse)
             .collect(Collectors.toList());
+        agentLedgerService.applyRecordedCommissions(commissionResponses);
 
         logger.info("Fetched {} commissions for agent: {}", policies.getTotalElements(), agentId);
 
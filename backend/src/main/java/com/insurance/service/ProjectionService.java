@@ -0,0 +1,261 @@
+package com.insurance.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.insurance.analytics.CashFlowProjector;
+import com.insurance.entities.InsurancePlan;
+import com.insurance.entities.InsuranceSetting;
+import com.insurance.enums.PaymentInterval;
+import com.insurance.exceptions.ApiException;
+import com.insurance.interfaces.IProjectionService;
+import com.insurance.repository.ClaimRepository;
+import com.insurance.repository.InsurancePlanRepository;
+import com.insurance.repository.InsuranceSettingRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.response.CashFlowMonthResponse;
+import com.insurance.response.CashFlowProjectionResponse;
+import com.insurance.util.SettingsChangedEvent;
+
+/**
+ * Forward cash-flow view over all ACTIVE policies. The policies are loaded once into a primitive
+ * snapshot that is reused for {@code app.projection.snapshot-ttl-minutes}; plan profit ratios and
+ * the claim deduction are read on every run, so after a settings change only the projection pass
+ * itself has to be redone, which the change triggers in the background.
+ */
+@Service
+public class ProjectionService implements IProjectionService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProjectionService.class);
+
+    private static final int MAX_YEARS = 50;
+
+    private final PolicyRepository policyRepository;
+
+    private final InsurancePlanRepository insurancePlanRepository;
+
+    private final InsuranceSettingRepository insuranceSettingRepository;
+
+    private final ClaimRepository claimRepository;
+
+    private final TaskScheduler taskScheduler;
+
+    private final ForkJoinPool pool;
+
+    private final int defaultYears;
+
+    private final double defaultClaimRate;
+
+    private final long snapshotTtlMinutes;
+
+    private final int pageSize;
+
+    // guarded by this
+    private CashFlowProjector.Snapshot snapshot;
+
+    // plan ids in the order of the snapshot's plan codes, guarded by this
+    private List<String> snapshotPlans;
+
+    private LocalDateTime snapshotAt;
+
+    // projection with the default parameters, dropped when settings change
+    private volatile CashFlowProjectionResponse latest;
+
+    public ProjectionService(PolicyRepository policyRepository, InsurancePlanRepository insurancePlanRepository,
+                             InsuranceSettingRepository insuranceSettingRepository, ClaimRepository claimRepository,
+                             TaskScheduler taskScheduler,
+                             @Value("${app.projection.years:10}") int defaultYears,
+                             @Value("${app.projection.annual-claim-rate:0.0}") double defaultClaimRate,
+                             @Value("${app.projection.snapshot-ttl-minutes:15}") long snapshotTtlMinutes,
+                             @Value("${app.projection.page-size:10000}") int pageSize,
+                             @Value("${app.projection.parallelism:0}") int parallelism) {
+        this.policyRepository = policyRepository;
+        this.insurancePlanRepository = insurancePlanRepository;
+        this.insuranceSettingRepository = insuranceSettingRepository;
+        this.claimRepository = claimRepository;
+        this.taskScheduler = taskScheduler;
+        this.defaultYears = defaultYears;
+        this.defaultClaimRate = defaultClaimRate;
+        this.snapshotTtlMinutes = snapshotTtlMinutes;
+        this.pageSize = pageSize;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @Override
+    public CashFlowProjectionResponse getProjection(Integer years, Double annualClaimRate) {
+        int horizon = years == null ? defaultYears : years;
+        double claimRate = annualClaimRate == null ? defaultClaimRate : annualClaimRate;
+        if (horizon < 1 || horizon > MAX_YEARS) {
+            throw new ApiException("Projection horizon must be between 1 and " + MAX_YEARS + " years");
+        }
+        if (claimRate < 0 || claimRate >= 1) {
+            throw new ApiException("Annual claim rate must be between 0 and 1");
+        }
+        boolean defaults = horizon == defaultYears && claimRate == defaultClaimRate;
+        CashFlowProjectionResponse cached = latest;
+        if (defaults && cached != null
+                && cached.getSnapshotAt().isAfter(LocalDateTime.now().minusMinutes(snapshotTtlMinutes))) {
+            return cached;
+        }
+        CashFlowProjectionResponse projection = project(horizon, claimRate);
+        if (defaults) {
+            latest = projection;
+        }
+        return projection;
+    }
+
+    @Override
+    public String getProjectionCsv(Integer years, Double annualClaimRate) {
+        CashFlowProjectionResponse projection = getProjection(years, annualClaimRate);
+        StringBuilder csv = new StringBuilder("Month,Premium Inflow,Maturity Outflow,Claim Outflow,Net Cash Flow,Expected Maturities\n");
+        for (CashFlowMonthResponse month : projection.getMonths()) {
+            csv.append(month.getMonth()).append(',')
+                    .append(round(month.getPremiumInflow())).append(',')
+                    .append(round(month.getMaturityOutflow())).append(',')
+                    .append(round(month.getClaimOutflow())).append(',')
+                    .append(round(month.getNetCashFlow())).append(',')
+                    .append(round(month.getExpectedMaturities())).append('\n');
+        }
+        return csv.toString();
+    }
+
+    @EventListener
+    public void onSettingsChanged(SettingsChangedEvent event) {
+        latest = null;
+        taskScheduler.schedule(() -> {
+            try {
+                getProjection(null, null);
+            } catch (RuntimeException e) {
+                logger.error("Failed to recompute the cash-flow projection after a {} change: {}",
+                        event.getSetting(), e.getMessage(), e);
+            }
+        }, Instant.now());
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdown();
+    }
+
+    private synchronized CashFlowProjectionResponse project(int years, double claimRate) {
+        long started = System.currentTimeMillis();
+        if (snapshot == null || snapshotAt.isBefore(LocalDateTime.now().minusMinutes(snapshotTtlMinutes))) {
+            loadSnapshot();
+        }
+        Map<String, Double> ratios = new HashMap<>();
+        for (InsurancePlan plan : insurancePlanRepository.findAll()) {
+            ratios.put(plan.getInsuranceId(), plan.getProfitRatio());
+        }
+        double[] profitRatioByPlan = new double[snapshotPlans.size()];
+        for (int code = 0; code < profitRatioByPlan.length; code++) {
+            profitRatioByPlan[code] = ratios.getOrDefault(snapshotPlans.get(code), 0.0);
+        }
+        double claimDeduction = latestClaimDeduction();
+        double claimPayoutFactor = 1 - claimDeduction / 100;
+
+        YearMonth firstMonth = YearMonth.now();
+        int months = years * 12;
+        double[] totals = CashFlowProjector.project(pool, snapshot, profitRatioByPlan, claimPayoutFactor, claimRate,
+                CashFlowProjector.monthIndex(firstMonth.atDay(1)), months);
+        // claims already filed are expected to be paid in the current month
+        double pendingClaims = claimRepository.sumPendingClaimInvestment().doubleValue() * claimPayoutFactor;
+        totals[CashFlowProjector.CLAIMS] += pendingClaims;
+
+        CashFlowProjectionResponse response = new CashFlowProjectionResponse();
+        List<CashFlowMonthResponse> rows = new ArrayList<>(months);
+        for (int m = 0; m < months; m++) {
+            int base = m * CashFlowProjector.WIDTH;
+            CashFlowMonthResponse row = new CashFlowMonthResponse();
+            row.setMonth(firstMonth.plusMonths(m).toString());
+            row.setPremiumInflow(totals[base + CashFlowProjector.PREMIUM]);
+            row.setMaturityOutflow(totals[base + CashFlowProjector.MATURITY]);
+            row.setClaimOutflow(totals[base + CashFlowProjector.CLAIMS]);
+            row.setNetCashFlow(row.getPremiumInflow() - row.getMaturityOutflow() - row.getClaimOutflow());
+            row.setExpectedMaturities(totals[base + CashFlowProjector.MATURING]);
+            rows.add(row);
+            response.setTotalPremiumInflow(response.getTotalPremiumInflow() + row.getPremiumInflow());
+            response.setTotalMaturityOutflow(response.getTotalMaturityOutflow() + row.getMaturityOutflow());
+            response.setTotalClaimOutflow(response.getTotalClaimOutflow() + row.getClaimOutflow());
+        }
+        response.setNetCashFlow(response.getTotalPremiumInflow() - response.getTotalMaturityOutflow()
+                - response.getTotalClaimOutflow());
+        response.setFromMonth(firstMonth.toString());
+        response.setYears(years);
+        response.setAnnualClaimRate(claimRate);
+        response.setClaimDeduction(claimDeduction);
+        response.setPolicies(snapshot.size());
+        response.setPendingClaimOutflow(pendingClaims);
+        response.setSnapshotAt(snapshotAt);
+        response.setGeneratedAt(LocalDateTime.now());
+        response.setElapsedMillis(System.currentTimeMillis() - started);
+        response.setMonths(rows);
+        logger.info("Projected {} months of cash flow over {} policies in {} ms", months, snapshot.size(),
+                response.getElapsedMillis());
+        return response;
+    }
+
+    private void loadSnapshot() {
+        long started = System.currentTimeMillis();
+        CashFlowProjector.Snapshot loaded = new CashFlowProjector.Snapshot(pageSize);
+        Map<String, Integer> planCodes = new HashMap<>();
+        List<String> plans = new ArrayList<>();
+        String after = "";
+        List<Object[]> page;
+        do {
+            page = policyRepository.findProjectionRowsAfter(after, PageRequest.of(0, pageSize));
+            for (Object[] row : page) {
+                String planId = (String) row[1];
+                int planCode = planCodes.computeIfAbsent(planId, key -> {
+                    plans.add(key);
+                    return plans.size() - 1;
+                });
+                loaded.add(planCode, intervalMonths((PaymentInterval) row[2]), (LocalDate) row[3], (LocalDate) row[4],
+                        ((Number) row[5]).doubleValue(), ((Number) row[6]).doubleValue());
+            }
+            if (!page.isEmpty()) {
+                after = (String) page.get(page.size() - 1)[0];
+            }
+        } while (page.size() == pageSize);
+        snapshot = loaded;
+        snapshotPlans = plans;
+        snapshotAt = LocalDateTime.now();
+        logger.info("Loaded {} active policies for projection in {} ms", loaded.size(),
+                System.currentTimeMillis() - started);
+    }
+
+    private double latestClaimDeduction() {
+        List<InsuranceSetting> settings = insuranceSettingRepository.findLatestInsuranceSetting(PageRequest.of(0, 1)).getContent();
+        return settings.isEmpty() ? 0 : settings.get(0).getClaimDeduction();
+    }
+
+    private static int intervalMonths(PaymentInterval interval) {
+        switch (interval) {
+            case QUARTERLY:
+                return 3;
+            case HALF_YEARLY:
+                return 6;
+            default:
+                return 12;
+        }
+    }
+
+    private static String round(double value) {
+        return String.format("%.2f", value);
+    }
+}
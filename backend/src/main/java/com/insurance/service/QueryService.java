@@ -6,6 +6,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -14,11 +15,10 @@ import org.springframework.stereotype.Service;
 import com.insurance.entities.Customer;
 import com.insurance.entities.CustomerQuery;
 import com.insurance.entities.Employee;
-import com.insurance.entities.User;
 import com.insurance.enums.CreationStatus;
+import com.insurance.enums.LiveEventType;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
-import com.insurance.exceptions.UnauthorizedException;
 import com.insurance.interfaces.IQueryService;
 import com.insurance.repository.CustomerQueryRepository;
 import com.insurance.repository.CustomerRepository;
@@ -28,8 +28,10 @@ import com.insurance.request.CustomerQueryRequest;
 import com.insurance.request.EmployeeQueryRequest;
 import com.insurance.response.CustomerQueryResponse;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DomainChangeEvent;
 import com.insurance.util.Mappers;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 
 @Service
@@ -48,18 +50,14 @@ public class QueryService implements IQueryService {
 	
 	@Autowired
 	CustomerQueryRepository customerQueryRepository;
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
 	
 	
 	@Override
-	public String addQuery(String token, CustomerQueryRequest queryRequest) {
-		String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for token");
-        }
-        User user = oUser.get();
+	public String addQuery(Actor actor, CustomerQueryRequest queryRequest) {
 
-        Customer  customer = customerRepository.findByUser(user);
+        Customer  customer = actor.getCustomer();
         if(customer==null) {
         	throw new ApiException("Customer not found");
         }
@@ -75,20 +73,16 @@ public class QueryService implements IQueryService {
         query.setStatus("pending");
         query.setSubmittedAt(LocalDateTime.now());
         customerQueryRepository.save(query);
+        eventPublisher.publishEvent(new DomainChangeEvent(LiveEventType.QUERY_SUBMITTED, String.valueOf(query.getQueryId()),
+                null, customer.getCustomerId(), null));
 		return "Query Submitted Succussfully";
 	}
 
 
 	@Override
-	public String addResponseQuery(String token, EmployeeQueryRequest queryRequest,long id) {
-		   String username = jwtTokenProvider.getUsername(token);
-	        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-	        if (oUser.isEmpty()) {
-	            throw new UnauthorizedException("User is not available for token");
-	        }
-	        User user = oUser.get();
+	public String addResponseQuery(Actor actor, EmployeeQueryRequest queryRequest,long id) {
 
-	        Employee employee = employeeRepository.findByUser(user)
+	        Employee employee = Optional.ofNullable(actor.getEmployee())
 	                .orElseThrow(() -> new ApiException("Employee not found"));
 	       
 	        CustomerQuery query=customerQueryRepository.findById(id).orElse(null);
@@ -0,0 +1,186 @@
+package com.insurance.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.insurance.enums.LiveEventType;
+import com.insurance.exceptions.ResourceNotFoundException;
+import com.insurance.interfaces.IReceiptService;
+import com.insurance.repository.TransactionRepository;
+import com.insurance.response.ReceiptData;
+import com.insurance.security.Actor;
+import com.insurance.util.DomainChangeEvent;
+import com.insurance.util.FileResponses;
+import com.insurance.util.ReceiptTemplate;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Payment receipts as files on disk. A receipt is rendered in the background as soon as its
+ * payment is saved, so a download is normally a file handed to the connector as it is. A download
+ * that arrives first renders the receipt itself, or waits for the render already under way.
+ */
+@Service
+public class ReceiptService implements IReceiptService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReceiptService.class);
+
+    private final TransactionRepository transactionRepository;
+
+    private final ReceiptTemplate receiptTemplate;
+
+    private final Path directory;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    public ReceiptService(TransactionRepository transactionRepository, ReceiptTemplate receiptTemplate,
+                          @Value("${file.upload-dir}") String uploadDir,
+                          @Value("${app.receipt.workers:2}") int workers,
+                          @Value("${app.receipt.queue-capacity:1000}") int queueCapacity) {
+        this.transactionRepository = transactionRepository;
+        this.receiptTemplate = receiptTemplate;
+        this.directory = Paths.get(System.getProperty("user.dir"), uploadDir, "receipts");
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "receipt-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDomainChange(DomainChangeEvent change) {
+        if (change.getType() != LiveEventType.PAYMENT_RECEIVED) {
+            return;
+        }
+        String transactionId = change.getEntityId();
+        try {
+            executor.execute(() -> {
+                try {
+                    receiptFile(transactionId);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to render receipt for transaction {}: {}", transactionId, e.getMessage(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // the first download renders it instead
+            logger.warn("Receipt queue full, transaction {} will be rendered on download", transactionId);
+        }
+    }
+
+    @Override
+    public ResponseEntity<Resource> downloadReceipt(String transactionId, Actor actor, HttpServletRequest request) {
+        logger.info("User {} downloading receipt for transaction {}", actor.getUsername(), transactionId);
+        // checked on every download, the file on disk says nothing about who may read it
+        if (actor.hasRole("role_customer") && transactionRepository.findCustomerIdByTransactionId(transactionId)
+                .filter(customerId -> customerId.equals(actor.getActorId())).isEmpty()) {
+            // the same answer as for a missing transaction, so other customers' ids cannot be probed
+            throw new ResourceNotFoundException("No transaction there");
+        }
+        Path file = receiptFile(transactionId);
+        long size;
+        try {
+            size = Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // a receipt never changes once written
+        return FileResponses.serve(request, file, size, "\"" + transactionId + "-" + size + "\"",
+                MediaType.APPLICATION_PDF, "Receipt" + transactionId + ".pdf");
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private Path receiptFile(String transactionId) {
+        Path file = directory.resolve("Receipt" + transactionId + ".pdf");
+        if (Files.exists(file)) {
+            return file;
+        }
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = rendering.putIfAbsent(transactionId, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // another render may have finished between the check and putIfAbsent
+            if (!Files.exists(file)) {
+                render(transactionId, file);
+            }
+            mine.complete(file);
+            return file;
+        } catch (IOException e) {
+            mine.completeExceptionally(new UncheckedIOException(e));
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(transactionId, mine);
+        }
+    }
+
+    private void render(String transactionId, Path file) throws IOException {
+        List<Object[]> rows = transactionRepository.findReceiptRow(transactionId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("No transaction there");
+        }
+        Object[] row = rows.get(0);
+        ReceiptData receiptData = new ReceiptData();
+        receiptData.setTransactionId((String) row[0]);
+        receiptData.setCustomerId((String) row[1]);
+        receiptData.setCustomerName((String) row[2]);
+        receiptData.setAmount(((Number) row[3]).doubleValue());
+        receiptData.setDate(((LocalDateTime) row[4]).toString());
+        receiptData.setDescription(row[5] + " " + row[6]);
+
+        Files.createDirectories(directory);
+        Path partial = directory.resolve("Receipt" + transactionId + ".pdf.part");
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                receiptTemplate.render(receiptData, out);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.insurance.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.insurance.enums.ReportFormat;
+import com.insurance.enums.ReportJobStatus;
+import com.insurance.enums.ReportType;
+import com.insurance.exceptions.ApiException;
+import com.insurance.exceptions.ResourceNotFoundException;
+import com.insurance.exceptions.ServiceUnavailableException;
+import com.insurance.interfaces.IPDFService;
+import com.insurance.interfaces.IReportJobService;
+import com.insurance.response.ReportJobResponse;
+import com.insurance.security.Actor;
+import com.insurance.util.FileResponses;
+import com.insurance.util.ReportArtifactCache;
+import com.insurance.util.ReportArtifactCache.Artifact;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Renders reports in the background on a bounded pool. A job is keyed by report type, its
+ * parameter and the data version of the tables it reads, so a request for a report that is
+ * already queued, running or finished with the same data joins that job instead of rendering it
+ * again. Rendered files go to the {@link ReportArtifactCache}, which the synchronous downloads
+ * share, so a finished job and a plain download of the same data are one file. Finished jobs are
+ * forgotten after their TTL.
+ */
+@Service
+public class ReportJobService implements IReportJobService, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final IPDFService pdfService;
+
+    private final ReportArtifactCache reportCache;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Map<String, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+
+    private final long ttlMillis;
+
+    public ReportJobService(IPDFService pdfService, ReportArtifactCache reportCache,
+                            @Value("${app.report.jobs.workers:2}") int workers,
+                            @Value("${app.report.jobs.queue-capacity:20}") int queueCapacity,
+                            @Value("${app.report.jobs.ttl-ms:3600000}") long ttlMillis) {
+        this.pdfService = pdfService;
+        this.reportCache = reportCache;
+        this.ttlMillis = ttlMillis;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public ReportJobResponse submit(Actor actor, String type, Map<String, String> parameters) {
+        ReportType reportType = parseType(type);
+        String subjectId = subjectId(reportType, parameters);
+        String name = subjectId == null ? reportType.name() : reportType.name() + ":" + subjectId;
+        // the version is read before anything else so the job never renders older data than it claims
+        String version = pdfService.reportVersion(reportType);
+        String key = name + "@" + version;
+        long totalRows = pdfService.countReportRows(reportType, subjectId);
+
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && existing.status != ReportJobStatus.FAILED) {
+                return existing;
+            }
+            created[0] = new ReportJob(UUID.randomUUID().toString(), key, name, version, reportType, subjectId, totalRows);
+            return created[0];
+        });
+        if (created[0] == null) {
+            logger.info("{} {} joined report job {}", actor.getRole(), actor.getActorId(), job.id);
+            return toResponse(job, true);
+        }
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            jobsByKey.remove(key, job);
+            throw new ServiceUnavailableException("Too many reports are being generated, try again shortly");
+        }
+        logger.info("{} {} started report job {} for {}", actor.getRole(), actor.getActorId(), job.id, key);
+        return toResponse(job, false);
+    }
+
+    /** Progress while the job is queued or running, the file once it is done. */
+    @Override
+    public ResponseEntity<?> getJob(String jobId, HttpServletRequest request) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Report job not found or expired");
+        }
+        if (job.status == ReportJobStatus.QUEUED || job.status == ReportJobStatus.RUNNING) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .body(toResponse(job, false));
+        }
+        if (job.status == ReportJobStatus.FAILED) {
+            return ResponseEntity.ok(toResponse(job, false));
+        }
+        Artifact artifact = reportCache.getIfCurrent(job.name, job.version);
+        if (artifact == null) {
+            // pushed out of the cache, or the data has changed since
+            evict(job);
+            throw new ResourceNotFoundException("Report job not found or expired");
+        }
+        return FileResponses.serve(request, artifact.getFile(), artifact.getSize(), artifact.getEtag(),
+                MediaType.APPLICATION_PDF, pdfService.reportFileName(job.type) + ".pdf");
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.jobs.sweep-ms:60000}")
+    public void evictExpired() {
+        long cutoff = System.currentTimeMillis() - ttlMillis;
+        for (ReportJob job : new ArrayList<>(jobs.values())) {
+            if (job.finishedMillis > 0 && job.finishedMillis < cutoff) {
+                evict(job);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(ReportJob job) {
+        job.status = ReportJobStatus.RUNNING;
+        long started = System.currentTimeMillis();
+        try {
+            Artifact artifact = reportCache.get(job.name, job.version,
+                    out -> pdfService.writeReport(job.type, job.subjectId, ReportFormat.PDF, out, rows -> job.rowsWritten = rows));
+            if (job.rowsWritten == 0) {
+                // served from the cache without rendering
+                job.rowsWritten = job.totalRows;
+            }
+            job.sizeBytes = artifact.getSize();
+            job.status = ReportJobStatus.DONE;
+            logger.info("Report job {} finished with {} rows, {} bytes in {} ms", job.id, job.rowsWritten,
+                    job.sizeBytes, System.currentTimeMillis() - started);
+        } catch (Exception e) {
+            logger.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            job.error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            job.status = ReportJobStatus.FAILED;
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+            job.finishedMillis = System.currentTimeMillis();
+        }
+    }
+
+    private void evict(ReportJob job) {
+        jobsByKey.remove(job.key, job);
+        jobs.remove(job.id);
+    }
+
+    private static ReportType parseType(String type) {
+        try {
+            return ReportType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException("Unknown report type: " + type);
+        }
+    }
+
+    private static String subjectId(ReportType type, Map<String, String> parameters) {
+        String name;
+        if (type == ReportType.POLICIES) {
+            name = "customerId";
+        } else if (type == ReportType.COMMISSIONS) {
+            name = "agentId";
+        } else {
+            return null;
+        }
+        String value = parameters.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ApiException("The " + type.name().toLowerCase() + " report needs " + name);
+        }
+        return value.trim();
+    }
+
+    private static ReportJobResponse toResponse(ReportJob job, boolean attached) {
+        ReportJobResponse response = new ReportJobResponse();
+        response.setJobId(job.id);
+        response.setType(job.type);
+        response.setSubjectId(job.subjectId);
+        response.setStatus(job.status);
+        response.setAttached(attached);
+        response.setRowsWritten(job.rowsWritten);
+        response.setTotalRows(job.totalRows);
+        response.setSizeBytes(job.sizeBytes);
+        response.setError(job.error);
+        response.setCreatedAt(job.createdAt);
+        response.setFinishedAt(job.finishedAt);
+        return response;
+    }
+
+    private static final class ReportJob {
+
+        private final String id;
+
+        private final String key;
+
+        private final String name;
+
+        private final String version;
+
+        private final ReportType type;
+
+        private final String subjectId;
+
+        private final long totalRows;
+
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+
+        private volatile long rowsWritten;
+
+        private volatile long sizeBytes;
+
+        private volatile String error;
+
+        private volatile LocalDateTime finishedAt;
+
+        private volatile long finishedMillis;
+
+        private ReportJob(String id, String key, String name, String version, ReportType type, String subjectId,
+                          long totalRows) {
+            this.id = id;
+            this.key = key;
+            this.name = name;
+            this.version = version;
+            this.type = type;
+            this.subjectId = subjectId;
+            this.totalRows = totalRows;
+        }
+    }
+}
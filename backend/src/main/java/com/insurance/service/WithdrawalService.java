@@ -8,6 +8,7 @@ import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
@@ -20,10 +21,14 @@ import com.insurance.entities.Customer;
 import com.insurance.entities.Policy;
 import com.insurance.entities.User;
 import com.insurance.entities.WithdrawalRequest;
+import com.insurance.enums.DataTable;
+import com.insurance.enums.LiveEventType;
 import com.insurance.enums.PolicyStatus;
 import com.insurance.exceptions.ApiException;
 import com.insurance.exceptions.ResourceNotFoundException;
-import com.insurance.exceptions.UnauthorizedException;
+import com.insurance.interfaces.IAgentLedgerService;
+import com.insurance.interfaces.IKpiRollupService;
+import com.insurance.interfaces.ILeaderboardService;
 import com.insurance.interfaces.IWithdrawalService;
 import com.insurance.repository.AdminRepository;
 import com.insurance.repository.AgentRepository;
@@ -35,7 +40,10 @@ import com.insurance.repository.WithdrawalRequestRepository;
 import com.insurance.response.InsuranceSettingResponse;
 import com.insurance.response.WithdrawalRequestDTO;
 import com.insurance.security.JwtTokenProvider;
+import com.insurance.util.DataVersions;
+import com.insurance.util.DomainChangeEvent;
 import com.insurance.util.PagedResponse;
+import com.insurance.security.Actor;
 
 
 @Service
@@ -66,23 +74,32 @@ public class WithdrawalService implements IWithdrawalService {
 
     @Autowired
     EmailService emailService;
+
+    @Autowired
+    IAgentLedgerService agentLedgerService;
+
+    @Autowired
+    IKpiRollupService kpiRollupService;
+
+    @Autowired
+    ILeaderboardService leaderboardService;
     
     @Autowired
     InsuranceSettingRepository insuranceSettingRepository;
     
     @Autowired
     AdminService adminService;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    DataVersions dataVersions;
     
     @Override
-    public void withdrawalRequest(String token, String policy_id) {
+    public void withdrawalRequest(Actor actor, String policy_id) {
         logger.info("Processing withdrawal request for policy ID: {}", policy_id);
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for " + username);
-        }
-        User user = oUser.get();
-        Customer customer = customerRepository.findByUser(user);
+        Customer customer = actor.getCustomer();
         if (customer == null || !customer.getUser().isActive()) {
             throw new ApiException("Unauthorized withdrawal request");
         }
@@ -98,19 +115,18 @@ public class WithdrawalService implements IWithdrawalService {
         withdrawalRequest.setPolicy(policy);
         withdrawalRequest.setRequestDate(LocalDateTime.now());
         withdrawalRequestRepository.save(withdrawalRequest);
+        eventPublisher.publishEvent(new DomainChangeEvent(LiveEventType.WITHDRAWAL_REQUESTED,
+                String.valueOf(withdrawalRequest.getWithdrawalRequestId()),
+                policy.getAgent() != null ? policy.getAgent().getAgentId() : null, customer.getCustomerId(), null));
 
         logger.info("Withdrawal request created for customer: {} and policy: {}", customer.getCustomerId(), policy_id);
     }
 
-    public String approveWithdrawal(String token, long withdrawal_id) {
+    public String approveWithdrawal(Actor actor, long withdrawal_id) {
         logger.info("Approving withdrawal request with ID: {}", withdrawal_id);
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new UnauthorizedException("User is not available for " + username);
-        }
-        User user = oUser.get();
-        Admin admin = adminRepository.findByUser(user);
+        String username = actor.getUsername();
+        User user = actor.getUser();
+        Admin admin = actor.getAdmin();
         if (admin == null || !admin.getUser().isActive()) {
             throw new ApiException("Unauthorized admin approval attempt by user: " + username);
         }
@@ -120,10 +136,21 @@ public class WithdrawalService implements IWithdrawalService {
             throw new ResourceNotFoundException("Withdrawal Request not found");
         }
         WithdrawalRequest withdrawalRequest = oWithdrawalRequest.get();
+        // a second approval would count the penalty, rollup and leaderboard change again
+        LocalDateTime decidedAt = LocalDateTime.now();
+        if (!"PENDING".equals(withdrawalRequest.getStatus())
+                || withdrawalRequestRepository.decidePending(withdrawal_id, "APPROVED", admin, decidedAt) == 0) {
+            throw new ApiException("Withdrawal request has already been decided");
+        }
         withdrawalRequest.setStatus("APPROVED");
         withdrawalRequest.setAdmin(admin);
+        withdrawalRequest.setDecidedAt(decidedAt);
         withdrawalRequest.getPolicy().setStatus(PolicyStatus.CANCELLED);
         withdrawalRequestRepository.save(withdrawalRequest);
+        dataVersions.changed(DataTable.POLICIES);
+        agentLedgerService.recordPenalty(withdrawalRequest.getPolicy());
+        kpiRollupService.recordWithdrawalApproved(withdrawalRequest.getPolicy());
+        leaderboardService.recordWithdrawal(withdrawalRequest.getPolicy());
         
         
 
@@ -149,15 +176,11 @@ public class WithdrawalService implements IWithdrawalService {
     }
 
     @Override
-    public String rejectWithdrawal(String token, long withdrawal_id) {
+    public String rejectWithdrawal(Actor actor, long withdrawal_id) {
         logger.info("Rejecting withdrawal request with ID: {}", withdrawal_id);
-        String username = jwtTokenProvider.getUsername(token);
-        Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-        if (oUser.isEmpty()) {
-            throw new ResourceNotFoundException("User is not available for "+ username);
-        }
-        User user = oUser.get();
-        Admin admin = adminRepository.findByUser(user);
+        String username = actor.getUsername();
+        User user = actor.getUser();
+        Admin admin = actor.getAdmin();
         if (admin == null || !admin.getUser().isActive()) {
             throw new ApiException("Unauthorized admin rejection attempt by user: "+ username);
         }
@@ -168,8 +191,14 @@ public class WithdrawalService implements IWithdrawalService {
         }
 
         WithdrawalRequest withdrawalRequest = oWithdrawalRequest.get();
+        LocalDateTime decidedAt = LocalDateTime.now();
+        if (!"PENDING".equals(withdrawalRequest.getStatus())
+                || withdrawalRequestRepository.decidePending(withdrawal_id, "REJECTED", admin, decidedAt) == 0) {
+            throw new ApiException("Withdrawal request has already been decided");
+        }
         withdrawalRequest.setStatus("REJECTED");
         withdrawalRequest.setAdmin(admin);
+        withdrawalRequest.setDecidedAt(decidedAt);
         withdrawalRequestRepository.save(withdrawalRequest);
         String subject = "SecureLife Insurance - Your Withdrawal Request has been Rejected";
         String emailBody = "Dear " + withdrawalRequest.getCustomer().getName() + ",\n\n" +
@@ -216,16 +245,12 @@ public class WithdrawalService implements IWithdrawalService {
 
 
 	@Override
-	public PagedResponse<WithdrawalRequestDTO> getMyWithdrawals(String token,String searchQuery, PageRequest pageRequest) {
-	    String username = jwtTokenProvider.getUsername(token);
+	public PagedResponse<WithdrawalRequestDTO> getMyWithdrawals(Actor actor,String searchQuery, PageRequest pageRequest) {
+	    String username = actor.getUsername();
 	    logger.info("Fetching withdrawal requests for agent: {}", username);
 
-	    Optional<User> oUser = userRepository.findByUsernameOrEmail(username, username);
-	    if (oUser.isEmpty()) {
-	        throw new UnauthorizedException("User is not available for the provided token.");
-	    }
 
-	    Agent agent = agentRepository.findByUser(oUser.get());
+	    Agent agent = actor.getAgent();
 	    if (agent == null) {
 	        throw new ApiException("Agent not found for user: " + username);
 	    }
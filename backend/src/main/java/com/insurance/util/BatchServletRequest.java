@@ -0,0 +1,490 @@
+package com.insurance.util;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpSession;
+
+/**
+ * One sub-request of a batch. Method, path, query parameters and body are its own; headers come
+ * from the batch request except the content and accept headers. Everything read from the batch
+ * request is copied into an {@link Origin} on the request thread, because sub-requests run on
+ * batch threads and may outlive the container's request object after a batch timeout. Attributes
+ * live in a private map so sub-requests running side by side do not see each other's handler state.
+ */
+public class BatchServletRequest extends HttpServletRequestWrapper {
+
+    private static final Set<String> OWN_HEADERS = Set.of(HttpHeaders.CONTENT_TYPE.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.ACCEPT.toLowerCase(),
+            HttpHeaders.CONTENT_ENCODING.toLowerCase(), HttpHeaders.TRANSFER_ENCODING.toLowerCase());
+
+    private final Origin origin;
+
+    private final String method;
+
+    private final String requestUri;
+
+    private final String queryString;
+
+    private final Map<String, String[]> parameters;
+
+    private final byte[] body;
+
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    public BatchServletRequest(Origin origin, String method, String path, byte[] body) {
+        super(origin.request);
+        this.origin = origin;
+        this.method = method.toUpperCase();
+        int query = path.indexOf('?');
+        this.requestUri = origin.contextPath + (query < 0 ? path : path.substring(0, query));
+        this.queryString = query < 0 ? null : path.substring(query + 1);
+        this.parameters = parseQuery(queryString);
+        this.body = body;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = new StringBuffer();
+        url.append(getScheme()).append("://").append(getServerName()).append(':').append(getServerPort());
+        return url.append(requestUri);
+    }
+
+    @Override
+    public String getContextPath() {
+        return origin.contextPath;
+    }
+
+    @Override
+    public String getServletPath() {
+        return requestUri.substring(origin.contextPath.length());
+    }
+
+    @Override
+    public String getPathInfo() {
+        return null;
+    }
+
+    @Override
+    public String getQueryString() {
+        return queryString;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        String[] values = parameters.get(name);
+        return values == null ? null : values[0];
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.unmodifiableMap(parameters);
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(parameters.keySet());
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getContentType() {
+        return body == null ? null : MediaType.APPLICATION_JSON_VALUE;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body == null ? 0 : body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return getContentLength();
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return StandardCharsets.UTF_8.name();
+    }
+
+    @Override
+    public void setCharacterEncoding(String encoding) {
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        ByteArrayInputStream in = new ByteArrayInputStream(body == null ? new byte[0] : body);
+        return new ServletInputStream() {
+
+            @Override
+            public int read() {
+                return in.read();
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                return in.read(b, off, len);
+            }
+
+            @Override
+            public boolean isFinished() {
+                return in.available() == 0;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setReadListener(ReadListener listener) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String getHeader(String name) {
+        String lower = name.toLowerCase();
+        if (!OWN_HEADERS.contains(lower)) {
+            List<String> values = origin.headers.get(name);
+            return values == null ? null : values.get(0);
+        }
+        if (lower.equals("content-type")) {
+            return getContentType();
+        }
+        if (lower.equals("content-length") && body != null) {
+            return String.valueOf(body.length);
+        }
+        return null;
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        if (!OWN_HEADERS.contains(name.toLowerCase())) {
+            return Collections.enumeration(origin.headers.getOrDefault(name, List.of()));
+        }
+        String value = getHeader(name);
+        return Collections.enumeration(value == null ? List.of() : List.of(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        List<String> names = new ArrayList<>(origin.headers.keySet());
+        if (body != null) {
+            names.add(HttpHeaders.CONTENT_TYPE);
+            names.add(HttpHeaders.CONTENT_LENGTH);
+        }
+        return Collections.enumeration(names);
+    }
+
+    @Override
+    public int getIntHeader(String name) {
+        String value = getHeader(name);
+        return value == null ? -1 : Integer.parseInt(value);
+    }
+
+    @Override
+    public long getDateHeader(String name) {
+        String value = OWN_HEADERS.contains(name.toLowerCase()) ? null : getHeader(name);
+        if (value == null) {
+            return -1;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(name, value);
+        return headers.getFirstDate(name);
+    }
+
+    @Override
+    public String getScheme() {
+        return origin.scheme;
+    }
+
+    @Override
+    public String getServerName() {
+        return origin.serverName;
+    }
+
+    @Override
+    public int getServerPort() {
+        return origin.serverPort;
+    }
+
+    @Override
+    public boolean isSecure() {
+        return origin.secure;
+    }
+
+    @Override
+    public String getProtocol() {
+        return origin.protocol;
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return origin.remoteAddr;
+    }
+
+    @Override
+    public String getRemoteHost() {
+        return origin.remoteHost;
+    }
+
+    @Override
+    public int getRemotePort() {
+        return origin.remotePort;
+    }
+
+    @Override
+    public String getLocalAddr() {
+        return origin.localAddr;
+    }
+
+    @Override
+    public String getLocalName() {
+        return origin.localName;
+    }
+
+    @Override
+    public int getLocalPort() {
+        return origin.localPort;
+    }
+
+    @Override
+    public Locale getLocale() {
+        return origin.locales.get(0);
+    }
+
+    @Override
+    public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(origin.locales);
+    }
+
+    @Override
+    public Cookie[] getCookies() {
+        return origin.cookies == null ? null : origin.cookies.clone();
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return origin.userPrincipal;
+    }
+
+    @Override
+    public String getRemoteUser() {
+        return origin.remoteUser;
+    }
+
+    @Override
+    public String getAuthType() {
+        return origin.authType;
+    }
+
+    // the API is stateless; a sub-request never sees or creates a session
+    @Override
+    public HttpSession getSession(boolean create) {
+        if (create) {
+            throw new IllegalStateException("Sessions are not available inside a batch");
+        }
+        return null;
+    }
+
+    @Override
+    public HttpSession getSession() {
+        return getSession(true);
+    }
+
+    @Override
+    public String getRequestedSessionId() {
+        return null;
+    }
+
+    @Override
+    public boolean isRequestedSessionIdValid() {
+        return false;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(new ArrayList<>(attributes.keySet()));
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public DispatcherType getDispatcherType() {
+        return DispatcherType.REQUEST;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        throw new IllegalStateException("Streaming endpoints cannot be called inside a batch");
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        throw new IllegalStateException("Streaming endpoints cannot be called inside a batch");
+    }
+
+    /**
+     * What the sub-requests of one batch read from the batch request, copied once on the thread
+     * that received it.
+     */
+    public static final class Origin {
+
+        private final HttpServletRequest request;
+
+        private final String contextPath;
+
+        private final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        private final String scheme;
+
+        private final String serverName;
+
+        private final int serverPort;
+
+        private final boolean secure;
+
+        private final String protocol;
+
+        private final String remoteAddr;
+
+        private final String remoteHost;
+
+        private final int remotePort;
+
+        private final String localAddr;
+
+        private final String localName;
+
+        private final int localPort;
+
+        private final List<Locale> locales;
+
+        private final Cookie[] cookies;
+
+        private final Principal userPrincipal;
+
+        private final String remoteUser;
+
+        private final String authType;
+
+        public Origin(HttpServletRequest request) {
+            this.request = request;
+            this.contextPath = request.getContextPath();
+            for (Enumeration<String> names = request.getHeaderNames(); names.hasMoreElements();) {
+                String name = names.nextElement();
+                if (!OWN_HEADERS.contains(name.toLowerCase())) {
+                    headers.computeIfAbsent(name, key -> new ArrayList<>()).addAll(Collections.list(request.getHeaders(name)));
+                }
+            }
+            this.scheme = request.getScheme();
+            this.serverName = request.getServerName();
+            this.serverPort = request.getServerPort();
+            this.secure = request.isSecure();
+            this.protocol = request.getProtocol();
+            this.remoteAddr = request.getRemoteAddr();
+            this.remoteHost = request.getRemoteHost();
+            this.remotePort = request.getRemotePort();
+            this.localAddr = request.getLocalAddr();
+            this.localName = request.getLocalName();
+            this.localPort = request.getLocalPort();
+            this.locales = Collections.list(request.getLocales());
+            this.cookies = request.getCookies();
+            this.userPrincipal = request.getUserPrincipal();
+            this.remoteUser = request.getRemoteUser();
+            this.authType = request.getAuthType();
+        }
+    }
+
+    private static Map<String, String[]> parseQuery(String query) {
+        Map<String, List<String>> values = new LinkedHashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                if (pair.isEmpty()) {
+                    continue;
+                }
+                int equals = pair.indexOf('=');
+                String name = URLDecoder.decode(equals < 0 ? pair : pair.substring(0, equals), StandardCharsets.UTF_8);
+                String value = equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                values.computeIfAbsent(name, key -> new ArrayList<>()).add(value);
+            }
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        values.forEach((name, list) -> parameters.put(name, list.toArray(new String[0])));
+        return parameters;
+    }
+}
@@ -1,41 +1,121 @@
 package com.insurance.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import com.insurance.entities.User;
 import com.insurance.exceptions.ResourceNotFoundException;
 import com.insurance.repository.UserRepository;
+import com.insurance.response.CacheStatsResponse;
+import com.insurance.security.UserChangedEvent;
+import com.insurance.security.UserPrincipal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
 
 @Service
-public class CustomUserDetails implements UserDetailsService {
+public class CustomUserDetails implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetails.class);
 
     private UserRepository userRepository;
 
-    public CustomUserDetails(UserRepository userRepository) {
+    // keyed by the login name the token was issued for (username or email)
+    private final Cache<String, UserPrincipal> cache;
+
+    public CustomUserDetails(UserRepository userRepository,
+                             @Value("${app.user-details-cache.max-size:10000}") long maxSize,
+                             @Value("${app.user-details-cache.ttl-seconds:300}") long ttlSeconds) {
         this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
     }
 
+    /**
+     * Used by the authentication provider to check a login, so it always reads the current
+     * password hash from the database instead of the cache.
+     */
     @Override
     public UserDetails loadUserByUsername(String usernameOrEmail) throws UsernameNotFoundException {
-    	Optional<User> oUser = userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail);
-    	
-    	if(oUser.isEmpty()) {
-    		throw new ResourceNotFoundException("User not found: "+ usernameOrEmail);
-    	}
+        User user = findUser(usernameOrEmail);
+        return new UserPrincipal(user.getUserId(), user.getEmail(), user.getPassword(), user.getTokenVersion(),
+                authoritiesOf(user));
+    }
+
+    /**
+     * Principal for a request that already carries a valid token. Served from the cache, which
+     * holds no password hash since nothing on this path checks one.
+     */
+    public UserPrincipal loadTokenUser(String usernameOrEmail) {
+        return cache.get(usernameOrEmail, login -> {
+            User user = findUser(login);
+            return new UserPrincipal(user.getUserId(), user.getEmail(), "", user.getTokenVersion(), authoritiesOf(user));
+        });
+    }
+
+    /**
+     * Called by the authentication provider after a successful login whose stored hash was made
+     * with a different BCrypt cost than the configured one.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        String login = userDetails.getUsername();
+        Optional<User> oUser = userRepository.findByUsernameOrEmail(login, login);
+        if (oUser.isEmpty()) {
+            return userDetails;
+        }
         User user = oUser.get();
-    	GrantedAuthority authority = new SimpleGrantedAuthority(user.getRole().getName());
-    	Set<GrantedAuthority> authorities = Collections.singleton(authority);
+        user.setPassword(newPassword);
+        userRepository.save(user);
+        onUserChanged(new UserChangedEvent(user.getUserId()));
+        logger.info("Re-hashed password for user {} with the current BCrypt cost", user.getUserId());
+        return new UserPrincipal(user.getUserId(), user.getEmail(), newPassword, user.getTokenVersion(),
+                userDetails.getAuthorities());
+    }
+
+    // after commit, so a concurrent load cannot put the old row back into the cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.asMap().values().removeIf(principal -> principal.getUserId().equals(event.getUserId()));
+        logger.info("Evicted cached user details for user: {}", event.getUserId());
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        CacheStats stats = cache.stats();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setName("userDetails");
+        response.setSize(cache.estimatedSize());
+        response.setHitCount(stats.hitCount());
+        response.setMissCount(stats.missCount());
+        response.setHitRate(stats.hitRate());
+        response.setEvictionCount(stats.evictionCount());
+        return response;
+    }
+
+    private User findUser(String usernameOrEmail) {
+        return userRepository.findByUsernameOrEmail(usernameOrEmail, usernameOrEmail)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + usernameOrEmail));
+    }
 
-        
-        return new org.springframework.security.core.userdetails.User(user.getEmail(),user.getPassword(), authorities);
+    private static Set<GrantedAuthority> authoritiesOf(User user) {
+        return Collections.singleton(new SimpleGrantedAuthority(user.getRole().getName()));
     }
-    
+
 }
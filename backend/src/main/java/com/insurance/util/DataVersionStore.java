@@ -0,0 +1,14 @@
+package com.insurance.util;
+
+import com.insurance.enums.DataTable;
+
+/**
+ * Backing store for {@link DataVersions} counters.
+ */
+public interface DataVersionStore {
+
+	void increment(DataTable... tables);
+
+	/** A token that changes whenever any of the given tables does. */
+	String token(DataTable... tables);
+}
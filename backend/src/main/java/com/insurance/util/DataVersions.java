@@ -0,0 +1,42 @@
+package com.insurance.util;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.insurance.enums.DataTable;
+
+/**
+ * Modification counters for the tables that reports are built from. Services that write one of
+ * them call {@link #changed}; the counter moves once the surrounding transaction commits, so a
+ * token read afterwards never describes data that is not visible yet. Counters live in a
+ * {@link DataVersionStore}: node-local by default, or shared through the database with
+ * {@code app.report.versions.store=database} when several nodes serve reports.
+ */
+@Component
+public class DataVersions {
+
+    private final DataVersionStore store;
+
+    public DataVersions(DataVersionStore store) {
+        this.store = store;
+    }
+
+    public void changed(DataTable... tables) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            store.increment(tables);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                store.increment(tables);
+            }
+        });
+    }
+
+    /** A token that changes whenever any of the given tables does. */
+    public String token(DataTable... tables) {
+        return store.token(tables);
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.util;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.insurance.entities.DataVersion;
+import com.insurance.enums.DataTable;
+import com.insurance.repository.DataVersionRepository;
+
+/**
+ * Counters kept in the data_versions table so every node sees every other node's writes and
+ * hands out the same tokens. Each increment is its own short transaction, since it runs after
+ * the caller's transaction has committed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.report.versions.store", havingValue = "database")
+public class DatabaseDataVersionStore implements DataVersionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatabaseDataVersionStore.class);
+
+    private final DataVersionRepository dataVersionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public DatabaseDataVersionStore(DataVersionRepository dataVersionRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.dataVersionRepository = dataVersionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (DataTable table : DataTable.values()) {
+            createIfMissing(table);
+        }
+    }
+
+    @Override
+    public void increment(DataTable... tables) {
+        transactionTemplate.executeWithoutResult(status -> dataVersionRepository.increment(List.of(tables)));
+    }
+
+    @Override
+    public String token(DataTable... tables) {
+        Map<DataTable, Long> versions = new EnumMap<>(DataTable.class);
+        for (DataVersion version : dataVersionRepository.findAllById(List.of(tables))) {
+            versions.put(version.getDataTable(), version.getVersion());
+        }
+        StringBuilder token = new StringBuilder("db");
+        for (DataTable table : tables) {
+            token.append('-').append(versions.getOrDefault(table, 0L));
+        }
+        return token.toString();
+    }
+
+    private void createIfMissing(DataTable table) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!dataVersionRepository.existsById(table)) {
+                    DataVersion version = new DataVersion();
+                    version.setDataTable(table);
+                    dataVersionRepository.saveAndFlush(version);
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another node created the row at the same time
+            logger.info("Data version row for {} was created concurrently", table);
+        }
+    }
+}
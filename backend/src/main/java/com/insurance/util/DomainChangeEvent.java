@@ -0,0 +1,48 @@
+package com.insurance.util;
+
+import com.insurance.enums.LiveEventType;
+
+/**
+ * Published after a change that dashboards and work lists show, carrying just enough to route it:
+ * the owning agent and customer, when there is one.
+ */
+public class DomainChangeEvent {
+
+    private final LiveEventType type;
+
+    private final String entityId;
+
+    private final String agentId;
+
+    private final String customerId;
+
+    private final Double amount;
+
+    public DomainChangeEvent(LiveEventType type, String entityId, String agentId, String customerId, Double amount) {
+        this.type = type;
+        this.entityId = entityId;
+        this.agentId = agentId;
+        this.customerId = customerId;
+        this.amount = amount;
+    }
+
+    public LiveEventType getType() {
+        return type;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+}
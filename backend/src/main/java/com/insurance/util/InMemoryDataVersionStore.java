@@ -0,0 +1,46 @@
+package com.insurance.util;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.insurance.enums.DataTable;
+
+/**
+ * Node-local counters. Only correct while a single node writes the data: another node's changes
+ * never move them. Tokens start with the time this instance came up, so tokens from before a
+ * restart never match.
+ */
+@Component
+@ConditionalOnProperty(name = "app.report.versions.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryDataVersionStore implements DataVersionStore {
+
+    private final long epoch = System.currentTimeMillis();
+
+    private final Map<DataTable, AtomicLong> counters = new EnumMap<>(DataTable.class);
+
+    public InMemoryDataVersionStore() {
+        for (DataTable table : DataTable.values()) {
+            counters.put(table, new AtomicLong());
+        }
+    }
+
+    @Override
+    public void increment(DataTable... tables) {
+        for (DataTable table : tables) {
+            counters.get(table).incrementAndGet();
+        }
+    }
+
+    @Override
+    public String token(DataTable... tables) {
+        StringBuilder token = new StringBuilder(Long.toString(epoch, 36));
+        for (DataTable table : tables) {
+            token.append('-').append(counters.get(table).get());
+        }
+        return token.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package com.insurance.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Newline-delimited JSON: one object per row, keyed by the report's field names. Values go
+ * through the application's object mapper, so dates come out the same way as in the API.
+ */
+public class NdjsonTableWriter implements TableWriter {
+
+    private final JsonGenerator generator;
+
+    private final List<String> fields;
+
+    private long rowCount;
+
+    public NdjsonTableWriter(OutputStream out, List<String> fields, ObjectMapper objectMapper) {
+        this.fields = fields;
+        try {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+    }
+
+    @Override
+    public void addRow(Object... values) {
+        try {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.size(); i++) {
+                generator.writeFieldName(fields.get(i));
+                generator.writeObject(i < values.length ? values[i] : null);
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        rowCount++;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (rowCount > 0) {
+                generator.writeRaw('\n');
+            }
+            generator.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
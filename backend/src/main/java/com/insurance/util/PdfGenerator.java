@@ -1,180 +1,174 @@
 package com.insurance.util;
 
-import com.insurance.response.ReceiptData;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 @Component
-public class PdfGenerator {
+public class PdfGenerator implements DisposableBean {
 
-    public String generatePdf(String title, List<String> headers, List<List<String>> data, String pdfPath, String fileName) throws DocumentException {
-        File reportDir = new File(pdfPath);
-        if (!reportDir.exists()) {
-            reportDir.mkdirs();
-        }
-        String filename = reportDir + "/" + fileName + ".pdf";
-        try {
-            Document document = new Document(PageSize.A4, 36, 36, 36, 36); 
-            PdfWriter.getInstance(document, new FileOutputStream(filename));
-            document.open();
+    /** One key range of a parallel report; writes its rows, in order, into the table it is given. */
+    public interface Segment {
+        void write(TableWriter table);
+    }
 
-            Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.BLACK);
-            Paragraph titleParagraph = new Paragraph(title, titleFont);
-            titleParagraph.setAlignment(Element.ALIGN_CENTER);
-            titleParagraph.setSpacingAfter(20);
-            document.add(titleParagraph);
-
-            PdfPTable table = new PdfPTable(headers.size());
-            table.setWidthPercentage(100); 
-            table.setSpacingBefore(10);
-            table.setSpacingAfter(10);
-
-            float[] columnWidths = calculateColumnWidths(headers, data);
-            table.setWidths(columnWidths);
-
-            Font headerFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
-            headers.forEach(columnTitle -> {
-                PdfPCell header = new PdfPCell();
-                header.setBackgroundColor(new BaseColor(0, 121, 182));
-                header.setPadding(10); 
-                header.setPhrase(new Phrase(columnTitle, headerFont));
-                header.setHorizontalAlignment(Element.ALIGN_CENTER);
-                table.addCell(header);
-            });
-
-            Font dataFont = new Font(Font.FontFamily.HELVETICA, 11, Font.NORMAL, BaseColor.BLACK);
-            for (List<String> rowData : data) {
-                for (String cellData : rowData) {
-                    PdfPCell dataCell = new PdfPCell(new Phrase(cellData, dataFont));
-                    dataCell.setPadding(8); 
-                    dataCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    dataCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
-                    table.addCell(dataCell);
-                }
-            }
+    /** How many leading rows {@link #renderParallel} needs to size the columns. */
+    public static final int WIDTH_SAMPLE_ROWS = PdfTableWriter.SAMPLE_ROWS;
 
-            document.add(table);
-            document.close();
+    private final ForkJoinPool segmentPool;
 
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
-        }
+    private final boolean parallel;
 
-        return filename;
+    public PdfGenerator(@Value("${app.report.parallel.threads:4}") int threads) {
+        this.segmentPool = new ForkJoinPool(threads);
+        this.parallel = Math.min(threads, Runtime.getRuntime().availableProcessors()) > 1;
     }
 
-   
-    private float[] calculateColumnWidths(List<String> headers, List<List<String>> data) {
-        int[] maxColumnLengths = new int[headers.size()];
+    /**
+     * Whether {@link #renderParallel} can beat a single table here. With one thread or one core it
+     * only adds the merge, about 3% on a single-core host.
+     */
+    public boolean isParallel() {
+        return parallel;
+    }
 
-        for (int i = 0; i < headers.size(); i++) {
-            maxColumnLengths[i] = headers.get(i).length();
-        }
+    /** Starts a table report on {@code out}; rows are rendered as they are added. */
+    public PdfTableWriter openTable(OutputStream out, String title, List<String> headers) {
+        return new PdfTableWriter(out, title, headers);
+    }
 
-        for (List<String> rowData : data) {
-            for (int i = 0; i < rowData.size(); i++) {
-                maxColumnLengths[i] = Math.max(maxColumnLengths[i], rowData.get(i).length());
-            }
+    /**
+     * Renders a table report whose rows come in consecutive segments. The column widths are sized
+     * once from {@code sample}, the first {@link #WIDTH_SAMPLE_ROWS} rows of the report. Each
+     * segment is rendered to its own temporary PDF on the fork-join pool with the header row on
+     * every page; only the first one carries the title. The segments are then appended to
+     * {@code out} in order, numbering the pages as they go, so the merge of the early segments
+     * overlaps the rendering of the later ones. Every segment starts on a new page. Returns the
+     * row count.
+     */
+    public long renderParallel(OutputStream out, String title, List<String> headers, List<Object[]> sample,
+                               List<Segment> segments) {
+        List<String[]> sampleCells = new ArrayList<>(sample.size());
+        for (Object[] values : sample) {
+            sampleCells.add(PdfTableWriter.cells(values));
         }
-
-        float[] columnWidths = new float[headers.size()];
-        int totalLength = 0;
-        for (int length : maxColumnLengths) {
-            totalLength += length;
+        float[] widths = PdfTableWriter.columnWidths(headers, sampleCells);
+        List<ForkJoinTask<RenderedSegment>> tasks = new ArrayList<>(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            String segmentTitle = i == 0 ? title : null;
+            Segment segment = segments.get(i);
+            tasks.add(segmentPool.submit(() -> renderSegment(segmentTitle, headers, widths, segment)));
         }
 
-        for (int i = 0; i < headers.size(); i++) {
-            columnWidths[i] = (float) maxColumnLengths[i] / totalLength * 100;
+        Document document = new Document();
+        int merged = 0;
+        long rowCount = 0;
+        try {
+            PdfCopy copy = new PdfCopy(document, out);
+            copy.setCloseStream(false);
+            document.open();
+            int pageNumber = 0;
+            for (; merged < tasks.size(); merged++) {
+                RenderedSegment rendered = tasks.get(merged).join();
+                try {
+                    // a key range can come up empty when rows are deleted while the report runs
+                    if (rendered.rows > 0 || merged == 0) {
+                        pageNumber = appendSegment(copy, rendered.file, pageNumber);
+                        rowCount += rendered.rows;
+                    }
+                } finally {
+                    Files.deleteIfExists(rendered.file);
+                }
+            }
+            document.close();
+            return rowCount;
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (int i = merged + 1; i < tasks.size(); i++) {
+                discard(tasks.get(i));
+            }
         }
+    }
 
-        return columnWidths;
+    @Override
+    public void destroy() {
+        segmentPool.shutdownNow();
     }
-   
 
-    public String generateReceiptPdf(String pdfPath, String fileName, ReceiptData receiptData) throws DocumentException {
-        File reportDir = new File(pdfPath);
-        if (!reportDir.exists()) {
-            reportDir.mkdirs();
-        }
-        String filename = reportDir + "/" + fileName + ".pdf";
+    private static RenderedSegment renderSegment(String title, List<String> headers, float[] widths, Segment segment)
+            throws IOException {
+        Path file = Files.createTempFile("report-segment-", ".pdf");
         try {
-            Document document = new Document(PageSize.A4, 36, 36, 36, 36);
-            PdfWriter.getInstance(document, new FileOutputStream(filename));
-            document.open();
-
-            Font titleFont = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.BLACK);
-            PdfPTable titleTable = new PdfPTable(1);
-            titleTable.setWidthPercentage(100);
-            PdfPCell titleCell = new PdfPCell(new Phrase("Payment Receipt", titleFont));
-            titleCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            titleCell.setPadding(10);
-            titleCell.setBorder(Rectangle.NO_BORDER);
-            titleCell.setBackgroundColor(new BaseColor(230, 230, 250));
-            titleTable.addCell(titleCell);
-            document.add(titleTable);
-
-            document.add(new Paragraph("\n"));
-
-            Font labelFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.BLACK);
-            Font valueFont = new Font(Font.FontFamily.HELVETICA, 10, Font.NORMAL, BaseColor.BLACK);
-
-            PdfPTable detailTable = new PdfPTable(2);
-            detailTable.setWidthPercentage(100);
-            detailTable.setSpacingBefore(10f);
-            detailTable.setSpacingAfter(10f);
-            detailTable.setWidths(new float[] { 1, 2 });
-
-            addReceiptDetail(detailTable, "Transaction ID:", receiptData.getTransactionId(), labelFont, valueFont, true);
-            addReceiptDetail(detailTable, "Customer ID:", receiptData.getCustomerId(), labelFont, valueFont, false);
-            addReceiptDetail(detailTable, "Customer Name:", receiptData.getCustomerName(), labelFont, valueFont, true);
-            addReceiptDetail(detailTable, "Amount:", String.format("Rs. %.2f", receiptData.getAmount()), labelFont, valueFont, false);
-            addReceiptDetail(detailTable, "Date:", receiptData.getDate(), labelFont, valueFont, true);
-            addReceiptDetail(detailTable, "Description:", receiptData.getDescription(), labelFont, valueFont, false);
-
-            document.add(detailTable);
-
-            document.add(new Paragraph("\n"));
-
-            Font successFont = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.GREEN);
-            PdfPCell successCell = new PdfPCell(new Phrase("Transaction Successful", successFont));
-            successCell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            successCell.setPadding(10);
-            successCell.setBorder(Rectangle.BOX);
-            successCell.setBackgroundColor(new BaseColor(230, 255, 230));
-            PdfPTable successTable = new PdfPTable(1);
-            successTable.setWidthPercentage(100);
-            successTable.addCell(successCell);
-            document.add(successTable);
-
-            document.close();
+            long rows;
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file));
+                 PdfTableWriter table = new PdfTableWriter(out, title, headers, widths, false)) {
+                segment.write(table);
+                rows = table.getRowCount();
+            }
+            return new RenderedSegment(file, rows);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
 
-        } catch (FileNotFoundException e) {
-            e.printStackTrace();
+    private static int appendSegment(PdfCopy copy, Path file, int pageNumber) throws IOException, DocumentException {
+        // not a partial read: the page stamps change the page dictionaries of the reader
+        PdfReader reader = new PdfReader(file.toString());
+        try {
+            for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+                PdfImportedPage imported = copy.getImportedPage(reader, page);
+                PdfCopy.PageStamp stamp = copy.createPageStamp(imported);
+                PdfTableWriter.writePageNumber(stamp.getOverContent(), reader.getPageSize(page), ++pageNumber);
+                stamp.alterContents();
+                copy.addPage(imported);
+            }
+            copy.freeReader(reader);
+        } finally {
+            reader.close();
         }
+        return pageNumber;
+    }
 
-        return filename;
+    // a segment that will not be merged any more: stop it if it has not started, else wait for it
+    // and drop its file
+    private static void discard(ForkJoinTask<RenderedSegment> task) {
+        task.cancel(false);
+        task.quietlyJoin();
+        if (!task.isCompletedAbnormally()) {
+            try {
+                Files.deleteIfExists(task.join().file);
+            } catch (IOException e) {
+                // left for the OS to clean out of the temp directory
+            }
+        }
     }
 
-    private void addReceiptDetail(PdfPTable table, String label, String value, Font labelFont, Font valueFont, boolean isShaded) {
-        BaseColor rowColor = isShaded ? new BaseColor(245, 245, 245) : BaseColor.WHITE;
+    private static final class RenderedSegment {
 
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, labelFont));
-        labelCell.setBorder(Rectangle.BOX);
-        labelCell.setPadding(5);
-        labelCell.setBackgroundColor(rowColor);
+        private final Path file;
 
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, valueFont));
-        valueCell.setBorder(Rectangle.BOX);
-        valueCell.setPadding(5);
-        valueCell.setBackgroundColor(rowColor);
+        private final long rows;
 
-        table.addCell(labelCell);
-        table.addCell(valueCell);
+        private RenderedSegment(Path file, long rows) {
+            this.file = file;
+            this.rows = rows;
+        }
     }
 }
@@ -0,0 +1,225 @@
+package com.insurance.util;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfPageEventHelper;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * Writes a titled table report to a stream one row at a time. Column widths come from the
+ * header and the first {@link #SAMPLE_ROWS} rows; after that the table is incomplete and is
+ * handed to the document every {@link #CHUNK_ROWS} rows, which renders the finished pages
+ * and drops those rows, so memory does not grow with the row count. The header row repeats
+ * on every page and each page is numbered in its footer. A writer can also be given its column
+ * widths up front, which is how the segments of a parallel render line up with each other.
+ * iText errors are thrown as {@link ExceptionConverter} so rows can be added from lambdas.
+ */
+public class PdfTableWriter implements TableWriter {
+
+    static final int SAMPLE_ROWS = 500;
+
+    static final int CHUNK_ROWS = 200;
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.BLACK);
+
+    private static final Font HEADER_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.WHITE);
+
+    private static final Font DATA_FONT = new Font(Font.FontFamily.HELVETICA, 11, Font.NORMAL, BaseColor.BLACK);
+
+    private static final Font FOOTER_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.GRAY);
+
+    private static final BaseColor HEADER_COLOR = new BaseColor(0, 121, 182);
+
+    private final Document document;
+
+    private PdfWriter writer;
+
+    private final List<String> headers;
+
+    private final List<String[]> sample = new ArrayList<>();
+
+    private float[] widths;
+
+    private PdfPTable table;
+
+    private int pendingRows;
+
+    private long rowCount;
+
+    PdfTableWriter(OutputStream out, String title, List<String> headers) {
+        this(out, title, headers, null, true);
+    }
+
+    /**
+     * A table with fixed column widths, or sampled ones when {@code widths} is null. Without a
+     * title the table starts at the top of the first page; without page numbers the footer is left
+     * for whoever assembles the pages.
+     */
+    PdfTableWriter(OutputStream out, String title, List<String> headers, float[] widths, boolean pageNumbers) {
+        this.headers = headers;
+        this.widths = widths;
+        this.document = new Document(PageSize.A4, 36, 36, 36, 36);
+        try {
+            writer = PdfWriter.getInstance(document, out);
+            // the caller owns the stream, e.g. the servlet response
+            writer.setCloseStream(false);
+            if (pageNumbers) {
+                writer.setPageEvent(new PdfPageEventHelper() {
+                    @Override
+                    public void onEndPage(PdfWriter pageWriter, Document pageDocument) {
+                        writePageNumber(pageWriter.getDirectContent(), pageDocument.getPageSize(),
+                                pageWriter.getPageNumber());
+                    }
+                });
+            }
+            document.open();
+            if (title != null) {
+                Paragraph titleParagraph = new Paragraph(title, TITLE_FONT);
+                titleParagraph.setAlignment(Element.ALIGN_CENTER);
+                titleParagraph.setSpacingAfter(20);
+                document.add(titleParagraph);
+            }
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        }
+        if (widths != null) {
+            startTable();
+        }
+    }
+
+    /** Adds one row; null cells are left empty. */
+    @Override
+    public void addRow(Object... values) {
+        String[] cells = cells(values);
+        if (table == null) {
+            sample.add(cells);
+            if (sample.size() == SAMPLE_ROWS) {
+                startTable();
+            }
+            return;
+        }
+        appendRow(cells);
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount + sample.size();
+    }
+
+    @Override
+    public void close() {
+        if (table == null) {
+            startTable();
+        }
+        table.setComplete(true);
+        try {
+            document.add(table);
+            // a header-only table lays out nothing; keep the one page a PDF needs
+            writer.setPageEmpty(false);
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        } finally {
+            document.close();
+        }
+    }
+
+    private void startTable() {
+        table = new PdfPTable(headers.size());
+        table.setWidthPercentage(100);
+        table.setHeaderRows(1);
+        table.setComplete(false);
+        if (widths == null) {
+            widths = columnWidths(headers, sample);
+        }
+        try {
+            table.setWidths(widths);
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        }
+        for (String columnTitle : headers) {
+            PdfPCell header = new PdfPCell();
+            header.setBackgroundColor(HEADER_COLOR);
+            header.setPadding(10);
+            header.setPhrase(new Phrase(columnTitle, HEADER_FONT));
+            header.setHorizontalAlignment(Element.ALIGN_CENTER);
+            table.addCell(header);
+        }
+        for (String[] cells : sample) {
+            appendRow(cells);
+        }
+        sample.clear();
+    }
+
+    private void appendRow(String[] cells) {
+        for (int i = 0; i < headers.size(); i++) {
+            String value = i < cells.length && cells[i] != null ? cells[i] : "";
+            PdfPCell dataCell = new PdfPCell(new Phrase(value, DATA_FONT));
+            dataCell.setPadding(8);
+            dataCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            dataCell.setVerticalAlignment(Element.ALIGN_MIDDLE);
+            table.addCell(dataCell);
+        }
+        rowCount++;
+        if (++pendingRows == CHUNK_ROWS) {
+            pendingRows = 0;
+            try {
+                document.add(table);
+            } catch (DocumentException e) {
+                throw new ExceptionConverter(e);
+            }
+        }
+    }
+
+    static void writePageNumber(PdfContentByte canvas, Rectangle pageSize, int pageNumber) {
+        ColumnText.showTextAligned(canvas, Element.ALIGN_CENTER, new Phrase("Page " + pageNumber, FOOTER_FONT),
+                (pageSize.getLeft() + pageSize.getRight()) / 2, pageSize.getBottom() + 18, 0);
+    }
+
+    // same proportions PdfGenerator uses, over a sampled prefix instead of every row
+    static float[] columnWidths(List<String> headers, List<String[]> sample) {
+        int[] maxLengths = new int[headers.size()];
+        for (int i = 0; i < headers.size(); i++) {
+            maxLengths[i] = headers.get(i).length();
+        }
+        for (String[] cells : sample) {
+            for (int i = 0; i < Math.min(cells.length, maxLengths.length); i++) {
+                if (cells[i] != null) {
+                    maxLengths[i] = Math.max(maxLengths[i], cells[i].length());
+                }
+            }
+        }
+        int totalLength = 0;
+        for (int length : maxLengths) {
+            totalLength += length;
+        }
+        float[] widths = new float[headers.size()];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = (float) maxLengths[i] / totalLength * 100;
+        }
+        return widths;
+    }
+
+    static String[] cells(Object[] values) {
+        String[] cells = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            cells[i] = values[i] == null ? null : String.valueOf(values[i]);
+        }
+        return cells;
+    }
+}
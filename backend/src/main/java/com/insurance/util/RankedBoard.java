@@ -0,0 +1,96 @@
+package com.insurance.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Scores per member on several metrics, with one ordered index per metric so the top K of any
+ * metric is read in O(K) and an update costs O(log n) per metric. Scores may go down as well as
+ * up, which is why every member stays indexed instead of only the current top K.
+ */
+public class RankedBoard {
+
+    public static final class Standing {
+
+        private final String id;
+
+        private String name;
+
+        private final double[] values;
+
+        private Standing(String id, String name, double[] values) {
+            this.id = id;
+            this.name = name;
+            this.values = values;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public double getValue(int metric) {
+            return values[metric];
+        }
+    }
+
+    private final int metrics;
+
+    private final Map<String, Standing> standings = new HashMap<>();
+
+    private final List<TreeSet<Standing>> rankings = new ArrayList<>();
+
+    public RankedBoard(int metrics) {
+        this.metrics = metrics;
+        for (int metric = 0; metric < metrics; metric++) {
+            int index = metric;
+            rankings.add(new TreeSet<>(Comparator.comparingDouble((Standing standing) -> standing.values[index])
+                    .reversed()
+                    .thenComparing(standing -> standing.id)));
+        }
+    }
+
+    public synchronized void add(String id, String name, double[] deltas) {
+        Standing standing = standings.get(id);
+        if (standing == null) {
+            standing = new Standing(id, name, new double[metrics]);
+            standings.put(id, standing);
+        } else {
+            // re-indexed after the change, the comparators read the live values
+            for (TreeSet<Standing> ranking : rankings) {
+                ranking.remove(standing);
+            }
+            if (name != null) {
+                standing.name = name;
+            }
+        }
+        for (int metric = 0; metric < metrics; metric++) {
+            standing.values[metric] += deltas[metric];
+        }
+        for (TreeSet<Standing> ranking : rankings) {
+            ranking.add(standing);
+        }
+    }
+
+    public synchronized List<Standing> top(int metric, int limit) {
+        List<Standing> top = new ArrayList<>(Math.min(limit, standings.size()));
+        Iterator<Standing> iterator = rankings.get(metric).iterator();
+        while (iterator.hasNext() && top.size() < limit) {
+            Standing standing = iterator.next();
+            top.add(new Standing(standing.id, standing.name, standing.values.clone()));
+        }
+        return top;
+    }
+
+    public synchronized int size() {
+        return standings.size();
+    }
+}
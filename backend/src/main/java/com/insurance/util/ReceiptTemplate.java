@@ -0,0 +1,189 @@
+package com.insurance.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.insurance.response.ReceiptData;
+import com.itextpdf.text.BaseColor;
+import com.itextpdf.text.Document;
+import com.itextpdf.text.DocumentException;
+import com.itextpdf.text.Element;
+import com.itextpdf.text.ExceptionConverter;
+import com.itextpdf.text.Font;
+import com.itextpdf.text.PageSize;
+import com.itextpdf.text.Paragraph;
+import com.itextpdf.text.Phrase;
+import com.itextpdf.text.Rectangle;
+import com.itextpdf.text.pdf.ColumnText;
+import com.itextpdf.text.pdf.PdfContentByte;
+import com.itextpdf.text.pdf.PdfPCell;
+import com.itextpdf.text.pdf.PdfPTable;
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.PdfStamper;
+import com.itextpdf.text.pdf.PdfWriter;
+
+/**
+ * The payment receipt layout, rendered once at startup with every label, colour and border in
+ * place and the value cells left empty. The position of each value cell is recorded while the
+ * layout is drawn; a receipt is that page with the values written into those boxes, shrinking the
+ * font when a value would not fit.
+ */
+@Component
+public class ReceiptTemplate {
+
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 18, Font.BOLD, BaseColor.BLACK);
+
+    private static final Font LABEL_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.BLACK);
+
+    private static final Font SUCCESS_FONT = new Font(Font.FontFamily.HELVETICA, 12, Font.BOLD, BaseColor.GREEN);
+
+    private static final float VALUE_SIZE = 10;
+
+    private static final Font VALUE_FONT = new Font(Font.FontFamily.HELVETICA, VALUE_SIZE, Font.NORMAL, BaseColor.BLACK);
+
+    private static final BaseColor TITLE_COLOR = new BaseColor(230, 230, 250);
+
+    private static final BaseColor SHADED_COLOR = new BaseColor(245, 245, 245);
+
+    private static final BaseColor SUCCESS_COLOR = new BaseColor(230, 255, 230);
+
+    private static final float PADDING = 5;
+
+    private enum Field {
+        TRANSACTION_ID("Transaction ID:", 22),
+        CUSTOMER_ID("Customer ID:", 22),
+        CUSTOMER_NAME("Customer Name:", 22),
+        AMOUNT("Amount:", 22),
+        DATE("Date:", 22),
+        DESCRIPTION("Description:", 36);
+
+        private final String label;
+
+        private final float height;
+
+        Field(String label, float height) {
+            this.label = label;
+            this.height = height;
+        }
+    }
+
+    private final byte[] template;
+
+    // where each value goes, inside the cell padding
+    private final Map<Field, Rectangle> boxes = new LinkedHashMap<>();
+
+    public ReceiptTemplate() {
+        this.template = layout();
+    }
+
+    public void render(ReceiptData receipt, OutputStream out) throws IOException {
+        Map<Field, String> values = new LinkedHashMap<>();
+        values.put(Field.TRANSACTION_ID, receipt.getTransactionId());
+        values.put(Field.CUSTOMER_ID, receipt.getCustomerId());
+        values.put(Field.CUSTOMER_NAME, receipt.getCustomerName());
+        values.put(Field.AMOUNT, String.format("Rs. %.2f", receipt.getAmount()));
+        values.put(Field.DATE, receipt.getDate());
+        values.put(Field.DESCRIPTION, receipt.getDescription());
+
+        PdfReader reader = new PdfReader(template);
+        try {
+            PdfStamper stamper = new PdfStamper(reader, out);
+            stamper.getWriter().setCloseStream(false);
+            PdfContentByte canvas = stamper.getOverContent(1);
+            for (Map.Entry<Field, String> value : values.entrySet()) {
+                fill(canvas, boxes.get(value.getKey()), value.getValue() == null ? "" : value.getValue());
+            }
+            stamper.close();
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static void fill(PdfContentByte canvas, Rectangle box, String value) throws DocumentException {
+        float size = Math.min(VALUE_SIZE, ColumnText.fitText(VALUE_FONT, value, box, VALUE_SIZE,
+                PdfWriter.RUN_DIRECTION_DEFAULT));
+        Font font = size == VALUE_SIZE ? VALUE_FONT
+                : new Font(Font.FontFamily.HELVETICA, size, Font.NORMAL, BaseColor.BLACK);
+        ColumnText column = new ColumnText(canvas);
+        column.setSimpleColumn(box);
+        column.setLeading(0, 1.2f);
+        column.addText(new Phrase(value, font));
+        column.go();
+    }
+
+    // same layout the receipts always had, with the value cells left empty
+    private byte[] layout() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 36, 36, 36, 36);
+        try {
+            PdfWriter.getInstance(document, out);
+            document.open();
+
+            PdfPTable titleTable = new PdfPTable(1);
+            titleTable.setWidthPercentage(100);
+            PdfPCell titleCell = new PdfPCell(new Phrase("Payment Receipt", TITLE_FONT));
+            titleCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            titleCell.setPadding(10);
+            titleCell.setBorder(Rectangle.NO_BORDER);
+            titleCell.setBackgroundColor(TITLE_COLOR);
+            titleTable.addCell(titleCell);
+            document.add(titleTable);
+
+            document.add(new Paragraph("\n"));
+
+            PdfPTable detailTable = new PdfPTable(2);
+            detailTable.setWidthPercentage(100);
+            detailTable.setSpacingBefore(10f);
+            detailTable.setSpacingAfter(10f);
+            detailTable.setWidths(new float[] { 1, 2 });
+            boolean shaded = true;
+            for (Field field : Field.values()) {
+                BaseColor rowColor = shaded ? SHADED_COLOR : BaseColor.WHITE;
+                shaded = !shaded;
+
+                PdfPCell labelCell = new PdfPCell(new Phrase(field.label, LABEL_FONT));
+                labelCell.setBorder(Rectangle.BOX);
+                labelCell.setPadding(PADDING);
+                labelCell.setBackgroundColor(rowColor);
+                labelCell.setFixedHeight(field.height);
+
+                PdfPCell valueCell = new PdfPCell();
+                valueCell.setBorder(Rectangle.BOX);
+                valueCell.setPadding(PADDING);
+                valueCell.setBackgroundColor(rowColor);
+                valueCell.setFixedHeight(field.height);
+                valueCell.setCellEvent((cell, position, canvases) -> boxes.put(field, new Rectangle(
+                        position.getLeft() + PADDING, position.getBottom() + PADDING,
+                        position.getRight() - PADDING, position.getTop() - PADDING)));
+
+                detailTable.addCell(labelCell);
+                detailTable.addCell(valueCell);
+            }
+            document.add(detailTable);
+
+            document.add(new Paragraph("\n"));
+
+            PdfPCell successCell = new PdfPCell(new Phrase("Transaction Successful", SUCCESS_FONT));
+            successCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+            successCell.setPadding(10);
+            successCell.setBorder(Rectangle.BOX);
+            successCell.setBackgroundColor(SUCCESS_COLOR);
+            PdfPTable successTable = new PdfPTable(1);
+            successTable.setWidthPercentage(100);
+            successTable.addCell(successCell);
+            document.add(successTable);
+
+            document.close();
+        } catch (DocumentException e) {
+            throw new ExceptionConverter(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,281 @@
+package com.insurance.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.insurance.response.CacheStatsResponse;
+
+/**
+ * Rendered report files on disk, one per report name, tagged with the data version they were
+ * rendered from. A lookup with a newer version renders again and replaces the old file; concurrent
+ * lookups for the same name and version share one render. The total size is capped and the least
+ * recently used files go first. Evicted files are deleted after a grace period so a download
+ * that has just been handed the file can still finish.
+ */
+@Component
+public class ReportArtifactCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportArtifactCache.class);
+
+    /** Writes the artifact; the stream is closed by the cache. */
+    public interface Renderer {
+        void render(OutputStream out) throws IOException;
+    }
+
+    public static final class Artifact {
+
+        private final Path file;
+
+        private final String version;
+
+        private final long size;
+
+        private final String etag;
+
+        private Artifact(Path file, String version, long size, String etag) {
+            this.file = file;
+            this.version = version;
+            this.size = size;
+            this.etag = etag;
+        }
+
+        public Path getFile() {
+            return file;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /** Strong validator: a digest of the file content, quoted. */
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private final Path directory;
+
+    private final long maxBytes;
+
+    private final long deleteGraceMillis;
+
+    // access-ordered, so iteration starts at the least recently used entry; guarded by this
+    private final LinkedHashMap<String, Artifact> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, CompletableFuture<Artifact>> rendering = new ConcurrentHashMap<>();
+
+    // guarded by this
+    private final Deque<PendingDelete> pendingDeletes = new ArrayDeque<>();
+
+    // guarded by this
+    private long totalBytes;
+
+    private long hits;
+
+    private long misses;
+
+    private long evictions;
+
+    public ReportArtifactCache(@Value("${file.report-dir}") String reportDir,
+                               @Value("${app.report.cache.max-bytes:1073741824}") long maxBytes,
+                               @Value("${app.report.cache.delete-grace-ms:60000}") long deleteGraceMillis) {
+        this.directory = Paths.get(System.getProperty("user.dir"), reportDir, "cache");
+        this.maxBytes = maxBytes;
+        this.deleteGraceMillis = deleteGraceMillis;
+        clearDirectory();
+    }
+
+    /** The cached artifact when it was rendered from {@code version}, without rendering. */
+    public synchronized Artifact getIfCurrent(String name, String version) {
+        Artifact artifact = entries.get(name);
+        return artifact != null && artifact.version.equals(version) ? artifact : null;
+    }
+
+    public Artifact get(String name, String version, Renderer renderer) {
+        Artifact cached = lookup(name, version);
+        if (cached != null) {
+            return cached;
+        }
+        String key = name + "@" + version;
+        CompletableFuture<Artifact> mine = new CompletableFuture<>();
+        CompletableFuture<Artifact> running = rendering.putIfAbsent(key, mine);
+        if (running != null) {
+            synchronized (this) {
+                hits++;
+            }
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            // another render of this version may have finished between the lookup and putIfAbsent
+            Artifact artifact = lookup(name, version);
+            if (artifact == null) {
+                synchronized (this) {
+                    misses++;
+                }
+                artifact = write(version, renderer);
+                store(name, artifact);
+            }
+            mine.complete(artifact);
+            return artifact;
+        } catch (IOException e) {
+            mine.completeExceptionally(new UncheckedIOException(e));
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            rendering.remove(key, mine);
+        }
+    }
+
+    public synchronized CacheStatsResponse getStats() {
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setName("reportArtifacts");
+        response.setSize(entries.size());
+        response.setHitCount(hits);
+        response.setMissCount(misses);
+        response.setHitRate(hits + misses == 0 ? 1.0 : (double) hits / (hits + misses));
+        response.setEvictionCount(evictions);
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${app.report.cache.sweep-ms:30000}")
+    public void deleteEvicted() {
+        long cutoff = System.currentTimeMillis() - deleteGraceMillis;
+        while (true) {
+            Path file;
+            synchronized (this) {
+                PendingDelete pending = pendingDeletes.peekFirst();
+                if (pending == null || pending.retiredAt > cutoff) {
+                    return;
+                }
+                pendingDeletes.removeFirst();
+                file = pending.file;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Could not delete evicted report {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private synchronized Artifact lookup(String name, String version) {
+        Artifact artifact = entries.get(name);
+        if (artifact != null && artifact.version.equals(version)) {
+            hits++;
+            return artifact;
+        }
+        return null;
+    }
+
+    private Artifact write(String version, Renderer renderer) throws IOException {
+        Files.createDirectories(directory);
+        String id = UUID.randomUUID().toString();
+        Path partial = directory.resolve(id + ".part");
+        Path file = directory.resolve(id);
+        MessageDigest digest = md5();
+        try {
+            try (OutputStream out = new BufferedOutputStream(new DigestOutputStream(Files.newOutputStream(partial), digest))) {
+                renderer.render(out);
+            }
+            Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        return new Artifact(file, version, Files.size(file), "\"" + HexFormat.of().formatHex(digest.digest()) + "\"");
+    }
+
+    private synchronized void store(String name, Artifact artifact) {
+        Artifact replaced = entries.put(name, artifact);
+        totalBytes += artifact.size;
+        if (replaced != null) {
+            retire(replaced);
+        }
+        Iterator<Artifact> oldestFirst = entries.values().iterator();
+        while (totalBytes > maxBytes && oldestFirst.hasNext()) {
+            Artifact candidate = oldestFirst.next();
+            if (candidate == artifact) {
+                continue;
+            }
+            oldestFirst.remove();
+            evictions++;
+            retire(candidate);
+        }
+    }
+
+    // guarded by this
+    private void retire(Artifact artifact) {
+        totalBytes -= artifact.size;
+        pendingDeletes.addLast(new PendingDelete(artifact.file, System.currentTimeMillis()));
+    }
+
+    // files from an earlier run carry versions that can never match again
+    private void clearDirectory() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            logger.warn("Could not clear report cache directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class PendingDelete {
+
+        private final Path file;
+
+        private final long retiredAt;
+
+        private PendingDelete(Path file, long retiredAt) {
+            this.file = file;
+            this.retiredAt = retiredAt;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.insurance.util;
+
+/**
+ * Published after an admin changes a business setting (insurance settings, plan terms) so
+ * anything derived from those settings can be recomputed.
+ */
+public class SettingsChangedEvent {
+
+    private final String setting;
+
+    public SettingsChangedEvent(String setting) {
+        this.setting = setting;
+    }
+
+    public String getSetting() {
+        return setting;
+    }
+}
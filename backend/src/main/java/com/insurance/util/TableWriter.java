@@ -0,0 +1,17 @@
+package com.insurance.util;
+
+/**
+ * A report table written to a stream one row at a time. Values are the raw column values of a
+ * report row (strings, numbers, booleans, dates, enums or null); each format renders them its
+ * own way.
+ */
+public interface TableWriter extends AutoCloseable {
+
+    void addRow(Object... values);
+
+    long getRowCount();
+
+    /** Finishes the document; the underlying stream stays open. */
+    @Override
+    void close();
+}
@@ -3,9 +3,16 @@ package com.insurance.util;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.insurance.entities.Admin;
 import com.insurance.entities.Agent;
@@ -13,6 +20,7 @@ import com.insurance.entities.City;
 import com.insurance.entities.Customer;
 import com.insurance.entities.Document;
 import com.insurance.entities.Employee;
+import com.insurance.entities.IdSequence;
 import com.insurance.entities.InsurancePlan;
 import com.insurance.entities.InsuranceScheme;
 import com.insurance.entities.InsuranceType;
@@ -20,62 +28,97 @@ import com.insurance.entities.Policy;
 import com.insurance.entities.State;
 import com.insurance.entities.Transaction;
 import com.insurance.entities.User;
-import com.insurance.repository.AdminRepository;
-import com.insurance.repository.AgentRepository;
-import com.insurance.repository.CityRepository;
-import com.insurance.repository.CustomerRepository;
-import com.insurance.repository.DocumentRepository;
-import com.insurance.repository.EmployeeRepository;
-import com.insurance.repository.InsurancePlanRepository;
-import com.insurance.repository.InsuranceSchemeRepository;
-import com.insurance.repository.InsuranceTypeRepository;
-import com.insurance.repository.PolicyRepository;
-import com.insurance.repository.StateRepository;
-import com.insurance.repository.TransactionRepository;
-import com.insurance.repository.UserRepository;
+import com.insurance.repository.IdSequenceRepository;
 
+import jakarta.persistence.EntityManager;
+
+/**
+ * Hands out prefixed ids (USER10001, POL10002, ...) from blocks of numbers leased
+ * out of the id_sequences table. The lease takes a row lock in its own transaction,
+ * so several nodes can allocate concurrently without ever producing the same id;
+ * within a node the block is consumed through an atomic counter.
+ */
 @Component
 public class UniqueIdGenerator {
 
-    private final Map<Class<?>, JpaRepository<?, String>> repositories = new ConcurrentHashMap<>();
-
-    public UniqueIdGenerator(UserRepository userRepository, 
-                             CustomerRepository customerRepository, 
-                             AdminRepository adminRepository,
-                             EmployeeRepository employeeRepository,
-                             AgentRepository agentRepository,
-                             CityRepository cityRepository,
-                             StateRepository stateRepository,
-                             InsurancePlanRepository insurancePlanRepository,
-                             InsuranceTypeRepository insuranceTypeRepository,
-                             InsuranceSchemeRepository insuranceSchemeRepository,
-                             DocumentRepository documentRepository,
-                             PolicyRepository policyRepository,
-                             TransactionRepository transactionRepository) {
-
-        repositories.put(User.class, userRepository);
-        repositories.put(Customer.class, customerRepository);
-        repositories.put(Admin.class, adminRepository);
-        repositories.put(Employee.class, employeeRepository);
-        repositories.put(Agent.class, agentRepository);
-        repositories.put(City.class, cityRepository);
-        repositories.put(State.class, stateRepository);
-        repositories.put(InsurancePlan.class, insurancePlanRepository);
-        repositories.put(InsuranceType.class, insuranceTypeRepository);
-        repositories.put(InsuranceScheme.class, insuranceSchemeRepository);
-        repositories.put(Document.class, documentRepository);
-        repositories.put(Policy.class, policyRepository);
-        repositories.put(Transaction.class, transactionRepository);
+    private static final Logger logger = LoggerFactory.getLogger(UniqueIdGenerator.class);
+
+    private final Map<String, BlockHolder> blocks = new ConcurrentHashMap<>();
+
+    private final IdSequenceRepository idSequenceRepository;
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int blockSize;
+
+    public UniqueIdGenerator(IdSequenceRepository idSequenceRepository,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.id-sequence.block-size:50}") int blockSize) {
+        this.idSequenceRepository = idSequenceRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = blockSize;
     }
 
     public <T> String generateUniqueId(Class<T> entityClass) {
-        JpaRepository<?, String> repository = repositories.get(entityClass);
-        if (repository == null) {
-            throw new IllegalArgumentException("No repository found for entity class: " + entityClass.getName());
-        }
         String prefix = getPrefix(entityClass);
-        String lastId = findLastId(repository, prefix);
-        return generateNextId(prefix, lastId);
+        BlockHolder holder = blocks.computeIfAbsent(prefix, key -> new BlockHolder());
+        while (true) {
+            Block block = holder.current;
+            long value = block.cursor.getAndIncrement();
+            if (value < block.end) {
+                return formatId(prefix, value);
+            }
+            synchronized (holder) {
+                if (holder.current == block) {
+                    holder.current = leaseBlock(entityClass, prefix);
+                }
+            }
+        }
+    }
+
+    private Block leaseBlock(Class<?> entityClass, String prefix) {
+        try {
+            return transactionTemplate.execute(status -> reserve(entityClass, prefix));
+        } catch (DataIntegrityViolationException e) {
+            // another node seeded the sequence row first; its row is now there to lock
+            logger.info("Sequence for prefix {} was created concurrently, retrying lease", prefix);
+            return transactionTemplate.execute(status -> reserve(entityClass, prefix));
+        }
+    }
+
+    private Block reserve(Class<?> entityClass, String prefix) {
+        IdSequence sequence = idSequenceRepository.findForUpdate(prefix)
+                .orElseGet(() -> seedSequence(entityClass, prefix));
+        long start = sequence.getNextValue();
+        sequence.setNextValue(start + blockSize);
+        idSequenceRepository.save(sequence);
+        logger.info("Leased ids {} to {} for prefix {}", start, start + blockSize - 1, prefix);
+        return new Block(start, start + blockSize);
+    }
+
+    private IdSequence seedSequence(Class<?> entityClass, String prefix) {
+        String idField = getIdField(entityClass);
+        String jpql = "SELECT e." + idField + " FROM " + entityClass.getSimpleName() + " e "
+                + "WHERE e." + idField + " LIKE :prefix "
+                + "ORDER BY LENGTH(e." + idField + ") DESC, e." + idField + " DESC";
+        List<String> lastIds = entityManager.createQuery(jpql, String.class)
+                .setParameter("prefix", prefix + "%")
+                .setMaxResults(1)
+                .getResultList();
+
+        IdSequence sequence = new IdSequence();
+        sequence.setPrefix(prefix);
+        if (lastIds.isEmpty()) {
+            sequence.setNextValue(getInitialValue(prefix));
+        } else {
+            sequence.setNextValue(Long.parseLong(lastIds.get(0).substring(prefix.length())) + 1);
+        }
+        return idSequenceRepository.saveAndFlush(sequence);
     }
 
     private String getPrefix(Class<?> entityClass) {
@@ -110,78 +153,62 @@ public class UniqueIdGenerator {
         }
     }
 
-    private String findLastId(JpaRepository<?, String> repository, String prefix) {
-        List<?> entities = repository.findAll();
-
-        if (entities.isEmpty()) {
-            return null; 
-        }
-
-        return entities.stream()
-                .map(entity -> {
-                    try {
-                        String methodName = getMethodName(entity.getClass());
-                        String customId = (String) entity.getClass().getMethod(methodName).invoke(entity);
-                        return customId;
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to get custom ID for entity: " + entity.getClass().getName(), e);
-                    }
-                })
-                .filter(id -> id.startsWith(prefix))
-                .max(String::compareTo)
-                .orElse(null);
-    }
-
-    private String getMethodName(Class<?> entityClass) {
+    private String getIdField(Class<?> entityClass) {
         if (entityClass.equals(User.class)) {
-            return "getUserId";
+            return "userId";
         } else if (entityClass.equals(Customer.class)) {
-            return "getCustomerId";
+            return "customerId";
         } else if (entityClass.equals(Admin.class)) {
-            return "getAdminId";
+            return "adminId";
         } else if (entityClass.equals(Employee.class)) {
-            return "getEmployeeId";
+            return "employeeId";
         } else if (entityClass.equals(Agent.class)) {
-            return "getAgentId";
+            return "agentId";
         } else if (entityClass.equals(City.class)) {
-            return "getCityId";
+            return "cityId";
         } else if (entityClass.equals(State.class)) {
-            return "getStateId";
+            return "stateId";
         } else if (entityClass.equals(InsurancePlan.class)) {
-            return "getInsuranceId";
+            return "insuranceId";
         } else if (entityClass.equals(InsuranceType.class)) {
-            return "getInsuranceTypeId";
+            return "insuranceTypeId";
         } else if (entityClass.equals(InsuranceScheme.class)) {
-            return "getInsuranceSchemeId";
+            return "insuranceSchemeId";
         } else if (entityClass.equals(Document.class)) {
-            return "getDocumentId";
+            return "documentId";
         } else if (entityClass.equals(Policy.class)) {
-            return "getPolicyId";
+            return "policyId";
         } else if (entityClass.equals(Transaction.class)) {
-            return "getTransactionId";
+            return "transactionId";
         } else {
             throw new IllegalArgumentException("Unknown entity class: " + entityClass.getName());
         }
     }
 
-    private String generateNextId(String prefix, String lastId) {
-        int initialValue;
-        int numericPartLength;
+    private boolean isShortPrefix(String prefix) {
+        return prefix.equals("ADMIN") || prefix.equals("STATE") || prefix.equals("TYPE");
+    }
+
+    private long getInitialValue(String prefix) {
+        return isShortPrefix(prefix) ? 1 : 10001;
+    }
 
-        if (prefix.equals("ADMIN") || prefix.equals("STATE") || prefix.equals("TYPE")) {
-            initialValue = 1;
-            numericPartLength = 3;
-        } else {
-            initialValue = 10001;
-            numericPartLength = 5;
-        }
+    private String formatId(String prefix, long value) {
+        int numericPartLength = isShortPrefix(prefix) ? 3 : 5;
+        return String.format(prefix + "%0" + numericPartLength + "d", value);
+    }
+
+    private static final class Block {
+        private final AtomicLong cursor;
+        private final long end;
 
-        if (lastId == null || lastId.isEmpty()) {
-            return String.format(prefix + "%0" + numericPartLength + "d", initialValue);
+        private Block(long start, long end) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
         }
+    }
 
-        int numericPart = Integer.parseInt(lastId.substring(prefix.length()));
-        return String.format(prefix + "%0" + numericPartLength + "d", numericPart + 1);
+    private static final class BlockHolder {
+        private volatile Block current = new Block(0, 0);
     }
 }
-
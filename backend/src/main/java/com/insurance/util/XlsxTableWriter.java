@@ -0,0 +1,131 @@
+package com.insurance.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * Excel workbook built with POI's streaming API: only the last {@link #WINDOW_ROWS} rows are held
+ * in memory, older ones are flushed to a compressed temp file that is removed on close. The
+ * workbook is written to the stream when it is closed. Tables longer than one sheet continue on
+ * the next sheet under the same header.
+ */
+public class XlsxTableWriter implements TableWriter {
+
+    static final int WINDOW_ROWS = 100;
+
+    private static final int ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows() - 1;
+
+    private final OutputStream out;
+
+    private final String title;
+
+    private final List<String> headers;
+
+    private final SXSSFWorkbook workbook = new SXSSFWorkbook(WINDOW_ROWS);
+
+    private final CellStyle headerStyle;
+
+    private final CellStyle dateStyle;
+
+    private final CellStyle dateTimeStyle;
+
+    private SXSSFSheet sheet;
+
+    private int sheetRow;
+
+    private long rowCount;
+
+    public XlsxTableWriter(OutputStream out, String title, List<String> headers) {
+        this.out = out;
+        this.title = title;
+        this.headers = headers;
+        workbook.setCompressTempFiles(true);
+        Font bold = workbook.createFont();
+        bold.setBold(true);
+        headerStyle = workbook.createCellStyle();
+        headerStyle.setFont(bold);
+        short dateFormat = workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd");
+        dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(dateFormat);
+        short dateTimeFormat = workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss");
+        dateTimeStyle = workbook.createCellStyle();
+        dateTimeStyle.setDataFormat(dateTimeFormat);
+        startSheet();
+    }
+
+    @Override
+    public void addRow(Object... values) {
+        if (sheetRow > ROWS_PER_SHEET) {
+            startSheet();
+        }
+        Row row = sheet.createRow(sheetRow++);
+        for (int i = 0; i < values.length; i++) {
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            if (value instanceof Number number) {
+                cell.setCellValue(number.doubleValue());
+            } else if (value instanceof Boolean bool) {
+                cell.setCellValue(bool);
+            } else if (value instanceof LocalDate date) {
+                cell.setCellValue(date);
+                cell.setCellStyle(dateStyle);
+            } else if (value instanceof LocalDateTime dateTime) {
+                cell.setCellValue(dateTime);
+                cell.setCellStyle(dateTimeStyle);
+            } else {
+                cell.setCellValue(String.valueOf(value));
+            }
+        }
+        rowCount++;
+    }
+
+    @Override
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public void close() {
+        try {
+            workbook.write(out);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            workbook.dispose();
+            try {
+                workbook.close();
+            } catch (IOException e) {
+                // temp files are already gone; nothing left to release
+            }
+        }
+    }
+
+    private void startSheet() {
+        int number = workbook.getNumberOfSheets() + 1;
+        sheet = workbook.createSheet(number == 1 ? title : title + " " + number);
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < headers.size(); i++) {
+            Cell cell = header.createCell(i);
+            cell.setCellValue(headers.get(i));
+            cell.setCellStyle(headerStyle);
+        }
+        sheet.createFreezePane(0, 1);
+        sheetRow = 1;
+    }
+}
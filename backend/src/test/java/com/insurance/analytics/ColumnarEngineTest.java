@@ -0,0 +1,142 @@
+package com.insurance.analytics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+
+class ColumnarEngineTest {
+
+    @Test
+    void groupedAggregatesMatchHandComputedTotals() {
+        try (ColumnarEngine engine = new ColumnarEngine(2)) {
+            engine.upsertPolicies(List.of(
+                    policy("P1", "A1", 10, LocalDate.of(2024, 1, 15), 100, 40),
+                    policy("P2", "A1", 20, LocalDate.of(2024, 2, 1), 200, 60),
+                    policy("P3", "A2", 10, LocalDate.of(2024, 2, 20), 50, 5)));
+
+            AnalyticsQueryResponse byAgent = engine.query(request("policies", List.of("agent"), List.of(),
+                    aggregate("count", null), aggregate("sum", "investmentAmount"), aggregate("avg", "amountPaid")));
+            assertEquals(List.of("agent", "count", "sum(investmentAmount)", "avg(amountPaid)"), byAgent.getColumns());
+            assertEquals(List.of(row("agent", "A1", "count", 2L, "sum(investmentAmount)", 300.0, "avg(amountPaid)", 50.0),
+                    row("agent", "A2", "count", 1L, "sum(investmentAmount)", 50.0, "avg(amountPaid)", 5.0)),
+                    byAgent.getRows());
+
+            // re-reading a policy overwrites its row instead of adding one
+            engine.upsertPolicies(List.<Object[]>of(policy("P3", "A2", 10, LocalDate.of(2024, 2, 20), 80, 5)));
+            assertEquals(3, engine.policyCount());
+            AnalyticsQueryResponse total = engine.query(request("policies", List.of(), List.of(),
+                    aggregate("sum", "investmentAmount")));
+            assertEquals(List.of(row("sum(investmentAmount)", 380.0)), total.getRows());
+
+            List<Object[]> orphans = engine.appendTransactions(List.of(
+                    transaction("T1", "P1", 10, LocalDateTime.of(2024, 1, 20, 9, 0), "PAID"),
+                    transaction("T2", "P2", 20, LocalDateTime.of(2024, 2, 3, 9, 0), "PAID"),
+                    transaction("T3", "P3", 5, LocalDateTime.of(2024, 2, 21, 9, 0), "PENDING"),
+                    transaction("T4", "P1", 10, LocalDateTime.of(2024, 2, 20, 9, 0), "PAID"),
+                    transaction("T5", "P9", 99, LocalDateTime.of(2024, 2, 20, 9, 0), "PAID")));
+            assertEquals(1, orphans.size());
+            assertEquals("T5", orphans.get(0)[0]);
+
+            AnalyticsQueryResponse paidByMonth = engine.query(request("transactions", List.of("date.month"),
+                    List.of(filter("transactionStatus", "eq", "PAID")), aggregate("sum", "amount")));
+            assertEquals(List.of(row("date.month", "2024-02", "sum(amount)", 30.0),
+                    row("date.month", "2024-01", "sum(amount)", 10.0)), paidByMonth.getRows());
+            assertEquals(4, paidByMonth.getScannedRows());
+            assertEquals(3, paidByMonth.getMatchedRows());
+
+            AnalyticsQueryResponse byCity = engine.query(request("transactions", List.of("city"), List.of(),
+                    aggregate("sum", "amount")));
+            assertEquals(List.of(row("city", "10", "sum(amount)", 25.0), row("city", "20", "sum(amount)", 20.0)),
+                    byCity.getRows());
+        }
+    }
+
+    @Test
+    void chunkedScanAgreesWithASinglePass() {
+        int policies = 20_000;
+        List<Object[]> rows = new ArrayList<>(policies);
+        Map<String, Double> expectedByCity = new HashMap<>();
+        for (int i = 0; i < policies; i++) {
+            int city = i % 7;
+            double investment = i % 100;
+            rows.add(policy(String.format("P%05d", i), "A" + (i % 13), city, LocalDate.of(2024, 1, 1).plusDays(i % 365),
+                    investment, 0));
+            expectedByCity.merge(Integer.toString(city), investment, Double::sum);
+        }
+        try (ColumnarEngine engine = new ColumnarEngine(4)) {
+            engine.upsertPolicies(rows);
+
+            AnalyticsQueryResponse byCity = engine.query(request("policies", List.of("city"), List.of(),
+                    aggregate("sum", "investmentAmount")));
+            assertEquals(7, byCity.getRows().size());
+            for (Map<String, Object> row : byCity.getRows()) {
+                assertEquals(expectedByCity.get(row.get("city")), row.get("sum(investmentAmount)"), "city " + row.get("city"));
+            }
+
+            // one group per policy is past the dense limit, so the partials merge through the map
+            AnalyticsQueryResponse byPolicy = engine.query(request("policies", List.of("policy"), List.of(),
+                    aggregate("count", null)));
+            assertEquals(policies, byPolicy.getMatchedRows());
+            assertEquals(1_000, byPolicy.getRows().size());
+            for (Map<String, Object> row : byPolicy.getRows()) {
+                assertEquals(1L, row.get("count"));
+            }
+
+            AnalyticsQueryResponse upperHalf = engine.query(request("policies", List.of(),
+                    List.of(filter("investmentAmount", "gte", "50")), aggregate("count", null)));
+            assertEquals(List.of(row("count", (long) policies / 2)), upperHalf.getRows());
+        }
+    }
+
+    private static Object[] policy(String id, String agent, int city, LocalDate start, double investment, double paid) {
+        return new Object[] { id, agent, "CU-" + id, 1, 1, 1, city, 1, "ACTIVE", "MONTHLY", start,
+                investment, investment / 10, paid };
+    }
+
+    private static Object[] transaction(String id, String policyId, double amount, LocalDateTime date, String status) {
+        return new Object[] { id, policyId, amount, date, status };
+    }
+
+    private static AnalyticsQueryRequest request(String table, List<String> groupBy, List<AnalyticsQueryRequest.Filter> filters,
+                                                 AnalyticsQueryRequest.Aggregate... aggregates) {
+        AnalyticsQueryRequest request = new AnalyticsQueryRequest();
+        request.setTable(table);
+        request.setGroupBy(groupBy);
+        request.setFilters(filters);
+        request.setAggregates(List.of(aggregates));
+        return request;
+    }
+
+    private static AnalyticsQueryRequest.Filter filter(String column, String op, String... values) {
+        AnalyticsQueryRequest.Filter filter = new AnalyticsQueryRequest.Filter();
+        filter.setColumn(column);
+        filter.setOp(op);
+        filter.setValues(List.of(values));
+        return filter;
+    }
+
+    private static AnalyticsQueryRequest.Aggregate aggregate(String fn, String column) {
+        AnalyticsQueryRequest.Aggregate aggregate = new AnalyticsQueryRequest.Aggregate();
+        aggregate.setFn(fn);
+        aggregate.setColumn(column);
+        return aggregate;
+    }
+
+    private static Map<String, Object> row(Object... keysAndValues) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            row.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return row;
+    }
+}
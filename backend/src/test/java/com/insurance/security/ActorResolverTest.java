@@ -0,0 +1,145 @@
+package com.insurance.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.insurance.entities.Agent;
+import com.insurance.entities.Customer;
+import com.insurance.entities.Role;
+import com.insurance.entities.User;
+import com.insurance.interfaces.IAgentLedgerService;
+import com.insurance.repository.AdminRepository;
+import com.insurance.repository.AgentRepository;
+import com.insurance.repository.CustomerRepository;
+import com.insurance.repository.EmployeeRepository;
+import com.insurance.repository.UserRepository;
+import com.insurance.response.AgentSummaryResponse;
+import com.insurance.service.DashboardService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+@ExtendWith(MockitoExtension.class)
+class ActorResolverTest {
+
+    @Mock
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CustomerRepository customerRepository;
+
+    @Mock
+    private AgentRepository agentRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private AdminRepository adminRepository;
+
+    @InjectMocks
+    private ActorResolver actorResolver;
+
+    private MockHttpServletRequest requestWithToken(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private Claims claims(String subject, String role, String userId, String actorId) {
+        Claims claims = Jwts.claims().setSubject(subject);
+        claims.put(JwtTokenProvider.ROLE_CLAIM, role);
+        claims.put(JwtTokenProvider.USER_ID_CLAIM, userId);
+        claims.put(JwtTokenProvider.ACTOR_ID_CLAIM, actorId);
+        return claims;
+    }
+
+    @Test
+    void resolvesOncePerRequestAndLoadsEntityWithSingleQuery() {
+        User user = new User();
+        user.setUserId("USER10001");
+        Customer customer = new Customer();
+        customer.setCustomerId("CUST10001");
+        customer.setUser(user);
+        when(jwtTokenProvider.getClaims("t1")).thenReturn(claims("alice", "ROLE_CUSTOMER", "USER10001", "CUST10001"));
+        when(customerRepository.findById("CUST10001")).thenReturn(Optional.of(customer));
+
+        MockHttpServletRequest request = requestWithToken("t1");
+        Actor actor = actorResolver.resolve(request);
+        assertSame(actor, actorResolver.resolve(request));
+
+        assertSame(customer, actor.getCustomer());
+        assertSame(user, actor.getUser());
+        assertSame(customer, actor.getCustomer());
+        assertEquals("ROLE_CUSTOMER", actor.getRole());
+        assertNull(actor.getAgent());
+
+        verify(jwtTokenProvider, times(1)).getClaims("t1");
+        verify(customerRepository, times(1)).findById("CUST10001");
+        verifyNoInteractions(userRepository, agentRepository, employeeRepository, adminRepository);
+    }
+
+    @Test
+    void tokensWithoutActorClaimsFallBackToUsernameLookupOnce() {
+        User user = new User();
+        user.setUserId("USER10002");
+        Role role = new Role();
+        role.setName("ROLE_AGENT");
+        user.setRole(role);
+        Agent agent = new Agent();
+        agent.setAgentId("AGENT10001");
+        when(jwtTokenProvider.getClaims("t2")).thenReturn(Jwts.claims().setSubject("bob"));
+        when(userRepository.findByUsernameOrEmail("bob", "bob")).thenReturn(Optional.of(user));
+        when(agentRepository.findByUser(user)).thenReturn(agent);
+
+        Actor actor = actorResolver.resolve(requestWithToken("t2"));
+        assertSame(agent, actor.getAgent());
+        assertSame(agent, actor.getAgent());
+        assertSame(user, actor.getUser());
+
+        verify(userRepository, times(1)).findByUsernameOrEmail("bob", "bob");
+        verify(agentRepository, times(1)).findByUser(user);
+        verify(agentRepository, times(0)).findById(any());
+    }
+
+    @Test
+    void dashboardCallIssuesNoLookupForTheCaller() {
+        when(jwtTokenProvider.getClaims("t3")).thenReturn(claims("carol", "ROLE_AGENT", "USER10003", "AGENT10002"));
+
+        IAgentLedgerService agentLedgerService = mock(IAgentLedgerService.class);
+        when(agentLedgerService.getSummary("AGENT10002")).thenReturn(new AgentSummaryResponse());
+        DashboardService dashboardService = new DashboardService();
+        ReflectionTestUtils.setField(dashboardService, "agentLedgerService", agentLedgerService);
+        ReflectionTestUtils.setField(dashboardService, "agentRepository", agentRepository);
+
+        Actor actor = actorResolver.resolve(requestWithToken("t3"));
+        assertEquals(0L, dashboardService.getSoldPolicies(actor));
+        assertEquals(0.0, dashboardService.getMyCommissions(actor));
+
+        // the agent id comes from the token, so neither the user nor the agent row is loaded
+        verify(agentLedgerService, times(2)).getSummary("AGENT10002");
+        verify(agentRepository, times(0)).findById(any());
+        verify(agentRepository, times(0)).findByUser(any());
+        verifyNoInteractions(userRepository);
+    }
+}
@@ -0,0 +1,89 @@
+package com.insurance.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.insurance.exceptions.ServiceUnavailableException;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void saturatedPoolRejectsInsteadOfQueueing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BlockingEncoder(started, release), 4, 1, 1, 30_000);
+        try {
+            // one hash running, one queued; the next caller must be turned away instead of waiting
+            CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (encoder.getQueuedCount() < 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(1, encoder.getQueuedCount());
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> assertThrows(ServiceUnavailableException.class, () -> encoder.encode("third")));
+
+            release.countDown();
+            assertEquals("hash:first", first.get(5, TimeUnit.SECONDS));
+            assertEquals("hash:second", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            encoder.destroy();
+        }
+    }
+
+    @Test
+    void rehashIsRequestedWhenCostChanges() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(5, 1, 4, 5_000);
+        try {
+            assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret")));
+            assertFalse(encoder.upgradeEncoding(encoder.encode("secret")));
+        } finally {
+            encoder.destroy();
+        }
+    }
+
+    /** Holds every call until the test releases it. */
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+
+        private final CountDownLatch release;
+
+        private BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
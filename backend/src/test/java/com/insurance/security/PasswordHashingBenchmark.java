@@ -0,0 +1,123 @@
+package com.insurance.security;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.insurance.exceptions.ServiceUnavailableException;
+
+/**
+ * Login flood benchmark. Run with {@code mvn test -Dtest=PasswordHashingBenchmark -Dbenchmark=true};
+ * it prints the latency of cheap requests served by the same worker pool while login clients hammer BCrypt.
+ */
+class PasswordHashingBenchmark {
+
+    // mirrors Tomcat's default worker count; the login clients leave a few workers for other traffic
+    private static final int REQUEST_THREADS = 200;
+    private static final int LOGIN_CLIENTS = 180;
+    private static final int PROBES = 200;
+
+    private static volatile long sink;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void loginFloodBenchmark() throws Exception {
+        String hash = new BCryptPasswordEncoder(10).encode("password");
+
+        Result direct = run("request-thread bcrypt", new BCryptPasswordEncoder(10), hash);
+        BoundedPasswordEncoder bounded = new BoundedPasswordEncoder(10, 0, 64, 5_000);
+        Result pooled;
+        try {
+            pooled = run("bounded bcrypt pool", bounded, hash);
+        } finally {
+            bounded.destroy();
+        }
+
+        System.out.println(direct);
+        System.out.println(pooled);
+    }
+
+    private Result run(String name, PasswordEncoder encoder, String hash) throws Exception {
+        ExecutorService requestPool = Executors.newFixedThreadPool(REQUEST_THREADS);
+        AtomicBoolean flooding = new AtomicBoolean(true);
+        AtomicInteger ok = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Long> probeLatencies = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<Void>> clients = new ArrayList<>();
+            for (int i = 0; i < LOGIN_CLIENTS; i++) {
+                clients.add(CompletableFuture.runAsync(() -> {
+                    while (flooding.get()) {
+                        try {
+                            encoder.matches("password", hash);
+                            ok.incrementAndGet();
+                        } catch (ServiceUnavailableException e) {
+                            rejected.incrementAndGet();
+                            sleepQuietly(50);
+                        }
+                    }
+                }, requestPool));
+            }
+            Thread.sleep(500);
+            for (int i = 0; i < PROBES; i++) {
+                long submitted = System.nanoTime();
+                CompletableFuture.runAsync(() -> {
+                    cheapRequest();
+                    probeLatencies.add(System.nanoTime() - submitted);
+                }, requestPool).get(5, TimeUnit.MINUTES);
+                Thread.sleep(10);
+            }
+            flooding.set(false);
+            CompletableFuture.allOf(clients.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.MINUTES);
+        } finally {
+            requestPool.shutdownNow();
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        List<Long> sorted = new ArrayList<>(probeLatencies);
+        Collections.sort(sorted);
+        return new Result(name, ok.get(), rejected.get(), elapsedMillis,
+                percentile(sorted, 0.50), percentile(sorted, 0.99));
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void cheapRequest() {
+        long acc = 0;
+        for (int i = 0; i < 20_000; i++) {
+            acc += i * 31L;
+        }
+        // published so the loop cannot be optimised away
+        sink = acc;
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+    }
+
+    private record Result(String name, int logins, int rejected, long elapsedMillis, double probeP50, double probeP99) {
+        @Override
+        public String toString() {
+            return String.format("%-22s logins ok=%d rejected=%d in %d ms; other requests p50=%.2f ms p99=%.2f ms",
+                    name, logins, rejected, elapsedMillis, probeP50, probeP99);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.insurance.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.insurance.repository.ClaimRepository;
+import com.insurance.repository.PolicyRepository;
+import com.insurance.repository.TransactionRepository;
+import com.insurance.repository.WithdrawalRequestRepository;
+import com.insurance.request.AnalyticsQueryRequest;
+import com.insurance.response.AnalyticsQueryResponse;
+
+@ExtendWith(MockitoExtension.class)
+class AnalyticsServiceTest {
+
+    @Mock
+    private PolicyRepository policyRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private ClaimRepository claimRepository;
+
+    @Mock
+    private WithdrawalRequestRepository withdrawalRequestRepository;
+
+    @Test
+    void transactionsInTheOverlapAreCountedOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        Object[] policy = { "P1", "A1", "CU1", 1, 1, 1, 10, 1, "ACTIVE", "MONTHLY", LocalDate.of(2024, 1, 1),
+                1000.0, 100.0, 300.0 };
+        Object[] old = transaction("T1", 100.0, now.minusDays(3));
+        Object[] recent = transaction("T2", 20.0, now.minusMinutes(1));
+        Object[] late = transaction("T3", 30.0, now);
+
+        when(policyRepository.findAnalyticsRowsAfter(anyString(), any())).thenReturn(List.<Object[]>of(policy));
+        when(transactionRepository.findAnalyticsRowsAfter(anyString(), any())).thenReturn(List.of(old, recent));
+        when(policyRepository.findAnalyticsRowsByIds(any())).thenReturn(List.<Object[]>of(policy));
+        // each delta reaches back over the overlap and returns the recent rows again
+        when(transactionRepository.findAnalyticsRowsSince(any())).thenReturn(List.of(recent, late));
+
+        AnalyticsService service = new AnalyticsService(policyRepository, transactionRepository, claimRepository,
+                withdrawalRequestRepository, 1, 100, 5);
+        try {
+            service.refresh();
+            service.refresh();
+            service.refresh();
+
+            AnalyticsQueryResponse response = service.query(totals());
+            assertEquals(1, response.getRows().size());
+            assertEquals(3L, response.getRows().get(0).get("count"));
+            assertEquals(150.0, response.getRows().get(0).get("sum(amount)"));
+            assertEquals(1, service.getStatus().getPolicyRows());
+            assertEquals(3, service.getStatus().getTransactionRows());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private static Object[] transaction(String id, double amount, LocalDateTime date) {
+        return new Object[] { id, "P1", amount, date, "PAID" };
+    }
+
+    private static AnalyticsQueryRequest totals() {
+        AnalyticsQueryRequest.Aggregate count = new AnalyticsQueryRequest.Aggregate();
+        count.setFn("count");
+        AnalyticsQueryRequest.Aggregate sum = new AnalyticsQueryRequest.Aggregate();
+        sum.setFn("sum");
+        sum.setColumn("amount");
+        AnalyticsQueryRequest request = new AnalyticsQueryRequest();
+        request.setTable("transactions");
+        request.setAggregates(List.of(count, sum));
+        return request;
+    }
+}
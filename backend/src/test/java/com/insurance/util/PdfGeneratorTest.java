@@ -0,0 +1,50 @@
+package com.insurance.util;
+
+import static com.insurance.util.TransactionReportRows.HEADERS;
+import static com.insurance.util.TransactionReportRows.id;
+import static com.insurance.util.TransactionReportRows.rows;
+import static com.insurance.util.TransactionReportRows.segment;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.itextpdf.text.pdf.PdfReader;
+import com.itextpdf.text.pdf.parser.PdfTextExtractor;
+
+class PdfGeneratorTest {
+
+    @Test
+    void segmentsAreMergedInOrderWithContinuousPageNumbers() throws Exception {
+        PdfGenerator generator = new PdfGenerator(3);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            long rows = generator.renderParallel(out, "Transaction Report", HEADERS, rows(0, 50),
+                    List.of(segment(0, 120), segment(120, 240), segment(240, 360), segment(360, 360)));
+            assertEquals(360, rows);
+        } finally {
+            generator.destroy();
+        }
+
+        PdfReader reader = new PdfReader(out.toByteArray());
+        StringBuilder text = new StringBuilder();
+        for (int page = 1; page <= reader.getNumberOfPages(); page++) {
+            String pageText = PdfTextExtractor.getTextFromPage(reader, page);
+            assertTrue(pageText.contains("Page " + page), "page " + page + " is numbered");
+            assertTrue(pageText.contains("Transaction ID"), "page " + page + " repeats the header");
+            text.append(pageText).append('\n');
+        }
+        reader.close();
+        String all = text.toString();
+        assertEquals(all.indexOf("Transaction Report"), all.lastIndexOf("Transaction Report"));
+        int previous = -1;
+        for (int row = 0; row < 360; row += 7) {
+            int position = all.indexOf(id(row) + " ");
+            assertTrue(position > previous, "row " + row + " follows the rows before it");
+            previous = position;
+        }
+    }
+}
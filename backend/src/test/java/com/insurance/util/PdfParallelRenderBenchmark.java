@@ -0,0 +1,58 @@
+package com.insurance.util;
+
+import static com.insurance.util.TransactionReportRows.HEADERS;
+import static com.insurance.util.TransactionReportRows.rows;
+import static com.insurance.util.TransactionReportRows.segment;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Parallel report rendering. Run with {@code mvn test -Dtest=PdfParallelRenderBenchmark -Dbenchmark=true};
+ * it prints the time to render the same report sequentially and with 1, 2, 4, ... threads up to the core count.
+ */
+class PdfParallelRenderBenchmark {
+
+    private static final int BENCHMARK_ROWS = 200_000;
+
+    private static final int BENCHMARK_SEGMENTS = 32;
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void parallelRenderBenchmark() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Object[]> sample = rows(0, PdfGenerator.WIDTH_SAMPLE_ROWS);
+
+        long start = System.nanoTime();
+        try (TableWriter table = new PdfTableWriter(OutputStream.nullOutputStream(), "Transaction Report", HEADERS)) {
+            for (Object[] row : rows(0, BENCHMARK_ROWS)) {
+                table.addRow(row);
+            }
+        }
+        long sequentialMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        System.out.printf("%-12s %6d ms%n", "sequential", sequentialMillis);
+
+        List<PdfGenerator.Segment> segments = new ArrayList<>();
+        int segmentRows = BENCHMARK_ROWS / BENCHMARK_SEGMENTS;
+        for (int i = 0; i < BENCHMARK_SEGMENTS; i++) {
+            segments.add(segment(i * segmentRows, (i + 1) * segmentRows));
+        }
+        for (int threads = 1; threads <= cores; threads = threads * 2 > cores && threads < cores ? cores : threads * 2) {
+            PdfGenerator generator = new PdfGenerator(threads);
+            try {
+                start = System.nanoTime();
+                generator.renderParallel(OutputStream.nullOutputStream(), "Transaction Report", HEADERS, sample, segments);
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                System.out.printf("%-12s %6d ms  speed-up %.2fx%n", threads + " threads", millis,
+                        (double) sequentialMillis / millis);
+            } finally {
+                generator.destroy();
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.insurance.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Generated transaction report rows shared by the PDF render tests and benchmark. */
+final class TransactionReportRows {
+
+    static final List<String> HEADERS =
+            List.of("Transaction ID", "Policy ID", "Transaction Type", "Amount", "Date", "Status");
+
+    private TransactionReportRows() {
+    }
+
+    static PdfGenerator.Segment segment(int from, int to) {
+        return table -> {
+            for (Object[] row : rows(from, to)) {
+                table.addRow(row);
+            }
+        };
+    }
+
+    static List<Object[]> rows(int from, int to) {
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            rows.add(new Object[] { id(i), "POL" + (i % 997), null, 1000.0 + i % 50_000,
+                    LocalDate.of(2024, 1, 1).plusDays(i % 365), i % 10 == 0 ? "FAILED" : "SUCCESS" });
+        }
+        return rows;
+    }
+
+    static String id(int row) {
+        return String.format("TXN%08d", row);
+    }
+}
@@ -70,7 +70,7 @@ const PasswordResetFlow = () => {
       return;
     }
     try {
-      await PasswordService.verifyOtp(otp.join(''));
+      await PasswordService.verifyOtp(email, otp.join(''));
       successToast('OTP verified successfully!');
       setStep('reset');
     } catch (error) {
@@ -15,79 +15,57 @@ const handleErrors = (error) => {
   throw new ValidationError(error?.response?.data?.message);
 };
 
-export const verifyAdmin = async (headers = {}) => {
-    if(!localStorage.getItem('token')){
-        throw new UnAuthorizedError("User is not logged in");
-    }
-    const token = localStorage.getItem('token');
-    try {
-        const response = await axios.get(`http://localhost:8081/SecureLife.com/verify/admin`, {
-            headers: {
-                Authorization: `Bearer ${token}`,
-                ...headers
-            }
-        });
-        return response.data;
-    } catch (error) {
-      handleErrors(error);
-    }
+// one /session call serves the role checks, profile and username of a page; the browser
+// revalidates it with the ETag, so an unchanged session costs a 304
+let sessionCache = { token: null, promise: null };
+
+export const clearSession = () => {
+    sessionCache = { token: null, promise: null };
 };
 
-export const verifyCustomer = async (headers = {}) => {
+export const getSession = async () => {
     if (!localStorage.getItem('token')) {
         throw new UnAuthorizedError("User is not logged in");
     }
     const token = localStorage.getItem('token');
-    try {
-        const response = await axios.get(`http://localhost:8081/SecureLife.com/verify/customer`, {
-            headers: {
-                Authorization: `Bearer ${token}`,
-                ...headers
+    if (sessionCache.token !== token || !sessionCache.promise) {
+        const promise = axios.get(`http://localhost:8081/SecureLife.com/session`, {
+            headers: { Authorization: `Bearer ${token}` }
+        }).then(response => response.data);
+        sessionCache = { token, promise };
+        promise.catch(() => {
+            if (sessionCache.promise === promise) {
+                clearSession();
             }
         });
-        return response.data;
+    }
+    try {
+        return await sessionCache.promise;
     } catch (error) {
       handleErrors(error);
     }
 };
 
+export const verifyAdmin = async () => {
+    const session = await getSession();
+    return session.role.toUpperCase() === 'ROLE_ADMIN';
+};
 
-export const verifyAgent = async (headers = {}) => {
-    if (!localStorage.getItem('token')) {
-        throw new UnAuthorizedError("User is not logged in");
-    }
-    const token = localStorage.getItem('token');
-    try {
-        const response = await axios.get(`http://localhost:8081/SecureLife.com/verify/agent`, {
-            headers: {
-                Authorization: `Bearer ${token}`,
-                ...headers
-            }
-        });
-        return response.data;
-    } catch (error) {
-      handleErrors(error);
+export const verifyCustomer = async () => {
+    const session = await getSession();
+    return session.role.toUpperCase() === 'ROLE_CUSTOMER';
+};
 
-    }
+
+export const verifyAgent = async () => {
+    const session = await getSession();
+    return session.role.toUpperCase() === 'ROLE_AGENT';
 };
 
 
-export const verifyEmployee = async (headers = {}) => {
-    if (!localStorage.getItem('token')) {
-        throw new UnAuthorizedError("User is not logged in");
-    }
-    const token = localStorage.getItem('token');
-    try {
-        const response = await axios.get(`http://localhost:8081/SecureLife.com/verify/employee`, {
-            headers: {
-                Authorization: `Bearer ${token}`,
-                ...headers
-            }
-        });
-        return response.data;
-    } catch (error) {
-      handleErrors(error);
-    }
+export const verifyEmployee = async () => {
+    const session = await getSession();
+    return session.role.toUpperCase() === 'ROLE_EMPLOYEE';
 };
 
 
@@ -117,18 +95,8 @@ export const loginService = async (usernameOrEmail, password) => {
   };
 
   export const getProfile = async () => {
-    if (!localStorage.getItem('token')) {
-        throw new UnAuthorizedError("User is not logged in");
-    }
-    const token = localStorage.getItem('token');
-    try {
-      const response = await axios.get('http://localhost:8081/SecureLife.com/profile/view', {
-        headers: { Authorization: `Bearer ${token}` }
-      });
-      return response.data;
-    } catch (error) {
-      handleErrors(error);
-    }
+    const session = await getSession();
+    return session.profile;
   };
   export const updateProfile = async (data) => {
     if (!localStorage.getItem('token')) {
@@ -139,6 +107,7 @@ export const loginService = async (usernameOrEmail, password) => {
       const response = await axios.put('http://localhost:8081/SecureLife.com/profile/update', data,{
         headers: { Authorization: `Bearer ${token}` }
       });
+      clearSession();
       return response.data;
     } catch (error) {
       handleErrors(error);
@@ -148,18 +117,8 @@ export const loginService = async (usernameOrEmail, password) => {
 
 
   export const getUsername = async () =>{
-    if (!localStorage.getItem('token')) {
-        throw new UnAuthorizedError("User is not logged in");
-    }
-    const token = localStorage.getItem('token');
-    try{
-        const response = await axios.get('http://localhost:8081/SecureLife.com/getUsername', {
-            headers: {Authorization:`Bearer ${token}`}
-        });
-        return response.data;
-    } catch(error){
-      handleErrors(error);
-    }
+    const session = await getSession();
+    return session.profile.username;
   };
 
 
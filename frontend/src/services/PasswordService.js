@@ -14,9 +14,9 @@ const PasswordService = {
     }
   },
 
-  verifyOtp: async (otp) => {
+  verifyOtp: async (usernameOrEmail, otp) => {
     try {
-      const response = await axios.post(`${API_BASE_URL}/otp/verify`, { otp });
+      const response = await axios.post(`${API_BASE_URL}/otp/verify`, { usernameOrEmail, otp });
       return response.data;
     } catch (error) {
       throw new Error(error.response?.data?.message || 'Error verifying OTP');